@@ -0,0 +1,124 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.lazerycode.jmeter.configuration.ArtifactHelpers.artifactsAreMatchingTypes;
+import static com.lazerycode.jmeter.configuration.ArtifactHelpers.isArtifactIsOlderThanArtifact;
+
+/**
+ * Time the configure goal spends deciding which artifacts to copy to the JMeter directory (keeping the newest version
+ * of every artifact, and skipping ignored artifacts), for a growing number of dependencies that each show up in a few
+ * versions, as they do in the dependency graph of JMeter and its plugins.
+ * <p>
+ * "linearScan" is the previous implementation, which went through every copied artifact (and compared file names with
+ * every ignored artifact, which it also resolved every time) for each artifact to copy, "indexed" uses
+ * {@link CopiedArtifacts} and a set of ignored file names. Run with -Djmh.args="CopiedArtifactsBenchmark" to see how
+ * both scale with the number of dependencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopiedArtifactsBenchmark {
+
+    private static final int VERSIONS_PER_DEPENDENCY = 3;
+    private static final int IGNORED_ARTIFACTS = 20;
+
+    @Param({"100", "500", "2000"})
+    public int dependencies;
+
+    private List<Artifact> artifactsToCopy;
+    private List<Artifact> ignoredArtifacts;
+
+    @Setup
+    public void createArtifacts() {
+        artifactsToCopy = new ArrayList<>();
+        for (int dependency = 0; dependency < dependencies; dependency++) {
+            for (int version = 0; version < VERSIONS_PER_DEPENDENCY; version++) {
+                artifactsToCopy.add(artifact("org.example.group" + dependency % 50, "dependency-" + dependency, "1." + version + ".0"));
+            }
+        }
+        Collections.shuffle(artifactsToCopy, new Random(42));
+        ignoredArtifacts = new ArrayList<>();
+        for (int ignored = 0; ignored < IGNORED_ARTIFACTS; ignored++) {
+            ignoredArtifacts.add(artifact("org.example.ignored", "ignored-" + ignored, "1.0.0"));
+        }
+    }
+
+    private static Artifact artifact(String groupId, String artifactId, String version) {
+        return new DefaultArtifact(groupId, artifactId, "jar", version)
+                .setFile(new File(artifactId + "-" + version + ".jar"));
+    }
+
+    @Benchmark
+    public int linearScan() throws InvalidVersionSpecificationException {
+        Set<Artifact> copiedArtifacts = new HashSet<>();
+        nextArtifact:
+        for (Artifact artifactToCopy : artifactsToCopy) {
+            for (Artifact artifactToIgnore : ignoredArtifacts) {
+                if (artifactToCopy.getFile().getName().equals(artifactToIgnore.getFile().getName())) {
+                    continue nextArtifact;
+                }
+            }
+            for (Iterator<Artifact> iterator = copiedArtifacts.iterator(); iterator.hasNext(); ) {
+                Artifact alreadyCopiedArtifact = iterator.next();
+                if (artifactsAreMatchingTypes(alreadyCopiedArtifact, artifactToCopy)) {
+                    if (isArtifactIsOlderThanArtifact(alreadyCopiedArtifact, artifactToCopy)) {
+                        iterator.remove();
+                        break;
+                    } else {
+                        continue nextArtifact;
+                    }
+                }
+            }
+            copiedArtifacts.add(artifactToCopy);
+        }
+
+        return copiedArtifacts.size();
+    }
+
+    @Benchmark
+    public int indexed() throws InvalidVersionSpecificationException {
+        Set<String> ignoredArtifactFileNames = new HashSet<>();
+        for (Artifact artifactToIgnore : ignoredArtifacts) {
+            ignoredArtifactFileNames.add(artifactToIgnore.getFile().getName());
+        }
+        CopiedArtifacts copiedArtifacts = new CopiedArtifacts();
+        for (Artifact artifactToCopy : artifactsToCopy) {
+            if (ignoredArtifactFileNames.contains(artifactToCopy.getFile().getName())) {
+                continue;
+            }
+            Artifact alreadyCopiedArtifact = copiedArtifacts.getCopiedVersionOf(artifactToCopy);
+            if (null == alreadyCopiedArtifact || isArtifactIsOlderThanArtifact(alreadyCopiedArtifact, artifactToCopy)) {
+                copiedArtifacts.add(artifactToCopy);
+            }
+        }
+
+        return copiedArtifacts.size();
+    }
+}
@@ -0,0 +1,138 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes synthetic result files in the format used by JMeter (CSV with a header line, or XML), samples are generated
+ * from a fixed seed so that every benchmark run scans the same files.
+ */
+final class ResultFileGenerator {
+
+    static final List<String> FAILURE_MESSAGES = Arrays.asList(
+            "Test failed: code expected to match /200/",
+            "The operation lasted too long: It took 5,321 milliseconds, but should not have lasted longer than 5,000 milliseconds.",
+            "Non HTTP response code: java.net.SocketTimeoutException/Non HTTP response message: Read timed out",
+            "Assertion failed: \"status\" was \"ERROR\", expected \"OK\""
+    );
+    private static final String CSV_HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect";
+    private static final long FIRST_TIMESTAMP = 1548568307205L;
+    private static final int THREADS = 50;
+    private static final long SEED = 42;
+
+    private ResultFileGenerator() {
+    }
+
+    /**
+     * @param file              The file to write
+     * @param rows              Number of samples
+     * @param labels            Number of distinct sampler labels
+     * @param failurePercentage Percentage of failed samples
+     * @return The file
+     * @throws IOException When an error occurs while writing the file
+     */
+    static File writeCsv(File file, int rows, int labels, int failurePercentage) throws IOException {
+        Random random = new Random(SEED);
+        try (Writer writer = newWriter(file)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (int row = 0; row < rows; row++) {
+                boolean success = random.nextInt(100) >= failurePercentage;
+                int thread = random.nextInt(THREADS) + 1;
+                writer.write(String.valueOf(FIRST_TIMESTAMP + row * 10L));
+                writer.write(',');
+                writer.write(String.valueOf(random.nextInt(2000)));
+                writer.write(",Request ");
+                writer.write(String.valueOf(random.nextInt(labels)));
+                writer.write(success ? ",200,OK," : ",500,Internal Server Error,");
+                writer.write("Thread Group 1-");
+                writer.write(String.valueOf(thread));
+                writer.write(",text,");
+                writer.write(success ? "true," : "false,");
+                if (!success) {
+                    writeCsvField(writer, FAILURE_MESSAGES.get(random.nextInt(FAILURE_MESSAGES.size())));
+                }
+                writer.write(',');
+                writer.write(String.valueOf(random.nextInt(100_000)));
+                writer.write(',');
+                writer.write(String.valueOf(random.nextInt(2000)));
+                writer.write(",50,50,https://example.com/api/resource,");
+                writer.write(String.valueOf(random.nextInt(1000)));
+                writer.write(",0,");
+                writer.write(String.valueOf(random.nextInt(100)));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * @param file              The file to write
+     * @param rows              Number of samples
+     * @param labels            Number of distinct sampler labels
+     * @param failurePercentage Percentage of failed samples
+     * @return The file
+     * @throws IOException When an error occurs while writing the file
+     */
+    static File writeXml(File file, int rows, int labels, int failurePercentage) throws IOException {
+        Random random = new Random(SEED);
+        try (Writer writer = newWriter(file)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testResults version=\"1.2\">\n");
+            for (int row = 0; row < rows; row++) {
+                boolean success = random.nextInt(100) >= failurePercentage;
+                writer.write("<httpSample t=\"");
+                writer.write(String.valueOf(random.nextInt(2000)));
+                writer.write("\" it=\"0\" lt=\"");
+                writer.write(String.valueOf(random.nextInt(1000)));
+                writer.write("\" ct=\"");
+                writer.write(String.valueOf(random.nextInt(100)));
+                writer.write("\" ts=\"");
+                writer.write(String.valueOf(FIRST_TIMESTAMP + row * 10L));
+                writer.write(success ? "\" s=\"true\"" : "\" s=\"false\"");
+                writer.write(" lb=\"Request ");
+                writer.write(String.valueOf(random.nextInt(labels)));
+                writer.write(success ? "\" rc=\"200\" rm=\"OK\"" : "\" rc=\"500\" rm=\"Internal Server Error\"");
+                writer.write(" tn=\"Thread Group 1-");
+                writer.write(String.valueOf(random.nextInt(THREADS) + 1));
+                writer.write("\" dt=\"text\" by=\"");
+                writer.write(String.valueOf(random.nextInt(100_000)));
+                writer.write("\" sby=\"");
+                writer.write(String.valueOf(random.nextInt(2000)));
+                writer.write("\" ng=\"50\" na=\"50\"");
+                if (success) {
+                    writer.write("/>\n");
+                } else {
+                    writer.write(">\n  <assertionResult>\n    <name>Response Assertion</name>\n    <failure>true</failure>\n    <error>false</error>\n    <failureMessage>");
+                    writer.write(escapeXml(FAILURE_MESSAGES.get(random.nextInt(FAILURE_MESSAGES.size()))));
+                    writer.write("</failureMessage>\n  </assertionResult>\n</httpSample>\n");
+                }
+            }
+            writer.write("</testResults>\n");
+        }
+        return file;
+    }
+
+    private static Writer newWriter(File file) throws IOException {
+        return Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String escapeXml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,168 @@
+package com.lazerycode.jmeter.results;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput of every way result files can be scanned, on synthetic files of configurable size, label cardinality and
+ * failure ratio (see {@link ResultFileGenerator}).
+ * <p>
+ * Besides operations per second, every benchmark reports the "bytes" counter: bytes of (uncompressed) result file
+ * scanned per second, divide by 1,000,000 for MB/s. Compressed files, sidecars and summaries are credited with the size
+ * of the result file they stand for, so that all the CSV benchmarks can be compared. The gc profiler (enabled by default
+ * in the benchmark profile) reports the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultScannerBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"10", "1000"})
+    public int labels;
+
+    @Param({"1", "20"})
+    public int failurePercentage;
+
+    private File directory;
+    private File csvFile;
+    private File gzipFile;
+    private File zstdFile;
+    private File xmlFile;
+    private long csvLength;
+    private long xmlLength;
+    private FailureMessageMatcher matcher;
+    private final Pattern failedSamplePattern = Pattern.compile("s=\"false\"");
+
+    /**
+     * Counts the bytes of result file scanned, reported as a rate by JMH.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ScannedBytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generateResultFiles() throws IOException {
+        directory = Files.createTempDirectory("result-scanner-benchmark").toFile();
+        csvFile = ResultFileGenerator.writeCsv(new File(directory, "results.csv"), rows, labels, failurePercentage);
+        csvLength = csvFile.length();
+        gzipFile = ResultFileCompression.GZIP.compress(copy(csvFile, "results-gzip.csv"));
+        zstdFile = ResultFileCompression.ZSTD.compress(copy(csvFile, "results-zstd.csv"));
+        xmlFile = ResultFileGenerator.writeXml(new File(directory, "results.jtl"), rows, labels, failurePercentage);
+        xmlLength = xmlFile.length();
+        matcher = FailureMessageMatcher.compile(ResultFileGenerator.FAILURE_MESSAGES.subList(0, 2), FailureMessageMatchMode.CONTAINS);
+        new ResultScannerCSV(true, true, false, Collections.emptyList()).writeResultsSidecar(csvFile);
+        ResultFileSummary.write(csvFile, csvLength, csvFile.lastModified(), matcher, ResultScannerCSV.scanFile(csvFile, matcher, true));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteResultFiles() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private File copy(File file, String name) throws IOException {
+        File copy = new File(directory, name);
+        Files.copy(file.toPath(), copy.toPath());
+        return copy;
+    }
+
+    @Benchmark
+    public CSVScanResult csv(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultScannerCSV.scanCsvForValues(csvFile, matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult csvWithStatistics(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultScannerCSV.scanCsvForValues(csvFile, matcher, true);
+    }
+
+    @Benchmark
+    public List<CSVScanResult> csvParallel(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return new ParallelCSVScanner(Runtime.getRuntime().availableProcessors()).scan(Collections.singletonList(csvFile), matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult csvGzip(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultScannerCSV.scanCsvForValues(gzipFile, matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult csvZstd(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultScannerCSV.scanCsvForValues(zstdFile, matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult csvSidecar(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultsSidecar.scan(csvFile, matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult csvSidecarWithStatistics(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultsSidecar.scan(csvFile, matcher, true);
+    }
+
+    @Benchmark
+    public CSVScanResult csvSummaryWithStatistics(ScannedBytes scanned) throws Exception {
+        scanned.bytes += csvLength;
+        return ResultFileSummary.read(csvFile, matcher, true);
+    }
+
+    @Benchmark
+    public CSVScanResult xml(ScannedBytes scanned) throws Exception {
+        scanned.bytes += xmlLength;
+        return ResultScannerXML.scanXmlFile(xmlFile, matcher, false);
+    }
+
+    @Benchmark
+    public CSVScanResult xmlWithStatistics(ScannedBytes scanned) throws Exception {
+        scanned.bytes += xmlLength;
+        return ResultScannerXML.scanXmlFile(xmlFile, matcher, true);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int xmlForPattern(ScannedBytes scanned) throws Exception {
+        scanned.bytes += xmlLength;
+        return ResultScannerXML.scanXmlFileForPattern(xmlFile, failedSamplePattern);
+    }
+}
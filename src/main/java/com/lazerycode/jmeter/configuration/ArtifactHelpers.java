@@ -213,4 +213,18 @@ public class ArtifactHelpers {
         }
         return desiredArtifact;
     }
+
+    /**
+     * Check if an artifact always resolves to the same file, which is not the case of snapshots, version ranges and
+     * LATEST/RELEASE versions.
+     *
+     * @param artifact The artifact
+     * @return true if the version of the artifact is a fixed release version
+     */
+    public static boolean isFixedVersion(Artifact artifact) {
+        String version = artifact.getBaseVersion();
+        return !artifact.isSnapshot()
+                && !version.startsWith("[") && !version.startsWith("(")
+                && !"LATEST".equals(version) && !"RELEASE".equals(version);
+    }
 }
@@ -0,0 +1,43 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.eclipse.aether.artifact.Artifact;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The artifacts copied to the JMeter directory, indexed by groupId:artifactId:classifier:extension so that the copied
+ * version of an artifact (see {@link ArtifactHelpers#artifactsAreMatchingTypes(Artifact, Artifact)}) is found without
+ * going through every copied artifact.
+ */
+public class CopiedArtifacts {
+
+    private final Map<String, Artifact> artifactsByType = new HashMap<>();
+
+    /**
+     * @param artifact An artifact
+     * @return The copied artifact of the same type (but not necessarily the same version), null if there is none
+     */
+    public Artifact getCopiedVersionOf(Artifact artifact) {
+        return artifactsByType.get(typeOf(artifact));
+    }
+
+    /**
+     * @param artifact An artifact that has been copied, it replaces the copied artifact of the same type if any
+     */
+    public void add(Artifact artifact) {
+        artifactsByType.put(typeOf(artifact), artifact);
+    }
+
+    public int size() {
+        return artifactsByType.size();
+    }
+
+    public void clear() {
+        artifactsByType.clear();
+    }
+
+    private static String typeOf(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getClassifier() + ":" + artifact.getExtension();
+    }
+}
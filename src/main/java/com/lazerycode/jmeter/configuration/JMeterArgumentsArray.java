@@ -65,6 +65,31 @@ public class JMeterArgumentsArray {
         }
     }
 
+    /**
+     * Create a copy of an instance of JMeterArgumentsArray, changes made to the copy do not affect the original.
+     *
+     * @param other The instance to copy
+     */
+    public JMeterArgumentsArray(JMeterArgumentsArray other) {
+        jMeterHome = other.jMeterHome;
+        disableTests = other.disableTests;
+        argumentList.addAll(other.argumentList);
+        customPropertiesFiles.addAll(other.customPropertiesFiles);
+        dateFormat = other.dateFormat;
+        proxyConfiguration = other.proxyConfiguration;
+        timestampResults = other.timestampResults;
+        appendTimestamp = other.appendTimestamp;
+        resultFileExtension = other.resultFileExtension;
+        remoteStartServerList = other.remoteStartServerList;
+        testFile = other.testFile;
+        resultsLogFileName = other.resultsLogFileName;
+        jmeterLogFileName = other.jmeterLogFileName;
+        logsDirectory = other.logsDirectory;
+        resultsDirectory = other.resultsDirectory;
+        reportDirectory = other.reportDirectory;
+        overrideRootLogLevel = other.overrideRootLogLevel;
+    }
+
     public JMeterArgumentsArray setRemoteStop() {
         argumentList.add(REMOTE_STOP);
 
@@ -232,6 +257,10 @@ public class JMeterArgumentsArray {
         return resultsLogFileName;
     }
 
+    public boolean isResultFileOutputFormatCSV() {
+        return ".csv".equals(resultFileExtension);
+    }
+
     /**
      * Generate an arguments array representing the command line options you want to send to JMeter.
      * The order of the array is determined by the order the values in JMeterCommandLineArguments are defined.
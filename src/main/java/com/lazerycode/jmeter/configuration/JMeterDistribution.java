@@ -0,0 +1,170 @@
+package com.lazerycode.jmeter.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A configured JMeter directory packaged as a single zip archive, so that it can be unpacked by the configure goal
+ * instead of being configured again from the JMeter artifacts.
+ * <p>
+ * The archive holds the parent of the JMeter directory (as configured when JMeter directories are reused): a manifest
+ * (always the first entry, so that it can be checked without reading the whole archive) with the fingerprints of the
+ * inputs the directory was configured from, the jmeter directory, and the test configuration of the directory (always
+ * the last entry, so that an archive that has only been partly unpacked is not mistaken for a complete one).
+ * Nothing in the archive depends on where it is unpacked.
+ */
+public final class JMeterDistribution {
+
+    public static final String MANIFEST_FILE = "jmeter-distribution.properties";
+    public static final String CONFIGURED_JMETER_FILE = "configured-jmeter.json";
+    public static final String LIBRARIES_FINGERPRINT = "librariesFingerprint";
+    public static final String CONFIGURATION_FINGERPRINT = "configurationFingerprint";
+    static final String JMETER_DIRECTORY = "jmeter";
+    // Created in the JMeter directory when tests are run, see TestManager
+    private static final String WORKER_DIRECTORY = JMETER_DIRECTORY + "/worker/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private JMeterDistribution() {
+    }
+
+    /**
+     * @param jmeterHome               Parent of the JMeter directory
+     * @param librariesFingerprint     Fingerprint of the inputs of the libraries of the JMeter directory
+     * @param configurationFingerprint Fingerprint of the inputs of the properties of the JMeter directory
+     * @throws IOException If the manifest cannot be written
+     */
+    public static void writeManifest(Path jmeterHome, String librariesFingerprint, String configurationFingerprint) throws IOException {
+        Properties manifest = new Properties();
+        manifest.setProperty(LIBRARIES_FINGERPRINT, librariesFingerprint);
+        manifest.setProperty(CONFIGURATION_FINGERPRINT, configurationFingerprint);
+        try (OutputStream manifestFile = Files.newOutputStream(jmeterHome.resolve(MANIFEST_FILE))) {
+            manifest.store(manifestFile, "Configured JMeter directory");
+        }
+    }
+
+    /**
+     * Package a configured JMeter directory. Jars are stored as they are (they are already compressed), other files
+     * are compressed.
+     *
+     * @param jmeterHome Parent of the JMeter directory, with a manifest and a test configuration
+     * @param archive    The archive to create
+     * @throws IOException If the JMeter directory is not complete, or the archive cannot be written
+     */
+    public static void create(Path jmeterHome, File archive) throws IOException {
+        Path manifest = jmeterHome.resolve(MANIFEST_FILE);
+        Path configuredJMeter = jmeterHome.resolve(CONFIGURED_JMETER_FILE);
+        if (!Files.isRegularFile(manifest) || !Files.isRegularFile(configuredJMeter)) {
+            throw new IOException(jmeterHome + " is not a complete, reusable JMeter directory");
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(jmeterHome.resolve(JMETER_DIRECTORY))) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> !entryName(jmeterHome, path).startsWith(WORKER_DIRECTORY))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        Files.createDirectories(archive.getAbsoluteFile().getParentFile().toPath());
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive.toPath()), BUFFER_SIZE))) {
+            zip.setLevel(Deflater.BEST_SPEED);
+            addEntry(zip, jmeterHome, manifest);
+            for (Path file : files) {
+                addEntry(zip, jmeterHome, file);
+            }
+            addEntry(zip, jmeterHome, configuredJMeter);
+        }
+    }
+
+    private static void addEntry(ZipOutputStream zip, Path jmeterHome, Path file) throws IOException {
+        String name = entryName(jmeterHome, file);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(Files.getLastModifiedTime(file).toMillis());
+        if (name.toLowerCase(Locale.ROOT).endsWith(".jar")) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(Files.size(file));
+            entry.setCrc(crc(file));
+        }
+        zip.putNextEntry(entry);
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+
+    private static String entryName(Path jmeterHome, Path file) {
+        return jmeterHome.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static long crc(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @param archive An archive created by {@link #create(Path, File)}
+     * @return The manifest of the archive
+     * @throws IOException If the archive cannot be read or is not a JMeter distribution
+     */
+    public static Properties readManifest(File archive) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive.toPath()), BUFFER_SIZE))) {
+            ZipEntry entry = zip.getNextEntry();
+            if (null == entry || !MANIFEST_FILE.equals(entry.getName())) {
+                throw new IOException(archive + " is not a JMeter distribution, it does not start with " + MANIFEST_FILE);
+            }
+            Properties manifest = new Properties();
+            manifest.load(zip);
+            return manifest;
+        }
+    }
+
+    /**
+     * Unpack an archive in a single pass over its entries.
+     *
+     * @param archive     An archive created by {@link #create(Path, File)}
+     * @param destination The directory to unpack it into, which becomes the parent of the JMeter directory
+     * @throws IOException If the archive cannot be read, has an entry outside of the destination, or cannot be unpacked
+     */
+    public static void extract(File archive, Path destination) throws IOException {
+        Path root = destination.toAbsolutePath().normalize();
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive.toPath()), BUFFER_SIZE))) {
+            ZipEntry entry;
+            while (null != (entry = zip.getNextEntry())) {
+                Path file = root.resolve(entry.getName()).normalize();
+                if (!file.startsWith(root)) {
+                    throw new IOException("Bad zip entry " + entry.getName() + " in " + archive);
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(file);
+                    continue;
+                }
+                Files.createDirectories(file.getParent());
+                Files.copy(zip, file, StandardCopyOption.REPLACE_EXISTING);
+                if (entry.getTime() != -1) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(entry.getTime()));
+                }
+            }
+        }
+    }
+}
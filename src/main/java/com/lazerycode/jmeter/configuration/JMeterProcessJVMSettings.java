@@ -40,6 +40,18 @@ public class JMeterProcessJVMSettings {
         super();
     }
 
+    /**
+     * Create a copy of existing settings, that arguments can be added to without changing the original settings.
+     *
+     * @param other The settings to copy
+     */
+    public JMeterProcessJVMSettings(JMeterProcessJVMSettings other) {
+        this.xms = other.xms;
+        this.xmx = other.xmx;
+        this.javaRuntime = other.javaRuntime;
+        this.arguments = new ArrayList<>(other.arguments);
+    }
+
     public int getXms() {
         return xms;
     }
@@ -0,0 +1,103 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * How the libraries (jars of the local Maven repository) are put into the lib directories of the JMeter directory.
+ * <p>
+ * Links are not always possible (hard links cannot cross filesystems, symbolic links may need privileges on Windows,
+ * reflinks need a copy-on-write filesystem such as btrfs, XFS or APFS), libraries are then copied instead.
+ * JMeter lists the jars of its lib directories by name, so linked jars are found like copied ones.
+ */
+public enum LibraryPopulationStrategy {
+    /**
+     * Copy every library.
+     */
+    COPY,
+    /**
+     * Hard link every library, which takes no disk space but shares the file with the local Maven repository.
+     */
+    HARDLINK,
+    /**
+     * Symbolically link every library to the file of the local Maven repository.
+     */
+    SYMLINK,
+    /**
+     * Clone every library with a copy-on-write copy (cp --reflink on Linux, cp -c on macOS), which shares the disk
+     * blocks of the file of the local Maven repository until either file is modified.
+     */
+    REFLINK;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibraryPopulationStrategy.class);
+    private static final String OS_NAME = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+
+    /**
+     * Put a library into a lib directory, it is copied if it cannot be linked.
+     *
+     * @param source      The library
+     * @param destination The file to create, which must not exist
+     * @return true if the library has been put there with this strategy, false if it has been copied instead
+     * @throws IOException If the library cannot be copied either, or the destination already exists
+     */
+    public boolean populate(Path source, Path destination) throws IOException {
+        try {
+            switch (this) {
+                case HARDLINK:
+                    Files.createLink(destination, source.toRealPath());
+                    return true;
+                case SYMLINK:
+                    Files.createSymbolicLink(destination, source.toRealPath());
+                    return true;
+                case REFLINK:
+                    if (reflink(source, destination)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    Files.copy(source, destination);
+                    return true;
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.debug("Unable to {} {} to {}, copying it instead: {}", name().toLowerCase(Locale.ROOT), source, destination, e.getMessage());
+            Files.deleteIfExists(destination);
+        }
+        Files.copy(source, destination);
+
+        return false;
+    }
+
+    private static boolean reflink(Path source, Path destination) throws IOException {
+        ProcessBuilder reflink;
+        if (OS_NAME.contains("linux")) {
+            reflink = new ProcessBuilder("cp", "--reflink=always", source.toString(), destination.toString());
+        } else if (OS_NAME.contains("mac")) {
+            reflink = new ProcessBuilder("cp", "-c", source.toString(), destination.toString());
+        } else {
+            return false;
+        }
+        try {
+            Process process = reflink.redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.to(new File("/dev/null")))
+                    .start();
+            if (process.waitFor() != 0) {
+                Files.deleteIfExists(destination);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while cloning " + source, e);
+        }
+
+        return true;
+    }
+}
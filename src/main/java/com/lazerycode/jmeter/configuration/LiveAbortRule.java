@@ -0,0 +1,93 @@
+package com.lazerycode.jmeter.configuration;
+
+/**
+ * Limits that each interval of the JMeter summariser (the "summary +" lines written by JMeter while a test runs) must
+ * respect, a test is stopped as soon as they are broken.
+ * <br>
+ * Configuration in pom.xml:
+ * <br>
+ * <pre>
+ * {@code
+ * <liveAbortRule>
+ *     <maximumErrorPercentage>50</maximumErrorPercentage>
+ *     <minimumThroughput>1</minimumThroughput>
+ *     <consecutiveIntervals>2</consecutiveIntervals>
+ *     <warmUpInSeconds>30</warmUpInSeconds>
+ * </liveAbortRule>
+ * }
+ * </pre>
+ */
+public class LiveAbortRule {
+
+    private Double maximumErrorPercentage = null;
+    private Double minimumThroughput = null;
+    private int consecutiveIntervals = 1;
+    private long warmUpInSeconds = 0;
+
+    /**
+     * @return The maximum accepted error percentage in an interval, null if it is not checked
+     */
+    public Double getMaximumErrorPercentage() {
+        return maximumErrorPercentage;
+    }
+
+    /**
+     * The maximum accepted error percentage in an interval, if not set the error rate is not checked
+     *
+     * @param maximumErrorPercentage Double
+     */
+    public void setMaximumErrorPercentage(Double maximumErrorPercentage) {
+        this.maximumErrorPercentage = maximumErrorPercentage;
+    }
+
+    /**
+     * @return The minimum accepted throughput in samples per second in an interval, null if it is not checked
+     */
+    public Double getMinimumThroughput() {
+        return minimumThroughput;
+    }
+
+    /**
+     * The minimum accepted throughput in samples per second in an interval, if not set the throughput is not checked
+     *
+     * @param minimumThroughput Double
+     */
+    public void setMinimumThroughput(Double minimumThroughput) {
+        this.minimumThroughput = minimumThroughput;
+    }
+
+    /**
+     * @return The number of intervals in a row that need to break the limits for the test to be stopped
+     */
+    public int getConsecutiveIntervals() {
+        return consecutiveIntervals;
+    }
+
+    /**
+     * The number of intervals in a row that need to break the limits for the test to be stopped
+     * Default: 1
+     *
+     * @param consecutiveIntervals int
+     */
+    public void setConsecutiveIntervals(int consecutiveIntervals) {
+        this.consecutiveIntervals = consecutiveIntervals;
+    }
+
+    /**
+     * @return The number of seconds at the start of a test during which limits are not checked
+     */
+    public long getWarmUpInSeconds() {
+        return warmUpInSeconds;
+    }
+
+    /**
+     * The number of seconds at the start of a test (e.g. the ramp-up) during which limits are not checked
+     * Default: 0
+     *
+     * @param warmUpInSeconds long
+     */
+    public void setWarmUpInSeconds(long warmUpInSeconds) {
+        this.warmUpInSeconds = warmUpInSeconds;
+    }
+
+}
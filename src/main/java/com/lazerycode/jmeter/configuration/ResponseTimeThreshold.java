@@ -0,0 +1,96 @@
+package com.lazerycode.jmeter.configuration;
+
+import com.lazerycode.jmeter.results.ResponseTimeMetric;
+
+/**
+ * A maximum response time percentile that results must not exceed.
+ * <br>
+ * Configuration in pom.xml:
+ * <br>
+ * <pre>
+ * {@code
+ * <responseTimeThresholds>
+ *     <responseTimeThreshold>
+ *         <label></label>
+ *         <metric>ELAPSED</metric>
+ *         <percentile>95</percentile>
+ *         <maximum></maximum>
+ *     </responseTimeThreshold>
+ * </responseTimeThresholds>
+ * }
+ * </pre>
+ */
+public class ResponseTimeThreshold {
+
+    private String label = null;
+    private ResponseTimeMetric metric = ResponseTimeMetric.ELAPSED;
+    private double percentile = 95;
+    private long maximum;
+
+    /**
+     * @return Sampler label the threshold applies to, null if it applies to every label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Sampler label the threshold applies to, if not set the threshold is checked for every label
+     *
+     * @param label String
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The response time metric that is checked
+     */
+    public ResponseTimeMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * The response time metric that is checked (ELAPSED, LATENCY or CONNECT)
+     * Default: ELAPSED
+     *
+     * @param metric ResponseTimeMetric
+     */
+    public void setMetric(ResponseTimeMetric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * @return The percentile that is checked
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * The percentile that is checked, e.g. 99.9
+     * Default: 95
+     *
+     * @param percentile double
+     */
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * @return The maximum accepted value of the percentile in milliseconds
+     */
+    public long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * The maximum accepted value of the percentile in milliseconds
+     *
+     * @param maximum long
+     */
+    public void setMaximum(long maximum) {
+        this.maximum = maximum;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.lazerycode.jmeter.configuration;
+
+/**
+ * Limits that every time window of a test must respect, e.g. an error rate that must not be exceeded in any 60 second
+ * window, or a minimum throughput.
+ * <br>
+ * Configuration in pom.xml:
+ * <br>
+ * <pre>
+ * {@code
+ * <timeWindowRules>
+ *     <timeWindowRule>
+ *         <windowInSeconds>60</windowInSeconds>
+ *         <maximumErrorPercentage></maximumErrorPercentage>
+ *         <minimumThroughput></minimumThroughput>
+ *     </timeWindowRule>
+ * </timeWindowRules>
+ * }
+ * </pre>
+ */
+public class TimeWindowRule {
+
+    private int windowInSeconds = 60;
+    private Double maximumErrorPercentage = null;
+    private Double minimumThroughput = null;
+
+    /**
+     * @return The length of the windows in seconds
+     */
+    public int getWindowInSeconds() {
+        return windowInSeconds;
+    }
+
+    /**
+     * The length of the windows in seconds, windows slide by one second so every window of that length is checked
+     * Default: 60
+     *
+     * @param windowInSeconds int
+     */
+    public void setWindowInSeconds(int windowInSeconds) {
+        this.windowInSeconds = windowInSeconds;
+    }
+
+    /**
+     * @return The maximum accepted error percentage in a window, null if it is not checked
+     */
+    public Double getMaximumErrorPercentage() {
+        return maximumErrorPercentage;
+    }
+
+    /**
+     * The maximum accepted error percentage in a window, if not set the error rate is not checked
+     *
+     * @param maximumErrorPercentage Double
+     */
+    public void setMaximumErrorPercentage(Double maximumErrorPercentage) {
+        this.maximumErrorPercentage = maximumErrorPercentage;
+    }
+
+    /**
+     * @return The minimum accepted throughput in samples per second in a window, null if it is not checked
+     */
+    public Double getMinimumThroughput() {
+        return minimumThroughput;
+    }
+
+    /**
+     * The minimum accepted throughput in samples per second in a window, if not set the throughput is not checked
+     *
+     * @param minimumThroughput Double
+     */
+    public void setMinimumThroughput(Double minimumThroughput) {
+        this.minimumThroughput = minimumThroughput;
+    }
+
+}
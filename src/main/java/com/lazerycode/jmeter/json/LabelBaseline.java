@@ -0,0 +1,141 @@
+package com.lazerycode.jmeter.json;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.lazerycode.jmeter.results.LabelSummary;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+/**
+ * The baseline of one sampler label (or of all samples): counts, time range and the elapsed time distribution, stored
+ * as a compressed HdrHistogram so that any percentile can be compared and baselines can be merged.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LabelBaseline {
+    private String label;
+    private long samples;
+    private long errors;
+    private long startTime = -1;
+    private long endTime = -1;
+    private String elapsedHistogram;
+
+    public LabelBaseline() {
+    }
+
+    LabelBaseline(LabelSummary summary, Histogram elapsed) {
+        this.label = summary.getLabel();
+        this.samples = summary.getSamples();
+        this.errors = summary.getErrors();
+        this.startTime = summary.getStartTime();
+        this.endTime = summary.getEndTime();
+        setElapsedHistogram(null == elapsed ? new Histogram(3) : elapsed);
+    }
+
+    /**
+     * @return The sampler label, null for the baseline of all samples
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @return Start time of the first sample in milliseconds since the epoch, -1 if it is unknown
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * @return End time of the last sample in milliseconds since the epoch, -1 if it is unknown
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * @return The elapsed time histogram, compressed and Base64 encoded
+     */
+    public String getElapsedHistogram() {
+        return elapsedHistogram;
+    }
+
+    public void setElapsedHistogram(String elapsedHistogram) {
+        this.elapsedHistogram = elapsedHistogram;
+    }
+
+    private void setElapsedHistogram(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        this.elapsedHistogram = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    /**
+     * @return The decoded elapsed time histogram
+     * @throws IllegalStateException If the histogram cannot be decoded
+     */
+    @JsonIgnore
+    public Histogram getElapsedTimes() {
+        if (null == elapsedHistogram) {
+            return new Histogram(3);
+        }
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(elapsedHistogram)), 0);
+        } catch (DataFormatException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid elapsed time histogram for label " + label, ex);
+        }
+    }
+
+    /**
+     * @param percentile The percentile, e.g. 95
+     * @return The elapsed time at the percentile, 0 if there are no elapsed times
+     */
+    @JsonIgnore
+    public long getElapsedPercentile(double percentile) {
+        Histogram histogram = getElapsedTimes();
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return Samples per second between the start of the first sample and the end of the last one, 0 if unknown
+     */
+    @JsonIgnore
+    public double getThroughput() {
+        long duration = endTime - startTime;
+        if (startTime < 0 || duration <= 0) {
+            return 0;
+        }
+        return samples * 1000.0 / duration;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lazerycode.jmeter.json;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lazerycode.jmeter.results.LabelSummary;
+import com.lazerycode.jmeter.results.ResponseTimeMetric;
+import com.lazerycode.jmeter.results.SampleStatistics;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per label baselines of the results of an execution, written to a compact JSON file so that later runs can be
+ * compared to it (see the compare-baseline goal).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ResultsBaseline {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private String executionID;
+    private LabelBaseline total;
+    private List<LabelBaseline> labels = new ArrayList<>();
+
+    public ResultsBaseline() {
+    }
+
+    public ResultsBaseline(String executionID, SampleStatistics statistics) {
+        this.executionID = executionID;
+        this.total = new LabelBaseline(statistics.getTotalSummary(), statistics.getTotalHistogram(ResponseTimeMetric.ELAPSED));
+        for (LabelSummary summary : statistics.getSummaries()) {
+            labels.add(new LabelBaseline(summary, statistics.getHistogram(ResponseTimeMetric.ELAPSED, summary.getLabel())));
+        }
+    }
+
+    public String getExecutionID() {
+        return executionID;
+    }
+
+    public void setExecutionID(String executionID) {
+        this.executionID = executionID;
+    }
+
+    public LabelBaseline getTotal() {
+        return total;
+    }
+
+    public void setTotal(LabelBaseline total) {
+        this.total = total;
+    }
+
+    public List<LabelBaseline> getLabels() {
+        return labels;
+    }
+
+    public void setLabels(List<LabelBaseline> labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * @param label The sampler label
+     * @return The baseline of the label, or null if the label is not part of this baseline
+     */
+    public LabelBaseline getLabel(String label) {
+        for (LabelBaseline labelBaseline : labels) {
+            if (labelBaseline.getLabel().equals(label)) {
+                return labelBaseline;
+            }
+        }
+        return null;
+    }
+
+    public void writeTo(File baselineFile) throws MojoExecutionException {
+        try {
+            MAPPER.writeValue(baselineFile, this);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+    public static ResultsBaseline readFrom(File baselineFile) throws MojoExecutionException {
+        try {
+            return MAPPER.readValue(baselineFile, ResultsBaseline.class);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(String.format("Unable to read baseline %s: %s", baselineFile.getAbsolutePath(), ex.getMessage()), ex);
+        }
+    }
+}
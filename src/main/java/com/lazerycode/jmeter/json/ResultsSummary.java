@@ -0,0 +1,48 @@
+package com.lazerycode.jmeter.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lazerycode.jmeter.results.LabelSummary;
+import com.lazerycode.jmeter.results.SampleStatistics;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Per label statistics of the results of an execution, written to a JSON file so that they can be picked up by other
+ * tools without parsing the result files again.
+ */
+public class ResultsSummary {
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final String executionID;
+    private final LabelSummary total;
+    private final List<LabelSummary> labels;
+
+    public ResultsSummary(String executionID, SampleStatistics statistics) {
+        this.executionID = executionID;
+        this.total = statistics.getTotalSummary();
+        this.labels = statistics.getSummaries();
+    }
+
+    public String getExecutionID() {
+        return executionID;
+    }
+
+    public LabelSummary getTotal() {
+        return total;
+    }
+
+    public List<LabelSummary> getLabels() {
+        return labels;
+    }
+
+    public void writeTo(File summaryFile) throws MojoExecutionException {
+        try {
+            mapper.writeValue(summaryFile, this);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+}
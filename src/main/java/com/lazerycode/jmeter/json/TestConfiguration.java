@@ -1,6 +1,7 @@
 package com.lazerycode.jmeter.json;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.lazerycode.jmeter.properties.ConfigurationFiles;
 import com.lazerycode.jmeter.properties.PropertiesMapping;
 
@@ -16,6 +17,7 @@ public class TestConfiguration {
     private String executionID;
     private String jmeterDirectoryPath;
     private String runtimeJarName;
+    private String classDataSharingArchive;
     private Boolean resultsOutputIsCSVFormat;
     private Boolean generateReports;
     private String[] resultFilesLocations = new String[0];
@@ -52,6 +54,15 @@ public class TestConfiguration {
         this.runtimeJarName = runtimeJarName;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getClassDataSharingArchive() {
+        return classDataSharingArchive;
+    }
+
+    public void setClassDataSharingArchive(String classDataSharingArchive) {
+        this.classDataSharingArchive = classDataSharingArchive;
+    }
+
     public Boolean getResultsOutputIsCSVFormat() {
         return resultsOutputIsCSVFormat;
     }
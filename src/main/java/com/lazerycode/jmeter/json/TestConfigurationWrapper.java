@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -69,6 +70,47 @@ public class TestConfigurationWrapper {
         }
     }
 
+    /**
+     * @param jsonFile The test config file
+     * @return Every execution listed in the test config file
+     * @throws MojoExecutionException When the test config file cannot be read
+     */
+    public static List<TestConfiguration> readAllTestConfigurations(File jsonFile) throws MojoExecutionException {
+        try {
+            return new ObjectMapper().readValue(jsonFile, TestConfigurations.class).getConfigurations();
+        } catch (IOException ex) {
+            throw new MojoExecutionException(String.format("Unable to read test configurations from %s: %s", jsonFile, ex.getMessage()), ex);
+        }
+    }
+
+    /**
+     * @param jsonFile A file written by {@link #writeCurrentTestConfigurationTo(File)}
+     * @return The test configuration stored in the file
+     * @throws MojoExecutionException When the file cannot be read
+     */
+    public static TestConfiguration readTestConfiguration(File jsonFile) throws MojoExecutionException {
+        try {
+            return new ObjectMapper().readValue(jsonFile, TestConfiguration.class);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(String.format("Unable to read test configuration from %s: %s", jsonFile, ex.getMessage()), ex);
+        }
+    }
+
+    /**
+     * Write the current test configuration on its own, unlike {@link #writeResultFilesConfigTo(String)} which updates
+     * it in the list of test configurations of the test config file.
+     *
+     * @param jsonFile The file to write
+     * @throws MojoExecutionException When the file cannot be written
+     */
+    public void writeCurrentTestConfigurationTo(File jsonFile) throws MojoExecutionException {
+        try {
+            mapper.writeValue(jsonFile, testConfiguration);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
     String getFullConfig() throws JsonProcessingException {
         return mapper.writeValueAsString(testConfiguration);
     }
@@ -4,7 +4,13 @@ import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
 import com.lazerycode.jmeter.configuration.ProxyConfiguration;
 import com.lazerycode.jmeter.configuration.RemoteConfiguration;
+import com.lazerycode.jmeter.json.TestConfiguration;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
+import com.lazerycode.jmeter.properties.ConfigurationFiles;
+import com.lazerycode.jmeter.properties.PropertiesMapping;
+import com.lazerycode.jmeter.results.CSVLayout;
+import com.lazerycode.jmeter.testrunner.ClassDataSharingArchive;
+import com.lazerycode.jmeter.utility.OutputOverflowPolicy;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
@@ -17,8 +23,11 @@ import org.apache.maven.settings.Settings;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 /**
  * JMeter Maven plugin.
@@ -172,6 +181,33 @@ public abstract class AbstractJMeterMojo extends AbstractMojo {
     @Parameter(defaultValue = "false")
     protected boolean suppressJMeterOutput;
 
+    /**
+     * Encoding of the output of JMeter processes.
+     * Defaults to the default encoding of the platform, which JMeter uses unless told otherwise through
+     * jMeterProcessJVMSettings (e.g. -Dfile.encoding)
+     */
+    @Parameter
+    protected String jmeterOutputEncoding;
+
+    /**
+     * What happens to the output of JMeter processes when it is written faster than it can be logged, e.g. a chatty
+     * summariser or debug output. Valid values are:
+     * BLOCK (JMeter waits until its output has been logged),
+     * DROP (lines that do not fit in the buffer are dropped and counted) or
+     * SAMPLE (one line in ten is kept once the buffer is three quarters full, lines that do not fit are dropped).
+     * Defaults to BLOCK
+     */
+    @Parameter(defaultValue = "BLOCK")
+    protected OutputOverflowPolicy jmeterOutputOverflowPolicy;
+
+    /**
+     * Write the output of JMeter processes straight to files in logsDirectory (by the operating system, without going
+     * through Maven) instead of logging it.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean writeJMeterOutputToFile;
+
     /**
      * The information extracted from the Mojo being currently executed
      */
@@ -294,6 +330,89 @@ public abstract class AbstractJMeterMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Work out the layout JMeter writes CSV results files with, from the jmeter.save.saveservice.* properties an
+     * execution has been configured with.
+     *
+     * @param execution The execution
+     * @return The layout, or null if it is unknown (results files then need a header to be scanned)
+     */
+    protected CSVLayout resultsCsvLayout(TestConfiguration execution) {
+        Properties properties = effectiveJMeterProperties(execution);
+        if (null == properties) {
+            return null;
+        }
+        try {
+            return CSVLayout.fromProperties(properties);
+        } catch (IllegalArgumentException ex) {
+            getLog().warn(ex.getMessage() + ", the delimiter will be worked out from the header of results files");
+            return null;
+        }
+    }
+
+    /**
+     * @param execution The execution
+     * @return The JMeter properties of an execution (user.properties overriding jmeter.properties), or null if the
+     * properties have not been written to the test config file
+     */
+    static Properties effectiveJMeterProperties(TestConfiguration execution) {
+        Map<ConfigurationFiles, PropertiesMapping> propertiesMap = execution.getPropertiesMap();
+        if (null == propertiesMap || null == propertiesMap.get(ConfigurationFiles.JMETER_PROPERTIES)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        for (ConfigurationFiles configurationFile : new ConfigurationFiles[]{ConfigurationFiles.JMETER_PROPERTIES, ConfigurationFiles.USER_PROPERTIES}) {
+            PropertiesMapping mapping = propertiesMap.get(configurationFile);
+            if (null == mapping) {
+                continue;
+            }
+            if (null != mapping.getPropertiesFile() && null != mapping.getPropertiesFile().getProperties()) {
+                properties.putAll(mapping.getPropertiesFile().getProperties());
+            }
+            if (null != mapping.getAdditionalProperties()) {
+                properties.putAll(mapping.getAdditionalProperties());
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Make forked JMeter JVMs use the class data sharing archive created by the configure goal, as long as it still
+     * matches the jars of the JMeter directory and the java runtime.
+     *
+     * @param execution The execution
+     * @throws MojoExecutionException If the JMeter directory cannot be read
+     */
+    protected void useClassDataSharingArchive(TestConfiguration execution) throws MojoExecutionException {
+        if (null == execution.getClassDataSharingArchive()) {
+            return;
+        }
+        File recordedArchive = new File(execution.getClassDataSharingArchive());
+        ClassDataSharingArchive archive = ClassDataSharingArchive.forJMeterDirectory(recordedArchive.getParentFile(),
+                new File(execution.getJmeterDirectoryPath()), jMeterProcessJVMSettings.getJavaRuntime());
+        if (archive.getFile().equals(recordedArchive) && archive.exists()) {
+            jMeterProcessJVMSettings.addArgument(archive.getJVMArgument());
+        } else {
+            getLog().warn("Class data sharing archive " + recordedArchive + " does not match the JMeter directory or java runtime anymore, it will not be used");
+        }
+    }
+
+    /**
+     * @return The charset of the output of JMeter processes
+     * @throws MojoExecutionException If jmeterOutputEncoding is not a supported charset
+     */
+    protected Charset jmeterOutputCharset() throws MojoExecutionException {
+        if (null == jmeterOutputEncoding) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(jmeterOutputEncoding);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException("Unsupported jmeterOutputEncoding: " + jmeterOutputEncoding, ex);
+        }
+    }
+
     static void copyFilesInTestDirectory(File sourceDirectory, File destinationDirectory) throws MojoExecutionException {
         try {
             FileUtils.copyDirectory(sourceDirectory, destinationDirectory);
@@ -1,19 +1,34 @@
 package com.lazerycode.jmeter.mojo;
 
+import com.lazerycode.jmeter.configuration.ResponseTimeThreshold;
+import com.lazerycode.jmeter.configuration.TimeWindowRule;
+import com.lazerycode.jmeter.json.ResultsBaseline;
+import com.lazerycode.jmeter.json.ResultsSummary;
+import com.lazerycode.jmeter.json.TestConfiguration;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
+import com.lazerycode.jmeter.results.CSVLayout;
+import com.lazerycode.jmeter.results.FailureMessageMatchMode;
+import com.lazerycode.jmeter.results.LabelSummary;
+import com.lazerycode.jmeter.results.ResponseTimeMetric;
 import com.lazerycode.jmeter.results.ResultScannerCSV;
 import com.lazerycode.jmeter.results.ResultScanner;
 import com.lazerycode.jmeter.results.ResultScannerXML;
+import com.lazerycode.jmeter.results.SampleStatistics;
 import com.lazerycode.jmeter.testrunner.TestFailureDecider;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.HdrHistogram.Histogram;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Goal that computes successes/failures from CSV or XML results files.<br>
@@ -23,6 +38,8 @@ import java.util.List;
 @Mojo(name = "results", defaultPhase = LifecyclePhase.VERIFY)
 public class CheckResultsMojo extends AbstractJMeterMojo {
 
+    static final String MERGED_EXECUTION_ID = "all-executions";
+
     /**
      * Sets whether build should fail if there are failed requests found in the JMeter result file.
      * Failures are for example failed requests
@@ -53,7 +70,8 @@ public class CheckResultsMojo extends AbstractJMeterMojo {
     protected boolean scanResultsForSuccessfulRequests;
 
     /**
-     * Only search for specific failure messages when scanning results for failed requests (only applied to CSV files)
+     * Only search for specific failure messages when scanning results for failed requests
+     * (for XML files the first assertionResult/failureMessage of each failed sample is checked)
      * Defaults to false
      */
     @Parameter(defaultValue = "false")
@@ -73,6 +91,124 @@ public class CheckResultsMojo extends AbstractJMeterMojo {
     @Parameter
     protected List<String> failureMessages = new ArrayList<>();
 
+    /**
+     * How failure messages in results files are compared to the failureMessages that are searched for (ignoring case):
+     * EXACT (the failure message is equal to the searched message), CONTAINS (the failure message contains the
+     * searched message) or REGEX (the searched message is a regular expression found in the failure message).
+     * Defaults to EXACT
+     */
+    @Parameter(defaultValue = "EXACT")
+    protected FailureMessageMatchMode failureMessageMatchMode;
+
+    /**
+     * Number of threads used to scan CSV result files.
+     * If set to more than 1, result files are scanned concurrently and large files are memory mapped and split into
+     * chunks that are scanned in parallel.
+     * Set to 0 to use one thread per available processor.
+     * Defaults to 1
+     */
+    @Parameter(defaultValue = "1")
+    protected int resultScanThreads;
+
+    /**
+     * Write a compact binary copy of each results file next to it (&lt;results file&gt;.columns) the first time it is
+     * scanned, later scans of the same (unmodified) results file, e.g. by other executions, read that copy instead of
+     * parsing the file again.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean useResultsSidecar;
+
+    /**
+     * Write a summary of each results file next to it (&lt;results file&gt;.summary) once it has been scanned, holding
+     * the success/failure counts, failure message counts and statistics (as mergeable histograms) of the file.
+     * Later scans of the same (unmodified) results file merge its summary instead of scanning the file again.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean useResultFileSummaries;
+
+    /**
+     * Check the combined results of every execution listed in the test config file (e.g. one execution per load
+     * generator or per test plan) instead of the results of the selected execution only.
+     * Results files are merged using their summaries (see useResultFileSummaries, which is switched on automatically),
+     * so the results files of executions that have already been checked are not scanned again, and percentiles are
+     * calculated from the combined histograms.
+     * Summary files are written as all-executions-results-summary.json and all-executions-results-baseline.json.
+     * Every execution needs to write its results in the same format.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean mergeAllExecutions;
+
+    /**
+     * Calculate statistics (sample and error counts, min/mean/max elapsed time, response time percentiles, throughput
+     * and bytes transferred, overall and per sampler label) while scanning results files.
+     * The statistics are shown in a table and written to &lt;executionID&gt;-results-summary.json next to the test
+     * config file, along with &lt;executionID&gt;-results-baseline.json that can be used by the compare-baseline goal.
+     * This is switched on automatically when responseTimeThresholds are configured.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean calculateResultStatistics;
+
+    /**
+     * List of response time percentiles that must not be exceeded, the build fails if one of them is.
+     * <br>
+     * <pre>
+     * {@code
+     * <responseTimeThresholds>
+     *     <responseTimeThreshold>
+     *         <label>Login</label>
+     *         <metric>ELAPSED</metric>
+     *         <percentile>95</percentile>
+     *         <maximum>500</maximum>
+     *     </responseTimeThreshold>
+     * </responseTimeThresholds>
+     * }
+     * </pre>
+     * If no label is set the threshold is checked for every label, a label that does not match any sample fails the
+     * build.
+     */
+    @Parameter
+    protected List<ResponseTimeThreshold> responseTimeThresholds = new ArrayList<>();
+
+    /**
+     * List of limits that every time window of the tests must respect, the build fails if one of them is broken.
+     * Windows slide one second at a time, so a rule with a 60 second window checks every 60 second period.
+     * <br>
+     * <pre>
+     * {@code
+     * <timeWindowRules>
+     *     <timeWindowRule>
+     *         <windowInSeconds>60</windowInSeconds>
+     *         <maximumErrorPercentage>5</maximumErrorPercentage>
+     *         <minimumThroughput>100</minimumThroughput>
+     *     </timeWindowRule>
+     * </timeWindowRules>
+     * }
+     * </pre>
+     * Error rate and throughput are only checked if maximumErrorPercentage/minimumThroughput (samples per second) are set.
+     */
+    @Parameter
+    protected List<TimeWindowRule> timeWindowRules = new ArrayList<>();
+
+    /**
+     * Number of seconds at the start of the tests (based on the timeStamp of the first sample) that are not checked by
+     * timeWindowRules, e.g. to ignore the ramp-up.
+     * Defaults to 0
+     */
+    @Parameter(defaultValue = "0")
+    protected long warmUpInSeconds;
+
+    /**
+     * Number of seconds at the end of the tests (based on the timeStamp of the last sample) that are not checked by
+     * timeWindowRules.
+     * Defaults to 0
+     */
+    @Parameter(defaultValue = "0")
+    protected long coolDownInSeconds;
+
     /**
      * Scan JMeter result files for successful, and failed requests/
      *
@@ -96,24 +232,60 @@ public class CheckResultsMojo extends AbstractJMeterMojo {
             getLog().info(LINE_SEPARATOR);
             getLog().info(" ");
             TestConfigurationWrapper testConfig = new TestConfigurationWrapper(new File(testConfigFile), selectedConfiguration);
-            String resultFormat = testConfig.getCurrentTestConfiguration().getResultsOutputIsCSVFormat() ? "CSV" : "JTL";
+            Boolean resultsOutputIsCSVFormat = testConfig.getCurrentTestConfiguration().getResultsOutputIsCSVFormat();
+            String resultFormat = resultsOutputIsCSVFormat ? "CSV" : "JTL";
             getLog().info(String.format("Will scan results using format: %s", resultFormat));
-            ResultScanner resultScanner = getResultScanner(testConfig.getCurrentTestConfiguration().getResultsOutputIsCSVFormat());
-            for (String resultFileLocation : testConfig.getCurrentTestConfiguration().getResultFilesLocations()) {
-                resultScanner.parseResultFile(new File(resultFileLocation));
+            String executionID = testConfig.getCurrentTestConfiguration().getExecutionID();
+            List<TestConfiguration> executions = Collections.singletonList(testConfig.getCurrentTestConfiguration());
+            if (mergeAllExecutions) {
+                executionID = MERGED_EXECUTION_ID;
+                executions = TestConfigurationWrapper.readAllTestConfigurations(new File(testConfigFile));
+                getLog().info(String.format("Merging the results of %s executions", executions.size()));
+            }
+            ResultScanner resultScanner = getResultScanner(resultsOutputIsCSVFormat, executions)
+                    .setCollectStatistics(calculateResultStatistics || !responseTimeThresholds.isEmpty() || !timeWindowRules.isEmpty())
+                    .setFailureMessageMatchMode(failureMessageMatchMode)
+                    .setUseResultsSidecar(useResultsSidecar)
+                    .setUseResultFileSummaries(useResultFileSummaries || mergeAllExecutions);
+            List<File> resultFiles = new ArrayList<>();
+            for (String resultFileLocation : resultFileLocations(executions, resultsOutputIsCSVFormat)) {
+                resultFiles.add(new File(resultFileLocation));
             }
+            resultScanner.parseResultFiles(resultFiles);
             getLog().info(" ");
             getLog().info(LINE_SEPARATOR);
             getLog().info("P E R F O R M A N C E    T E S T    R E S U L T S");
             getLog().info(LINE_SEPARATOR);
             getLog().info(" ");
-            getLog().info(String.format("Result (.%s) files scanned: %s", resultFormat.toLowerCase(), testConfig.getCurrentTestConfiguration().getResultFilesLocations().size()));
+            getLog().info(String.format("Result (.%s) files scanned: %s", resultFormat.toLowerCase(), resultFiles.size()));
             getLog().info(String.format("Successful requests:         %s", resultScanner.getSuccessCount()));
             getLog().info(String.format("Failed requests:             %s", resultScanner.getFailureCount()));
-            TestFailureDecider decider = new TestFailureDecider(ignoreResultFailures, errorRateThresholdInPercent, resultScanner);
+            TestFailureDecider decider = new TestFailureDecider(ignoreResultFailures, errorRateThresholdInPercent, resultScanner)
+                    .setResponseTimeThresholds(responseTimeThresholds)
+                    .setTimeWindowRules(timeWindowRules)
+                    .setWarmUpInSeconds(warmUpInSeconds)
+                    .setCoolDownInSeconds(coolDownInSeconds);
             decider.runChecks();
             getLog().info(String.format("Failures:                    %s%% (%s%% accepted)", decider.getErrorPercentage(), decider.getErrorPercentageThreshold()));
             getLog().info(" ");
+            if (null != resultScanner.getStatistics()) {
+                logResultStatistics(resultScanner.getStatistics());
+                writeResultsSummary(executionID, resultScanner.getStatistics());
+            }
+            for (String violation : decider.getResponseTimeThresholdViolations()) {
+                getLog().error(violation);
+            }
+            for (String violation : decider.getTimeWindowRuleViolations()) {
+                getLog().error(violation);
+            }
+            if (decider.failBuild() && !decider.isErrorPercentageAboveThreshold()) {
+                throw new MojoFailureException(String.format(
+                        "Failing build because %s response time threshold(s) were exceeded or could not be checked and %s time window rule(s) were broken. JMeter logs are available at: '%s'",
+                        decider.getResponseTimeThresholdViolations().size(),
+                        decider.getTimeWindowRuleViolations().size(),
+                        logsDirectory.getAbsolutePath()
+                ));
+            }
             if (decider.failBuild()) {
                 throw new MojoFailureException(String.format(
                         "Failing build because error percentage %s is above accepted threshold %s. JMeter logs are available at: '%s'",
@@ -132,14 +304,104 @@ public class CheckResultsMojo extends AbstractJMeterMojo {
         }
     }
 
-    private ResultScanner getResultScanner(Boolean isCSV) {
+    /**
+     * @param executions               The executions whose results need to be scanned
+     * @param resultsOutputIsCSVFormat The format of the results of the selected execution
+     * @return The result files of every execution, without duplicates
+     * @throws MojoExecutionException If an execution writes its results in another format
+     */
+    static Set<String> resultFileLocations(List<TestConfiguration> executions, Boolean resultsOutputIsCSVFormat) throws MojoExecutionException {
+        Set<String> resultFileLocations = new LinkedHashSet<>();
+        for (TestConfiguration execution : executions) {
+            if (!Objects.equals(resultsOutputIsCSVFormat, execution.getResultsOutputIsCSVFormat())) {
+                throw new MojoExecutionException(String.format(
+                        "Unable to merge the results of execution %s, its results are not written in the same format as the results of the selected execution",
+                        execution.getExecutionID()
+                ));
+            }
+            resultFileLocations.addAll(execution.getResultFilesLocations());
+        }
+        return resultFileLocations;
+    }
+
+    private void logResultStatistics(SampleStatistics statistics) {
+        String rowFormat = "%-30s %9s %7s %7s %7s %7s %7s %7s %7s %7s %9s %11s %11s";
+        getLog().info(String.format(rowFormat, "Label", "Samples", "Error%", "Min", "Mean", "p50", "p90", "p95", "p99", "Max", "Req/s", "Recv KB", "Sent KB"));
+        for (LabelSummary summary : statistics.getSummaries()) {
+            logLabelSummary(rowFormat, summary.getLabel(), summary);
+        }
+        logLabelSummary(rowFormat, "TOTAL", statistics.getTotalSummary());
+        getLog().info(" ");
+        getLog().info("Response times (ms):         p50 / p90 / p95 / p99 / max");
+        for (ResponseTimeMetric metric : new ResponseTimeMetric[]{ResponseTimeMetric.LATENCY, ResponseTimeMetric.CONNECT}) {
+            Histogram histogram = statistics.getTotalHistogram(metric);
+            if (histogram.getTotalCount() > 0) {
+                getLog().info(String.format("%-28s %s / %s / %s / %s / %s",
+                        String.format("All samples (%s):", metric.name().toLowerCase()),
+                        histogram.getValueAtPercentile(50),
+                        histogram.getValueAtPercentile(90),
+                        histogram.getValueAtPercentile(95),
+                        histogram.getValueAtPercentile(99),
+                        histogram.getMaxValue()
+                ));
+            }
+        }
+        getLog().info(" ");
+    }
+
+    private void logLabelSummary(String rowFormat, String name, LabelSummary summary) {
+        getLog().info(String.format(rowFormat,
+                name,
+                summary.getSamples(),
+                String.format("%.2f", summary.getErrorPercentage()),
+                summary.getMinElapsed(),
+                Math.round(summary.getMeanElapsed()),
+                summary.getP50Elapsed(),
+                summary.getP90Elapsed(),
+                summary.getP95Elapsed(),
+                summary.getP99Elapsed(),
+                summary.getMaxElapsed(),
+                String.format("%.2f", summary.getThroughput()),
+                summary.getReceivedBytes() / 1024,
+                summary.getSentBytes() / 1024
+        ));
+    }
+
+    private void writeResultsSummary(String executionID, SampleStatistics statistics) throws MojoExecutionException {
+        File summaryFile = new File(new File(testConfigFile).getAbsoluteFile().getParentFile(), String.format("%s-results-summary.json", executionID));
+        new ResultsSummary(executionID, statistics).writeTo(summaryFile);
+        getLog().info(String.format("Results summary written to:  %s", summaryFile.getAbsolutePath()));
+        File baselineFile = CompareBaselineMojo.resultsBaselineFile(testConfigFile, executionID);
+        new ResultsBaseline(executionID, statistics).writeTo(baselineFile);
+        getLog().info(String.format("Results baseline written to: %s", baselineFile.getAbsolutePath()));
+        getLog().info(" ");
+    }
+
+    /**
+     * @param executions The executions whose results need to be scanned
+     * @return The layout of their CSV results files, or null if it is unknown or not the same for every execution
+     */
+    private CSVLayout csvLayout(List<TestConfiguration> executions) {
+        CSVLayout layout = null;
+        for (TestConfiguration execution : executions) {
+            CSVLayout executionLayout = resultsCsvLayout(execution);
+            if (null == executionLayout || (null != layout && !layout.equals(executionLayout))) {
+                return null;
+            }
+            layout = executionLayout;
+        }
+        return layout;
+    }
+
+    private ResultScanner getResultScanner(Boolean isCSV, List<TestConfiguration> executions) {
         if (isCSV) {
             return new ResultScannerCSV(
                     scanResultsForSuccessfulRequests,
                     scanResultsForFailedRequests,
                     onlyFailWhenMatchingFailureMessage,
                     failureMessages
-            );
+            ).setScanThreads(resultScanThreads)
+                    .setCsvLayout(csvLayout(executions));
         } else {
             return new ResultScannerXML(
                     scanResultsForSuccessfulRequests,
@@ -0,0 +1,162 @@
+package com.lazerycode.jmeter.mojo;
+
+import com.lazerycode.jmeter.json.ResultsBaseline;
+import com.lazerycode.jmeter.json.TestConfigurationWrapper;
+import com.lazerycode.jmeter.testrunner.BaselineComparison;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Goal that compares the results of the current run to a baseline produced by a previous run.<br>
+ * The p95 elapsed time and the throughput are compared overall and for every sampler label, the build fails if one
+ * of them regresses by more than the accepted percentage.<br>
+ * The results of the current run are read from the &lt;executionID&gt;-results-baseline.json file written by the
+ * results goal, which needs to run first with calculateResultStatistics set to true.<br>
+ * This goal runs within Lifecycle phase {@link LifecyclePhase#VERIFY}.
+ */
+@Mojo(name = "compare-baseline", defaultPhase = LifecyclePhase.VERIFY)
+public class CompareBaselineMojo extends AbstractJMeterMojo {
+
+    @Component
+    private RepositorySystem repositorySystem;
+
+    @Parameter(defaultValue = "${repositorySystemSession}", readonly = true)
+    private RepositorySystemSession repositorySystemSession;
+
+    @Parameter(defaultValue = "${project.remoteProjectRepositories}", readonly = true)
+    private List<RemoteRepository> repositoryList;
+
+    /**
+     * A baseline file written by the results goal of a previous run (&lt;executionID&gt;-results-baseline.json),
+     * e.g. checked into the project.
+     * The comparison is skipped if the file does not exist yet.
+     */
+    @Parameter
+    protected File baselineFile;
+
+    /**
+     * A baseline file deployed as an artifact, resolved from the local repository (or the remote repositories).
+     * Format: &lt;groupId&gt;:&lt;artifactId&gt;[:&lt;extension&gt;[:&lt;classifier&gt;]]:&lt;version&gt;, e.g.
+     * com.example:my-app-performance-baseline:json:1.0.0
+     * Used when baselineFile is not set.
+     */
+    @Parameter
+    protected String baselineArtifact;
+
+    /**
+     * Accepted increase of the p95 elapsed time, in percent of the baseline.
+     * Defaults to 10
+     */
+    @Parameter(defaultValue = "10")
+    protected double p95RegressionThresholdInPercent;
+
+    /**
+     * Accepted decrease of the throughput, in percent of the baseline.
+     * Defaults to 10
+     */
+    @Parameter(defaultValue = "10")
+    protected double throughputRegressionThresholdInPercent;
+
+    /**
+     * Log regressions without failing the build.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean ignoreBaselineRegressions;
+
+    /**
+     * Compare the results of the current run to the baseline.
+     *
+     * @throws MojoExecutionException MojoExecutionException
+     * @throws MojoFailureException   If a regression has been found
+     */
+    @Override
+    public void doExecute() throws MojoExecutionException, MojoFailureException {
+        getLog().info(" ");
+        getLog().info(LINE_SEPARATOR);
+        getLog().info("C O M P A R I N G    T O    B A S E L I N E");
+        getLog().info(LINE_SEPARATOR);
+        getLog().info(" ");
+        File baseline = resolveBaselineFile();
+        if (null == baseline) {
+            getLog().info("No baseline configured, comparison skipped!");
+            return;
+        }
+        if (!baseline.isFile()) {
+            getLog().warn(String.format("Baseline %s does not exist, comparison skipped!", baseline.getAbsolutePath()));
+            return;
+        }
+        testConfig = new TestConfigurationWrapper(new File(testConfigFile), selectedConfiguration);
+        File currentResults = resultsBaselineFile(testConfigFile, testConfig.getCurrentTestConfiguration().getExecutionID());
+        if (!currentResults.isFile()) {
+            throw new MojoExecutionException(String.format(
+                    "Unable to find %s, the results goal needs to run first with calculateResultStatistics set to true",
+                    currentResults.getAbsolutePath()
+            ));
+        }
+        getLog().info(String.format("Baseline:                    %s", baseline.getAbsolutePath()));
+        getLog().info(String.format("Current results:             %s", currentResults.getAbsolutePath()));
+        getLog().info(" ");
+        BaselineComparison comparison = new BaselineComparison(
+                ResultsBaseline.readFrom(baseline),
+                ResultsBaseline.readFrom(currentResults),
+                p95RegressionThresholdInPercent,
+                throughputRegressionThresholdInPercent
+        );
+        comparison.runChecks();
+        for (String line : comparison.getComparisons()) {
+            getLog().info(line);
+        }
+        for (String label : comparison.getLabelsNotFound()) {
+            getLog().warn(String.format("Label '%s' of the baseline was not found in the current results", label));
+        }
+        getLog().info(" ");
+        for (String regression : comparison.getRegressions()) {
+            getLog().error(regression);
+        }
+        if (comparison.hasRegressions() && !ignoreBaselineRegressions) {
+            throw new MojoFailureException(String.format(
+                    "Failing build because %s regression(s) were found compared to the baseline. JMeter logs are available at: '%s'",
+                    comparison.getRegressions().size(),
+                    logsDirectory.getAbsolutePath()
+            ));
+        }
+    }
+
+    /**
+     * @param testConfigFile The test config file
+     * @param executionID    The execution id
+     * @return The baseline file written by the results goal for an execution
+     */
+    static File resultsBaselineFile(String testConfigFile, String executionID) {
+        return new File(new File(testConfigFile).getAbsoluteFile().getParentFile(), String.format("%s-results-baseline.json", executionID));
+    }
+
+    private File resolveBaselineFile() throws MojoExecutionException {
+        if (null != baselineFile) {
+            return baselineFile;
+        }
+        if (null == baselineArtifact) {
+            return null;
+        }
+        try {
+            ArtifactRequest artifactRequest = new ArtifactRequest(new DefaultArtifact(baselineArtifact), repositoryList, null);
+            return repositorySystem.resolveArtifact(repositorySystemSession, artifactRequest).getArtifact().getFile();
+        } catch (ArtifactResolutionException | IllegalArgumentException ex) {
+            throw new MojoExecutionException(String.format("Unable to resolve baseline artifact %s: %s", baselineArtifact, ex.getMessage()), ex);
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.lazerycode.jmeter.mojo;
 
 import com.lazerycode.jmeter.configuration.ArtifactHelpers;
+import com.lazerycode.jmeter.configuration.CopiedArtifacts;
+import com.lazerycode.jmeter.configuration.JMeterDistribution;
+import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import com.lazerycode.jmeter.configuration.LibraryPopulationStrategy;
 import com.lazerycode.jmeter.configuration.RepositoryConfiguration;
+import com.lazerycode.jmeter.json.TestConfiguration;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
 import com.lazerycode.jmeter.properties.ConfigurationFiles;
 import com.lazerycode.jmeter.properties.PropertiesFile;
 import com.lazerycode.jmeter.properties.PropertiesMapping;
+import com.lazerycode.jmeter.testrunner.ClassDataSharingArchive;
+import com.lazerycode.jmeter.utility.Fingerprint;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.AbstractArtifact;
@@ -20,13 +29,14 @@ import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyCollectionException;
 import org.eclipse.aether.graph.Dependency;
-import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.Exclusion;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.*;
 import org.eclipse.aether.util.artifact.JavaScopes;
-import org.eclipse.aether.util.filter.DependencyFilterUtils;
+import org.eclipse.aether.util.graph.selector.AndDependencySelector;
+import org.eclipse.aether.util.graph.selector.ExclusionDependencySelector;
+import org.eclipse.aether.util.graph.selector.ScopeDependencySelector;
 import org.eclipse.aether.version.InvalidVersionSpecificationException;
 
 import java.io.File;
@@ -35,8 +45,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.lazerycode.jmeter.configuration.ArtifactHelpers.*;
 import static com.lazerycode.jmeter.properties.ConfigurationFiles.*;
@@ -184,6 +201,14 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
     @Parameter
     protected List<String> testPlanLibraries = new ArrayList<>();
 
+    /**
+     * Number of batches of artifacts that are resolved (and downloaded when missing from the local repository) at the
+     * same time.
+     * Defaults to 4
+     */
+    @Parameter(defaultValue = "4")
+    protected int artifactResolutionThreads;
+
     /**
      * Absolute path to JMeter custom (test dependent) properties file.
      */
@@ -244,6 +269,76 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
     @Parameter(defaultValue = "true")
     protected boolean propertiesReplacedByCustomFiles;
 
+    /**
+     * Create a class data sharing (AppCDS) archive of the classes JMeter loads, that forked JMeter JVMs started by the
+     * jmeter and remote-server goals then use to start faster.
+     * The archive is created by running an empty test plan with the configured jMeterProcessJVMSettings, which needs
+     * Java 13 or later, and is reused as long as the jars of the JMeter directory and the java runtime are the same.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean generateClassDataSharingArchive;
+
+    /**
+     * Directory class data sharing archives are cached in (see generateClassDataSharingArchive).
+     * Defaults to ${project.build.directory}/jmeter-class-data-sharing
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jmeter-class-data-sharing")
+    protected File classDataSharingArchiveDirectory;
+
+    /**
+     * Reuse the JMeter directory configured by a previous build when none of its inputs have changed, instead of
+     * resolving and copying every JMeter artifact again. The inputs are the JMeter artifacts, extensions, junit and
+     * test plan libraries (and their download options), exclusions, properties, properties files and the files of
+     * confFilesDirectory. When only properties (or files) have changed, the libraries of a previous JMeter directory
+     * are copied and only the properties are configured again.
+     * JMeter directories are not reused when an artifact is a snapshot or a version range.
+     * The content of a reused JMeter directory is not checked, do not modify it (delete it to have it configured again).
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean reuseJMeterDirectory;
+
+    /**
+     * Directory reusable JMeter directories are kept in (see reuseJMeterDirectory), set it outside of the build
+     * directory to keep them after a clean.
+     * Defaults to ${project.build.directory}/jmeter-directories
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jmeter-directories")
+    protected File jmeterDirectoryCache;
+
+    /**
+     * How the jars of the local Maven repository are put into the lib directories of the JMeter directory:
+     * COPY, HARDLINK, SYMLINK or REFLINK (a copy-on-write clone, on filesystems that support it).
+     * Jars that cannot be linked (e.g. hard links to another filesystem) are copied.
+     * Do not modify the jars of a JMeter directory populated with links, they are the files of the local repository.
+     * Defaults to COPY
+     */
+    @Parameter(defaultValue = "COPY")
+    protected LibraryPopulationStrategy libraryPopulationStrategy;
+
+    private boolean libraryPopulationFallbackLogged = false;
+
+    /**
+     * A JMeter directory packaged by the package-jmeter goal, that is unpacked instead of configuring JMeter from the
+     * JMeter artifacts when it has been configured from the same inputs (see reuseJMeterDirectory), e.g. an archive
+     * fetched by a CI job. JMeter is configured as usual when the archive does not exist or has been configured from
+     * other inputs.
+     * Only used when reuseJMeterDirectory is set to true.
+     */
+    @Parameter
+    protected File jmeterDistribution;
+
+    /**
+     * A JMeter directory packaged by the package-jmeter goal and deployed as an artifact, resolved from the local
+     * repository (or the remote repositories), see jmeterDistribution.
+     * Format: &lt;groupId&gt;:&lt;artifactId&gt;[:&lt;extension&gt;[:&lt;classifier&gt;]]:&lt;version&gt;, e.g.
+     * com.example:my-app-jmeter:zip:1.0.0
+     * Used when jmeterDistribution is not set.
+     */
+    @Parameter
+    protected String jmeterDistributionArtifact;
+
     private Set<Exclusion> parsedExcludedArtifacts = new HashSet<>();
     /**
      * Dependency graph can contain circular references.
@@ -262,7 +357,12 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
      * This breaks jmeter.
      * We will exclude duplicates at the last moment, at the stage of copying.
      */
-    private Set<Artifact> copiedArtifacts = new HashSet<>();
+    private final CopiedArtifacts copiedArtifacts = new CopiedArtifacts();
+
+    /**
+     * File names of the ignored artifacts, resolved the first time an artifact is copied
+     */
+    private Set<String> ignoredArtifactFileNames;
 
 //	TODO move customPropertiesFiles here;
 
@@ -298,24 +398,262 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
         testConfig.getCurrentTestConfiguration().setExecutionID(this.mojoExecution.getExecutionId());
         testConfig.getCurrentTestConfiguration().setGenerateReports(generateReports);
         processedArtifacts.clear();
+        copiedArtifacts.clear();
+        ignoredArtifactFileNames = null;
         parsedExcludedArtifacts = setupExcludedArtifacts(excludedArtifacts);
-        getLog().info("Building JMeter directory structure...");
-        getLog().info("Generating JSON Test config...");
-        jmeterDirectoryPath = Paths.get(projectBuildDirectory.getAbsolutePath(), UUID.randomUUID().toString(), "jmeter");
-        testConfig.getCurrentTestConfiguration().setJmeterDirectoryPath(jmeterDirectoryPath.toString());
-        generateJMeterDirectoryTree();
         getLog().info("Configuring JMeter artifacts...");
         configureJMeterArtifacts();
-        getLog().info("Populating JMeter directory...");
-        populateJMeterDirectoryTree();
-        copyExplicitLibraries(jmeterExtensions, libExtDirectory.toFile(), downloadExtensionDependencies, "extensions");
-        copyExplicitLibraries(junitLibraries, libJUnitDirectory.toFile(), downloadLibraryDependencies, "junit libraries");
-        copyExplicitLibraries(testPlanLibraries, libDirectory.toFile(), downloadLibraryDependencies, "test plan libraries");
-        getLog().info("Configuring JMeter properties...");
-        configurePropertiesFiles();
+        String librariesFingerprint = reuseJMeterDirectory ? librariesFingerprint() : null;
+        String configurationFingerprint = null == librariesFingerprint ? null : configurationFingerprint();
+        Path jmeterHome = null == librariesFingerprint
+                ? Paths.get(projectBuildDirectory.getAbsolutePath(), UUID.randomUUID().toString())
+                : jmeterDirectoryCache.toPath().resolve(librariesFingerprint + "-" + configurationFingerprint);
+        if (null == librariesFingerprint && (null != jmeterDistribution || null != jmeterDistributionArtifact)) {
+            getLog().warn("JMeter distribution is not used as the JMeter directory cannot be reused, see reuseJMeterDirectory");
+        }
+        File configuredJMeterFile = jmeterHome.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE).toFile();
+        jmeterDirectoryPath = jmeterHome.resolve("jmeter");
+        testConfig.getCurrentTestConfiguration().setJmeterDirectoryPath(jmeterDirectoryPath.toString());
+        if (configuredJMeterFile.isFile()) {
+            getLog().info("Reusing JMeter directory " + jmeterDirectoryPath + "...");
+            generateJMeterDirectoryTree();
+            reuseConfiguredJMeter(configuredJMeterFile);
+        } else if (null != librariesFingerprint && unpackJMeterDistribution(jmeterHome, librariesFingerprint, configurationFingerprint)) {
+            generateJMeterDirectoryTree();
+            reuseConfiguredJMeter(configuredJMeterFile);
+        } else {
+            getLog().info("Building JMeter directory structure...");
+            deleteIncompleteJMeterDirectory(jmeterHome);
+            generateJMeterDirectoryTree();
+            getLog().info("Populating JMeter directory...");
+            Path configuredLibraries = null == librariesFingerprint ? null : findConfiguredLibraries(librariesFingerprint);
+            if (null == configuredLibraries) {
+                populateJMeterDirectoryTree();
+                copyExplicitLibraries(jmeterExtensions, libExtDirectory.toFile(), downloadExtensionDependencies, "extensions");
+                copyExplicitLibraries(junitLibraries, libJUnitDirectory.toFile(), downloadLibraryDependencies, "junit libraries");
+                copyExplicitLibraries(testPlanLibraries, libDirectory.toFile(), downloadLibraryDependencies, "test plan libraries");
+            } else {
+                copyConfiguredLibraries(configuredLibraries);
+            }
+            if (confFilesDirectory.exists()) {
+                copyFilesInTestDirectory(confFilesDirectory, binDirectory.toFile());
+            }
+            getLog().info("Configuring JMeter properties...");
+            configurePropertiesFiles();
+            if (null != librariesFingerprint) {
+                writeJMeterDistributionManifest(jmeterHome, librariesFingerprint, configurationFingerprint);
+                testConfig.writeCurrentTestConfigurationTo(configuredJMeterFile);
+            }
+        }
+        if (generateClassDataSharingArchive) {
+            getLog().info("Configuring class data sharing archive...");
+            configureClassDataSharingArchive();
+        }
+        getLog().info("Generating JSON Test config...");
         testConfig.writeResultFilesConfigTo(testConfigFile);
     }
 
+    /**
+     * Fingerprint of everything the libraries of the JMeter directory are built from.
+     *
+     * @return The fingerprint, null if the JMeter directory cannot be reused because the plugin is a snapshot or an
+     * artifact may resolve to another file the next time
+     */
+    private String librariesFingerprint() {
+        String pluginVersion = mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion();
+        if (null == pluginVersion || pluginVersion.endsWith("-SNAPSHOT")) {
+            getLog().info("JMeter directory is not reused as the plugin version " + pluginVersion + " is a snapshot");
+            return null;
+        }
+        List<String> artifacts = new ArrayList<>(jmeterArtifacts);
+        artifacts.addAll(jmeterExtensions);
+        artifacts.addAll(junitLibraries);
+        artifacts.addAll(testPlanLibraries);
+        artifacts.addAll(ignoredArtifacts);
+        for (String artifact : artifacts) {
+            if (!isFixedVersion(new DefaultArtifact(artifact))) {
+                getLog().info("JMeter directory is not reused as " + artifact + " is a snapshot or a version range");
+                return null;
+            }
+        }
+        return new Fingerprint()
+                .add("pluginVersion", pluginVersion)
+                .add("jmeterVersion", jmeterVersion)
+                .add("jmeterArtifacts", jmeterArtifacts)
+                .add("excludedArtifacts", excludedArtifacts)
+                .add("ignoredArtifacts", ignoredArtifacts)
+                .add("downloadJMeterDependencies", downloadJMeterDependencies)
+                .add("downloadOptionalDependencies", downloadOptionalDependencies)
+                .add("jmeterExtensions", jmeterExtensions)
+                .add("downloadExtensionDependencies", downloadExtensionDependencies)
+                .add("junitLibraries", junitLibraries)
+                .add("testPlanLibraries", testPlanLibraries)
+                .add("downloadLibraryDependencies", downloadLibraryDependencies)
+                .add("libraryPopulationStrategy", libraryPopulationStrategy)
+                .getValue();
+    }
+
+    /**
+     * Fingerprint of everything the properties and configuration files of the JMeter directory are built from.
+     *
+     * @return The fingerprint
+     * @throws MojoExecutionException If a properties or configuration file cannot be read
+     */
+    private String configurationFingerprint() throws MojoExecutionException {
+        Fingerprint fingerprint = new Fingerprint()
+                .add("propertiesJMeter", propertiesJMeter)
+                .add("propertiesSaveService", propertiesSaveService)
+                .add("propertiesReportGenerator", propertiesReportGenerator)
+                .add("propertiesUpgrade", propertiesUpgrade)
+                .add("propertiesUser", propertiesUser)
+                .add("propertiesGlobal", propertiesGlobal)
+                .add("propertiesSystem", propertiesSystem)
+                .add("propertiesReplacedByCustomFiles", propertiesReplacedByCustomFiles)
+                .add("resultsFileFormat", resultsFileFormat)
+                .add("generateReports", generateReports);
+        try {
+            for (ConfigurationFiles configurationFile : values()) {
+                fingerprint.addFile(configurationFile.getFilename(), new File(propertiesFilesDirectory, configurationFile.getFilename()));
+            }
+            for (File customPropertiesFile : customPropertiesFiles) {
+                fingerprint.addFile("customPropertiesFile", customPropertiesFile);
+            }
+            fingerprint.addFile("confFilesDirectory", confFilesDirectory);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+
+        return fingerprint.getValue();
+    }
+
+    /**
+     * A JMeter directory that has not been completely configured (e.g. because a previous build has been stopped)
+     * is configured again from scratch.
+     */
+    private void deleteIncompleteJMeterDirectory(Path jmeterHome) throws MojoExecutionException {
+        try {
+            if (Files.exists(jmeterHome)) {
+                FileUtils.deleteDirectory(jmeterHome.toFile());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private void writeJMeterDistributionManifest(Path jmeterHome, String librariesFingerprint, String configurationFingerprint) throws MojoExecutionException {
+        try {
+            JMeterDistribution.writeManifest(jmeterHome, librariesFingerprint, configurationFingerprint);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Unpack the JMeter distribution (see jmeterDistribution and jmeterDistributionArtifact) if it has been configured
+     * from the same inputs.
+     *
+     * @param jmeterHome               Parent of the JMeter directory
+     * @param librariesFingerprint     Fingerprint of the libraries
+     * @param configurationFingerprint Fingerprint of the configuration
+     * @return true if the JMeter distribution has been unpacked
+     * @throws MojoExecutionException If the JMeter distribution cannot be unpacked
+     */
+    private boolean unpackJMeterDistribution(Path jmeterHome, String librariesFingerprint, String configurationFingerprint) throws MojoExecutionException {
+        File distribution = jmeterDistribution;
+        if (null == distribution && null != jmeterDistributionArtifact) {
+            try {
+                distribution = getArtifactResult(new DefaultArtifact(jmeterDistributionArtifact)).getFile();
+            } catch (MojoExecutionException e) {
+                getLog().warn("Unable to resolve JMeter distribution " + jmeterDistributionArtifact + ", configuring JMeter: " + e.getMessage());
+                return false;
+            }
+        }
+        if (null == distribution) {
+            return false;
+        }
+        if (!distribution.isFile()) {
+            getLog().warn("JMeter distribution " + distribution + " does not exist, configuring JMeter");
+            return false;
+        }
+        try {
+            Properties manifest = JMeterDistribution.readManifest(distribution);
+            if (!librariesFingerprint.equals(manifest.getProperty(JMeterDistribution.LIBRARIES_FINGERPRINT))
+                    || !configurationFingerprint.equals(manifest.getProperty(JMeterDistribution.CONFIGURATION_FINGERPRINT))) {
+                getLog().warn("JMeter distribution " + distribution + " has been configured from other inputs, configuring JMeter");
+                return false;
+            }
+            getLog().info("Unpacking JMeter distribution " + distribution + "...");
+            deleteIncompleteJMeterDirectory(jmeterHome);
+            JMeterDistribution.extract(distribution, jmeterHome);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to unpack JMeter distribution " + distribution + ": " + e.getMessage(), e);
+        }
+
+        return jmeterHome.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE).toFile().isFile();
+    }
+
+    /**
+     * Use the properties configured in a reused JMeter directory.
+     *
+     * @param configuredJMeterFile Test configuration of the reused JMeter directory
+     * @throws MojoExecutionException If the test configuration cannot be read
+     */
+    private void reuseConfiguredJMeter(File configuredJMeterFile) throws MojoExecutionException {
+        TestConfiguration configuredJMeter = TestConfigurationWrapper.readTestConfiguration(configuredJMeterFile);
+        resultsOutputIsCSVFormat = configuredJMeter.getResultsOutputIsCSVFormat();
+        testConfig.getCurrentTestConfiguration().setRuntimeJarName(configuredJMeter.getRuntimeJarName());
+        testConfig.getCurrentTestConfiguration().setResultsOutputIsCSVFormat(resultsOutputIsCSVFormat);
+        testConfig.getCurrentTestConfiguration().setPropertiesMap(configuredJMeter.getPropertiesMap());
+        setDefaultPluginProperties(testConfig.getCurrentTestConfiguration().getJmeterWorkingDirectoryPath().getAbsolutePath());
+    }
+
+    /**
+     * @param librariesFingerprint Fingerprint of the libraries
+     * @return A complete JMeter directory (parent) with the same libraries, null if there is none
+     */
+    private Path findConfiguredLibraries(String librariesFingerprint) {
+        File[] configuredJMeterHomes = jmeterDirectoryCache.listFiles(jmeterHome ->
+                jmeterHome.getName().startsWith(librariesFingerprint + "-") && new File(jmeterHome, JMeterDistribution.CONFIGURED_JMETER_FILE).isFile());
+        if (null == configuredJMeterHomes || configuredJMeterHomes.length == 0) {
+            return null;
+        }
+
+        return configuredJMeterHomes[0].toPath();
+    }
+
+    /**
+     * Copy the libraries of another JMeter directory built from the same artifacts, instead of resolving them again.
+     * Only the configuration artifact is resolved, its settings are extracted and its properties are needed to
+     * configure the properties files.
+     *
+     * @param configuredJMeterHome JMeter directory (parent) to copy the libraries from
+     * @throws MojoExecutionException If the libraries cannot be copied
+     */
+    private void copyConfiguredLibraries(Path configuredJMeterHome) throws MojoExecutionException {
+        getLog().info("Copying JMeter libraries from " + configuredJMeterHome + "...");
+        String runtimeJarName = TestConfigurationWrapper.readTestConfiguration(configuredJMeterHome.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE).toFile()).getRuntimeJarName();
+        Path configuredJMeterDirectory = configuredJMeterHome.resolve("jmeter");
+        Path configuredLibDirectory = configuredJMeterDirectory.resolve("lib");
+        try (Stream<Path> files = Files.walk(configuredLibDirectory)) {
+            List<Path> libraries = files.filter(Files::isRegularFile).collect(Collectors.toList());
+            for (Path library : libraries) {
+                Path destination = libDirectory.resolve(configuredLibDirectory.relativize(library).toString());
+                Files.createDirectories(destination.getParent());
+                populateLibrary(library, destination);
+            }
+            populateLibrary(configuredJMeterDirectory.resolve("bin").resolve(runtimeJarName), binDirectory.resolve(runtimeJarName));
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        testConfig.getCurrentTestConfiguration().setRuntimeJarName(runtimeJarName);
+        for (String desiredArtifact : jmeterArtifacts) {
+            if (JMETER_CONFIG_ARTIFACT_NAME.equals(new DefaultArtifact(desiredArtifact).getArtifactId())) {
+                jmeterConfigArtifact = getArtifactResult(new DefaultArtifact(desiredArtifact));
+                extractConfigSettings(jmeterConfigArtifact);
+            }
+        }
+    }
+
     /**
      * Generate the directory tree utilised by JMeter.
      */
@@ -378,6 +716,17 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
         setDefaultPluginProperties(testConfig.getCurrentTestConfiguration().getJmeterWorkingDirectoryPath().getAbsolutePath());
     }
 
+    private void configureClassDataSharingArchive() throws MojoExecutionException {
+        JMeterProcessJVMSettings jvmSettings = null == jMeterProcessJVMSettings ? new JMeterProcessJVMSettings() : jMeterProcessJVMSettings;
+        ClassDataSharingArchive archive = ClassDataSharingArchive.forJMeterDirectory(classDataSharingArchiveDirectory, jmeterDirectoryPath.toFile(), jvmSettings.getJavaRuntime());
+        if (archive.exists()) {
+            getLog().info("Using cached class data sharing archive " + archive.getFile().getAbsolutePath());
+        } else if (!archive.create(jvmSettings, binDirectory.toFile(), testConfig.getCurrentTestConfiguration().getRuntimeJarName())) {
+            return;
+        }
+        testConfig.getCurrentTestConfiguration().setClassDataSharingArchive(archive.getFile().getAbsolutePath());
+    }
+
     protected void setJMeterResultFileFormat() {
         if (generateReports || "csv".equalsIgnoreCase(resultsFileFormat)) {
             propertiesJMeter.put("jmeter.save.saveservice.output_format", "csv");
@@ -417,8 +766,8 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
         if (jmeterArtifacts.isEmpty()) {
             throw new MojoExecutionException("No JMeter dependencies specified!, check jmeterArtifacts and jmeterVersion elements");
         }
-        for (String desiredArtifact : jmeterArtifacts) {
-            Artifact returnedArtifact = getArtifactResult(new DefaultArtifact(desiredArtifact));
+        List<Dependency> jmeterDependencies = new ArrayList<>();
+        for (Artifact returnedArtifact : getArtifactResults(jmeterArtifacts)) {
             switch (returnedArtifact.getArtifactId()) {
                 case JMETER_CONFIG_ARTIFACT_NAME:
                     jmeterConfigArtifact = returnedArtifact;
@@ -427,20 +776,18 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
                 case JMETER_ARTIFACT_NAME:
                     testConfig.getCurrentTestConfiguration().setRuntimeJarName(returnedArtifact.getFile().getName());
                     copyArtifactIfRequired(returnedArtifact, binDirectory);
-                    copyTransitiveRuntimeDependenciesToLibDirectory(returnedArtifact, downloadJMeterDependencies);
+                    jmeterDependencies.add(new Dependency(returnedArtifact, DEPENDENCIES_DEFAULT_SEARCH_SCOPE));
                     break;
                 case JORPHAN_ARTIFACT_NAME:
                     copyArtifactIfRequired(returnedArtifact, libDirectory);
-                    copyTransitiveRuntimeDependenciesToLibDirectory(returnedArtifact, downloadJMeterDependencies);
+                    jmeterDependencies.add(new Dependency(returnedArtifact, DEPENDENCIES_DEFAULT_SEARCH_SCOPE));
                     break;
                 default:
                     copyArtifactIfRequired(returnedArtifact, libExtDirectory);
-                    copyTransitiveRuntimeDependenciesToLibDirectory(returnedArtifact, downloadJMeterDependencies);
+                    jmeterDependencies.add(new Dependency(returnedArtifact, DEPENDENCIES_DEFAULT_SEARCH_SCOPE));
             }
         }
-        if (confFilesDirectory.exists()) {
-            copyFilesInTestDirectory(confFilesDirectory, binDirectory.toFile());
-        }
+        copyTransitiveRuntimeDependenciesToLibDirectory(jmeterDependencies, downloadJMeterDependencies);
     }
 
     /**
@@ -454,24 +801,26 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
     private void copyExplicitLibraries(List<String> desiredArtifacts, File destination, boolean downloadDependencies, String description) throws MojoExecutionException {
         getLog().info(String.format("Copying %s to %s", description, destination));
         getLog().info(String.format("Downloading dependencies: %s", downloadDependencies));
-        for (String desiredArtifact : desiredArtifacts) {
-            copyExplicitLibrary(desiredArtifact, destination, downloadDependencies);
+        List<Artifact> returnedArtifacts = getArtifactResults(desiredArtifacts);
+        for (Artifact returnedArtifact : returnedArtifacts) {
+            getLog().debug(String.format("Copying %s to %s", returnedArtifact, destination.getAbsolutePath()));
+            copyArtifactIfRequired(returnedArtifact, Paths.get(destination.toURI()));
+        }
+        if (downloadDependencies) {
+            resolveTestDependenciesAndCopyWithTransitivity(returnedArtifacts);
         }
     }
 
     /**
-     * @param desiredArtifact      Artifact to copy
-     * @param destination          A destination folder to copy these artifacts to
-     * @param downloadDependencies Do we download dependencies
-     * @throws MojoExecutionException MojoExecutionException
+     * @return The project repositories, followed by the additional repositories
      */
-    private void copyExplicitLibrary(String desiredArtifact, File destination, boolean downloadDependencies) throws MojoExecutionException {
-        getLog().debug(String.format("Copying %s to %s", desiredArtifact, destination.getAbsolutePath()));
-        Artifact returnedArtifact = getArtifactResult(new DefaultArtifact(desiredArtifact));
-        copyArtifactIfRequired(returnedArtifact, Paths.get(destination.toURI()));
-        if (downloadDependencies) {
-            resolveTestDependenciesAndCopyWithTransitivity(returnedArtifact);
-        }
+    private List<RemoteRepository> remoteRepositories() {
+        additionalRepositories.stream()
+                .map(RepositoryConfiguration::getRemoteRepository)
+                .filter(additionalRepository -> !repositoryList.contains(additionalRepository))
+                .forEach(repositoryList::add);
+
+        return repositoryList;
     }
 
     /**
@@ -484,8 +833,7 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
     private Artifact getArtifactResult(Artifact desiredArtifact) throws MojoExecutionException {// NOSONAR
         try {
             ArtifactRequest artifactRequest = new ArtifactRequest().setArtifact(ArtifactHelpers.resolveArtifactVersion(repositorySystem, repositorySystemSession, repositoryList, desiredArtifact));
-            additionalRepositories.forEach((additionalRepository) -> repositoryList.add(additionalRepository.getRemoteRepository()));
-            artifactRequest.setRepositories(repositoryList);
+            artifactRequest.setRepositories(remoteRepositories());
             return repositorySystem.resolveArtifact(repositorySystemSession, artifactRequest).getArtifact();
         } catch (ArtifactResolutionException | VersionRangeResolutionException e) {
             throw new MojoExecutionException(e.getMessage(), e);
@@ -493,121 +841,205 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
     }
 
     /**
-     * @param artifact {@link Artifact}
+     * Find a list of artifacts in the remote repositories, see {@link #resolveArtifacts(List)}
+     *
+     * @param desiredArtifacts The artifacts that we want to find (version ranges are allowed)
+     * @return The artifacts, in the same order
      * @throws MojoExecutionException MojoExecutionException
      */
-    private void resolveTestDependenciesAndCopyWithTransitivity(Artifact artifact) throws MojoExecutionException {
-        ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, repositoryList, null);
+    private List<Artifact> getArtifactResults(List<String> desiredArtifacts) throws MojoExecutionException {
+        List<ArtifactRequest> artifactRequests = new ArrayList<>();
         try {
-            ArtifactDescriptorResult result = repositorySystem.readArtifactDescriptor(repositorySystemSession, request);
-            for (Dependency dep : result.getDependencies()) {
-                // Here we can not filter dependencies by scope, we need to use dependencies with any scope
-                // This is because JMeter tests use test, provided, and compile-scoped dependencies
-                ArtifactRequest artifactRequest = new ArtifactRequest(ArtifactHelpers.resolveArtifactVersion(repositorySystem, repositorySystemSession, repositoryList, dep.getArtifact()), repositoryList, null);
-                ArtifactResult artifactResult = repositorySystem.resolveArtifact(repositorySystemSession, artifactRequest);
-                if (isArtifactALibrary(artifactResult.getArtifact())) {
-                    copyArtifactIfRequired(artifactResult.getArtifact(), libDirectory);
-                } else {
-                    getLog().debug("Artifact " + artifactResult.getArtifact() + " is not a library, ignoring");
-                }
-                copyTransitiveRuntimeDependenciesToLibDirectory(dep, true);
+            for (String desiredArtifact : desiredArtifacts) {
+                artifactRequests.add(new ArtifactRequest(ArtifactHelpers.resolveArtifactVersion(repositorySystem, repositorySystemSession, remoteRepositories(), new DefaultArtifact(desiredArtifact)), remoteRepositories(), null));
             }
-        } catch (ArtifactDescriptorException | ArtifactResolutionException | VersionRangeResolutionException e) {
+        } catch (VersionRangeResolutionException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
+
+        return resolveArtifacts(artifactRequests);
     }
 
     /**
-     * Collate a list of transitive runtime dependencies that need to be copied to the /lib directory and then copy them there.
+     * Resolve artifacts in batches, at most artifactResolutionThreads batches at the same time.
+     * Each batch goes through the batch API of the repository system, which downloads the missing artifacts of a
+     * batch in parallel.
      *
-     * @param artifact                    The artifact that is a transitive dependency
-     * @param getDependenciesOfDependency get dependencies of dependency
+     * @param artifactRequests The artifacts to resolve
+     * @return The resolved artifacts, in the same order
+     * @throws MojoExecutionException If an artifact cannot be resolved
+     */
+    private List<Artifact> resolveArtifacts(List<ArtifactRequest> artifactRequests) throws MojoExecutionException {
+        int threads = Math.max(1, Math.min(artifactResolutionThreads, artifactRequests.size()));
+        if (threads == 1) {
+            return resolveArtifactBatch(artifactRequests);
+        }
+        int batchSize = (artifactRequests.size() + threads - 1) / threads;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService resolvers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "jmeter-artifact-resolver-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<Artifact>>> batches = new ArrayList<>();
+            for (int start = 0; start < artifactRequests.size(); start += batchSize) {
+                List<ArtifactRequest> batch = artifactRequests.subList(start, Math.min(start + batchSize, artifactRequests.size()));
+                batches.add(resolvers.submit(() -> resolveArtifactBatch(batch)));
+            }
+            List<Artifact> artifacts = new ArrayList<>(artifactRequests.size());
+            for (Future<List<Artifact>> batch : batches) {
+                artifacts.addAll(batch.get());
+            }
+            return artifacts;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while resolving artifacts", e);
+        } finally {
+            resolvers.shutdownNow();
+        }
+    }
+
+    private List<Artifact> resolveArtifactBatch(List<ArtifactRequest> artifactRequests) throws MojoExecutionException {
+        try {
+            List<Artifact> artifacts = new ArrayList<>(artifactRequests.size());
+            for (ArtifactResult artifactResult : repositorySystem.resolveArtifacts(repositorySystemSession, artifactRequests)) {
+                artifacts.add(artifactResult.getArtifact());
+            }
+            return artifacts;
+        } catch (ArtifactResolutionException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy the direct dependencies of libraries (whatever their scope) to the /lib directory, and their transitive
+     * runtime dependencies.
+     *
+     * @param artifacts The libraries
      * @throws MojoExecutionException MojoExecutionException
      */
-    private void copyTransitiveRuntimeDependenciesToLibDirectory(Artifact artifact, boolean getDependenciesOfDependency) throws MojoExecutionException {
-        copyTransitiveRuntimeDependenciesToLibDirectory(new Dependency(artifact, DEPENDENCIES_DEFAULT_SEARCH_SCOPE), getDependenciesOfDependency);
+    private void resolveTestDependenciesAndCopyWithTransitivity(List<Artifact> artifacts) throws MojoExecutionException {
+        List<Dependency> dependencies = new ArrayList<>();
+        List<ArtifactRequest> artifactRequests = new ArrayList<>();
+        try {
+            for (Artifact artifact : artifacts) {
+                ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, remoteRepositories(), null);
+                for (Dependency dep : repositorySystem.readArtifactDescriptor(repositorySystemSession, request).getDependencies()) {
+                    // Here we can not filter dependencies by scope, we need to use dependencies with any scope
+                    // This is because JMeter tests use test, provided, and compile-scoped dependencies
+                    dependencies.add(dep);
+                    artifactRequests.add(new ArtifactRequest(ArtifactHelpers.resolveArtifactVersion(repositorySystem, repositorySystemSession, repositoryList, dep.getArtifact()), repositoryList, null));
+                }
+            }
+        } catch (ArtifactDescriptorException | VersionRangeResolutionException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        for (Artifact returnedArtifact : resolveArtifacts(artifactRequests)) {
+            if (isArtifactALibrary(returnedArtifact)) {
+                copyArtifactIfRequired(returnedArtifact, libDirectory);
+            } else {
+                getLog().debug("Artifact " + returnedArtifact + " is not a library, ignoring");
+            }
+        }
+        copyTransitiveRuntimeDependenciesToLibDirectory(dependencies, true);
     }
 
     /**
      * Collate a list of transitive runtime dependencies that need to be copied to the /lib directory and then copy them there.
+     * <p>
+     * The dependency graph of every root dependency is collected at once, without conflict resolution so that every
+     * version of a dependency is seen and the newest one is copied (see {@link #copyArtifactIfRequired(Artifact, Path)}).
+     * Optional dependencies are kept in the graph (the root dependencies are its first level, the optional dependency
+     * selector of the session would drop every optional dependency below them), whether they are copied is decided by
+     * downloadOptionalDependencies.
+     * Only the newest version of each dependency is then resolved, see {@link #resolveArtifacts(List)}.
      *
-     * @param rootDependency              {@link Dependency} The artifact that is a transitive dependency
-     * @param getDependenciesOfDependency get dependencies of dependency
+     * @param rootDependencies            The dependencies whose dependencies are copied
+     * @param getDependenciesOfDependency get dependencies of dependency, otherwise only the direct dependencies of the
+     *                                    root dependencies are copied
      * @throws MojoExecutionException MojoExecutionException
      */
-    private void copyTransitiveRuntimeDependenciesToLibDirectory(Dependency rootDependency, boolean getDependenciesOfDependency) throws MojoExecutionException {
-        CollectRequest collectRequest = new CollectRequest();
-        collectRequest.setRoot(rootDependency);
-        collectRequest.setRepositories(repositoryList);
-        // In #classpathFilter, we are not actually passing the scope, but the classpath identifier (just using the same enum as for the scope).
-        // That is, for example, for a test classpath, dependencies are required with any scope (that is, the TEST filter is the softest)
-
-        DependencyFilter dependencyFilter =
-                DependencyFilterUtils.andFilter(DependencyFilterUtils.classpathFilter(DEPENDENCIES_DEFAULT_SEARCH_SCOPE),
-                        (DependencyNode dependencyNode, List<DependencyNode> arg1) -> {
-                            Artifact artifact = dependencyNode.getArtifact();
-                            if (dependencyNode.getDependency().isOptional()) {
-                                getLog().debug("Filtering dependency " + dependencyNode.getDependency());
-                                return false;
-                            }
-
-                            boolean notExcluded = artifactIsNotExcluded(parsedExcludedArtifacts, artifact);
-                            if (!notExcluded) {
-                                getLog().debug("Filtering excluded dependency " + dependencyNode.getDependency());
-                            }
-
-                            return notExcluded;
-                        });
-        DependencyRequest dependencyRequest = new DependencyRequest(collectRequest, dependencyFilter);
-
-        if (getLog().isDebugEnabled()) {
-            getLog().debug("Root dependency name: " + rootDependency.toString());
-            if ((dependencyRequest.getCollectRequest() != null) && (dependencyRequest.getCollectRequest().getTrace() != null)) {
-                getLog().debug("Root dependency request trace: " + dependencyRequest.getCollectRequest().getTrace().toString());
-            }
-            getLog().debug("Root dependency exclusions: " + rootDependency.getExclusions());
-            getLog().debug(LINE_SEPARATOR);
+    void copyTransitiveRuntimeDependenciesToLibDirectory(List<Dependency> rootDependencies, boolean getDependenciesOfDependency) throws MojoExecutionException {
+        if (rootDependencies.isEmpty()) {
+            return;
         }
+        CollectRequest collectRequest = new CollectRequest(rootDependencies, null, remoteRepositories());
+        DefaultRepositorySystemSession unresolvedGraphSession = new DefaultRepositorySystemSession(repositorySystemSession);
+        unresolvedGraphSession.setDependencyGraphTransformer(null);
+        unresolvedGraphSession.setDependencySelector(new AndDependencySelector(
+                new ScopeDependencySelector(JavaScopes.TEST, JavaScopes.PROVIDED),
+                new ExclusionDependencySelector()));
         try {
             // here we can not resolve, since exclusions can be caught, which are therefore excluded, which are absent in the repositories.
-            List<DependencyNode> artifactDependencyNodes =
-                    repositorySystem.collectDependencies(repositorySystemSession, collectRequest).getRoot().getChildren();
-            for (DependencyNode dependencyNode : artifactDependencyNodes) {
+            DependencyNode dependencyGraph = repositorySystem.collectDependencies(unresolvedGraphSession, collectRequest).getRoot();
+            Map<String, Artifact> newestArtifacts = new LinkedHashMap<>();
+            for (DependencyNode rootNode : dependencyGraph.getChildren()) {
                 if (getLog().isDebugEnabled()) {
-                    getLog().debug("Dependency name: " + dependencyNode.toString());
-                    if ((dependencyRequest.getCollectRequest() != null) && (dependencyRequest.getCollectRequest().getTrace() != null)) {
-                        getLog().debug("Dependency request trace: " +
-                                dependencyRequest.getCollectRequest().getTrace().toString());
-                    }
+                    getLog().debug("Root dependency name: " + rootNode.getDependency());
+                    getLog().debug("Root dependency exclusions: " + rootNode.getDependency().getExclusions());
+                    getLog().debug(LINE_SEPARATOR);
                 }
-                Exclusion dummyExclusion = new Exclusion(
-                        dependencyNode.getArtifact().getGroupId(),
-                        dependencyNode.getArtifact().getArtifactId(),
-                        dependencyNode.getArtifact().getClassifier(),
-                        dependencyNode.getArtifact().getExtension());
-                if ((downloadOptionalDependencies || !dependencyNode.getDependency().isOptional()) &&
-                        !containsExclusion(parsedExcludedArtifacts, dummyExclusion) &&
-                        !((rootDependency.getExclusions() != null) && (containsExclusion(rootDependency.getExclusions(), dummyExclusion)))) {
-                    ArtifactRequest artifactRequest = new ArtifactRequest(dependencyNode);
-                    artifactRequest.setArtifact(ArtifactHelpers.resolveArtifactVersion(repositorySystem, repositorySystemSession, repositoryList, artifactRequest.getArtifact()));
-                    Artifact returnedArtifact = repositorySystem.resolveArtifact(repositorySystemSession, artifactRequest).getArtifact();
-                    if ((!returnedArtifact.getArtifactId().startsWith(JMETER_ARTIFACT_PREFIX)) && (isArtifactALibrary(returnedArtifact))) {
-                        copyArtifactIfRequired(returnedArtifact, libDirectory);
+                selectRuntimeDependencies(rootNode, getDependenciesOfDependency, newestArtifacts);
+            }
+            List<ArtifactRequest> artifactRequests = new ArrayList<>();
+            for (Artifact artifact : newestArtifacts.values()) {
+                artifactRequests.add(new ArtifactRequest(artifact, remoteRepositories(), null));
+            }
+            for (Artifact returnedArtifact : resolveArtifacts(artifactRequests)) {
+                copyArtifactIfRequired(returnedArtifact, libDirectory);
+            }
+        } catch (DependencyCollectionException | InvalidVersionSpecificationException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Select the runtime dependencies of a node of the dependency graph that need to be copied to the /lib directory.
+     *
+     * @param parentNode                  The node
+     * @param getDependenciesOfDependency get dependencies of dependency
+     * @param newestArtifacts             The newest version of every dependency selected so far
+     * @throws InvalidVersionSpecificationException If versions cannot be compared
+     */
+    private void selectRuntimeDependencies(DependencyNode parentNode, boolean getDependenciesOfDependency, Map<String, Artifact> newestArtifacts) throws InvalidVersionSpecificationException {
+        Collection<Exclusion> parentExclusions = parentNode.getDependency().getExclusions();
+        for (DependencyNode dependencyNode : parentNode.getChildren()) {
+            if (getLog().isDebugEnabled()) {
+                getLog().debug("Dependency name: " + dependencyNode.toString());
+            }
+            Exclusion dummyExclusion = new Exclusion(
+                    dependencyNode.getArtifact().getGroupId(),
+                    dependencyNode.getArtifact().getArtifactId(),
+                    dependencyNode.getArtifact().getClassifier(),
+                    dependencyNode.getArtifact().getExtension());
+            if ((downloadOptionalDependencies || !dependencyNode.getDependency().isOptional()) &&
+                    !containsExclusion(parsedExcludedArtifacts, dummyExclusion) &&
+                    !((parentExclusions != null) && (containsExclusion(parentExclusions, dummyExclusion)))) {
+                Artifact artifact = dependencyNode.getArtifact();
+                if ((!artifact.getArtifactId().startsWith(JMETER_ARTIFACT_PREFIX)) && (isArtifactALibrary(artifact))) {
+                    String artifactKey = dummyExclusion.toString();
+                    Artifact selectedArtifact = newestArtifacts.get(artifactKey);
+                    if (null == selectedArtifact || isArtifactIsOlderThanArtifact(selectedArtifact, artifact)) {
+                        newestArtifacts.put(artifactKey, artifact);
                     }
+                }
 
-                    if (getDependenciesOfDependency && !processedArtifacts.contains(dummyExclusion)) {
-                        processedArtifacts.add(dummyExclusion);
-                        if (getLog().isDebugEnabled()) {
-                            getLog().debug("Added to processed list: " + dummyExclusion);
-                            getLog().debug("total processed: " + processedArtifacts.size());
-                            getLog().debug(LINE_SEPARATOR);
-                        }
-                        copyTransitiveRuntimeDependenciesToLibDirectory(dependencyNode.getDependency(), true);
+                if (getDependenciesOfDependency && !processedArtifacts.contains(dummyExclusion)) {
+                    processedArtifacts.add(dummyExclusion);
+                    if (getLog().isDebugEnabled()) {
+                        getLog().debug("Added to processed list: " + dummyExclusion);
+                        getLog().debug("total processed: " + processedArtifacts.size());
+                        getLog().debug(LINE_SEPARATOR);
                     }
+                    selectRuntimeDependencies(dependencyNode, true, newestArtifacts);
                 }
             }
-        } catch (DependencyCollectionException | ArtifactResolutionException | VersionRangeResolutionException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
         }
     }
 
@@ -620,33 +1052,31 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
      * @throws MojoExecutionException Unable to copy file or resolve dependency, or unable to find artifact or unable to parse Artifact version
      */
     private boolean copyArtifactIfRequired(Artifact artifactToCopy, Path destinationDirectory) throws MojoExecutionException {
-        for (String ignoredArtifact : ignoredArtifacts) {
-            Artifact artifactToIgnore = getArtifactResult(new DefaultArtifact(ignoredArtifact));
-            if (artifactToCopy.getFile().getName().equals(artifactToIgnore.getFile().getName())) {
-                getLog().debug(artifactToCopy.getFile().getName() + " has not been copied over because it is in the ignore list.");
-                return false;
+        if (null == ignoredArtifactFileNames) {
+            ignoredArtifactFileNames = new HashSet<>();
+            for (Artifact artifactToIgnore : getArtifactResults(ignoredArtifacts)) {
+                ignoredArtifactFileNames.add(artifactToIgnore.getFile().getName());
             }
         }
+        if (ignoredArtifactFileNames.contains(artifactToCopy.getFile().getName())) {
+            getLog().debug(artifactToCopy.getFile().getName() + " has not been copied over because it is in the ignore list.");
+            return false;
+        }
         try {
-            for (Iterator<Artifact> iterator = copiedArtifacts.iterator(); iterator.hasNext(); ) {
-                Artifact alreadyCopiedArtifact = iterator.next();
-                if (artifactsAreMatchingTypes(alreadyCopiedArtifact, artifactToCopy)) {
-                    if (isArtifactIsOlderThanArtifact(alreadyCopiedArtifact, artifactToCopy)) {
-                        Path artifactToDelete = Paths.get(destinationDirectory.toString(), alreadyCopiedArtifact.getFile().getName());
-                        getLog().debug(String.format("Deleting file:'%s'", artifactToDelete));
-                        // We delete the old artifact and remove it from the list of copied artifacts, the new artifact will be copied below
-                        Files.deleteIfExists(artifactToDelete);
-                        iterator.remove();
-                        break;
-                    } else {
-                        return false;
-                    }
+            Artifact alreadyCopiedArtifact = copiedArtifacts.getCopiedVersionOf(artifactToCopy);
+            if (null != alreadyCopiedArtifact) {
+                if (!isArtifactIsOlderThanArtifact(alreadyCopiedArtifact, artifactToCopy)) {
+                    return false;
                 }
+                Path artifactToDelete = Paths.get(destinationDirectory.toString(), alreadyCopiedArtifact.getFile().getName());
+                getLog().debug(String.format("Deleting file:'%s'", artifactToDelete));
+                // We delete the old artifact, the new artifact replaces it in the copied artifacts once copied below
+                Files.deleteIfExists(artifactToDelete);
             }
             Path desiredArtifact = Paths.get(destinationDirectory.toString(), artifactToCopy.getFile().getName());
             if (!desiredArtifact.toFile().exists()) {
                 getLog().debug(String.format("Copying: %s to %s", desiredArtifact, destinationDirectory.toString()));
-                Files.copy(Paths.get(artifactToCopy.getFile().getAbsolutePath()), desiredArtifact);
+                populateLibrary(Paths.get(artifactToCopy.getFile().getAbsolutePath()), desiredArtifact);
             }
         } catch (IOException | InvalidVersionSpecificationException e) {
             throw new MojoExecutionException(e.getMessage(), e);
@@ -656,6 +1086,20 @@ public class ConfigureJMeterMojo extends AbstractJMeterMojo {
         return true;
     }
 
+    /**
+     * Put a library into the JMeter directory with the configured libraryPopulationStrategy.
+     *
+     * @param library     The library
+     * @param destination The file to create
+     * @throws IOException If the library cannot be linked or copied
+     */
+    private void populateLibrary(Path library, Path destination) throws IOException {
+        if (!libraryPopulationStrategy.populate(library, destination) && !libraryPopulationFallbackLogged) {
+            getLog().warn(String.format("Unable to use %s library population for %s, copying libraries instead", libraryPopulationStrategy, destination));
+            libraryPopulationFallbackLogged = true;
+        }
+    }
+
     /**
      * Extract the configuration settings (not properties files) from the configuration artifact
      * and load them into the /bin directory
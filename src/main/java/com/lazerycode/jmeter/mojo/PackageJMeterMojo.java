@@ -0,0 +1,54 @@
+package com.lazerycode.jmeter.mojo;
+
+import com.lazerycode.jmeter.configuration.JMeterDistribution;
+import com.lazerycode.jmeter.json.TestConfigurationWrapper;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Goal that packages the JMeter directory configured by the configure goal into a single archive.<br>
+ * The archive can then be unpacked by the configure goal of another build (see jmeterDistribution and
+ * jmeterDistributionArtifact) instead of configuring JMeter from the JMeter artifacts, as long as it is configured
+ * from the same inputs. Only reusable JMeter directories can be packaged, reuseJMeterDirectory needs to be set to true
+ * for the configure goal.<br>
+ * This goal runs within Lifecycle phase {@link LifecyclePhase#PACKAGE}.
+ */
+@Mojo(name = "package-jmeter", defaultPhase = LifecyclePhase.PACKAGE)
+public class PackageJMeterMojo extends AbstractJMeterMojo {
+
+    /**
+     * The archive to create.
+     * Defaults to ${project.build.directory}/jmeter-distribution.zip
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jmeter-distribution.zip")
+    protected File jmeterDistributionFile;
+
+    /**
+     * Package the configured JMeter directory.
+     *
+     * @throws MojoExecutionException MojoExecutionException
+     */
+    @Override
+    public void doExecute() throws MojoExecutionException {
+        getLog().info(" ");
+        getLog().info(LINE_SEPARATOR);
+        getLog().info(" P A C K A G I N G    J M E T E R");
+        getLog().info(LINE_SEPARATOR);
+        testConfig = new TestConfigurationWrapper(new File(testConfigFile), selectedConfiguration);
+        Path jmeterHome = Paths.get(testConfig.getCurrentTestConfiguration().getJmeterDirectoryPath()).getParent();
+        try {
+            JMeterDistribution.create(jmeterHome, jmeterDistributionFile);
+        } catch (IOException e) {
+            throw new MojoExecutionException(String.format("Unable to package JMeter directory %s (only reusable JMeter directories can be packaged, see reuseJMeterDirectory): %s",
+                    jmeterHome, e.getMessage()), e);
+        }
+        getLog().info("JMeter directory packaged to " + jmeterDistributionFile.getAbsolutePath());
+    }
+}
@@ -3,7 +3,7 @@ package com.lazerycode.jmeter.mojo;
 import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
 import com.lazerycode.jmeter.testrunner.JMeterProcessBuilder;
-import com.lazerycode.jmeter.utility.StreamRedirector;
+import com.lazerycode.jmeter.utility.OutputBuffer;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -64,9 +64,10 @@ public class RunJMeterGUIMojo extends AbstractJMeterMojo {
                 getLog().info(" Starting JMeter GUI process in the background...");
                 //TODO log process using process.pid() when Java 9 is the minimum supported version
             } else {
-                new Thread(new StreamRedirector(process.getInputStream(), getLog()::info)).start();
-                new Thread(new StreamRedirector(process.getErrorStream(), getLog()::error)).start();
-                process.waitFor();
+                // Errors are redirected to the output of the process, one reader is enough
+                try (OutputBuffer ignored = new OutputBuffer(jmeterOutputOverflowPolicy, getLog()::info).readFrom(process.getInputStream(), jmeterOutputCharset())) {
+                    process.waitFor();
+                }
             }
         } catch (InterruptedException ex) {
             getLog().info(" ");
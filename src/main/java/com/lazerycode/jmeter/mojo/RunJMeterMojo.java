@@ -1,12 +1,17 @@
 package com.lazerycode.jmeter.mojo;
 
+import com.lazerycode.jmeter.configuration.LiveAbortRule;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
+import com.lazerycode.jmeter.results.ResultFileCompression;
 import com.lazerycode.jmeter.testrunner.TestManager;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Goal that runs jmeter based on configuration defined in your pom.<br>
@@ -15,6 +20,120 @@ import java.io.File;
 @Mojo(name = "jmeter", defaultPhase = LifecyclePhase.INTEGRATION_TEST)
 public class RunJMeterMojo extends AbstractJMeterMojo {
 
+    /**
+     * Follow CSV results files while the tests are running and stop JMeter as soon as the error rate goes above
+     * errorRateThresholdInPercent, instead of failing once the whole test has run.
+     * Any remaining tests are not run once a test has been stopped, the results goal will then fail the build.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean abortTestWhenErrorRateExceeded;
+
+    /**
+     * The error rate threshold used to stop tests early (see abortTestWhenErrorRateExceeded), this is the same
+     * parameter as the one used by the results goal so it only needs to be configured once at plugin level.
+     * defaults to 0
+     */
+    @Parameter(defaultValue = "0")
+    protected float errorRateThresholdInPercent;
+
+    /**
+     * Number of samples that need to have been written before the error rate of a running test is checked, so that
+     * a few early failures do not stop a test.
+     * Defaults to 100
+     */
+    @Parameter(defaultValue = "100")
+    protected long abortTestMinimumSamples;
+
+    /**
+     * Compress each results file as soon as its test has completed, to save disk space when results files are large.
+     * The results goal reads compressed results files transparently.
+     * Valid values are NONE, GZIP (.gz added to the file name) or ZSTD (.zst added to the file name).
+     * Defaults to NONE
+     */
+    @Parameter(defaultValue = "NONE")
+    protected ResultFileCompression resultsFileCompression;
+
+    /**
+     * Number of tests (JMeter test plans) that are run at the same time, each one in its own JMeter process.
+     * Only use this for tests that are independent of each other and only need a fraction of the machine, e.g. smoke
+     * tests. Every line of JMeter output is then prefixed by the name of its test.
+     * Tests are still run one after another when remote servers are started or stopped by the tests.
+     * Set to 0 to run one test per available processor.
+     * Defaults to 1
+     */
+    @Parameter(defaultValue = "1")
+    protected int testExecutionThreads;
+
+    /**
+     * Patterns (relative to testFilesDirectory) of tests that must not run at the same time when testExecutionThreads
+     * is more than 1, e.g. because they share test data.
+     * Tests matching the same pattern are run one after another, in the order they are found.
+     * Tests that have the same file name are always run one after another.
+     * <br>
+     * <pre>
+     * {@code
+     * <serialTestGroups>
+     *     <serialTestGroup>checkout/**</serialTestGroup>
+     * </serialTestGroups>
+     * }
+     * </pre>
+     */
+    @Parameter
+    protected List<String> serialTestGroups = new ArrayList<>();
+
+    /**
+     * Run the tests in JMeter JVMs that are kept running between tests (one per test run at the same time, see
+     * testExecutionThreads), instead of starting a new JVM for every test. This saves JVM startup and JMeter
+     * class loading for projects with many small tests.
+     * System properties are restored, JMeter properties reloaded and JMeter logging configured again (each test logs to
+     * its own log file) for every test. JMeter classes are only loaded once, state JMeter keeps in static fields (e.g.
+     * the save service configuration, read from the properties of the first test) is shared by the tests of a worker.
+     * A test that exits the JVM ends its worker, a new one is started for the next test.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean reuseJMeterProcess;
+
+    /**
+     * Log a compact progress line (samples, error rate, and the throughput, average response time and error rate of
+     * the last interval) every liveProgressIntervalInSeconds seconds while a test runs. Progress is parsed from the
+     * output of the JMeter summariser, whose interval is set by the summariser.interval JMeter property (30 seconds by
+     * default). Live progress, metrics and abort rule are not available when writeJMeterOutputToFile is set.
+     * Set to 0 to not log progress lines.
+     * Defaults to 0
+     */
+    @Parameter(defaultValue = "0")
+    protected long liveProgressIntervalInSeconds;
+
+    /**
+     * Write the metrics of each JMeter summariser line (one JSON object per line) to a
+     * &lt;test file name&gt;-metrics.jsonl file in logsDirectory while tests run.
+     * Defaults to false
+     */
+    @Parameter(defaultValue = "false")
+    protected boolean writeLiveMetricsFile;
+
+    /**
+     * Stop a test as soon as an interval of the JMeter summariser breaks one of these limits, e.g. when a collapsing
+     * test fails most of its requests. Any remaining tests are not run once a test has been stopped.
+     * Set summariser.interval (e.g. propertiesUser) to a few seconds to stop tests quickly.
+     * <br>
+     * <pre>
+     * {@code
+     * <liveAbortRule>
+     *     <maximumErrorPercentage>50</maximumErrorPercentage>
+     *     <minimumThroughput>1</minimumThroughput>
+     *     <consecutiveIntervals>2</consecutiveIntervals>
+     *     <warmUpInSeconds>30</warmUpInSeconds>
+     * </liveAbortRule>
+     * }
+     * </pre>
+     * Error rate and throughput are only checked if maximumErrorPercentage/minimumThroughput (samples per second) are set.
+     */
+    @Parameter
+    protected LiveAbortRule liveAbortRule;
+
     /**
      * Run all the JMeter tests.
      *
@@ -38,6 +157,7 @@ public class RunJMeterMojo extends AbstractJMeterMojo {
         testConfig = new TestConfigurationWrapper(new File(testConfigFile), selectedConfiguration);
         remoteConfig.setPropertiesMap(testConfig.getCurrentTestConfiguration().getPropertiesMap());
         jMeterProcessJVMSettings.setHeadlessDefaultIfRequired();
+        useClassDataSharingArchive(testConfig.getCurrentTestConfiguration());
         copyFilesInTestDirectory(testFilesDirectory, testFilesBuildDirectory);
         TestManager jMeterTestManager = new TestManager()
                 .setBaseTestArgs(computeJMeterArgumentsArray(true, testConfig.getCurrentTestConfiguration().getResultsOutputIsCSVFormat(), testConfig.getCurrentTestConfiguration().getJmeterDirectoryPath()))
@@ -46,13 +166,27 @@ public class RunJMeterMojo extends AbstractJMeterMojo {
                 .setTestFilesExcluded(testFilesExcluded)
                 .setRemoteServerConfiguration(remoteConfig)
                 .setSuppressJMeterOutput(suppressJMeterOutput)
+                .setJMeterOutputCharset(jmeterOutputCharset())
+                .setJMeterOutputOverflowPolicy(jmeterOutputOverflowPolicy)
+                .setJMeterOutputDirectory(writeJMeterOutputToFile ? logsDirectory : null)
                 .setBinDir(testConfig.getCurrentTestConfiguration().getJmeterWorkingDirectoryPath())
                 .setJMeterProcessJVMSettings(jMeterProcessJVMSettings)
                 .setRuntimeJarName(testConfig.getCurrentTestConfiguration().getRuntimeJarName())
                 .setReportDirectory(reportDirectory)
                 .setGenerateReports(generateReports)
                 .setPostTestPauseInSeconds(postTestPauseInSeconds)
-                .setIgnoreJVMKilled(doNotFailBuildIfJVMIsKilled);
+                .setIgnoreJVMKilled(doNotFailBuildIfJVMIsKilled)
+                .setAbortTestWhenErrorRateExceeded(abortTestWhenErrorRateExceeded)
+                .setErrorRateThresholdInPercent(errorRateThresholdInPercent)
+                .setAbortTestMinimumSamples(abortTestMinimumSamples)
+                .setResultsCsvLayout(resultsCsvLayout(testConfig.getCurrentTestConfiguration()))
+                .setResultsFileCompression(resultsFileCompression)
+                .setTestExecutionThreads(testExecutionThreads)
+                .setSerialTestGroups(serialTestGroups)
+                .setReuseJMeterProcess(reuseJMeterProcess)
+                .setLiveProgressIntervalInSeconds(liveProgressIntervalInSeconds)
+                .setLiveMetricsDirectory(writeLiveMetricsFile ? logsDirectory : null)
+                .setLiveAbortRule(liveAbortRule);
         if (proxyConfig != null) {
             getLog().info(this.proxyConfig.toString());
         }
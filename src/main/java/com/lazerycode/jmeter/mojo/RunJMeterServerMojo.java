@@ -3,7 +3,7 @@ package com.lazerycode.jmeter.mojo;
 import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.json.TestConfigurationWrapper;
 import com.lazerycode.jmeter.testrunner.JMeterProcessBuilder;
-import com.lazerycode.jmeter.utility.StreamRedirector;
+import com.lazerycode.jmeter.utility.OutputBuffer;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -84,10 +84,16 @@ public class RunJMeterServerMojo extends AbstractJMeterMojo {
                 .addArgument(String.format("-Djava.rmi.server.hostname=%s", exportedRmiHostname))
                 .addArgument(String.format("-Dserver.rmi.ssl.disable=%s", disableSSL))
                 .addArgument(String.format("-Dserver_port=%s", serverPort));
+        useClassDataSharingArchive(testConfig.getCurrentTestConfiguration());
 
         JMeterProcessBuilder jmeterProcessBuilder = new JMeterProcessBuilder(jMeterProcessJVMSettings, testConfig.getCurrentTestConfiguration().getRuntimeJarName())
                 .setWorkingDirectory(new File(testConfig.getCurrentTestConfiguration().getJmeterDirectoryPath(), "bin"))
                 .addArguments(testArgs.buildArgumentsArray());
+        if (writeJMeterOutputToFile) {
+            File outputFile = new File(logsDirectory, String.format("%s_%s-output.log", exportedRmiHostname, serverPort));
+            getLog().info(" JMeter server output is written to " + outputFile.getAbsolutePath());
+            jmeterProcessBuilder.setOutputFile(outputFile);
+        }
         try {
             final Process process = jmeterProcessBuilder.build().start();
             if (runInBackground) {
@@ -100,9 +106,12 @@ public class RunJMeterServerMojo extends AbstractJMeterMojo {
                     getLog().info(" ");
                     process.destroy();
                 }));
-                new Thread(new StreamRedirector(process.getInputStream(), (suppressJMeterOutput ? getLog()::debug : getLog()::info))).start();
-                new Thread(new StreamRedirector(process.getErrorStream(), getLog()::error)).start();
-                int jMeterExitCode = process.waitFor();
+                // Errors are redirected to the output of the process, one reader is enough
+                int jMeterExitCode;
+                try (OutputBuffer ignored = new OutputBuffer(jmeterOutputOverflowPolicy, suppressJMeterOutput ? getLog()::debug : getLog()::info)
+                        .readFrom(process.getInputStream(), jmeterOutputCharset())) {
+                    jMeterExitCode = process.waitFor();
+                }
                 if (jMeterExitCode != 0) {
                     throw new MojoExecutionException("Starting JMeter server in background failed with exit code: " + jMeterExitCode);
                 }
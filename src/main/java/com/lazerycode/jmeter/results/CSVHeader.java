@@ -0,0 +1,191 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The layout of a JMeter CSV results file, as described by its header (or by the configured {@link CSVLayout}).
+ * <p>
+ * Only the columns listed here are needed to scan a file, readers are limited to them (see
+ * {@link CSVRecordReader#setFieldLimit(int)}) so that the remaining columns of wide files are skipped at the byte level.
+ */
+class CSVHeader {
+
+    private static final String ROW_NAME_SUCCESS = "success";
+    private static final String ROW_NAME_FAILURE_MESSAGE = "failureMessage";
+    private static final String ROW_NAME_LABEL = "label";
+    private static final String ROW_NAME_ELAPSED = "elapsed";
+    private static final String ROW_NAME_LATENCY = "Latency";
+    private static final String ROW_NAME_CONNECT = "Connect";
+    static final String ROW_NAME_TIMESTAMP = "timeStamp";
+    private static final String ROW_NAME_BYTES = "bytes";
+    private static final String ROW_NAME_SENT_BYTES = "sentBytes";
+
+    private final char separator;
+    private final int successIndex;
+    private final int failureMessageIndex;
+    private final int labelIndex;
+    private final int elapsedIndex;
+    private final int latencyIndex;
+    private final int connectIndex;
+    private final int timeStampIndex;
+    private final int bytesIndex;
+    private final int sentBytesIndex;
+    private final long length;
+    private final int fieldLimit;
+
+    CSVHeader(char separator, int successIndex, int failureMessageIndex, int labelIndex, int elapsedIndex, int latencyIndex,
+              int connectIndex, int timeStampIndex, int bytesIndex, int sentBytesIndex, long length) {
+        this.separator = separator;
+        this.successIndex = successIndex;
+        this.failureMessageIndex = failureMessageIndex;
+        this.labelIndex = labelIndex;
+        this.elapsedIndex = elapsedIndex;
+        this.latencyIndex = latencyIndex;
+        this.connectIndex = connectIndex;
+        this.timeStampIndex = timeStampIndex;
+        this.bytesIndex = bytesIndex;
+        this.sentBytesIndex = sentBytesIndex;
+        this.length = length;
+        int lastIndex = 0;
+        for (int index : new int[]{successIndex, failureMessageIndex, labelIndex, elapsedIndex, latencyIndex, connectIndex, timeStampIndex, bytesIndex, sentBytesIndex}) {
+            lastIndex = Math.max(lastIndex, index);
+        }
+        this.fieldLimit = lastIndex + 1;
+    }
+
+    /**
+     * Work out the separator and consume the header of a CSV file.
+     *
+     * @param reader A reader that is positioned at the start of the file
+     * @param file   The file that is being read
+     * @return The header of the file
+     * @throws IOException              When an error occurs while reading the file
+     * @throws IllegalArgumentException If the file is empty
+     * @throws IllegalStateException    If no separator can be found in the header
+     */
+    static CSVHeader read(CSVRecordReader reader, File file) throws IOException {
+        return read(reader, file, null);
+    }
+
+    /**
+     * Work out the header of a CSV file, consuming it if the file has one.
+     * When a layout is configured its delimiter is used rather than guessed (unless the header does not contain it, e.g.
+     * because the file was written with other properties), and files written without a header are described by the
+     * columns of the layout.
+     * The reader is then limited to the fields that are needed.
+     *
+     * @param reader A reader that is positioned at the start of the file
+     * @param file   The file that is being read
+     * @param layout The configured layout of the file, or null if it is unknown
+     * @return The header of the file
+     * @throws IOException              When an error occurs while reading the file
+     * @throws IllegalArgumentException If the file is expected to have a header and is empty
+     * @throws IllegalStateException    If no separator can be found in the header
+     */
+    static CSVHeader read(CSVRecordReader reader, File file, CSVLayout layout) throws IOException {
+        CSVHeader header;
+        if (null == layout || layout.isHeaderWritten()) {
+            int separator = reader.detectSeparator(null == layout ? -1 : layout.getDelimiter());
+            if (separator < 0) {
+                throw new IllegalArgumentException("No line read from file " + file.getAbsolutePath());
+            }
+            reader.nextRecord();
+            header = new CSVHeader(
+                    (char) separator,
+                    reader.indexOf(ROW_NAME_SUCCESS),
+                    reader.indexOf(ROW_NAME_FAILURE_MESSAGE),
+                    reader.indexOf(ROW_NAME_LABEL),
+                    reader.indexOf(ROW_NAME_ELAPSED),
+                    reader.indexOf(ROW_NAME_LATENCY),
+                    reader.indexOf(ROW_NAME_CONNECT),
+                    reader.indexOf(ROW_NAME_TIMESTAMP),
+                    reader.indexOf(ROW_NAME_BYTES),
+                    reader.indexOf(ROW_NAME_SENT_BYTES),
+                    reader.getOffset()
+            );
+        } else {
+            header = new CSVHeader(
+                    layout.getDelimiter(),
+                    layout.indexOf(ROW_NAME_SUCCESS),
+                    layout.indexOf(ROW_NAME_FAILURE_MESSAGE),
+                    layout.indexOf(ROW_NAME_LABEL),
+                    layout.indexOf(ROW_NAME_ELAPSED),
+                    layout.indexOf(ROW_NAME_LATENCY),
+                    layout.indexOf(ROW_NAME_CONNECT),
+                    layout.indexOf(ROW_NAME_TIMESTAMP),
+                    layout.indexOf(ROW_NAME_BYTES),
+                    layout.indexOf(ROW_NAME_SENT_BYTES),
+                    0
+            );
+        }
+        header.configure(reader);
+
+        return header;
+    }
+
+    /**
+     * Set up a reader for the records of the file: use the separator of the file and only tokenise the fields that
+     * are needed.
+     *
+     * @param reader The reader
+     * @return The reader
+     */
+    CSVRecordReader configure(CSVRecordReader reader) {
+        return reader.setSeparator(separator).setFieldLimit(fieldLimit);
+    }
+
+    char getSeparator() {
+        return separator;
+    }
+
+    int getSuccessIndex() {
+        return successIndex;
+    }
+
+    int getFailureMessageIndex() {
+        return failureMessageIndex;
+    }
+
+    int getLabelIndex() {
+        return labelIndex;
+    }
+
+    int getElapsedIndex() {
+        return elapsedIndex;
+    }
+
+    int getLatencyIndex() {
+        return latencyIndex;
+    }
+
+    int getConnectIndex() {
+        return connectIndex;
+    }
+
+    int getTimeStampIndex() {
+        return timeStampIndex;
+    }
+
+    int getBytesIndex() {
+        return bytesIndex;
+    }
+
+    int getSentBytesIndex() {
+        return sentBytesIndex;
+    }
+
+    /**
+     * @return The number of fields of a record that need to be tokenised
+     */
+    int getFieldLimit() {
+        return fieldLimit;
+    }
+
+    /**
+     * @return The number of bytes used by the header, including the line break, 0 if the file has no header
+     */
+    long getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,140 @@
+package com.lazerycode.jmeter.results;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The layout of the CSV results files written by JMeter (delimiter, columns and whether a header is written), worked
+ * out from the jmeter.save.saveservice.* properties that JMeter runs with.
+ * <p>
+ * Knowing the layout up front means that the delimiter does not need to be guessed from the header, and that results
+ * files written without a header (jmeter.save.saveservice.print_field_names=false) can be scanned.
+ * Columns are listed in the order used by JMeter's CSVSaveService, sample variables are always written after them.
+ */
+public class CSVLayout {
+
+    private static final String PROPERTY_PREFIX = "jmeter.save.saveservice.";
+    private static final String DEFAULT_DELIMITER = ",";
+    private static final String ESCAPED_TAB = "\\t";
+    private static final String TIMESTAMP_FORMAT_NONE = "none";
+    private static final Column[] COLUMNS = {
+            new Column("elapsed", "time", true),
+            new Column("label", "label", true),
+            new Column("responseCode", "response_code", true),
+            new Column("responseMessage", "response_message", true),
+            new Column("threadName", "thread_name", true),
+            new Column("dataType", "data_type", true),
+            new Column("success", "successful", true),
+            new Column("failureMessage", "assertion_results_failure_message", true),
+            new Column("bytes", "bytes", true),
+            new Column("sentBytes", "sent_bytes", true),
+            new Column("grpThreads", "thread_counts", true),
+            new Column("allThreads", "thread_counts", true),
+            new Column("URL", "url", true),
+            new Column("Filename", "filename", false),
+            new Column("Latency", "latency", true),
+            new Column("Encoding", "encoding", false),
+            new Column("SampleCount", "sample_count", false),
+            new Column("ErrorCount", "sample_count", false),
+            new Column("Hostname", "hostname", false),
+            new Column("IdleTime", "idle_time", true),
+            new Column("Connect", "connect_time", true)
+    };
+
+    private final char delimiter;
+    private final boolean headerWritten;
+    private final List<String> columns;
+
+    /**
+     * @param delimiter     The delimiter between fields
+     * @param headerWritten Whether the first line of the file holds the column names
+     * @param columns       The names of the columns, in the order they are written
+     */
+    public CSVLayout(char delimiter, boolean headerWritten, List<String> columns) {
+        this.delimiter = delimiter;
+        this.headerWritten = headerWritten;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    /**
+     * Work out the layout from the properties JMeter runs with, using the JMeter defaults for properties that are not set.
+     *
+     * @param properties The effective JMeter properties (jmeter.properties overridden by user.properties)
+     * @return The layout of the CSV results files
+     * @throws IllegalArgumentException If the delimiter is not a single character
+     */
+    public static CSVLayout fromProperties(Properties properties) {
+        String delimiter = properties.getProperty(PROPERTY_PREFIX + "default_delimiter", DEFAULT_DELIMITER);
+        if (ESCAPED_TAB.equals(delimiter)) {
+            delimiter = "\t";
+        }
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("Unsupported CSV delimiter '" + delimiter + "', only single character delimiters can be scanned");
+        }
+        List<String> columns = new ArrayList<>();
+        if (!TIMESTAMP_FORMAT_NONE.equalsIgnoreCase(properties.getProperty(PROPERTY_PREFIX + "timestamp_format", "ms"))) {
+            columns.add(CSVHeader.ROW_NAME_TIMESTAMP);
+        }
+        for (Column column : COLUMNS) {
+            if (isEnabled(properties, column.property, column.enabledByDefault)) {
+                columns.add(column.name);
+            }
+        }
+
+        return new CSVLayout(delimiter.charAt(0), isEnabled(properties, "print_field_names", true), columns);
+    }
+
+    private static boolean isEnabled(Properties properties, String name, boolean enabledByDefault) {
+        return Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + name, Boolean.toString(enabledByDefault)).trim());
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public boolean isHeaderWritten() {
+        return headerWritten;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @param column Name of the column
+     * @return The index of the column, or -1 if it is not written
+     */
+    int indexOf(String column) {
+        return columns.indexOf(column);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CSVLayout that = (CSVLayout) o;
+        return delimiter == that.delimiter &&
+                headerWritten == that.headerWritten &&
+                columns.equals(that.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(delimiter, headerWritten, columns);
+    }
+
+    private static final class Column {
+        private final String name;
+        private final String property;
+        private final boolean enabledByDefault;
+
+        Column(String name, String property, boolean enabledByDefault) {
+            this.name = name;
+            this.property = property;
+            this.enabledByDefault = enabledByDefault;
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming, byte level reader for JMeter CSV result files.
+ * <p>
+ * Records are tokenised in place inside a reusable byte buffer, so reading a record does not allocate a String (or
+ * anything else) per field. Fields are only decoded on demand via {@link #getString(int)}.
+ * Quoted fields (including escaped quotes and embedded line breaks) are supported.
+ * Readers can be limited to the first fields of every record (see {@link #setFieldLimit(int)}), the rest of the record
+ * is then skipped without being tokenised.
+ * JMeter writes result files in UTF-8 (see the JMeter <code>sampleresult.default.encoding</code> property), which means
+ * that separators, quotes and line breaks can be safely detected at the byte level.
+ */
+class CSVRecordReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_FIELD_CAPACITY = 32;
+    private static final byte QUOTE = '"';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LINE_FEED = '\n';
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream inputStream;
+    private byte[] buffer;
+    private long bufferOffset = 0;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfStream = false;
+    private byte separator = ',';
+    private int[] fieldStart = new int[DEFAULT_FIELD_CAPACITY];
+    private int[] fieldEnd = new int[DEFAULT_FIELD_CAPACITY];
+    private boolean[] fieldNeedsUnescaping = new boolean[DEFAULT_FIELD_CAPACITY];
+    private int fieldCount = 0;
+    private int fieldLimit = Integer.MAX_VALUE;
+
+    CSVRecordReader(InputStream inputStream) {
+        this(inputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    CSVRecordReader(InputStream inputStream, int bufferSize) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[bufferSize];
+    }
+
+    CSVRecordReader setSeparator(char separator) {
+        this.separator = (byte) separator;
+
+        return this;
+    }
+
+    /**
+     * Only tokenise the first fields of every record, fields after them are not available.
+     *
+     * @param fieldLimit Number of fields to tokenise
+     * @return CSVRecordReader
+     */
+    CSVRecordReader setFieldLimit(int fieldLimit) {
+        this.fieldLimit = Math.max(1, fieldLimit);
+
+        return this;
+    }
+
+    /**
+     * Work out the separator used in the file by looking at the first character in the header that is not a letter.
+     * This does not consume the header, it still needs to be read with {@link #nextRecord()}.
+     *
+     * @return The separator, or -1 if the stream is empty
+     * @throws IOException           When an error occurs while reading the stream
+     * @throws IllegalStateException If no separator can be found in the header
+     */
+    int detectSeparator() throws IOException {
+        return detectSeparator(-1);
+    }
+
+    /**
+     * Work out the separator used in the file, using the expected separator if the header contains it, or else the
+     * first character in the header that is not a letter.
+     * This does not consume the header, it still needs to be read with {@link #nextRecord()}.
+     *
+     * @param expectedSeparator The separator the file should be using, or -1 if it is unknown
+     * @return The separator, or -1 if the stream is empty
+     * @throws IOException           When an error occurs while reading the stream
+     * @throws IllegalStateException If no separator can be found in the header
+     */
+    int detectSeparator(int expectedSeparator) throws IOException {
+        int lineEnd;
+        while ((lineEnd = indexOfLineEnd(position)) < 0) {
+            if (endOfStream) {
+                if (position == limit) {
+                    return -1;
+                }
+                lineEnd = limit;
+                break;
+            }
+            fillBuffer();
+        }
+        if (expectedSeparator >= 0) {
+            for (int i = position; i < lineEnd; i++) {
+                if (buffer[i] == (byte) expectedSeparator) {
+                    separator = buffer[i];
+                    return expectedSeparator;
+                }
+            }
+        }
+        for (int i = position; i < lineEnd; i++) {
+            if (!Character.isLetter((char) (buffer[i] & 0xFF))) {
+                separator = buffer[i];
+                return separator;
+            }
+        }
+        throw new IllegalStateException("Cannot find delimiter in header " + new String(buffer, position, lineEnd - position, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the next record into the buffer.
+     * Blank lines are skipped.
+     *
+     * @return false if there are no more records to read
+     * @throws IOException When an error occurs while reading the stream, or the stream ends inside a quoted field
+     */
+    boolean nextRecord() throws IOException {
+        while (true) {
+            if (position == limit) {
+                if (endOfStream) {
+                    fieldCount = 0;
+                    return false;
+                }
+                fillBuffer();
+                continue;
+            }
+            int recordEnd = tokenizeRecord(position);
+            if (recordEnd < 0) {
+                if (endOfStream) {
+                    throw new IOException("Unexpected end of file inside a quoted field");
+                }
+                fillBuffer();
+                continue;
+            }
+            position = recordEnd;
+            if (fieldCount == 1 && fieldStart[0] == fieldEnd[0] && !fieldNeedsUnescaping[0]) {
+                continue;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return The offset in the stream of the first byte that has not been consumed yet
+     */
+    long getOffset() {
+        return bufferOffset + position;
+    }
+
+    /**
+     * @return The number of fields in the current record, at most the field limit
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param name Name of the column
+     * @return The index of the first field in the current record that matches name, or -1 if there is no match
+     */
+    int indexOf(String name) {
+        byte[] value = name.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < fieldCount; i++) {
+            if (fieldEquals(i, value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Equivalent of {@link Boolean#parseBoolean(String)} for a field of the current record.
+     *
+     * @param index Index of the field
+     * @return true if the field exists and is equal to "true", ignoring case
+     */
+    boolean isTrue(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return false;
+        }
+        unescapeIfRequired(index);
+        int start = fieldStart[index];
+        if (fieldEnd[index] - start != TRUE.length) {
+            return false;
+        }
+        for (int i = 0; i < TRUE.length; i++) {
+            if ((buffer[start + i] | 0x20) != TRUE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a field of the current record as a non-negative whole number without creating a String.
+     *
+     * @param index Index of the field
+     * @return The value of the field, or -1 if the field does not exist or is not a non-negative whole number
+     */
+    long getLong(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return -1;
+        }
+        unescapeIfRequired(index);
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Look up the id of the label held in a field of the current record.
+     *
+     * @param index      Index of the field
+     * @param statistics The statistics that labels are registered with
+     * @return The id of the label
+     */
+    int getLabelId(int index, SampleStatistics statistics) {
+        if (index < 0 || index >= fieldCount) {
+            return statistics.labelId(buffer, 0, 0);
+        }
+        unescapeIfRequired(index);
+        return statistics.labelId(buffer, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+    }
+
+    /**
+     * Look up the id of the label held in a field of the current record.
+     *
+     * @param index  Index of the field
+     * @param writer The sidecar writer that labels are registered with
+     * @return The id of the label
+     */
+    int getLabelId(int index, ResultsSidecar.Writer writer) {
+        if (index < 0 || index >= fieldCount) {
+            return writer.labelId(buffer, 0, 0);
+        }
+        unescapeIfRequired(index);
+        return writer.labelId(buffer, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+    }
+
+    /**
+     * @param index Index of the field
+     * @return The decoded value of the field, or null if the current record does not have a field at that index
+     */
+    String getString(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return null;
+        }
+        unescapeIfRequired(index);
+        return new String(buffer, fieldStart[index], fieldEnd[index] - fieldStart[index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private boolean fieldEquals(int index, byte[] value) {
+        unescapeIfRequired(index);
+        int start = fieldStart[index];
+        int length = fieldEnd[index] - start;
+        if (length != value.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split the record that starts at the given offset into fields.
+     *
+     * @param offset Start of the record
+     * @return The offset just after the end of the record, or -1 if the buffer does not hold the complete record
+     */
+    private int tokenizeRecord(int offset) {
+        fieldCount = 0;
+        int i = offset;
+        while (true) {
+            int start = i;
+            boolean needsUnescaping = false;
+            if (i < limit && buffer[i] == QUOTE) {
+                i++;
+                while (true) {
+                    if (i >= limit) {
+                        return -1;
+                    }
+                    if (buffer[i] == QUOTE) {
+                        if (i + 1 >= limit && !endOfStream) {
+                            return -1;
+                        }
+                        if (i + 1 < limit && buffer[i + 1] == QUOTE) {
+                            needsUnescaping = true;
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                int closingQuote = i - 1;
+                while (i < limit && !isEndOfField(buffer[i])) {
+                    needsUnescaping = true;
+                    i++;
+                }
+                if (needsUnescaping) {
+                    addField(start, i, true);
+                } else {
+                    addField(start + 1, closingQuote, false);
+                }
+            } else {
+                while (i < limit && !isEndOfField(buffer[i])) {
+                    i++;
+                }
+                addField(start, i, false);
+            }
+            if (i >= limit) {
+                return endOfStream ? limit : -1;
+            }
+            byte current = buffer[i];
+            if (current == separator) {
+                if (fieldCount == fieldLimit) {
+                    return skipToEndOfRecord(i + 1);
+                }
+                i++;
+                continue;
+            }
+            if (current == CARRIAGE_RETURN) {
+                if (i + 1 >= limit) {
+                    return endOfStream ? limit : -1;
+                }
+                return buffer[i + 1] == LINE_FEED ? i + 2 : i + 1;
+            }
+            return i + 1;
+        }
+    }
+
+    /**
+     * Find the end of a record without tokenising its fields, quoted fields are handled the same way as in
+     * {@link #tokenizeRecord(int)}.
+     *
+     * @param offset Start of the first field to skip
+     * @return The offset just after the end of the record, or -1 if the buffer does not hold the complete record
+     */
+    private int skipToEndOfRecord(int offset) {
+        boolean inQuotes = false;
+        boolean atFieldStart = true;
+        for (int i = offset; i < limit; i++) {
+            byte current = buffer[i];
+            if (inQuotes) {
+                if (current == QUOTE) {
+                    if (i + 1 >= limit && !endOfStream) {
+                        return -1;
+                    }
+                    if (i + 1 < limit && buffer[i + 1] == QUOTE) {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (current == QUOTE && atFieldStart) {
+                inQuotes = true;
+                atFieldStart = false;
+            } else if (current == separator) {
+                atFieldStart = true;
+            } else if (current == LINE_FEED) {
+                return i + 1;
+            } else if (current == CARRIAGE_RETURN) {
+                if (i + 1 >= limit) {
+                    return endOfStream ? limit : -1;
+                }
+                return buffer[i + 1] == LINE_FEED ? i + 2 : i + 1;
+            } else {
+                atFieldStart = false;
+            }
+        }
+        return endOfStream && !inQuotes ? limit : -1;
+    }
+
+    private boolean isEndOfField(byte value) {
+        return value == separator || value == LINE_FEED || value == CARRIAGE_RETURN;
+    }
+
+    private void addField(int start, int end, boolean needsUnescaping) {
+        if (fieldCount == fieldStart.length) {
+            int newCapacity = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, newCapacity);
+            fieldEnd = Arrays.copyOf(fieldEnd, newCapacity);
+            fieldNeedsUnescaping = Arrays.copyOf(fieldNeedsUnescaping, newCapacity);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldNeedsUnescaping[fieldCount] = needsUnescaping;
+        fieldCount++;
+    }
+
+    /**
+     * Remove quotes from a field that contains escaped quotes (or trailing data after the closing quote).
+     * The field is rewritten in place, this is safe because the record is complete and will not be tokenised again.
+     */
+    private void unescapeIfRequired(int index) {
+        if (!fieldNeedsUnescaping[index]) {
+            return;
+        }
+        int write = fieldStart[index];
+        int end = fieldEnd[index];
+        boolean inQuotes = false;
+        for (int read = fieldStart[index]; read < end; read++) {
+            byte current = buffer[read];
+            if (current == QUOTE) {
+                if (inQuotes && read + 1 < end && buffer[read + 1] == QUOTE) {
+                    buffer[write++] = QUOTE;
+                    read++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                buffer[write++] = current;
+            }
+        }
+        fieldEnd[index] = write;
+        fieldNeedsUnescaping[index] = false;
+    }
+
+    private int indexOfLineEnd(int offset) {
+        for (int i = offset; i < limit; i++) {
+            if (buffer[i] == LINE_FEED || buffer[i] == CARRIAGE_RETURN) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Move any unread data to the start of the buffer (growing it if a single record does not fit) and read more data.
+     */
+    private void fillBuffer() throws IOException {
+        int unread = limit - position;
+        bufferOffset += position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, unread);
+        } else if (unread == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        position = 0;
+        limit = unread;
+        int bytesRead = inputStream.read(buffer, limit, buffer.length - limit);
+        if (bytesRead < 0) {
+            endOfStream = true;
+        } else {
+            limit += bytesRead;
+        }
+    }
+}
@@ -1,27 +1,68 @@
 package com.lazerycode.jmeter.results;
 
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Counts gathered while scanning a results file (in CSV or XML format).
+ * Counts are held as longs, so that the results of long running tests spread over several files do not overflow.
+ */
 public class CSVScanResult {
-    private final Map<String, Integer> specificFailureMessages;
-    private final int successCount;
-    private final int failureCount;
+    private final Map<String, Long> specificFailureMessages;
+    private final long successCount;
+    private final long failureCount;
+    private final SampleStatistics statistics;
 
-    public CSVScanResult(Map<String, Integer> specificFailureMessages, int successCount, int failureCount) {
+    public CSVScanResult(Map<String, Long> specificFailureMessages, long successCount, long failureCount) {
+        this(specificFailureMessages, successCount, failureCount, null);
+    }
+
+    public CSVScanResult(Map<String, Long> specificFailureMessages, long successCount, long failureCount, SampleStatistics statistics) {
         this.specificFailureMessages = specificFailureMessages;
         this.successCount = successCount;
         this.failureCount = failureCount;
+        this.statistics = statistics;
     }
 
-    public Map<String, Integer> getSpecificFailureMessages() {
+    public Map<String, Long> getSpecificFailureMessages() {
         return specificFailureMessages;
     }
 
-    public int getSuccessCount() {
+    public long getSuccessCount() {
         return successCount;
     }
 
-    public int getFailureCount() {
+    public long getFailureCount() {
         return failureCount;
     }
+
+    /**
+     * @return The response time statistics, or null if they have not been collected
+     */
+    public SampleStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Combine the counts of two scans, e.g. of two chunks of the same file.
+     *
+     * @param other The result to combine with this one
+     * @return A new result holding the sum of both results
+     */
+    public CSVScanResult merge(CSVScanResult other) {
+        Map<String, Long> mergedFailureMessages = new HashMap<>(specificFailureMessages);
+        other.getSpecificFailureMessages().forEach((message, count) -> mergedFailureMessages.merge(message, count, Long::sum));
+        SampleStatistics mergedStatistics = null;
+        if (null != statistics || null != other.getStatistics()) {
+            mergedStatistics = new SampleStatistics();
+            if (null != statistics) {
+                mergedStatistics.add(statistics);
+            }
+            if (null != other.getStatistics()) {
+                mergedStatistics.add(other.getStatistics());
+            }
+        }
+
+        return new CSVScanResult(mergedFailureMessages, successCount + other.getSuccessCount(), failureCount + other.getFailureCount(), mergedStatistics);
+    }
 }
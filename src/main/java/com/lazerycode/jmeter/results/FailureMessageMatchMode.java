@@ -0,0 +1,20 @@
+package com.lazerycode.jmeter.results;
+
+/**
+ * How failure messages found in result files are compared to the configured failure messages, all modes ignore case.
+ */
+public enum FailureMessageMatchMode {
+    /**
+     * The failure message is equal to the configured message.
+     */
+    EXACT,
+    /**
+     * The failure message contains the configured message.
+     */
+    CONTAINS,
+    /**
+     * The configured message is a regular expression that is found in the failure message
+     * (use ^ and $ to match the whole failure message).
+     */
+    REGEX
+}
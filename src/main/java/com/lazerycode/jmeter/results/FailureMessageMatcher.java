@@ -0,0 +1,299 @@
+package com.lazerycode.jmeter.results;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Matches failure messages found in result files against a list of configured failure messages.
+ * <p>
+ * The configured messages are compiled once, so that matching a failure message does not depend on the number of
+ * configured messages:
+ * <ul>
+ * <li>{@link FailureMessageMatchMode#EXACT}: a single hash lookup of the case folded failure message</li>
+ * <li>{@link FailureMessageMatchMode#CONTAINS}: a single pass over the case folded failure message through an
+ * Aho-Corasick automaton holding every configured message</li>
+ * <li>{@link FailureMessageMatchMode#REGEX}: every precompiled pattern is searched for in the failure message</li>
+ * </ul>
+ * A matcher is immutable and can be shared between threads, matches are counted by a {@link Counter}.
+ */
+public final class FailureMessageMatcher {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final String[] failureMessages;
+    private final FailureMessageMatchMode mode;
+    private final Map<String, int[]> exactMessages;
+    private final AhoCorasickAutomaton automaton;
+    private final Pattern[] patterns;
+
+    private FailureMessageMatcher(String[] failureMessages, FailureMessageMatchMode mode) {
+        this.failureMessages = failureMessages;
+        this.mode = mode;
+        this.exactMessages = mode == FailureMessageMatchMode.EXACT ? indexExactMessages(failureMessages) : null;
+        this.automaton = mode == FailureMessageMatchMode.CONTAINS ? new AhoCorasickAutomaton(failureMessages) : null;
+        this.patterns = mode == FailureMessageMatchMode.REGEX ? compilePatterns(failureMessages) : null;
+    }
+
+    /**
+     * Compile a list of failure messages.
+     *
+     * @param failureMessages The failure messages to search for
+     * @param mode            How failure messages are compared
+     * @return FailureMessageMatcher
+     * @throws IllegalStateException                  If a failure message is listed more than once
+     * @throws java.util.regex.PatternSyntaxException If a failure message is not a valid regular expression in REGEX mode
+     */
+    public static FailureMessageMatcher compile(List<String> failureMessages, FailureMessageMatchMode mode) {
+        String[] messages = failureMessages.toArray(new String[0]);
+        for (int i = 0; i < messages.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (messages[i].equals(messages[j])) {
+                    throw new IllegalStateException("Duplicate failure message " + messages[i]);
+                }
+            }
+        }
+        return new FailureMessageMatcher(messages, mode);
+    }
+
+    /**
+     * @return true if there are no failure messages to search for
+     */
+    public boolean isEmpty() {
+        return failureMessages.length == 0;
+    }
+
+    public FailureMessageMatchMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The failure messages to search for, in the order they have been configured
+     */
+    List<String> getFailureMessages() {
+        return Arrays.asList(failureMessages);
+    }
+
+    /**
+     * @return A new counter, counters are not thread safe so every thread needs its own
+     */
+    public Counter newCounter() {
+        return new Counter();
+    }
+
+    /**
+     * Counts the number of failure messages that match each configured message.
+     */
+    public final class Counter {
+        private final long[] counts = new long[failureMessages.length];
+        private final int[] lastMatchedMessage = new int[failureMessages.length];
+        private int messageNumber = 0;
+        private long occurrencesOfCurrentMessage = 1;
+
+        /**
+         * Count the configured messages matched by a failure message, each configured message is counted at most once.
+         *
+         * @param failureMessage The failure message of a failed sample, may be null
+         */
+        public void count(String failureMessage) {
+            count(failureMessage, 1);
+        }
+
+        /**
+         * Count the configured messages matched by a failure message that has been found a number of times, the
+         * failure message is only matched once.
+         *
+         * @param failureMessage The failure message of failed samples, may be null
+         * @param occurrences    The number of failed samples with this failure message
+         */
+        public void count(String failureMessage, long occurrences) {
+            if (null == failureMessage || failureMessages.length == 0 || occurrences == 0) {
+                return;
+            }
+            occurrencesOfCurrentMessage = occurrences;
+            messageNumber++;
+            switch (mode) {
+                case EXACT:
+                    for (int id : exactMessages.getOrDefault(fold(failureMessage), NO_MATCHES)) {
+                        increment(id);
+                    }
+                    break;
+                case CONTAINS:
+                    automaton.search(failureMessage, this::increment);
+                    break;
+                case REGEX:
+                    for (int id = 0; id < patterns.length; id++) {
+                        if (patterns[id].matcher(failureMessage).find()) {
+                            increment(id);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported match mode " + mode);
+            }
+        }
+
+        private void increment(int id) {
+            if (lastMatchedMessage[id] != messageNumber) {
+                lastMatchedMessage[id] = messageNumber;
+                counts[id] += occurrencesOfCurrentMessage;
+            }
+        }
+
+        /**
+         * @return The number of matches for every configured message
+         */
+        public Map<String, Long> toMap() {
+            Map<String, Long> specificFailureMessages = new HashMap<>();
+            for (int id = 0; id < failureMessages.length; id++) {
+                specificFailureMessages.put(failureMessages[id], counts[id]);
+            }
+            return specificFailureMessages;
+        }
+    }
+
+    /**
+     * Fold the case of every character the same way {@link String#equalsIgnoreCase(String)} compares characters.
+     */
+    static String fold(String value) {
+        char[] folded = new char[value.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(value.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    private static char fold(char value) {
+        return Character.toLowerCase(Character.toUpperCase(value));
+    }
+
+    private static Map<String, int[]> indexExactMessages(String[] failureMessages) {
+        Map<String, int[]> index = new HashMap<>();
+        for (int id = 0; id < failureMessages.length; id++) {
+            int[] ids = index.getOrDefault(fold(failureMessages[id]), NO_MATCHES);
+            int[] newIds = Arrays.copyOf(ids, ids.length + 1);
+            newIds[ids.length] = id;
+            index.put(fold(failureMessages[id]), newIds);
+        }
+        return index;
+    }
+
+    private static Pattern[] compilePatterns(String[] failureMessages) {
+        Pattern[] compiled = new Pattern[failureMessages.length];
+        for (int id = 0; id < failureMessages.length; id++) {
+            compiled[id] = Pattern.compile(failureMessages[id], Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        }
+        return compiled;
+    }
+
+    @FunctionalInterface
+    private interface MatchListener {
+        void matched(int id);
+    }
+
+    /**
+     * Aho-Corasick automaton over case folded characters.
+     * Transitions are stored as sorted arrays per node (searched with a binary search) to keep memory usage low with
+     * hundreds of messages, the output of every node includes the output of its suffix nodes.
+     */
+    private static final class AhoCorasickAutomaton {
+        private static final int ROOT = 0;
+
+        private final char[][] transitionCharacters;
+        private final int[][] transitionTargets;
+        private final int[] failure;
+        private final int[][] outputs;
+
+        AhoCorasickAutomaton(String[] messages) {
+            List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+            List<int[]> nodeOutputs = new ArrayList<>();
+            trie.add(new TreeMap<>());
+            nodeOutputs.add(NO_MATCHES);
+            for (int id = 0; id < messages.length; id++) {
+                int node = ROOT;
+                for (char character : fold(messages[id]).toCharArray()) {
+                    Integer next = trie.get(node).get(character);
+                    if (null == next) {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        nodeOutputs.add(NO_MATCHES);
+                        trie.get(node).put(character, next);
+                    }
+                    node = next;
+                }
+                nodeOutputs.set(node, append(nodeOutputs.get(node), id));
+            }
+
+            int nodeCount = trie.size();
+            transitionCharacters = new char[nodeCount][];
+            transitionTargets = new int[nodeCount][];
+            for (int node = 0; node < nodeCount; node++) {
+                TreeMap<Character, Integer> transitions = trie.get(node);
+                transitionCharacters[node] = new char[transitions.size()];
+                transitionTargets[node] = new int[transitions.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+                    transitionCharacters[node][i] = transition.getKey();
+                    transitionTargets[node][i] = transition.getValue();
+                    i++;
+                }
+            }
+
+            failure = new int[nodeCount];
+            outputs = nodeOutputs.toArray(new int[0][]);
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : transitionTargets[ROOT]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < transitionCharacters[node].length; i++) {
+                    char character = transitionCharacters[node][i];
+                    int child = transitionTargets[node][i];
+                    int fallback = failure[node];
+                    int next;
+                    while ((next = transition(fallback, character)) < 0 && fallback != ROOT) {
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = next < 0 ? ROOT : next;
+                    for (int id : outputs[failure[child]]) {
+                        outputs[child] = append(outputs[child], id);
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+
+        void search(String text, MatchListener listener) {
+            int node = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                char character = fold(text.charAt(i));
+                int next;
+                while ((next = transition(node, character)) < 0 && node != ROOT) {
+                    node = failure[node];
+                }
+                node = next < 0 ? ROOT : next;
+                for (int id : outputs[node]) {
+                    listener.matched(id);
+                }
+            }
+        }
+
+        private int transition(int node, char character) {
+            int index = Arrays.binarySearch(transitionCharacters[node], character);
+            return index < 0 ? -1 : transitionTargets[node][index];
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] newValues = Arrays.copyOf(values, values.length + 1);
+            newValues[values.length] = value;
+            return newValues;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a file that is still being written to, like <code>tail -f</code>.
+ * <p>
+ * When all the data currently in the file has been read, reads wait for more data to be appended (polling the file)
+ * until {@link #stop()} is called, the end of the stream is only reported once the file has been stopped and fully read.
+ * The file does not need to exist when the stream is created.
+ */
+class FollowingInputStream extends InputStream {
+
+    private final Path file;
+    private final long pollIntervalInMilliseconds;
+    private RandomAccessFile randomAccessFile;
+    private volatile boolean stopped = false;
+
+    FollowingInputStream(Path file, long pollIntervalInMilliseconds) {
+        this.file = file;
+        this.pollIntervalInMilliseconds = pollIntervalInMilliseconds;
+    }
+
+    /**
+     * Stop following the file, reads return the end of the stream once the data that has been written so far is read.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int bytesRead = read(single, 0, 1);
+        return bytesRead < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            // Check before reading, so that everything written before stop() was called is still read
+            boolean lastAttempt = stopped;
+            if (null == randomAccessFile && Files.exists(file)) {
+                randomAccessFile = new RandomAccessFile(file.toFile(), "r");
+            }
+            if (null != randomAccessFile) {
+                int bytesRead = randomAccessFile.read(bytes, offset, length);
+                if (bytesRead > 0) {
+                    return bytesRead;
+                }
+            }
+            if (lastAttempt) {
+                return -1;
+            }
+            try {
+                Thread.sleep(pollIntervalInMilliseconds);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + file + " to grow");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        if (null != randomAccessFile) {
+            randomAccessFile.close();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Running totals (sample and error counts, elapsed times, time range and bytes transferred) for a series of labels.
+ * <p>
+ * Every counter is held in a primitive array indexed by label id, so recording a sample does not allocate anything.
+ */
+class LabelCounters {
+
+    private long[] samples;
+    private long[] errors;
+    private long[] timedSamples;
+    private long[] elapsedMin;
+    private long[] elapsedMax;
+    private long[] elapsedSum;
+    private long[] firstStart;
+    private long[] lastEnd;
+    private long[] receivedBytes;
+    private long[] sentBytes;
+
+    LabelCounters(int capacity) {
+        samples = new long[capacity];
+        errors = new long[capacity];
+        timedSamples = new long[capacity];
+        elapsedMin = newFilledArray(capacity, Long.MAX_VALUE);
+        elapsedMax = new long[capacity];
+        elapsedSum = new long[capacity];
+        firstStart = newFilledArray(capacity, Long.MAX_VALUE);
+        lastEnd = new long[capacity];
+        receivedBytes = new long[capacity];
+        sentBytes = new long[capacity];
+    }
+
+    /**
+     * Record a sample, negative values are treated as missing.
+     *
+     * @param id            Label id
+     * @param success       Whether the sample was successful
+     * @param timeStamp     Start time of the sample in milliseconds since the epoch
+     * @param elapsed       Elapsed time in milliseconds
+     * @param receivedBytes Number of bytes received
+     * @param sentBytes     Number of bytes sent
+     */
+    void record(int id, boolean success, long timeStamp, long elapsed, long receivedBytes, long sentBytes) {
+        samples[id]++;
+        if (!success) {
+            errors[id]++;
+        }
+        if (elapsed >= 0) {
+            timedSamples[id]++;
+            elapsedMin[id] = Math.min(elapsedMin[id], elapsed);
+            elapsedMax[id] = Math.max(elapsedMax[id], elapsed);
+            elapsedSum[id] += elapsed;
+        }
+        if (timeStamp >= 0) {
+            firstStart[id] = Math.min(firstStart[id], timeStamp);
+            lastEnd[id] = Math.max(lastEnd[id], timeStamp + Math.max(elapsed, 0));
+        }
+        if (receivedBytes > 0) {
+            this.receivedBytes[id] += receivedBytes;
+        }
+        if (sentBytes > 0) {
+            this.sentBytes[id] += sentBytes;
+        }
+    }
+
+    /**
+     * Add the counters of a label held by another instance to a label of this one.
+     *
+     * @param id      Label id in this instance
+     * @param other   The counters to add
+     * @param otherId Label id in the other instance
+     */
+    void add(int id, LabelCounters other, int otherId) {
+        samples[id] += other.samples[otherId];
+        errors[id] += other.errors[otherId];
+        timedSamples[id] += other.timedSamples[otherId];
+        elapsedMin[id] = Math.min(elapsedMin[id], other.elapsedMin[otherId]);
+        elapsedMax[id] = Math.max(elapsedMax[id], other.elapsedMax[otherId]);
+        elapsedSum[id] += other.elapsedSum[otherId];
+        firstStart[id] = Math.min(firstStart[id], other.firstStart[otherId]);
+        lastEnd[id] = Math.max(lastEnd[id], other.lastEnd[otherId]);
+        receivedBytes[id] += other.receivedBytes[otherId];
+        sentBytes[id] += other.sentBytes[otherId];
+    }
+
+    /**
+     * Write the counters of a label.
+     *
+     * @param output Where to write the counters
+     * @param id     Label id
+     * @throws IOException When an error occurs while writing
+     */
+    void writeTo(DataOutput output, int id) throws IOException {
+        for (long[] counter : counters()) {
+            output.writeLong(counter[id]);
+        }
+    }
+
+    /**
+     * Read the counters of a label written by {@link #writeTo(DataOutput, int)}, replacing the current values.
+     *
+     * @param input Where to read the counters from
+     * @param id    Label id
+     * @throws IOException When an error occurs while reading
+     */
+    void readFrom(DataInput input, int id) throws IOException {
+        for (long[] counter : counters()) {
+            counter[id] = input.readLong();
+        }
+    }
+
+    /**
+     * Make sure that there is room for a label id.
+     *
+     * @param id Label id
+     */
+    void ensureCapacity(int id) {
+        if (id < samples.length) {
+            return;
+        }
+        int oldCapacity = samples.length;
+        int newCapacity = Math.max(id + 1, oldCapacity * 2);
+        samples = Arrays.copyOf(samples, newCapacity);
+        errors = Arrays.copyOf(errors, newCapacity);
+        timedSamples = Arrays.copyOf(timedSamples, newCapacity);
+        elapsedMin = Arrays.copyOf(elapsedMin, newCapacity);
+        Arrays.fill(elapsedMin, oldCapacity, newCapacity, Long.MAX_VALUE);
+        elapsedMax = Arrays.copyOf(elapsedMax, newCapacity);
+        elapsedSum = Arrays.copyOf(elapsedSum, newCapacity);
+        firstStart = Arrays.copyOf(firstStart, newCapacity);
+        Arrays.fill(firstStart, oldCapacity, newCapacity, Long.MAX_VALUE);
+        lastEnd = Arrays.copyOf(lastEnd, newCapacity);
+        receivedBytes = Arrays.copyOf(receivedBytes, newCapacity);
+        sentBytes = Arrays.copyOf(sentBytes, newCapacity);
+    }
+
+    long getSamples(int id) {
+        return samples[id];
+    }
+
+    long getErrors(int id) {
+        return errors[id];
+    }
+
+    /**
+     * @param id Label id
+     * @return The shortest elapsed time, or 0 if no elapsed time has been recorded
+     */
+    long getElapsedMin(int id) {
+        return timedSamples[id] == 0 ? 0 : elapsedMin[id];
+    }
+
+    long getElapsedMax(int id) {
+        return elapsedMax[id];
+    }
+
+    /**
+     * @param id Label id
+     * @return The mean elapsed time, or 0 if no elapsed time has been recorded
+     */
+    double getElapsedMean(int id) {
+        return timedSamples[id] == 0 ? 0 : (double) elapsedSum[id] / timedSamples[id];
+    }
+
+    /**
+     * @param id Label id
+     * @return Start time of the first sample in milliseconds since the epoch, or -1 if it is unknown
+     */
+    long getFirstStart(int id) {
+        return firstStart[id] == Long.MAX_VALUE ? -1 : firstStart[id];
+    }
+
+    /**
+     * @param id Label id
+     * @return End time of the last sample in milliseconds since the epoch, or -1 if it is unknown
+     */
+    long getLastEnd(int id) {
+        return firstStart[id] == Long.MAX_VALUE ? -1 : lastEnd[id];
+    }
+
+    /**
+     * Throughput is calculated the same way as JMeter does: the number of samples divided by the time between the start
+     * of the first sample and the end of the last one.
+     *
+     * @param id Label id
+     * @return Samples per second, or 0 if the time range is unknown
+     */
+    double getThroughput(int id) {
+        long duration = lastEnd[id] - firstStart[id];
+        if (firstStart[id] == Long.MAX_VALUE || duration <= 0) {
+            return 0;
+        }
+        return samples[id] * 1000.0 / duration;
+    }
+
+    long getReceivedBytes(int id) {
+        return receivedBytes[id];
+    }
+
+    long getSentBytes(int id) {
+        return sentBytes[id];
+    }
+
+    private long[][] counters() {
+        return new long[][]{samples, errors, timedSamples, elapsedMin, elapsedMax, elapsedSum, firstStart, lastEnd, receivedBytes, sentBytes};
+    }
+
+    private static long[] newFilledArray(int capacity, long value) {
+        long[] array = new long[capacity];
+        Arrays.fill(array, value);
+        return array;
+    }
+}
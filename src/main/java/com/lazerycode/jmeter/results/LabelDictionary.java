@@ -0,0 +1,142 @@
+package com.lazerycode.jmeter.results;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns a sequential id to every distinct sampler label.
+ * <p>
+ * Labels can be looked up straight from the bytes of a result file, so a String is only created the first time a
+ * label is seen rather than for every sample.
+ */
+class LabelDictionary {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int EMPTY = -1;
+
+    private int[] table = newTable(INITIAL_CAPACITY);
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private byte[][] keys = new byte[INITIAL_CAPACITY][];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @return The number of distinct labels
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param id The id of a label
+     * @return The label
+     */
+    String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Get the id of a label, adding it to the dictionary if it has not been seen before.
+     *
+     * @param name The label
+     * @return The id of the label
+     */
+    int idOf(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return idOf(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param name The label
+     * @return The id of the label, or -1 if it has not been seen
+     */
+    int find(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (hashes[id] == hash && matches(keys[id], bytes, 0, bytes.length)) {
+                return id;
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Get the id of a UTF-8 encoded label, adding it to the dictionary if it has not been seen before.
+     *
+     * @param bytes  Array holding the label
+     * @param offset Offset of the label in the array
+     * @param length Length of the label
+     * @return The id of the label
+     */
+    int idOf(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != EMPTY) {
+            int id = table[slot];
+            if (hashes[id] == hash && matches(keys[id], bytes, offset, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(slot, hash, Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    private int add(int slot, int hash, byte[] key) {
+        if (size == keys.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        int id = size++;
+        hashes[id] = hash;
+        keys[id] = key;
+        names[id] = new String(key, StandardCharsets.UTF_8);
+        table[slot] = id;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        table = newTable(table.length * 2);
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] newTable = new int[capacity];
+        Arrays.fill(newTable, EMPTY);
+        return newTable;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(byte[] key, byte[] bytes, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
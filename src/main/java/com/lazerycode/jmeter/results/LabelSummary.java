@@ -0,0 +1,122 @@
+package com.lazerycode.jmeter.results;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Statistics of the samples of one sampler label (or of all samples), as shown in the results table.
+ */
+public class LabelSummary {
+    private final String label;
+    private final long samples;
+    private final long errors;
+    private final long minElapsed;
+    private final double meanElapsed;
+    private final long maxElapsed;
+    private final long p50Elapsed;
+    private final long p90Elapsed;
+    private final long p95Elapsed;
+    private final long p99Elapsed;
+    private final double throughput;
+    private final long startTime;
+    private final long endTime;
+    private final long receivedBytes;
+    private final long sentBytes;
+
+    LabelSummary(String label, LabelCounters counters, int id, Histogram elapsed) {
+        this.label = label;
+        this.samples = counters.getSamples(id);
+        this.errors = counters.getErrors(id);
+        this.minElapsed = counters.getElapsedMin(id);
+        this.meanElapsed = counters.getElapsedMean(id);
+        this.maxElapsed = counters.getElapsedMax(id);
+        boolean hasElapsed = null != elapsed && elapsed.getTotalCount() > 0;
+        this.p50Elapsed = hasElapsed ? elapsed.getValueAtPercentile(50) : 0;
+        this.p90Elapsed = hasElapsed ? elapsed.getValueAtPercentile(90) : 0;
+        this.p95Elapsed = hasElapsed ? elapsed.getValueAtPercentile(95) : 0;
+        this.p99Elapsed = hasElapsed ? elapsed.getValueAtPercentile(99) : 0;
+        this.throughput = counters.getThroughput(id);
+        this.startTime = counters.getFirstStart(id);
+        this.endTime = counters.getLastEnd(id);
+        this.receivedBytes = counters.getReceivedBytes(id);
+        this.sentBytes = counters.getSentBytes(id);
+    }
+
+    /**
+     * @return The sampler label, null for the summary of all samples
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return The percentage of samples that failed, rounded to two decimal places
+     */
+    public double getErrorPercentage() {
+        return samples == 0 ? 0 : (double) Math.round(errors * 10000.0 / samples) / 100;
+    }
+
+    public long getMinElapsed() {
+        return minElapsed;
+    }
+
+    public double getMeanElapsed() {
+        return meanElapsed;
+    }
+
+    public long getMaxElapsed() {
+        return maxElapsed;
+    }
+
+    public long getP50Elapsed() {
+        return p50Elapsed;
+    }
+
+    public long getP90Elapsed() {
+        return p90Elapsed;
+    }
+
+    public long getP95Elapsed() {
+        return p95Elapsed;
+    }
+
+    public long getP99Elapsed() {
+        return p99Elapsed;
+    }
+
+    /**
+     * @return Samples per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return Start time of the first sample in milliseconds since the epoch, -1 if it is unknown
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return End time of the last sample in milliseconds since the epoch, -1 if it is unknown
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+}
@@ -0,0 +1,325 @@
+package com.lazerycode.jmeter.results;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scans CSV result files concurrently on a fork/join pool.
+ * <p>
+ * Every file is memory mapped and split into chunks that are aligned to record boundaries, the chunks are then scanned
+ * in parallel and the partial results merged.
+ * Aligning chunks takes quoted fields into account: the number of quotes in every chunk is counted (in parallel) so
+ * that we know if a chunk starts inside a quoted field, a record boundary is then the first line break that is not
+ * inside a quoted field.
+ * This relies on quotes only ever being used to wrap fields, which is the case for files written by JMeter.
+ * Compressed files are not split, each one is decompressed and scanned by a single task.
+ */
+class ParallelCSVScanner {
+
+    static final long DEFAULT_CHUNK_SIZE = 32L * 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final byte QUOTE = '"';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LINE_FEED = '\n';
+
+    private final int threads;
+    private final long chunkSize;
+    private CSVLayout csvLayout;
+
+    ParallelCSVScanner(int threads) {
+        this(threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    ParallelCSVScanner(int threads, long chunkSize) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param csvLayout The layout of the files, or null to work it out from the header of every file
+     * @return ParallelCSVScanner
+     */
+    ParallelCSVScanner setCsvLayout(CSVLayout csvLayout) {
+        this.csvLayout = csvLayout;
+
+        return this;
+    }
+
+    /**
+     * Scan a series of files concurrently.
+     *
+     * @param files             Files to scan
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The scan results, in the same order as the files
+     * @throws MojoExecutionException When an error occurs while reading a file
+     */
+    List<CSVScanResult> scan(List<File> files, FailureMessageMatcher matcher, boolean collectStatistics) throws MojoExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<FileScanTask> tasks = new ArrayList<>();
+            for (File file : files) {
+                FileScanTask task = new FileScanTask(file, matcher, collectStatistics);
+                tasks.add(task);
+                pool.execute(task);
+            }
+            List<CSVScanResult> results = new ArrayList<>();
+            for (FileScanTask task : tasks) {
+                results.add(task.getResult());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private class FileScanTask extends RecursiveAction {
+        private final File file;
+        private final FailureMessageMatcher matcher;
+        private final boolean collectStatistics;
+        private CSVScanResult result;
+        private Exception failure;
+
+        FileScanTask(File file, FailureMessageMatcher matcher, boolean collectStatistics) {
+            this.file = file;
+            this.matcher = matcher;
+            this.collectStatistics = collectStatistics;
+        }
+
+        @Override
+        protected void compute() {
+            if (ResultFileCompression.forFile(file) != ResultFileCompression.NONE) {
+                // Compressed files cannot be memory mapped and split into chunks, they are scanned in one pass instead
+                try {
+                    result = ResultScannerCSV.scanFile(file, matcher, collectStatistics, csvLayout);
+                } catch (IOException | RuntimeException ex) {
+                    failure = ex;
+                }
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                result = scanFile(channel);
+            } catch (IOException | RuntimeException ex) {
+                failure = ex;
+            }
+        }
+
+        private CSVScanResult scanFile(FileChannel channel) throws IOException {
+            long size = channel.size();
+            CSVHeader header = CSVHeader.read(new CSVRecordReader(Channels.newInputStream(channel)), file, csvLayout);
+            long dataStart = header.getLength();
+            int chunkCount = (int) Math.max(1, (size - dataStart + chunkSize - 1) / chunkSize);
+            long[] rawChunkStart = new long[chunkCount + 1];
+            for (int i = 0; i < chunkCount; i++) {
+                rawChunkStart[i] = dataStart + i * chunkSize;
+            }
+            rawChunkStart[chunkCount] = size;
+
+            List<Long> quoteCounts = invokeForEachChunk(chunkCount, chunk -> countQuotes(channel, rawChunkStart[chunk], rawChunkStart[chunk + 1]));
+            boolean[] startsInsideQuotes = new boolean[chunkCount];
+            long quotesBeforeChunk = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                startsInsideQuotes[i] = quotesBeforeChunk % 2 == 1;
+                quotesBeforeChunk += quoteCounts.get(i);
+            }
+
+            List<Long> recordStarts = invokeForEachChunk(chunkCount, chunk -> chunk == 0 ? dataStart : findRecordStart(channel, rawChunkStart[chunk], size, startsInsideQuotes[chunk]));
+            long[] chunkStart = new long[chunkCount + 1];
+            for (int i = 0; i < chunkCount; i++) {
+                chunkStart[i] = i == 0 ? recordStarts.get(i) : Math.max(chunkStart[i - 1], recordStarts.get(i));
+            }
+            chunkStart[chunkCount] = size;
+
+            // Statistics are added up as soon as a chunk has been scanned, so that we only hold on to one set per running chunk
+            SampleStatistics fileStatistics = collectStatistics ? new SampleStatistics() : null;
+            List<CSVScanResult> chunkResults = invokeForEachChunk(chunkCount, chunk -> {
+                CSVRecordReader reader = header.configure(new CSVRecordReader(new MappedRegionInputStream(channel, chunkStart[chunk], chunkStart[chunk + 1])));
+                CSVScanResult chunkResult = ResultScannerCSV.scanRecords(reader, header, matcher, collectStatistics);
+                if (collectStatistics) {
+                    synchronized (fileStatistics) {
+                        fileStatistics.add(chunkResult.getStatistics());
+                    }
+                }
+                return new CSVScanResult(chunkResult.getSpecificFailureMessages(), chunkResult.getSuccessCount(), chunkResult.getFailureCount());
+            });
+            CSVScanResult fileResult = chunkResults.get(0);
+            for (int i = 1; i < chunkResults.size(); i++) {
+                fileResult = fileResult.merge(chunkResults.get(i));
+            }
+            return new CSVScanResult(fileResult.getSpecificFailureMessages(), fileResult.getSuccessCount(), fileResult.getFailureCount(), fileStatistics);
+        }
+
+        CSVScanResult getResult() throws MojoExecutionException {
+            join();
+            if (failure instanceof IOException) {
+                throw new MojoExecutionException("An unexpected error occurred while reading file " + file.getAbsolutePath(), failure);
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return result;
+        }
+    }
+
+    private long chunkWindowSize() {
+        return Math.min(chunkSize, Integer.MAX_VALUE);
+    }
+
+    private long countQuotes(FileChannel channel, long start, long end) throws IOException {
+        long quotes = 0;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        try (InputStream region = new MappedRegionInputStream(channel, start, end)) {
+            int bytesRead;
+            while ((bytesRead = region.read(buffer)) > 0) {
+                for (int i = 0; i < bytesRead; i++) {
+                    if (buffer[i] == QUOTE) {
+                        quotes++;
+                    }
+                }
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Find the offset of the first record that starts after the given offset.
+     *
+     * @param channel      The file
+     * @param start        Offset to start searching from
+     * @param end          End of the file
+     * @param insideQuotes Whether the start offset is inside a quoted field
+     * @return The offset of the first byte of the record, or the end of the file if there is no record
+     * @throws IOException When an error occurs while reading the file
+     */
+    private long findRecordStart(FileChannel channel, long start, long end, boolean insideQuotes) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long offset = start;
+        boolean afterCarriageReturn = false;
+        try (InputStream region = new MappedRegionInputStream(channel, start, end)) {
+            int bytesRead;
+            while ((bytesRead = region.read(buffer)) > 0) {
+                for (int i = 0; i < bytesRead; i++, offset++) {
+                    byte current = buffer[i];
+                    if (afterCarriageReturn) {
+                        return current == LINE_FEED ? offset + 1 : offset;
+                    }
+                    if (current == QUOTE) {
+                        insideQuotes = !insideQuotes;
+                    } else if (!insideQuotes && current == LINE_FEED) {
+                        return offset + 1;
+                    } else if (!insideQuotes && current == CARRIAGE_RETURN) {
+                        afterCarriageReturn = true;
+                    }
+                }
+            }
+        }
+        return end;
+    }
+
+    private <T> List<T> invokeForEachChunk(int chunkCount, ChunkOperation<T> operation) throws IOException {
+        List<ChunkTask<T>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            tasks.add(new ChunkTask<>(operation, i));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        List<T> results = new ArrayList<>();
+        for (ChunkTask<T> task : tasks) {
+            results.add(task.getResult());
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ChunkOperation<T> {
+        T apply(int chunk) throws IOException;
+    }
+
+    private static class ChunkTask<T> extends RecursiveAction {
+        private final ChunkOperation<T> operation;
+        private final int chunk;
+        private T result;
+        private IOException failure;
+
+        ChunkTask(ChunkOperation<T> operation, int chunk) {
+            this.operation = operation;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                result = operation.apply(chunk);
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+
+        T getResult() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reads a region of a file by memory mapping it, one window at a time.
+     */
+    private class MappedRegionInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long nextWindowStart;
+        private MappedByteBuffer window;
+
+        MappedRegionInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.nextWindowStart = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextWindowIfRequired()) {
+                return -1;
+            }
+            return window.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindowIfRequired()) {
+                return -1;
+            }
+            int bytesToRead = Math.min(length, window.remaining());
+            window.get(bytes, offset, bytesToRead);
+            return bytesToRead;
+        }
+
+        private boolean nextWindowIfRequired() throws IOException {
+            if (null != window && window.hasRemaining()) {
+                return true;
+            }
+            if (nextWindowStart >= end) {
+                return false;
+            }
+            long windowSize = Math.min(chunkWindowSize(), end - nextWindowStart);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, nextWindowStart, windowSize);
+            nextWindowStart += windowSize;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a stream (e.g. a decompressing stream) in a background thread, so that reading and decompressing data happens
+ * concurrently with parsing it.
+ * <p>
+ * Data is handed over in a bounded number of reusable blocks, so the reading thread can never get more than
+ * a few blocks ahead of the parsing thread.
+ */
+class PipelinedInputStream extends InputStream {
+
+    private static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    private static final int DEFAULT_BLOCK_COUNT = 8;
+    private static final Block END_OF_STREAM = new Block(0);
+
+    private final InputStream source;
+    private final BlockingQueue<Block> freeBlocks;
+    private final BlockingQueue<Block> filledBlocks;
+    private final Thread readerThread;
+    private volatile IOException failure;
+    private Block current;
+    private boolean endOfStream = false;
+
+    PipelinedInputStream(InputStream source, String name) {
+        this(source, name, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCK_COUNT);
+    }
+
+    PipelinedInputStream(InputStream source, String name, int blockSize, int blockCount) {
+        this.source = source;
+        this.freeBlocks = new ArrayBlockingQueue<>(blockCount);
+        this.filledBlocks = new ArrayBlockingQueue<>(blockCount + 1);
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks.add(new Block(blockSize));
+        }
+        readerThread = new Thread(this::readSource, "pipelined-reader-" + name);
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private void readSource() {
+        try {
+            while (true) {
+                Block block = freeBlocks.take();
+                block.fill(source);
+                if (block.length <= 0) {
+                    break;
+                }
+                filledBlocks.put(block);
+            }
+        } catch (IOException ex) {
+            failure = ex;
+        } catch (InterruptedException ex) {
+            // The stream has been closed
+            return;
+        }
+        filledBlocks.add(END_OF_STREAM);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextBlockIfRequired()) {
+            return -1;
+        }
+        return current.data[current.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBlockIfRequired()) {
+            return -1;
+        }
+        int bytesToRead = Math.min(length, current.length - current.position);
+        System.arraycopy(current.data, current.position, bytes, offset, bytesToRead);
+        current.position += bytesToRead;
+        return bytesToRead;
+    }
+
+    private boolean nextBlockIfRequired() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        if (null != current && current.position < current.length) {
+            return true;
+        }
+        if (null != current) {
+            freeBlocks.add(current);
+        }
+        try {
+            current = filledBlocks.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for data");
+        }
+        if (current == END_OF_STREAM) {
+            current = null;
+            endOfStream = true;
+            if (null != failure) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        endOfStream = true;
+        readerThread.interrupt();
+        try {
+            readerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        source.close();
+    }
+
+    private static class Block {
+        private final byte[] data;
+        private int length;
+        private int position;
+
+        Block(int size) {
+            data = new byte[size];
+        }
+
+        /**
+         * Fill the block, it is only partially filled at the end of the stream.
+         */
+        void fill(InputStream inputStream) throws IOException {
+            length = 0;
+            position = 0;
+            int bytesRead;
+            while (length < data.length && (bytesRead = inputStream.read(data, length, data.length - length)) >= 0) {
+                length += bytesRead;
+            }
+        }
+    }
+}
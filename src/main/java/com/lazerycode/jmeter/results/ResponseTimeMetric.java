@@ -0,0 +1,21 @@
+package com.lazerycode.jmeter.results;
+
+/**
+ * Response time metrics recorded for every sample.
+ */
+public enum ResponseTimeMetric {
+    /**
+     * Time from just before sending the request to just after the last response has been received
+     * (CSV column "elapsed", XML attribute "t").
+     */
+    ELAPSED,
+    /**
+     * Time from just before sending the request to just after the first response has been received
+     * (CSV column "Latency", XML attribute "lt").
+     */
+    LATENCY,
+    /**
+     * Time taken to establish the connection (CSV column "Connect", XML attribute "ct").
+     */
+    CONNECT
+}
@@ -0,0 +1,116 @@
+package com.lazerycode.jmeter.results;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression formats supported for result files, the format of a file is identified by its extension.
+ */
+public enum ResultFileCompression {
+    NONE(""),
+    GZIP(".gz"),
+    ZSTD(".zst");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    ResultFileCompression(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param file A result file
+     * @return The compression format of the file, based on its extension
+     */
+    public static ResultFileCompression forFile(File file) {
+        String fileName = file.getName().toLowerCase(Locale.ROOT);
+        for (ResultFileCompression compression : values()) {
+            if (compression != NONE && fileName.endsWith(compression.extension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Open a result file, compressed files are decompressed in a separate thread while the data is being read.
+     *
+     * @param file A result file
+     * @return A stream of the uncompressed contents of the file
+     * @throws IOException When the file cannot be opened
+     */
+    public static InputStream newInputStream(File file) throws IOException {
+        ResultFileCompression compression = forFile(file);
+        InputStream inputStream = Files.newInputStream(file.toPath());
+        if (compression == NONE) {
+            return inputStream;
+        }
+        try {
+            return new PipelinedInputStream(compression.decompress(inputStream), file.getName());
+        } catch (IOException ex) {
+            inputStream.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Compress a file, the compressed file is written next to it (with this format's extension added) and the original
+     * file is deleted.
+     *
+     * @param file The file to compress
+     * @return The compressed file
+     * @throws IOException When the file cannot be compressed
+     */
+    public File compress(File file) throws IOException {
+        if (this == NONE) {
+            return file;
+        }
+        File compressedFile = new File(file.getPath() + extension);
+        try (InputStream inputStream = Files.newInputStream(file.toPath());
+             OutputStream outputStream = compress(Files.newOutputStream(compressedFile.toPath()))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) >= 0) {
+                outputStream.write(buffer, 0, bytesRead);
+            }
+        }
+        Files.delete(file.toPath());
+        return compressedFile;
+    }
+
+    InputStream decompress(InputStream inputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(inputStream, BUFFER_SIZE);
+            case ZSTD:
+                return new ZstdInputStream(inputStream);
+            default:
+                return inputStream;
+        }
+    }
+
+    OutputStream compress(OutputStream outputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            case ZSTD:
+                return new ZstdOutputStream(outputStream);
+            default:
+                return outputStream;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of scanning a result file (success and failure counts, failure message counts and response time
+ * statistics), written next to it so that results can be combined, e.g. the results of every execution or of every
+ * distributed JMeter server, without scanning the result file again.
+ * <p>
+ * A summary is only a few KB whatever the size of the result file: statistics are held in mergeable HdrHistograms and
+ * counters (see {@link SampleStatistics#writeTo(java.io.DataOutput)}). Like a {@link ResultsSidecar} the summary is
+ * keyed by the size and last modified time of the result file, it is also ignored if it has been written for other
+ * failure messages or without statistics when they are needed.
+ * <p>
+ * Layout: magic, version, result file size, result file last modified time, match mode, failure messages and their
+ * counts, success count, failure count, statistics flag, statistics.
+ */
+final class ResultFileSummary {
+
+    static final String EXTENSION = ".summary";
+    private static final int MAGIC = 0x4A4D5253;
+    private static final int VERSION = 2;
+
+    private ResultFileSummary() {
+    }
+
+    /**
+     * @param resultsFile A result file
+     * @return The summary of the result file
+     */
+    static File fileFor(File resultsFile) {
+        return new File(resultsFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * Read the summary of a result file.
+     *
+     * @param resultsFile       A result file
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Whether response time statistics are needed
+     * @return The counts (and statistics) for the result file, or null if there is no up to date summary that matches
+     * the failure messages and statistics needed
+     * @throws IOException When an error occurs while reading the summary
+     */
+    static CSVScanResult read(File resultsFile, FailureMessageMatcher matcher, boolean collectStatistics) throws IOException {
+        File summary = fileFor(resultsFile);
+        if (!summary.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(summary.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION
+                    || input.readLong() != resultsFile.length() || input.readLong() != resultsFile.lastModified()) {
+                return null;
+            }
+            if (!matcher.getMode().name().equals(readString(input))) {
+                return null;
+            }
+            List<String> failureMessages = matcher.getFailureMessages();
+            if (input.readInt() != failureMessages.size()) {
+                return null;
+            }
+            Map<String, Long> specificFailureMessages = new HashMap<>();
+            for (String failureMessage : failureMessages) {
+                if (!failureMessage.equals(readString(input))) {
+                    return null;
+                }
+                specificFailureMessages.put(failureMessage, input.readLong());
+            }
+            long successCount = input.readLong();
+            long failureCount = input.readLong();
+            boolean hasStatistics = input.readBoolean();
+            if (collectStatistics && !hasStatistics) {
+                return null;
+            }
+            SampleStatistics statistics = collectStatistics ? SampleStatistics.readFrom(input) : null;
+
+            return new CSVScanResult(specificFailureMessages, successCount, failureCount, statistics);
+        }
+    }
+
+    /**
+     * Write (or replace) the summary of a result file.
+     *
+     * @param resultsFile             A result file
+     * @param resultsFileLength       The size of the result file when it was scanned
+     * @param resultsFileLastModified The last modified time of the result file when it was scanned
+     * @param matcher                 Failure messages that have been searched for
+     * @param scanResult              The counts (and statistics) found in the result file
+     * @throws IOException When an error occurs while writing the summary, or the result file has been modified
+     */
+    static void write(File resultsFile, long resultsFileLength, long resultsFileLastModified, FailureMessageMatcher matcher, CSVScanResult scanResult) throws IOException {
+        File summary = fileFor(resultsFile);
+        File temporaryFile = File.createTempFile(summary.getName(), ".tmp", summary.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(resultsFileLength);
+                output.writeLong(resultsFileLastModified);
+                writeString(output, matcher.getMode().name());
+                List<String> failureMessages = matcher.getFailureMessages();
+                output.writeInt(failureMessages.size());
+                for (String failureMessage : failureMessages) {
+                    writeString(output, failureMessage);
+                    output.writeLong(scanResult.getSpecificFailureMessages().getOrDefault(failureMessage, 0L));
+                }
+                output.writeLong(scanResult.getSuccessCount());
+                output.writeLong(scanResult.getFailureCount());
+                output.writeBoolean(null != scanResult.getStatistics());
+                if (null != scanResult.getStatistics()) {
+                    scanResult.getStatistics().writeTo(output);
+                }
+            }
+            if (resultsFile.length() != resultsFileLength || resultsFile.lastModified() != resultsFileLastModified) {
+                throw new IOException("Results file " + resultsFile.getAbsolutePath() + " has been modified while it was read");
+            }
+            try {
+                Files.move(temporaryFile.toPath(), summary.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporaryFile.toPath(), summary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -5,7 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 public abstract class ResultScanner {
     protected static final Logger LOGGER = LoggerFactory.getLogger(ResultScanner.class);
@@ -13,23 +15,204 @@ public abstract class ResultScanner {
     protected final boolean countSuccesses;
     protected final boolean onlyFailWhenMatchingFailureMessage;
     protected final List<String> failureMessages;
-    protected int successCount = 0;
-    protected int failureCount = 0;
-    protected int customFailureCount = 0;
+    protected FailureMessageMatcher failureMessageMatcher;
+    protected long successCount = 0;
+    protected long failureCount = 0;
+    protected long customFailureCount = 0;
+    protected boolean collectStatistics = false;
+    protected SampleStatistics statistics;
+    protected boolean useResultsSidecar = false;
+    protected boolean useResultFileSummaries = false;
 
     public ResultScanner(boolean countSuccesses, boolean countFailures, boolean onlyFailWhenMatchingFailureMessage, List<String> failureMessages) {
         this.countFailures = countFailures;
         this.countSuccesses = countSuccesses;
         this.onlyFailWhenMatchingFailureMessage = onlyFailWhenMatchingFailureMessage;
         this.failureMessages = failureMessages;
+        this.failureMessageMatcher = FailureMessageMatcher.compile(failureMessages, FailureMessageMatchMode.EXACT);
+    }
+
+    /**
+     * Set how failure messages found in result files are compared to the failure messages that are searched for.
+     *
+     * @param mode The match mode
+     * @return ResultScanner
+     */
+    public ResultScanner setFailureMessageMatchMode(FailureMessageMatchMode mode) {
+        this.failureMessageMatcher = FailureMessageMatcher.compile(failureMessages, mode);
+
+        return this;
+    }
+
+    /**
+     * Calculate response time distributions (overall, and per sampler label) while scanning result files.
+     *
+     * @param collectStatistics true to collect statistics
+     * @return ResultScanner
+     */
+    public ResultScanner setCollectStatistics(boolean collectStatistics) {
+        this.collectStatistics = collectStatistics;
+        this.statistics = collectStatistics ? new SampleStatistics() : null;
+
+        return this;
+    }
+
+    /**
+     * Keep a compact binary copy of every result file next to it (see {@link ResultsSidecar}), so that a result file
+     * that has not changed since it was last scanned does not need to be parsed again.
+     *
+     * @param useResultsSidecar true to read (and write) sidecars
+     * @return ResultScanner
+     */
+    public ResultScanner setUseResultsSidecar(boolean useResultsSidecar) {
+        this.useResultsSidecar = useResultsSidecar;
+
+        return this;
+    }
+
+    /**
+     * Write a summary of every result file next to it once it has been scanned (see {@link ResultFileSummary}), a
+     * result file that has an up to date summary is not scanned again: its summary is merged into the totals instead.
+     *
+     * @param useResultFileSummaries true to read (and write) summaries
+     * @return ResultScanner
+     */
+    public ResultScanner setUseResultFileSummaries(boolean useResultFileSummaries) {
+        this.useResultFileSummaries = useResultFileSummaries;
+
+        return this;
     }
 
     abstract public void parseResultFile(File file) throws MojoExecutionException;
 
+    /**
+     * Scan a result file, using its summary or its sidecar (when enabled) instead of parsing the file when possible.
+     *
+     * @param file   The result file
+     * @param parser Parses the result file
+     * @return The counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while parsing the file
+     */
+    protected CSVScanResult scanResultFile(File file, ResultFileParser parser) throws MojoExecutionException {
+        CSVScanResult scanResult = readResultFileSummary(file);
+        if (null != scanResult) {
+            return scanResult;
+        }
+        long length = file.length();
+        long lastModified = file.lastModified();
+        scanResult = useResultsSidecar ? scanResultsSidecar(file) : null;
+        if (null == scanResult) {
+            scanResult = parser.parse(file);
+        }
+        writeResultFileSummary(file, length, lastModified, scanResult);
+
+        return scanResult;
+    }
+
+    /**
+     * @param file The result file
+     * @return The counts (and statistics) held by the summary of the file, or null if the file needs to be scanned
+     */
+    protected CSVScanResult readResultFileSummary(File file) {
+        if (!useResultFileSummaries) {
+            return null;
+        }
+        try {
+            CSVScanResult scanResult = ResultFileSummary.read(file, failureMessageMatcher, collectStatistics);
+            if (null != scanResult) {
+                LOGGER.info("Reading results from up to date summary '{}'", ResultFileSummary.fileFor(file));
+            }
+            return scanResult;
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to use results summary of '{}', scanning the file instead: {}", file.getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the summary of a result file that has been scanned, a summary that cannot be written is only logged.
+     *
+     * @param file         The result file
+     * @param length       The size of the file before it was scanned
+     * @param lastModified The last modified time of the file before it was scanned
+     * @param scanResult   The counts (and statistics) found in the file
+     */
+    protected void writeResultFileSummary(File file, long length, long lastModified, CSVScanResult scanResult) {
+        if (!useResultFileSummaries) {
+            return;
+        }
+        try {
+            ResultFileSummary.write(file, length, lastModified, failureMessageMatcher, scanResult);
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to write results summary of '{}': {}", file.getName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Scan a result file using its sidecar, the sidecar is written first if it is missing or out of date.
+     *
+     * @param file The result file
+     * @return The counts (and statistics) for the file, or null if the sidecar cannot be used and the file needs to be parsed
+     */
+    protected CSVScanResult scanResultsSidecar(File file) {
+        try {
+            if (ResultsSidecar.isFresh(file)) {
+                LOGGER.info("Reading results from up to date sidecar '{}'", ResultsSidecar.fileFor(file));
+            } else if (!writeResultsSidecar(file)) {
+                return null;
+            }
+            return ResultsSidecar.scan(file, failureMessageMatcher, collectStatistics);
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to use results sidecar of '{}', parsing the file instead: {}", file.getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convert a result file to a sidecar.
+     *
+     * @param file The result file
+     * @return true if the sidecar has been written, false if this file cannot be converted
+     * @throws IOException When an error occurs while reading the file or writing the sidecar
+     */
+    protected boolean writeResultsSidecar(File file) throws IOException {
+        return false;
+    }
+
+    /**
+     * Parse a series of result files, by default they are parsed one after another.
+     *
+     * @param files Files to parse
+     * @throws MojoExecutionException MojoExecutionException
+     */
+    public void parseResultFiles(List<File> files) throws MojoExecutionException {
+        for (File file : files) {
+            parseResultFile(file);
+        }
+    }
+
+    /**
+     * Add the counts found in a result file to the running totals.
+     *
+     * @param file       The file that has been scanned
+     * @param scanResult The counts found in the file
+     */
+    protected void addScanResult(File file, CSVScanResult scanResult) {
+        successCount += scanResult.getSuccessCount();
+        failureCount += scanResult.getFailureCount();
+        if (null != statistics && null != scanResult.getStatistics()) {
+            statistics.add(scanResult.getStatistics());
+        }
+        for (Map.Entry<String, Long> entry : scanResult.getSpecificFailureMessages().entrySet()) {
+            customFailureCount = customFailureCount + entry.getValue();
+            LOGGER.info("Number of potential custom failures using '{}' in '{}': {}", entry.getKey(), file.getName(), customFailureCount);
+        }
+    }
+
     /**
      * @return failure count
      */
-    public int getFailureCount() {
+    public long getFailureCount() {
         if (countFailures) {
             if (onlyFailWhenMatchingFailureMessage) {
                 return this.customFailureCount;
@@ -43,14 +226,29 @@ public abstract class ResultScanner {
     /**
      * @return success count
      */
-    public int getSuccessCount() {
+    public long getSuccessCount() {
         if (countSuccesses) {
             return this.successCount;
         }
         return 0;
     }
 
-    public int getTotalCount() {
+    /**
+     * @return The response time statistics of all the files that have been parsed, or null if they are not collected
+     */
+    public SampleStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long getTotalCount() {
         return getSuccessCount() + getFailureCount();
     }
+
+    /**
+     * Parses a whole result file.
+     */
+    @FunctionalInterface
+    protected interface ResultFileParser {
+        CSVScanResult parse(File file) throws MojoExecutionException;
+    }
 }
@@ -1,30 +1,48 @@
 package com.lazerycode.jmeter.results;
 
-import com.fasterxml.jackson.databind.MappingIterator;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import org.apache.maven.plugin.MojoExecutionException;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class ResultScannerCSV extends ResultScanner {
 
-    private static final String ROW_NAME_SUCCESS = "success";
-    private static final String ROW_NAME_FAILURE_MESSAGE = "failureMessage";
-    private static final CsvMapper CSV_MAPPER = new CsvMapper();
-    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    private int scanThreads = 1;
+    private CSVLayout csvLayout;
 
     public ResultScannerCSV(boolean countSuccesses, boolean countFailures, boolean onlyFailWhenMatchingFailureMessage, List<String> failureMessages) {
         super(countSuccesses, countFailures, onlyFailWhenMatchingFailureMessage, failureMessages);
     }
 
+    /**
+     * Set the number of threads used to scan result files.
+     * When more than one thread is used, files are memory mapped and split into chunks that are scanned concurrently.
+     *
+     * @param scanThreads Number of threads, 0 will use one thread per available processor
+     * @return ResultScannerCSV
+     */
+    public ResultScannerCSV setScanThreads(int scanThreads) {
+        this.scanThreads = scanThreads > 0 ? scanThreads : Runtime.getRuntime().availableProcessors();
+
+        return this;
+    }
+
+    /**
+     * Set the layout that JMeter writes CSV results files with.
+     * The delimiter is then no longer guessed from the header, and files written without a header can be scanned.
+     *
+     * @param csvLayout The layout, or null to work it out from the header of every file
+     * @return ResultScannerCSV
+     */
+    public ResultScannerCSV setCsvLayout(CSVLayout csvLayout) {
+        this.csvLayout = csvLayout;
+
+        return this;
+    }
+
     /**
      * Work out how to parse a CSV file
      *
@@ -38,19 +56,68 @@ public class ResultScannerCSV extends ResultScanner {
         }
         LOGGER.info(" ");
         LOGGER.info("Parsing results file '{}' as type: CSV", file);
-        CSVScanResult csvScanResult = scanCsvForValues(file, failureMessages);
-        successCount += csvScanResult.getSuccessCount();
-        failureCount += csvScanResult.getFailureCount();
-        for (Map.Entry<String, Integer> entry : csvScanResult.getSpecificFailureMessages().entrySet()) {
-            customFailureCount = customFailureCount + entry.getValue();
-            LOGGER.info("Number of potential custom failures using '{}' in '{}': {}", entry.getKey(), file.getName(), customFailureCount);
-        }
+        addScanResult(file, scanResultFile(file, csvFile -> scanCsvForValues(csvFile, failureMessageMatcher, collectStatistics, csvLayout)));
+    }
 
+    /**
+     * Parse a series of CSV files, scanning them concurrently if more than one scan thread has been configured.
+     * Files are scanned one after another when sidecars are used, reading a sidecar does not require parsing.
+     * Files that have an up to date summary are not scanned at all.
+     *
+     * @param files Files to parse
+     * @throws MojoExecutionException MojoExecutionException
+     */
+    @Override
+    public void parseResultFiles(List<File> files) throws MojoExecutionException {
+        if (scanThreads <= 1 || useResultsSidecar) {
+            super.parseResultFiles(files);
+            return;
+        }
+        for (File file : files) {
+            if (!file.exists()) {
+                throw new MojoExecutionException("Unable to find " + file.getAbsolutePath());
+            }
+        }
+        List<CSVScanResult> results = new ArrayList<>(files.size());
+        List<File> filesToScan = new ArrayList<>();
+        for (File file : files) {
+            CSVScanResult scanResult = readResultFileSummary(file);
+            results.add(scanResult);
+            if (null == scanResult) {
+                filesToScan.add(file);
+            }
+        }
+        if (!filesToScan.isEmpty()) {
+            long[] lengths = new long[filesToScan.size()];
+            long[] lastModifiedTimes = new long[filesToScan.size()];
+            for (int i = 0; i < filesToScan.size(); i++) {
+                lengths[i] = filesToScan.get(i).length();
+                lastModifiedTimes[i] = filesToScan.get(i).lastModified();
+            }
+            LOGGER.info(" ");
+            LOGGER.info("Parsing {} results files as type: CSV using {} threads", filesToScan.size(), scanThreads);
+            Iterator<CSVScanResult> scanResults = new ParallelCSVScanner(scanThreads).setCsvLayout(csvLayout).scan(filesToScan, failureMessageMatcher, collectStatistics).iterator();
+            for (int i = 0, scanned = 0; i < files.size(); i++) {
+                if (null == results.get(i)) {
+                    CSVScanResult scanResult = scanResults.next();
+                    writeResultFileSummary(files.get(i), lengths[scanned], lastModifiedTimes[scanned], scanResult);
+                    results.set(i, scanResult);
+                    scanned++;
+                }
+            }
+        }
+        for (int i = 0; i < files.size(); i++) {
+            addScanResult(files.get(i), results.get(i));
+        }
     }
 
     /**
      * Scans a csv file to calculate success/failure counts.
      * Will also take a list of failure messages to search for
+     * <p>
+     * The file is read once, in a single streaming pass, the "success" and "failureMessage" columns are located using
+     * the header and rows are parsed from a reused byte buffer (see {@link CSVRecordReader}), columns after the last
+     * one that is needed are skipped without being tokenised.
      *
      * @param file   The file to parse
      * @param values Failure messages to search for
@@ -58,52 +125,166 @@ public class ResultScannerCSV extends ResultScanner {
      * @throws MojoExecutionException When an error occurs while reading the file
      */
     protected static CSVScanResult scanCsvForValues(File file, List<String> values) throws MojoExecutionException {
-        Map<String, Integer> specificFailureMessages = values.stream().collect(Collectors.toMap(Function.identity(), (a) -> 0));
-        int successCount = 0, failureCount = 0;
+        return scanCsvForValues(file, values, false);
+    }
+
+    /**
+     * Scans a csv file to calculate success/failure counts, and optionally response time statistics.
+     *
+     * @param file              The file to parse
+     * @param values            Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    protected static CSVScanResult scanCsvForValues(File file, List<String> values, boolean collectStatistics) throws MojoExecutionException {
+        return scanCsvForValues(file, FailureMessageMatcher.compile(values, FailureMessageMatchMode.EXACT), collectStatistics);
+    }
+
+    /**
+     * Scans a csv file to calculate success/failure counts, and optionally response time statistics.
+     *
+     * @param file              The file to parse
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    protected static CSVScanResult scanCsvForValues(File file, FailureMessageMatcher matcher, boolean collectStatistics) throws MojoExecutionException {
+        return scanCsvForValues(file, matcher, collectStatistics, null);
+    }
+
+    /**
+     * Scans a csv file to calculate success/failure counts, and optionally response time statistics.
+     *
+     * @param file              The file to parse
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @param layout            The layout of the file, or null to work it out from its header
+     * @return The counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    protected static CSVScanResult scanCsvForValues(File file, FailureMessageMatcher matcher, boolean collectStatistics, CSVLayout layout) throws MojoExecutionException {
         try {
-            char separator = computeSeparator(file);
-            CsvSchema schema = CsvSchema.emptySchema().withHeader().withColumnSeparator(separator);
-            try (FileReader fr = new FileReader(file); BufferedReader reader = new BufferedReader(fr, DEFAULT_BUFFER_SIZE)) {
-                MappingIterator<Map<String, String>> it = CSV_MAPPER.readerFor(Map.class).with(schema).readValues(reader);
-                while (it.hasNext()) {
-                    Map<String, String> row = it.next();
-                    if (Boolean.parseBoolean(row.get(ROW_NAME_SUCCESS))) {
-                        successCount++;
-                    } else {
-                        failureCount++;
-                        for (Map.Entry<String, Integer> entry : specificFailureMessages.entrySet()) {
-                            String failureMessage = row.get(ROW_NAME_FAILURE_MESSAGE);
-                            if (entry.getKey().equalsIgnoreCase(failureMessage)) {
-                                entry.setValue(entry.getValue() + 1);
-                            }
-                        }
-                    }
-                }
-            }
+            return scanFile(file, matcher, collectStatistics, layout);
         } catch (IOException e) {
             throw new MojoExecutionException("An unexpected error occurred while reading file " + file.getAbsolutePath(), e);
         }
+    }
+
+    /**
+     * Scan a whole csv file in a single streaming pass, compressed files (see {@link ResultFileCompression}) are
+     * decompressed on the fly.
+     *
+     * @param file              The file to parse
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The counts (and statistics) for the file
+     * @throws IOException When an error occurs while reading the file
+     */
+    static CSVScanResult scanFile(File file, FailureMessageMatcher matcher, boolean collectStatistics) throws IOException {
+        return scanFile(file, matcher, collectStatistics, null);
+    }
 
-        return new CSVScanResult(specificFailureMessages, successCount, failureCount);
+    /**
+     * Scan a whole csv file in a single streaming pass, compressed files (see {@link ResultFileCompression}) are
+     * decompressed on the fly.
+     *
+     * @param file              The file to parse
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @param layout            The layout of the file, or null to work it out from its header
+     * @return The counts (and statistics) for the file
+     * @throws IOException When an error occurs while reading the file
+     */
+    static CSVScanResult scanFile(File file, FailureMessageMatcher matcher, boolean collectStatistics, CSVLayout layout) throws IOException {
+        try (CSVRecordReader reader = new CSVRecordReader(ResultFileCompression.newInputStream(file))) {
+            return scanRecords(reader, CSVHeader.read(reader, file, layout), matcher, collectStatistics);
+        }
     }
 
-    private static char computeSeparator(File file) throws java.io.IOException {
-        try (FileReader fr = new FileReader(file);
-             BufferedReader reader = new BufferedReader(fr, DEFAULT_BUFFER_SIZE)) {
-            String line = reader.readLine();
-            if (line != null) {
-                return lookForDelimiter(line);
+    @Override
+    protected boolean writeResultsSidecar(File file) throws IOException {
+        try (CSVRecordReader reader = new CSVRecordReader(ResultFileCompression.newInputStream(file));
+             ResultsSidecar.Writer writer = new ResultsSidecar.Writer(file)) {
+            CSVHeader header = CSVHeader.read(reader, file, csvLayout);
+            int successIndex = header.getSuccessIndex();
+            int failureMessageIndex = header.getFailureMessageIndex();
+            while (reader.nextRecord()) {
+                boolean success = reader.isTrue(successIndex);
+                writer.addSample(
+                        reader.getLabelId(header.getLabelIndex(), writer),
+                        success,
+                        reader.getLong(header.getTimeStampIndex()),
+                        reader.getLong(header.getElapsedIndex()),
+                        reader.getLong(header.getLatencyIndex()),
+                        reader.getLong(header.getConnectIndex()),
+                        reader.getLong(header.getBytesIndex()),
+                        reader.getLong(header.getSentBytesIndex())
+                );
+                if (!success) {
+                    writer.setFailureMessage(reader.getString(failureMessageIndex));
+                }
             }
-            throw new IllegalArgumentException("No line read from file " + file.getAbsolutePath());
+            writer.commit();
         }
+        return true;
     }
 
-    private static char lookForDelimiter(String line) {
-        for (char ch : line.toCharArray()) {
-            if (!Character.isLetter(ch)) {
-                return ch;
+    /**
+     * Count successes/failures for all remaining records of a reader.
+     *
+     * @param reader            A reader positioned after the header
+     * @param header            The header of the file being read
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The counts for the records that have been read
+     * @throws IOException When an error occurs while reading
+     */
+    static CSVScanResult scanRecords(CSVRecordReader reader, CSVHeader header, FailureMessageMatcher matcher, boolean collectStatistics) throws IOException {
+        FailureMessageMatcher.Counter failureMessageMatches = matcher.newCounter();
+        boolean matchFailureMessages = !matcher.isEmpty();
+        int successIndex = header.getSuccessIndex();
+        int failureMessageIndex = header.getFailureMessageIndex();
+        SampleStatistics statistics = collectStatistics ? new SampleStatistics() : null;
+        long successCount = 0, failureCount = 0;
+        while (reader.nextRecord()) {
+            boolean success = reader.isTrue(successIndex);
+            if (collectStatistics) {
+                recordStatistics(reader, header, success, statistics);
+            }
+            if (success) {
+                successCount++;
+            } else {
+                failureCount++;
+                if (matchFailureMessages) {
+                    failureMessageMatches.count(reader.getString(failureMessageIndex));
+                }
             }
         }
-        throw new IllegalStateException("Cannot find delimiter in header " + line);
+
+        return new CSVScanResult(failureMessageMatches.toMap(), successCount, failureCount, statistics);
+    }
+
+    /**
+     * Add the current record of a reader to statistics.
+     *
+     * @param reader     A reader positioned on a record
+     * @param header     The header of the file being read
+     * @param success    Whether the sample was successful
+     * @param statistics The statistics to add the record to
+     */
+    static void recordStatistics(CSVRecordReader reader, CSVHeader header, boolean success, SampleStatistics statistics) {
+        // A timeStamp column written with a custom date format is not a number, throughput is then unknown
+        statistics.record(
+                reader.getLabelId(header.getLabelIndex(), statistics),
+                success,
+                reader.getLong(header.getTimeStampIndex()),
+                reader.getLong(header.getElapsedIndex()),
+                reader.getLong(header.getLatencyIndex()),
+                reader.getLong(header.getConnectIndex()),
+                reader.getLong(header.getBytesIndex()),
+                reader.getLong(header.getSentBytesIndex())
+        );
     }
 }
@@ -2,8 +2,14 @@ package com.lazerycode.jmeter.results;
 
 import org.apache.maven.plugin.MojoExecutionException;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -15,8 +21,21 @@ import java.util.regex.Pattern;
  */
 public class ResultScannerXML extends ResultScanner {
 
-    private static final String XML_REQUEST_FAILURE_PATTERN = "s=\"false\"";
-    private static final String XML_REQUEST_SUCCESS_PATTERN = "s=\"true\"";
+    private static final String XML_SAMPLE_ELEMENT = "sample";
+    private static final String XML_HTTP_SAMPLE_ELEMENT = "httpSample";
+    private static final String XML_ASSERTION_RESULT_ELEMENT = "assertionResult";
+    private static final String XML_FAILURE_MESSAGE_ELEMENT = "failureMessage";
+    private static final String XML_SUCCESS_ATTRIBUTE = "s";
+    private static final String XML_LABEL_ATTRIBUTE = "lb";
+    private static final String XML_ELAPSED_ATTRIBUTE = "t";
+    private static final String XML_LATENCY_ATTRIBUTE = "lt";
+    private static final String XML_CONNECT_ATTRIBUTE = "ct";
+    private static final String XML_TIMESTAMP_ATTRIBUTE = "ts";
+    private static final String XML_BYTES_ATTRIBUTE = "by";
+    private static final String XML_SENT_BYTES_ATTRIBUTE = "sby";
+    private static final int SAMPLE_DEPTH = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
 
     public ResultScannerXML(boolean countSuccesses, boolean countFailures, boolean onlyFailWhenMatchingFailureMessage, List<String> failureMessages) {
         super(countSuccesses, countFailures, onlyFailWhenMatchingFailureMessage, failureMessages);
@@ -35,12 +54,197 @@ public class ResultScannerXML extends ResultScanner {
         }
         LOGGER.info(" ");
         LOGGER.info("Parsing results file '{}' as type: XML", file);
-        if (countSuccesses) {
-            successCount += scanXmlFileForPattern(file, Pattern.compile(XML_REQUEST_SUCCESS_PATTERN, Pattern.CASE_INSENSITIVE));
+        addScanResult(file, scanResultFile(file, xmlFile -> scanXmlFile(xmlFile, failureMessageMatcher, collectStatistics)));
+    }
+
+    /**
+     * Scans a xml file in a single streaming pass to calculate success/failure counts.
+     * Only top level samples (httpSample or sample elements that are direct children of the root element) are counted,
+     * sub results and response data are ignored.
+     * Will also take a list of failure messages to search for, these are matched (ignoring case) against the first
+     * assertionResult/failureMessage of each failed sample.
+     *
+     * @param file   The file to parse
+     * @param values Failure messages to search for
+     * @return The success/failure counts and a map of failure messages/associated count for failure messages explicitly searched for
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    public static CSVScanResult scanXmlFile(File file, List<String> values) throws MojoExecutionException {
+        return scanXmlFile(file, values, false);
+    }
+
+    /**
+     * Scans a xml file in a single streaming pass to calculate success/failure counts, and optionally response time
+     * statistics (using the attributes of top level samples).
+     *
+     * @param file              The file to parse
+     * @param values            Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The success/failure counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    public static CSVScanResult scanXmlFile(File file, List<String> values, boolean collectStatistics) throws MojoExecutionException {
+        return scanXmlFile(file, FailureMessageMatcher.compile(values, FailureMessageMatchMode.EXACT), collectStatistics);
+    }
+
+    /**
+     * Scans a xml file in a single streaming pass to calculate success/failure counts, and optionally response time
+     * statistics.
+     *
+     * @param file              The file to parse
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The success/failure counts (and statistics) for the file
+     * @throws MojoExecutionException When an error occurs while reading the file
+     */
+    public static CSVScanResult scanXmlFile(File file, FailureMessageMatcher matcher, boolean collectStatistics) throws MojoExecutionException {
+        FailureMessageMatcher.Counter failureMessageMatches = matcher.newCounter();
+        SampleStatistics statistics = collectStatistics ? new SampleStatistics() : null;
+        long[] counts = new long[2];
+        try {
+            String error = parseSamples(file, !matcher.isEmpty(), new SampleHandler() {
+                @Override
+                public void startSample(XMLStreamReader reader, boolean success) {
+                    if (collectStatistics) {
+                        String label = reader.getAttributeValue(null, XML_LABEL_ATTRIBUTE);
+                        statistics.record(
+                                statistics.labelId(null == label ? "" : label),
+                                success,
+                                parseLong(reader.getAttributeValue(null, XML_TIMESTAMP_ATTRIBUTE)),
+                                parseLong(reader.getAttributeValue(null, XML_ELAPSED_ATTRIBUTE)),
+                                parseLong(reader.getAttributeValue(null, XML_LATENCY_ATTRIBUTE)),
+                                parseLong(reader.getAttributeValue(null, XML_CONNECT_ATTRIBUTE)),
+                                parseLong(reader.getAttributeValue(null, XML_BYTES_ATTRIBUTE)),
+                                parseLong(reader.getAttributeValue(null, XML_SENT_BYTES_ATTRIBUTE))
+                        );
+                    }
+                    counts[success ? 0 : 1]++;
+                }
+
+                @Override
+                public void endFailedSample(String failureMessage) {
+                    failureMessageMatches.count(failureMessage);
+                }
+            });
+            // JMeter only closes the root element at the end of a test, so a test that has been killed leaves an incomplete file behind
+            if (null != error && file.length() > 0) {
+                LOGGER.warn("Results file '{}' is not well formed, only samples found before the error have been counted: {}", file.getName(), error);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("An unexpected error occurred while reading file " + file.getAbsolutePath(), e);
+        }
+        return new CSVScanResult(failureMessageMatches.toMap(), counts[0], counts[1], statistics);
+    }
+
+    /**
+     * Convert a xml file to a sidecar, files that are not well formed are not converted so that they keep being
+     * reported when they are scanned.
+     */
+    @Override
+    protected boolean writeResultsSidecar(File file) throws IOException {
+        try (ResultsSidecar.Writer writer = new ResultsSidecar.Writer(file)) {
+            String error = parseSamples(file, true, new SampleHandler() {
+                @Override
+                public void startSample(XMLStreamReader reader, boolean success) throws IOException {
+                    writer.addSample(
+                            writer.labelId(reader.getAttributeValue(null, XML_LABEL_ATTRIBUTE)),
+                            success,
+                            parseLong(reader.getAttributeValue(null, XML_TIMESTAMP_ATTRIBUTE)),
+                            parseLong(reader.getAttributeValue(null, XML_ELAPSED_ATTRIBUTE)),
+                            parseLong(reader.getAttributeValue(null, XML_LATENCY_ATTRIBUTE)),
+                            parseLong(reader.getAttributeValue(null, XML_CONNECT_ATTRIBUTE)),
+                            parseLong(reader.getAttributeValue(null, XML_BYTES_ATTRIBUTE)),
+                            parseLong(reader.getAttributeValue(null, XML_SENT_BYTES_ATTRIBUTE))
+                    );
+                }
+
+                @Override
+                public void endFailedSample(String failureMessage) {
+                    writer.setFailureMessage(failureMessage);
+                }
+            });
+            if (null != error) {
+                return false;
+            }
+            writer.commit();
         }
-        if (countFailures) {
-            failureCount += scanXmlFileForPattern(file, Pattern.compile(XML_REQUEST_FAILURE_PATTERN, Pattern.CASE_INSENSITIVE));
+        return true;
+    }
+
+    /**
+     * Parse the top level samples of a xml file in a single streaming pass.
+     *
+     * @param file                The file to parse
+     * @param readFailureMessages Find the failure message of failed samples
+     * @param handler             Receives the samples
+     * @return null if the file is well formed, otherwise the error (samples found before the error have been handled)
+     * @throws IOException When an error occurs while reading the file
+     */
+    private static String parseSamples(File file, boolean readFailureMessages, SampleHandler handler) throws IOException {
+        XMLStreamReader reader = null;
+        try (InputStream inputStream = new BufferedInputStream(ResultFileCompression.newInputStream(file), BUFFER_SIZE)) {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            int depth = 0;
+            boolean inFailedSample = false;
+            boolean inAssertionResult = false;
+            String failureMessage = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String elementName = reader.getLocalName();
+                    if (depth == SAMPLE_DEPTH && isSample(elementName)) {
+                        boolean success = Boolean.parseBoolean(reader.getAttributeValue(null, XML_SUCCESS_ATTRIBUTE));
+                        handler.startSample(reader, success);
+                        if (!success) {
+                            inFailedSample = readFailureMessages;
+                            failureMessage = null;
+                        }
+                    } else if (inFailedSample && depth == SAMPLE_DEPTH + 1) {
+                        inAssertionResult = XML_ASSERTION_RESULT_ELEMENT.equals(elementName);
+                    } else if (inAssertionResult && depth == SAMPLE_DEPTH + 2 && null == failureMessage && XML_FAILURE_MESSAGE_ELEMENT.equals(elementName)) {
+                        String message = reader.getElementText();
+                        depth--;
+                        if (!message.isEmpty()) {
+                            failureMessage = message;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == SAMPLE_DEPTH && inFailedSample) {
+                        handler.endFailedSample(failureMessage);
+                        inFailedSample = false;
+                    } else if (depth == SAMPLE_DEPTH + 1) {
+                        inAssertionResult = false;
+                    }
+                    depth--;
+                }
+            }
+        } catch (XMLStreamException ex) {
+            if (ex.getNestedException() instanceof IOException) {
+                throw (IOException) ex.getNestedException();
+            }
+            return ex.getMessage();
+        } finally {
+            closeQuietly(reader);
         }
+        return null;
+    }
+
+    /**
+     * Receives the top level samples of a xml file.
+     */
+    private interface SampleHandler {
+        /**
+         * @param reader  A reader positioned on the start element of the sample
+         * @param success Whether the sample was successful
+         * @throws IOException When the sample cannot be handled
+         */
+        void startSample(XMLStreamReader reader, boolean success) throws IOException;
+
+        /**
+         * @param failureMessage The first failure message of a failed sample, may be null
+         */
+        void endFailedSample(String failureMessage);
     }
 
     /**
@@ -50,7 +254,9 @@ public class ResultScannerXML extends ResultScanner {
      * @param searchPattern The pattern to scan for
      * @return The number of times the pattern appears in the xml file
      * @throws MojoExecutionException When an error occurs while reading the file
+     * @deprecated This matches any text in the file (including sub results and response data), use {@link #scanXmlFile(File, List)} instead
      */
+    @Deprecated
     public static int scanXmlFileForPattern(File file, Pattern searchPattern) throws MojoExecutionException {
         int patternMatchCount = 0;
         try (Scanner resultFileScanner = new Scanner(file)) {
@@ -62,4 +268,42 @@ public class ResultScannerXML extends ResultScanner {
         }
         return patternMatchCount;
     }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (null == reader) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException ex) {
+            LOGGER.debug("Unable to close XML reader", ex);
+        }
+    }
+
+    /**
+     * @param value Attribute value
+     * @return The value as a number, or -1 if it is missing or invalid
+     */
+    private static long parseLong(String value) {
+        if (null == value) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static boolean isSample(String elementName) {
+        return XML_HTTP_SAMPLE_ELEMENT.equals(elementName) || XML_SAMPLE_ELEMENT.equals(elementName);
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
 }
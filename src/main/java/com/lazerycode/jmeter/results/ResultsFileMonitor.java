@@ -0,0 +1,149 @@
+package com.lazerycode.jmeter.results;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Follows a CSV results file while JMeter is writing it, keeping running success/failure counts and response time
+ * statistics.
+ * <p>
+ * Once at least a minimum number of samples have been read, an action (e.g. stopping JMeter) is triggered the first
+ * time the error rate goes above a threshold, so that a broken test can be stopped early rather than running to the end.
+ */
+public class ResultsFileMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultsFileMonitor.class);
+    private static final long DEFAULT_POLL_INTERVAL_IN_MILLISECONDS = 500;
+
+    private final File resultsFile;
+    private final double errorRateThresholdInPercent;
+    private final long minimumSamples;
+    private final Runnable thresholdExceededAction;
+    private final CSVLayout csvLayout;
+    private final FollowingInputStream inputStream;
+    private final SampleStatistics statistics = new SampleStatistics();
+    private volatile long successCount = 0;
+    private volatile long failureCount = 0;
+    private volatile boolean thresholdExceeded = false;
+    private Thread monitorThread;
+
+    /**
+     * @param resultsFile                 The CSV results file, it does not need to exist yet
+     * @param errorRateThresholdInPercent Error rate (in percent) that triggers the action when it is exceeded
+     * @param minimumSamples              Number of samples that need to be read before the error rate is checked
+     * @param thresholdExceededAction     Action triggered (once) when the threshold is exceeded
+     */
+    public ResultsFileMonitor(File resultsFile, double errorRateThresholdInPercent, long minimumSamples, Runnable thresholdExceededAction) {
+        this(resultsFile, errorRateThresholdInPercent, minimumSamples, thresholdExceededAction, null);
+    }
+
+    /**
+     * @param resultsFile                 The CSV results file, it does not need to exist yet
+     * @param errorRateThresholdInPercent Error rate (in percent) that triggers the action when it is exceeded
+     * @param minimumSamples              Number of samples that need to be read before the error rate is checked
+     * @param thresholdExceededAction     Action triggered (once) when the threshold is exceeded
+     * @param csvLayout                   The layout JMeter writes the results file with, or null to work it out from its header
+     */
+    public ResultsFileMonitor(File resultsFile, double errorRateThresholdInPercent, long minimumSamples, Runnable thresholdExceededAction, CSVLayout csvLayout) {
+        this(resultsFile, errorRateThresholdInPercent, minimumSamples, thresholdExceededAction, csvLayout, DEFAULT_POLL_INTERVAL_IN_MILLISECONDS);
+    }
+
+    ResultsFileMonitor(File resultsFile, double errorRateThresholdInPercent, long minimumSamples, Runnable thresholdExceededAction, CSVLayout csvLayout, long pollIntervalInMilliseconds) {
+        this.resultsFile = resultsFile;
+        this.csvLayout = csvLayout;
+        this.errorRateThresholdInPercent = errorRateThresholdInPercent;
+        this.minimumSamples = minimumSamples;
+        this.thresholdExceededAction = thresholdExceededAction;
+        this.inputStream = new FollowingInputStream(resultsFile.toPath(), pollIntervalInMilliseconds);
+    }
+
+    /**
+     * Start following the results file in a background thread.
+     *
+     * @return ResultsFileMonitor
+     */
+    public ResultsFileMonitor start() {
+        monitorThread = new Thread(this::follow, "results-monitor-" + resultsFile.getName());
+        monitorThread.setDaemon(true);
+        monitorThread.start();
+
+        return this;
+    }
+
+    /**
+     * Read whatever is left in the results file and stop following it.
+     * Statistics are only safe to read once this has returned.
+     */
+    public void stop() {
+        inputStream.stop();
+        try {
+            monitorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true if the error rate threshold has been exceeded
+     */
+    public boolean isThresholdExceeded() {
+        return thresholdExceeded;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return The percentage of the samples read so far that have failed
+     */
+    public double getErrorPercentage() {
+        long total = successCount + failureCount;
+        return total == 0 ? 0 : (double) Math.round(failureCount * 10000.0 / total) / 100;
+    }
+
+    /**
+     * @return The response time statistics of the samples that have been read, only available once stopped
+     */
+    public SampleStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void follow() {
+        try (CSVRecordReader reader = new CSVRecordReader(inputStream)) {
+            CSVHeader header;
+            try {
+                header = CSVHeader.read(reader, resultsFile, csvLayout);
+            } catch (IllegalArgumentException ex) {
+                LOGGER.debug("Nothing was written to results file '{}'", resultsFile);
+                return;
+            }
+            while (reader.nextRecord()) {
+                boolean success = reader.isTrue(header.getSuccessIndex());
+                ResultScannerCSV.recordStatistics(reader, header, success, statistics);
+                if (success) {
+                    successCount++;
+                } else {
+                    failureCount++;
+                }
+                if (!thresholdExceeded && successCount + failureCount >= minimumSamples && getErrorPercentage() > errorRateThresholdInPercent) {
+                    thresholdExceeded = true;
+                    Histogram elapsed = statistics.getTotalHistogram(ResponseTimeMetric.ELAPSED);
+                    LOGGER.error("Error rate {}% is above accepted threshold {}% after {} samples (p95 elapsed time {}ms)",
+                            getErrorPercentage(), errorRateThresholdInPercent, successCount + failureCount, elapsed.getValueAtPercentile(95));
+                    thresholdExceededAction.run();
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Stopped monitoring results file '{}': {}", resultsFile, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact, columnar copy of the samples of a result file, written next to it so that the file does not need to be
+ * parsed again the next time it is checked.
+ * <p>
+ * The sidecar is keyed by the size and last modified time of the result file, it is ignored as soon as the result
+ * file changes. Samples are stored in blocks, each block holds one primitive column per sample attribute (timestamp,
+ * elapsed time, latency, connect time, bytes received and sent, label id, failure message id and success flag).
+ * Labels and failure messages are dictionary encoded, so failure messages only need to be matched once per distinct
+ * message. Blocks are memory mapped one at a time when the sidecar is scanned.
+ * <p>
+ * Layout: header (magic, version, result file size, result file last modified time), blocks (row count followed by
+ * the columns), label dictionary, failure message dictionary, footer (dictionary offset, magic).
+ */
+final class ResultsSidecar {
+
+    static final String EXTENSION = ".columns";
+    private static final int MAGIC = 0x4A4D5243;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 24;
+    private static final int FOOTER_LENGTH = 12;
+    private static final int BLOCK_ROWS = 64 * 1024;
+    private static final int BYTES_PER_ROW = 6 * Long.BYTES + 2 * Integer.BYTES + 1;
+    private static final int NO_FAILURE_MESSAGE = -1;
+
+    private ResultsSidecar() {
+    }
+
+    /**
+     * @param resultsFile A result file
+     * @return The sidecar of the result file
+     */
+    static File fileFor(File resultsFile) {
+        return new File(resultsFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * @param resultsFile A result file
+     * @return true if the result file has a complete sidecar that has been written for its current contents
+     */
+    static boolean isFresh(File resultsFile) {
+        File sidecar = fileFor(resultsFile);
+        if (!sidecar.isFile() || sidecar.length() < HEADER_LENGTH + FOOTER_LENGTH) {
+            return false;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(sidecar, "r")) {
+            if (file.readInt() != MAGIC || file.readInt() != VERSION
+                    || file.readLong() != resultsFile.length() || file.readLong() != resultsFile.lastModified()) {
+                return false;
+            }
+            file.seek(file.length() - Integer.BYTES);
+            return file.readInt() == MAGIC;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Calculate success/failure counts (and optionally response time statistics) from the sidecar of a result file.
+     *
+     * @param resultsFile       A result file that has a fresh sidecar
+     * @param matcher           Failure messages to search for
+     * @param collectStatistics Calculate response time statistics
+     * @return The counts (and statistics) for the result file
+     * @throws IOException When an error occurs while reading the sidecar
+     */
+    static CSVScanResult scan(File resultsFile, FailureMessageMatcher matcher, boolean collectStatistics) throws IOException {
+        try (FileChannel channel = FileChannel.open(fileFor(resultsFile).toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_LENGTH, FOOTER_LENGTH);
+            long dictionaryOffset = footer.getLong();
+            MappedByteBuffer dictionaries = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryOffset, size - FOOTER_LENGTH - dictionaryOffset);
+            String[] labels = readDictionary(dictionaries);
+            String[] failureMessages = readDictionary(dictionaries);
+
+            SampleStatistics statistics = collectStatistics ? new SampleStatistics() : null;
+            int[] statisticsLabelIds = new int[labels.length];
+            if (collectStatistics) {
+                for (int i = 0; i < labels.length; i++) {
+                    statisticsLabelIds[i] = statistics.labelId(labels[i]);
+                }
+            }
+            long[] failureMessageOccurrences = new long[failureMessages.length];
+            long successCount = 0, failureCount = 0;
+            long offset = HEADER_LENGTH;
+            while (offset < dictionaryOffset) {
+                int rows = channel.map(FileChannel.MapMode.READ_ONLY, offset, Integer.BYTES).getInt();
+                long blockLength = (long) rows * BYTES_PER_ROW;
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset + Integer.BYTES, blockLength);
+                int elapsedColumn = rows * Long.BYTES;
+                int latencyColumn = elapsedColumn + rows * Long.BYTES;
+                int connectColumn = latencyColumn + rows * Long.BYTES;
+                int bytesColumn = connectColumn + rows * Long.BYTES;
+                int sentBytesColumn = bytesColumn + rows * Long.BYTES;
+                int labelColumn = sentBytesColumn + rows * Long.BYTES;
+                int failureMessageColumn = labelColumn + rows * Integer.BYTES;
+                int successColumn = failureMessageColumn + rows * Integer.BYTES;
+                for (int row = 0; row < rows; row++) {
+                    boolean success = block.get(successColumn + row) != 0;
+                    if (success) {
+                        successCount++;
+                    } else {
+                        failureCount++;
+                        int failureMessageId = block.getInt(failureMessageColumn + row * Integer.BYTES);
+                        if (failureMessageId != NO_FAILURE_MESSAGE) {
+                            failureMessageOccurrences[failureMessageId]++;
+                        }
+                    }
+                    if (collectStatistics) {
+                        int longOffset = row * Long.BYTES;
+                        statistics.record(
+                                statisticsLabelIds[block.getInt(labelColumn + row * Integer.BYTES)],
+                                success,
+                                block.getLong(longOffset),
+                                block.getLong(elapsedColumn + longOffset),
+                                block.getLong(latencyColumn + longOffset),
+                                block.getLong(connectColumn + longOffset),
+                                block.getLong(bytesColumn + longOffset),
+                                block.getLong(sentBytesColumn + longOffset)
+                        );
+                    }
+                }
+                offset += Integer.BYTES + blockLength;
+            }
+
+            FailureMessageMatcher.Counter failureMessageMatches = matcher.newCounter();
+            if (!matcher.isEmpty()) {
+                for (int i = 0; i < failureMessages.length; i++) {
+                    failureMessageMatches.count(failureMessages[i], failureMessageOccurrences[i]);
+                }
+            }
+            return new CSVScanResult(failureMessageMatches.toMap(), successCount, failureCount, statistics);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] value = new byte[buffer.getInt()];
+            buffer.get(value);
+            values[i] = new String(value, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * Writes the sidecar of a result file, samples are added in the order they are read from the result file.
+     * The sidecar is written to a temporary file that only replaces the previous sidecar once {@link #commit()} is
+     * called, closing a writer that has not been committed discards it.
+     */
+    static class Writer implements Closeable {
+        private final File resultsFile;
+        private final long resultsFileLength;
+        private final long resultsFileLastModified;
+        private final File temporaryFile;
+        private final DataOutputStream outputStream;
+        private final LabelDictionary labels = new LabelDictionary();
+        private final LabelDictionary failureMessages = new LabelDictionary();
+        private final long[][] longColumns = new long[6][BLOCK_ROWS];
+        private final int[] labelIds = new int[BLOCK_ROWS];
+        private final int[] failureMessageIds = new int[BLOCK_ROWS];
+        private final boolean[] successes = new boolean[BLOCK_ROWS];
+        private int rows = 0;
+        private long offset = HEADER_LENGTH;
+        private boolean committed = false;
+
+        Writer(File resultsFile) throws IOException {
+            this.resultsFile = resultsFile;
+            this.resultsFileLength = resultsFile.length();
+            this.resultsFileLastModified = resultsFile.lastModified();
+            File sidecar = fileFor(resultsFile);
+            this.temporaryFile = File.createTempFile(sidecar.getName(), ".tmp", sidecar.getAbsoluteFile().getParentFile());
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath()), 64 * 1024));
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(resultsFileLength);
+            outputStream.writeLong(resultsFileLastModified);
+        }
+
+        /**
+         * @param bytes  Array holding a UTF-8 encoded label
+         * @param offset Offset of the label in the array
+         * @param length Length of the label
+         * @return The id of the label
+         */
+        int labelId(byte[] bytes, int offset, int length) {
+            return labels.idOf(bytes, offset, length);
+        }
+
+        /**
+         * @param label A label
+         * @return The id of the label
+         */
+        int labelId(String label) {
+            return labels.idOf(null == label ? "" : label);
+        }
+
+        /**
+         * Add a sample, negative values are treated as missing (see {@link SampleStatistics}).
+         *
+         * @throws IOException When an error occurs while writing the sidecar
+         */
+        void addSample(int labelId, boolean success, long timeStamp, long elapsed, long latency, long connect, long receivedBytes, long sentBytes) throws IOException {
+            if (rows == BLOCK_ROWS) {
+                writeBlock();
+            }
+            longColumns[0][rows] = timeStamp;
+            longColumns[1][rows] = elapsed;
+            longColumns[2][rows] = latency;
+            longColumns[3][rows] = connect;
+            longColumns[4][rows] = receivedBytes;
+            longColumns[5][rows] = sentBytes;
+            labelIds[rows] = labelId;
+            failureMessageIds[rows] = NO_FAILURE_MESSAGE;
+            successes[rows] = success;
+            rows++;
+        }
+
+        /**
+         * Set the failure message of the last sample that has been added.
+         *
+         * @param failureMessage The failure message, may be null
+         */
+        void setFailureMessage(String failureMessage) {
+            failureMessageIds[rows - 1] = null == failureMessage ? NO_FAILURE_MESSAGE : failureMessages.idOf(failureMessage);
+        }
+
+        /**
+         * Write the remaining samples and dictionaries, then replace the sidecar of the result file.
+         *
+         * @throws IOException When an error occurs while writing the sidecar, or the result file has been modified
+         */
+        void commit() throws IOException {
+            if (rows > 0) {
+                writeBlock();
+            }
+            long dictionaryOffset = offset;
+            writeDictionary(labels);
+            writeDictionary(failureMessages);
+            outputStream.writeLong(dictionaryOffset);
+            outputStream.writeInt(MAGIC);
+            outputStream.close();
+            if (resultsFile.length() != resultsFileLength || resultsFile.lastModified() != resultsFileLastModified) {
+                throw new IOException("Results file " + resultsFile.getAbsolutePath() + " has been modified while it was read");
+            }
+            try {
+                Files.move(temporaryFile.toPath(), fileFor(resultsFile).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporaryFile.toPath(), fileFor(resultsFile).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+        }
+
+        private void writeBlock() throws IOException {
+            outputStream.writeInt(rows);
+            for (long[] column : longColumns) {
+                for (int row = 0; row < rows; row++) {
+                    outputStream.writeLong(column[row]);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                outputStream.writeInt(labelIds[row]);
+            }
+            for (int row = 0; row < rows; row++) {
+                outputStream.writeInt(failureMessageIds[row]);
+            }
+            for (int row = 0; row < rows; row++) {
+                outputStream.writeByte(successes[row] ? 1 : 0);
+            }
+            offset += Integer.BYTES + (long) rows * BYTES_PER_ROW;
+            rows = 0;
+        }
+
+        private void writeDictionary(LabelDictionary dictionary) throws IOException {
+            outputStream.writeInt(dictionary.size());
+            for (int id = 0; id < dictionary.size(); id++) {
+                byte[] value = dictionary.getName(id).getBytes(StandardCharsets.UTF_8);
+                outputStream.writeInt(value.length);
+                outputStream.write(value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                outputStream.close();
+                Files.deleteIfExists(temporaryFile.toPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.lazerycode.jmeter.results;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Response time distributions (elapsed time, latency and connect time) and running totals (see {@link LabelCounters})
+ * of the samples found in result files, for all samples and for every sampler label, as well as the number of samples
+ * and errors per second (see {@link SampleTimeSeries}).
+ * <p>
+ * Values are recorded in HdrHistograms, their memory footprint only depends on the range of values recorded (not the
+ * number of samples) and histograms can be merged, which means that results gathered in parallel can be combined.
+ * Statistics can also be written in a compact binary form (see {@link #writeTo(DataOutput)}), so that results gathered
+ * by other executions can be combined without scanning their result files again.
+ */
+public class SampleStatistics {
+
+    private static final int SIGNIFICANT_VALUE_DIGITS = 3;
+    private static final int INITIAL_LABEL_CAPACITY = 16;
+    private static final ResponseTimeMetric[] METRICS = ResponseTimeMetric.values();
+
+    private final LabelDictionary labels = new LabelDictionary();
+    private final Histogram[] totalHistograms = new Histogram[METRICS.length];
+    private final LabelCounters totalCounters = new LabelCounters(1);
+    private final LabelCounters labelCounters = new LabelCounters(INITIAL_LABEL_CAPACITY);
+    private final SampleTimeSeries timeSeries = new SampleTimeSeries();
+    private Histogram[][] labelHistograms = new Histogram[METRICS.length][INITIAL_LABEL_CAPACITY];
+
+    public SampleStatistics() {
+        for (ResponseTimeMetric metric : METRICS) {
+            totalHistograms[metric.ordinal()] = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        }
+    }
+
+    /**
+     * Get the id of a UTF-8 encoded label, registering it if it has not been seen before.
+     *
+     * @param bytes  Array holding the label
+     * @param offset Offset of the label in the array
+     * @param length Length of the label
+     * @return The id of the label
+     */
+    int labelId(byte[] bytes, int offset, int length) {
+        return ensureCapacity(labels.idOf(bytes, offset, length));
+    }
+
+    /**
+     * Get the id of a label, registering it if it has not been seen before.
+     *
+     * @param label The label
+     * @return The id of the label
+     */
+    int labelId(String label) {
+        return ensureCapacity(labels.idOf(label));
+    }
+
+    /**
+     * Record a sample, negative values are treated as missing and ignored.
+     *
+     * @param labelId       The id of the label of the sample
+     * @param success       Whether the sample was successful
+     * @param timeStamp     Start time of the sample in milliseconds since the epoch
+     * @param elapsed       Elapsed time in milliseconds
+     * @param latency       Latency in milliseconds
+     * @param connect       Connect time in milliseconds
+     * @param receivedBytes Number of bytes received
+     * @param sentBytes     Number of bytes sent
+     */
+    void record(int labelId, boolean success, long timeStamp, long elapsed, long latency, long connect, long receivedBytes, long sentBytes) {
+        totalCounters.record(0, success, timeStamp, elapsed, receivedBytes, sentBytes);
+        labelCounters.record(labelId, success, timeStamp, elapsed, receivedBytes, sentBytes);
+        timeSeries.record(timeStamp, success);
+        recordValue(ResponseTimeMetric.ELAPSED, labelId, elapsed);
+        recordValue(ResponseTimeMetric.LATENCY, labelId, latency);
+        recordValue(ResponseTimeMetric.CONNECT, labelId, connect);
+    }
+
+    /**
+     * Add all the values recorded in another instance to this one.
+     *
+     * @param other The statistics to add
+     */
+    public void add(SampleStatistics other) {
+        for (ResponseTimeMetric metric : METRICS) {
+            totalHistograms[metric.ordinal()].add(other.totalHistograms[metric.ordinal()]);
+        }
+        totalCounters.add(0, other.totalCounters, 0);
+        timeSeries.add(other.timeSeries);
+        for (int otherId = 0; otherId < other.labels.size(); otherId++) {
+            int id = labelId(other.labels.getName(otherId));
+            labelCounters.add(id, other.labelCounters, otherId);
+            for (ResponseTimeMetric metric : METRICS) {
+                Histogram otherHistogram = other.labelHistograms[metric.ordinal()][otherId];
+                if (null != otherHistogram) {
+                    getOrCreateHistogram(metric, id).add(otherHistogram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write every label, counter, histogram and the time series, histograms are written in their compressed form.
+     *
+     * @param output Where to write the statistics
+     * @throws IOException When an error occurs while writing
+     */
+    void writeTo(DataOutput output) throws IOException {
+        totalCounters.writeTo(output, 0);
+        for (ResponseTimeMetric metric : METRICS) {
+            writeHistogram(output, totalHistograms[metric.ordinal()]);
+        }
+        output.writeInt(labels.size());
+        for (int id = 0; id < labels.size(); id++) {
+            byte[] label = labels.getName(id).getBytes(StandardCharsets.UTF_8);
+            output.writeInt(label.length);
+            output.write(label);
+            labelCounters.writeTo(output, id);
+            for (ResponseTimeMetric metric : METRICS) {
+                writeHistogram(output, labelHistograms[metric.ordinal()][id]);
+            }
+        }
+        timeSeries.writeTo(output);
+    }
+
+    /**
+     * Read statistics written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input Where to read the statistics from
+     * @return The statistics
+     * @throws IOException When an error occurs while reading, or the statistics are invalid
+     */
+    static SampleStatistics readFrom(DataInput input) throws IOException {
+        SampleStatistics statistics = new SampleStatistics();
+        statistics.totalCounters.readFrom(input, 0);
+        for (ResponseTimeMetric metric : METRICS) {
+            Histogram histogram = readHistogram(input);
+            if (null == histogram) {
+                throw new IOException("Missing " + metric.name().toLowerCase() + " histogram of all samples");
+            }
+            statistics.totalHistograms[metric.ordinal()].add(histogram);
+        }
+        int labelCount = input.readInt();
+        for (int i = 0; i < labelCount; i++) {
+            int length = input.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid label length: " + length);
+            }
+            byte[] label = new byte[length];
+            input.readFully(label);
+            int id = statistics.labelId(label, 0, length);
+            statistics.labelCounters.readFrom(input, id);
+            for (ResponseTimeMetric metric : METRICS) {
+                Histogram histogram = readHistogram(input);
+                if (null != histogram) {
+                    statistics.getOrCreateHistogram(metric, id).add(histogram);
+                }
+            }
+        }
+        statistics.timeSeries.add(SampleTimeSeries.readFrom(input));
+        return statistics;
+    }
+
+    /**
+     * @return All the labels that have been recorded, in the order they were first seen
+     */
+    public List<String> getLabels() {
+        List<String> labelNames = new ArrayList<>(labels.size());
+        for (int id = 0; id < labels.size(); id++) {
+            labelNames.add(labels.getName(id));
+        }
+        return labelNames;
+    }
+
+    /**
+     * @return Number of samples and errors per second, for all labels
+     */
+    public SampleTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+
+    /**
+     * @param metric The response time metric
+     * @return The distribution of the metric for all samples
+     */
+    public Histogram getTotalHistogram(ResponseTimeMetric metric) {
+        return totalHistograms[metric.ordinal()];
+    }
+
+    /**
+     * @param metric The response time metric
+     * @param label  The sampler label
+     * @return The distribution of the metric for the samples with the given label, or null if no values have been recorded
+     */
+    public Histogram getHistogram(ResponseTimeMetric metric, String label) {
+        int id = labels.find(label);
+        return id < 0 ? null : labelHistograms[metric.ordinal()][id];
+    }
+
+    /**
+     * @return The summary of all samples
+     */
+    public LabelSummary getTotalSummary() {
+        return new LabelSummary(null, totalCounters, 0, getTotalHistogram(ResponseTimeMetric.ELAPSED));
+    }
+
+    /**
+     * @param label The sampler label
+     * @return The summary of the samples with the given label, or null if the label has not been seen
+     */
+    public LabelSummary getSummary(String label) {
+        int id = labels.find(label);
+        return id < 0 ? null : new LabelSummary(label, labelCounters, id, labelHistograms[ResponseTimeMetric.ELAPSED.ordinal()][id]);
+    }
+
+    /**
+     * @return The summary of every label, in the order they were first seen
+     */
+    public List<LabelSummary> getSummaries() {
+        List<LabelSummary> summaries = new ArrayList<>(labels.size());
+        for (int id = 0; id < labels.size(); id++) {
+            summaries.add(new LabelSummary(labels.getName(id), labelCounters, id, labelHistograms[ResponseTimeMetric.ELAPSED.ordinal()][id]));
+        }
+        return summaries;
+    }
+
+    private static void writeHistogram(DataOutput output, Histogram histogram) throws IOException {
+        if (null == histogram) {
+            output.writeInt(-1);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        output.writeInt(length);
+        output.write(buffer.array(), 0, length);
+    }
+
+    /**
+     * @return The histogram, or null if there was none
+     */
+    private static Histogram readHistogram(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        input.readFully(encoded);
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        } catch (DataFormatException | RuntimeException ex) {
+            throw new IOException("Invalid histogram: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void recordValue(ResponseTimeMetric metric, int labelId, long value) {
+        if (value < 0) {
+            return;
+        }
+        totalHistograms[metric.ordinal()].recordValue(value);
+        getOrCreateHistogram(metric, labelId).recordValue(value);
+    }
+
+    private Histogram getOrCreateHistogram(ResponseTimeMetric metric, int labelId) {
+        Histogram histogram = labelHistograms[metric.ordinal()][labelId];
+        if (null == histogram) {
+            histogram = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+            labelHistograms[metric.ordinal()][labelId] = histogram;
+        }
+        return histogram;
+    }
+
+    private int ensureCapacity(int labelId) {
+        labelCounters.ensureCapacity(labelId);
+        if (labelId >= labelHistograms[0].length) {
+            for (int i = 0; i < labelHistograms.length; i++) {
+                labelHistograms[i] = Arrays.copyOf(labelHistograms[i], Math.max(labelId + 1, labelHistograms[i].length * 2));
+            }
+        }
+        return labelId;
+    }
+}
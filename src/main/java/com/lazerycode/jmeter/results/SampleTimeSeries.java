@@ -0,0 +1,219 @@
+package com.lazerycode.jmeter.results;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Number of samples and errors per second, based on the start time (timeStamp) of samples.
+ * <p>
+ * Counts are held in primitive arrays indexed by second, relative to the first second that has been seen. Samples are
+ * not always written in start time order, so the series can grow in both directions. To protect against bogus
+ * timestamps the series never spans more than {@link #MAXIMUM_BUCKETS} seconds, samples that would make it any longer
+ * are not counted.
+ */
+public class SampleTimeSeries {
+
+    public static final long BUCKET_MILLIS = 1000;
+    static final int MAXIMUM_BUCKETS = 7 * 24 * 60 * 60;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long firstBucket;
+    private int bucketCount = 0;
+    private long[] samples = new long[INITIAL_CAPACITY];
+    private long[] errors = new long[INITIAL_CAPACITY];
+    private long firstTimeStamp = Long.MAX_VALUE;
+    private long lastTimeStamp = Long.MIN_VALUE;
+
+    /**
+     * Count a sample, samples without a (valid) timestamp are ignored.
+     *
+     * @param timeStamp Start time of the sample in milliseconds since the epoch
+     * @param success   Whether the sample was successful
+     */
+    void record(long timeStamp, boolean success) {
+        if (timeStamp < 0) {
+            return;
+        }
+        int bucket = bucketIndex(timeStamp / BUCKET_MILLIS);
+        if (bucket < 0) {
+            return;
+        }
+        samples[bucket]++;
+        if (!success) {
+            errors[bucket]++;
+        }
+        firstTimeStamp = Math.min(firstTimeStamp, timeStamp);
+        lastTimeStamp = Math.max(lastTimeStamp, timeStamp);
+    }
+
+    /**
+     * Add all the counts of another series to this one.
+     *
+     * @param other The series to add
+     */
+    void add(SampleTimeSeries other) {
+        for (int otherBucket = 0; otherBucket < other.bucketCount; otherBucket++) {
+            if (other.samples[otherBucket] == 0) {
+                continue;
+            }
+            int bucket = bucketIndex(other.firstBucket + otherBucket);
+            if (bucket >= 0) {
+                samples[bucket] += other.samples[otherBucket];
+                errors[bucket] += other.errors[otherBucket];
+            }
+        }
+        if (!other.isEmpty()) {
+            firstTimeStamp = Math.min(firstTimeStamp, other.firstTimeStamp);
+            lastTimeStamp = Math.max(lastTimeStamp, other.lastTimeStamp);
+        }
+    }
+
+    /**
+     * Write the counts of every second.
+     *
+     * @param output Where to write the series
+     * @throws IOException When an error occurs while writing
+     */
+    void writeTo(DataOutput output) throws IOException {
+        output.writeLong(firstBucket);
+        output.writeInt(bucketCount);
+        output.writeLong(firstTimeStamp);
+        output.writeLong(lastTimeStamp);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            output.writeLong(samples[bucket]);
+            output.writeLong(errors[bucket]);
+        }
+    }
+
+    /**
+     * Read a series written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input Where to read the series from
+     * @return The series
+     * @throws IOException When an error occurs while reading, or the series is invalid
+     */
+    static SampleTimeSeries readFrom(DataInput input) throws IOException {
+        SampleTimeSeries series = new SampleTimeSeries();
+        series.firstBucket = input.readLong();
+        series.bucketCount = input.readInt();
+        series.firstTimeStamp = input.readLong();
+        series.lastTimeStamp = input.readLong();
+        if (series.bucketCount < 0 || series.bucketCount > MAXIMUM_BUCKETS) {
+            throw new IOException("Invalid number of seconds in time series: " + series.bucketCount);
+        }
+        int capacity = series.capacityFor(series.bucketCount);
+        series.samples = new long[capacity];
+        series.errors = new long[capacity];
+        for (int bucket = 0; bucket < series.bucketCount; bucket++) {
+            series.samples[bucket] = input.readLong();
+            series.errors[bucket] = input.readLong();
+        }
+        return series;
+    }
+
+    /**
+     * @return true if no sample has been counted
+     */
+    public boolean isEmpty() {
+        return bucketCount == 0;
+    }
+
+    /**
+     * @return Start time of the first sample in milliseconds since the epoch
+     */
+    public long getFirstTimeStamp() {
+        return firstTimeStamp;
+    }
+
+    /**
+     * @return Start time of the last sample in milliseconds since the epoch
+     */
+    public long getLastTimeStamp() {
+        return lastTimeStamp;
+    }
+
+    /**
+     * @return The number of seconds between the first and the last sample (inclusive)
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * @param bucket Index of a second
+     * @return The start of the second in milliseconds since the epoch
+     */
+    public long getBucketStart(int bucket) {
+        return (firstBucket + bucket) * BUCKET_MILLIS;
+    }
+
+    /**
+     * @param bucket Index of a second
+     * @return The number of samples that started during the second
+     */
+    public long getSamples(int bucket) {
+        return samples[bucket];
+    }
+
+    /**
+     * @param bucket Index of a second
+     * @return The number of failed samples that started during the second
+     */
+    public long getErrors(int bucket) {
+        return errors[bucket];
+    }
+
+    /**
+     * Get the index of a second, growing the arrays if required.
+     *
+     * @param absoluteBucket The second since the epoch
+     * @return The index of the second, or -1 if the series would become too long
+     */
+    private int bucketIndex(long absoluteBucket) {
+        if (bucketCount == 0) {
+            firstBucket = absoluteBucket;
+            bucketCount = 1;
+            return 0;
+        }
+        if (absoluteBucket < firstBucket) {
+            long newBucketCount = firstBucket + bucketCount - absoluteBucket;
+            if (newBucketCount > MAXIMUM_BUCKETS) {
+                return -1;
+            }
+            int shift = (int) (firstBucket - absoluteBucket);
+            int capacity = Math.max(samples.length, capacityFor((int) newBucketCount));
+            samples = shift(samples, shift, bucketCount, capacity);
+            errors = shift(errors, shift, bucketCount, capacity);
+            firstBucket = absoluteBucket;
+            bucketCount = (int) newBucketCount;
+            return 0;
+        }
+        long index = absoluteBucket - firstBucket;
+        if (index >= MAXIMUM_BUCKETS) {
+            return -1;
+        }
+        if (index >= samples.length) {
+            int capacity = capacityFor((int) index + 1);
+            samples = Arrays.copyOf(samples, capacity);
+            errors = Arrays.copyOf(errors, capacity);
+        }
+        bucketCount = Math.max(bucketCount, (int) index + 1);
+        return (int) index;
+    }
+
+    private int capacityFor(int buckets) {
+        int capacity = samples.length;
+        while (capacity < buckets) {
+            capacity *= 2;
+        }
+        return Math.min(capacity, MAXIMUM_BUCKETS);
+    }
+
+    private static long[] shift(long[] values, int shift, int length, int capacity) {
+        long[] shifted = new long[capacity];
+        System.arraycopy(values, 0, shifted, shift, length);
+        return shifted;
+    }
+}
@@ -0,0 +1,145 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.lazerycode.jmeter.json.LabelBaseline;
+import com.lazerycode.jmeter.json.ResultsBaseline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the p95 elapsed time and the throughput of the current results to a baseline, overall and for every label
+ * found in both.
+ */
+public class BaselineComparison {
+
+    private static final double PERCENTILE = 95;
+
+    private final ResultsBaseline baseline;
+    private final ResultsBaseline current;
+    private final double p95RegressionThresholdInPercent;
+    private final double throughputRegressionThresholdInPercent;
+    private final List<String> comparisons = new ArrayList<>();
+    private final List<String> regressions = new ArrayList<>();
+    private final List<String> labelsNotFound = new ArrayList<>();
+    private boolean checkRan;
+
+    /**
+     * @param baseline                               The baseline
+     * @param current                                The results of the current run
+     * @param p95RegressionThresholdInPercent        Accepted increase of the p95 elapsed time in percent
+     * @param throughputRegressionThresholdInPercent Accepted decrease of the throughput in percent
+     */
+    public BaselineComparison(ResultsBaseline baseline, ResultsBaseline current, double p95RegressionThresholdInPercent, double throughputRegressionThresholdInPercent) {
+        this.baseline = baseline;
+        this.current = current;
+        this.p95RegressionThresholdInPercent = p95RegressionThresholdInPercent;
+        this.throughputRegressionThresholdInPercent = throughputRegressionThresholdInPercent;
+    }
+
+    public void runChecks() {
+        comparisons.clear();
+        regressions.clear();
+        labelsNotFound.clear();
+        compare("all samples", baseline.getTotal(), current.getTotal());
+        for (LabelBaseline labelBaseline : baseline.getLabels()) {
+            LabelBaseline labelCurrent = current.getLabel(labelBaseline.getLabel());
+            if (null == labelCurrent) {
+                labelsNotFound.add(labelBaseline.getLabel());
+            } else {
+                compare("'" + labelBaseline.getLabel() + "'", labelBaseline, labelCurrent);
+            }
+        }
+        this.checkRan = true;
+    }
+
+    private void compare(String name, LabelBaseline before, LabelBaseline after) {
+        if (null == before || null == after || before.getSamples() == 0 || after.getSamples() == 0) {
+            return;
+        }
+        long p95Before = before.getElapsedPercentile(PERCENTILE);
+        long p95After = after.getElapsedPercentile(PERCENTILE);
+        double throughputBefore = before.getThroughput();
+        double throughputAfter = after.getThroughput();
+        double p95Change = percentChange(p95Before, p95After);
+        double throughputChange = percentChange(throughputBefore, throughputAfter);
+        comparisons.add(String.format(
+                "%s: p95 elapsed %sms -> %sms (%s%%), throughput %s/s -> %s/s (%s%%)",
+                name,
+                p95Before,
+                p95After,
+                signed(p95Change),
+                round(throughputBefore),
+                round(throughputAfter),
+                signed(throughputChange)
+        ));
+        if (p95Change > p95RegressionThresholdInPercent) {
+            regressions.add(String.format(
+                    "p95 elapsed time of %s regressed by %s%% (%sms -> %sms), above accepted %s%%",
+                    name,
+                    round(p95Change),
+                    p95Before,
+                    p95After,
+                    p95RegressionThresholdInPercent
+            ));
+        }
+        if (-throughputChange > throughputRegressionThresholdInPercent) {
+            regressions.add(String.format(
+                    "Throughput of %s regressed by %s%% (%s/s -> %s/s), above accepted %s%%",
+                    name,
+                    round(-throughputChange),
+                    round(throughputBefore),
+                    round(throughputAfter),
+                    throughputRegressionThresholdInPercent
+            ));
+        }
+    }
+
+    /**
+     * @return The change in percent, 0 if the value before is unknown
+     */
+    private static double percentChange(double before, double after) {
+        if (before <= 0) {
+            return 0;
+        }
+        return (after - before) * 100 / before;
+    }
+
+    private static double round(double value) {
+        return (double) Math.round(value * 100) / 100;
+    }
+
+    private static String signed(double value) {
+        return (value > 0 ? "+" : "") + round(value);
+    }
+
+    /**
+     * @return true if a regression has been found
+     */
+    public boolean hasRegressions() {
+        if (!checkRan) {
+            throw new IllegalStateException("You need to call runChecks");
+        }
+        return !regressions.isEmpty();
+    }
+
+    /**
+     * @return A description of the comparison of every label
+     */
+    public List<String> getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * @return A description of every regression above the accepted thresholds
+     */
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    /**
+     * @return Labels of the baseline that are not part of the current results
+     */
+    public List<String> getLabelsNotFound() {
+        return labelsNotFound;
+    }
+}
@@ -0,0 +1,153 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import com.lazerycode.jmeter.utility.OutputBuffer;
+import com.lazerycode.jmeter.utility.OutputOverflowPolicy;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A (dynamic AppCDS) class data sharing archive of the classes JMeter loads, so that forked JMeter JVMs map them
+ * from the archive instead of loading them from the jars of the JMeter directory.
+ * <p>
+ * An archive is only valid for the jars it was created from (JVMs check their paths, sizes and modification times)
+ * and for the java runtime that created it, so archives are named after a hash of both: a cached archive is reused
+ * as long as neither has changed. A JVM that cannot use an archive ignores it and loads classes as usual.
+ */
+public class ClassDataSharingArchive {
+
+    static final String ARCHIVE_EXTENSION = ".jsa";
+    private static final String TRAINING_PLAN = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<jmeterTestPlan version=\"1.2\" properties=\"5.0\">\n" +
+            "  <hashTree>\n" +
+            "    <TestPlan guiclass=\"TestPlanGui\" testclass=\"TestPlan\" testname=\"Class data sharing training\"/>\n" +
+            "    <hashTree/>\n" +
+            "  </hashTree>\n" +
+            "</jmeterTestPlan>\n";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassDataSharingArchive.class);
+
+    private final File archive;
+
+    private ClassDataSharingArchive(File archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * @param cacheDirectory   Directory archives are cached in
+     * @param jmeterDirectory  The JMeter directory the archive is for
+     * @param javaRuntime      The java runtime of the forked JMeter JVMs
+     * @return The archive matching the current jars of the JMeter directory, which may not have been created yet
+     * @throws MojoExecutionException If the JMeter directory cannot be read
+     */
+    public static ClassDataSharingArchive forJMeterDirectory(File cacheDirectory, File jmeterDirectory, String javaRuntime) throws MojoExecutionException {
+        return new ClassDataSharingArchive(new File(cacheDirectory, hashJars(jmeterDirectory, javaRuntime) + ARCHIVE_EXTENSION));
+    }
+
+    static String hashJars(File jmeterDirectory, String javaRuntime) throws MojoExecutionException {
+        try (Stream<Path> files = Files.walk(jmeterDirectory.toPath())) {
+            List<Path> jars = files.filter(file -> file.toString().endsWith(".jar") && Files.isRegularFile(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(javaRuntime.getBytes(StandardCharsets.UTF_8));
+            for (Path jar : jars) {
+                digest.update(String.format("%n%s:%d:%d", jar.toAbsolutePath(), Files.size(jar), Files.getLastModifiedTime(jar).toMillis())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte value : digest.digest()) {
+                hash.append(String.format("%02x", value));
+            }
+            return hash.toString();
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new MojoExecutionException("Unable to hash the jars of " + jmeterDirectory + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    public File getFile() {
+        return archive;
+    }
+
+    public boolean exists() {
+        return archive.isFile();
+    }
+
+    /**
+     * @return The JVM argument that makes a JVM use this archive
+     */
+    public String getJVMArgument() {
+        return "-XX:SharedArchiveFile=" + archive.getAbsolutePath();
+    }
+
+    /**
+     * Create the archive with a training run: JMeter runs an empty test plan in a JVM that writes the classes it has
+     * loaded to the archive when it exits (this needs Java 13 or later).
+     *
+     * @param jvmSettings      Settings of the forked JMeter JVMs
+     * @param workingDirectory The bin directory of JMeter
+     * @param runtimeJarName   Name of the JMeter runtime jar
+     * @return true if the archive has been created
+     * @throws MojoExecutionException If the training run cannot be started
+     */
+    public boolean create(JMeterProcessJVMSettings jvmSettings, File workingDirectory, String runtimeJarName) throws MojoExecutionException {
+        File trainingPlan = new File(archive.getParentFile(), "training.jmx");
+        File trainingLog = new File(archive.getParentFile(), archive.getName() + ".log");
+        try {
+            Files.createDirectories(archive.getParentFile().toPath());
+            Files.write(trainingPlan.toPath(), TRAINING_PLAN.getBytes(StandardCharsets.UTF_8));
+            Files.deleteIfExists(archive.toPath());
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to prepare the class data sharing training run: " + ex.getMessage(), ex);
+        }
+        JMeterProcessJVMSettings trainingJVMSettings = new JMeterProcessJVMSettings(jvmSettings)
+                .setHeadlessDefaultIfRequired()
+                .addArgument("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-n");
+        arguments.add("-t");
+        arguments.add(trainingPlan.getAbsolutePath());
+        arguments.add("-j");
+        arguments.add(trainingLog.getAbsolutePath());
+        arguments.add("-Jjmeter.exit.check.pause=0");
+        LOGGER.info("Creating class data sharing archive {}...", archive.getAbsolutePath());
+        try {
+            Process process = new JMeterProcessBuilder(trainingJVMSettings, runtimeJarName)
+                    .setWorkingDirectory(workingDirectory)
+                    .addArguments(arguments)
+                    .build()
+                    .start();
+            int exitCode;
+            try (OutputBuffer ignored = new OutputBuffer(OutputOverflowPolicy.BLOCK, LOGGER::debug).readFrom(process.getInputStream(), Charset.defaultCharset())) {
+                exitCode = process.waitFor();
+            }
+            if (exitCode != 0 || !exists()) {
+                LOGGER.warn("Class data sharing archive has not been created (exit code {}), {} may not support -XX:ArchiveClassesAtExit (Java 13 or later is needed)",
+                        exitCode, jvmSettings.getJavaRuntime());
+                Files.deleteIfExists(archive.toPath());
+                return false;
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Class data sharing archive has not been created: {}", ex.getMessage());
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -21,6 +21,8 @@ public class JMeterProcessBuilder {
     private final List<String> userSuppliedArguments;
     private List<String> mainClassArguments = new ArrayList<>();
     private String workingDirectory;
+    private File workerBootstrapClasspath;
+    private File outputFile;
 
     public JMeterProcessBuilder(JMeterProcessJVMSettings settings, String runtimeJarName) {
         this.runtimeJarName = runtimeJarName;
@@ -43,6 +45,32 @@ public class JMeterProcessBuilder {
         return this;
     }
 
+    /**
+     * Start a JMeter worker (see {@link JMeterWorkerBootstrap}) instead of running JMeter directly, the arguments are
+     * then the arguments of the worker.
+     *
+     * @param workerBootstrapClasspath Directory holding the worker bootstrap class
+     * @return JMeterProcessBuilder
+     */
+    public JMeterProcessBuilder setWorkerBootstrapClasspath(File workerBootstrapClasspath) {
+        this.workerBootstrapClasspath = workerBootstrapClasspath;
+
+        return this;
+    }
+
+    /**
+     * Write the output of JMeter straight to a file (by the operating system, without going through this JVM) instead
+     * of it being read from the process.
+     *
+     * @param outputFile The file, overwritten if it exists
+     * @return JMeterProcessBuilder
+     */
+    public JMeterProcessBuilder setOutputFile(File outputFile) {
+        this.outputFile = outputFile;
+
+        return this;
+    }
+
     public JMeterProcessBuilder addArguments(List<String> arguments) {
         mainClassArguments.addAll(arguments);
 
@@ -54,9 +82,14 @@ public class JMeterProcessBuilder {
             throw new MojoExecutionException("Working directory is not set!");
         }
 
-        return new ProcessBuilder(constructArgumentsList())
+        ProcessBuilder processBuilder = new ProcessBuilder(constructArgumentsList())
                 .directory(new File(workingDirectory))
                 .redirectErrorStream(true);
+        if (null != outputFile) {
+            processBuilder.redirectOutput(outputFile);
+        }
+
+        return processBuilder;
     }
 
     List<String> constructArgumentsList() {
@@ -65,8 +98,18 @@ public class JMeterProcessBuilder {
         argumentsList.add(MessageFormat.format("-Xms{0}M", String.valueOf(initialHeapSizeInMegaBytes)));
         argumentsList.add(MessageFormat.format("-Xmx{0}M", String.valueOf(maximumHeapSizeInMegaBytes)));
         argumentsList.addAll(userSuppliedArguments);
-        argumentsList.add("-jar");
-        argumentsList.add(runtimeJarName);
+        if (null == workerBootstrapClasspath) {
+            argumentsList.add("-jar");
+            argumentsList.add(runtimeJarName);
+        } else {
+            // JMeter works out its home directory from the classpath, unless it holds more than the runtime jar
+            if (null != workingDirectory) {
+                argumentsList.add("-Djmeter.home=" + new File(workingDirectory).getParent());
+            }
+            argumentsList.add("-cp");
+            argumentsList.add(workerBootstrapClasspath.getAbsolutePath() + File.pathSeparator + runtimeJarName);
+            argumentsList.add(JMeterWorkerBootstrap.class.getName());
+        }
         argumentsList.addAll(mainClassArguments);
 
         LOGGER.info("Arguments for forked JMeter JVM: {}", argumentsList);
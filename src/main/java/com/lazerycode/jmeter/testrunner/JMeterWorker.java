@@ -0,0 +1,183 @@
+package com.lazerycode.jmeter.testrunner;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A JMeter JVM that is kept running to execute tests one after another, so that JVM startup and JMeter class loading
+ * only happen once instead of once per test.
+ * <p>
+ * The forked JVM runs {@link JMeterWorkerBootstrap}, tests are sent to it on its standard input and their completion
+ * (and exit code) is read from its standard output, along with the output of JMeter.
+ * A worker that has exited (e.g. because a test exited the JVM) cannot run any more tests, a new one needs to be started.
+ */
+class JMeterWorker implements Closeable {
+
+    static final String JMETER_LAUNCHER = "org.apache.jmeter.NewDriver";
+    // JMeter warns about (and lists) non daemon threads that are still running a few seconds after the end of a test,
+    // which is always the case in a worker
+    private static final String DISABLE_EXIT_CHECK = "-Jjmeter.exit.check.pause=0";
+    private static final String BOOTSTRAP_CLASS_FILE = JMeterWorkerBootstrap.class.getName().replace('.', '/') + ".class";
+    private static final long STOP_TIMEOUT_IN_SECONDS = 10;
+    private static final Logger LOGGER = LoggerFactory.getLogger(JMeterWorker.class);
+
+    private final Process process;
+    private final Writer tests;
+    private final BlockingQueue<Integer> exitCodes = new LinkedBlockingQueue<>();
+    private volatile Consumer<String> output;
+    private volatile boolean exited = false;
+
+    JMeterWorker(Process process, Charset outputCharset, Consumer<String> output) {
+        this.process = process;
+        this.tests = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        this.output = output;
+        Thread reader = new Thread(() -> readOutput(process.getInputStream(), outputCharset), "jmeter-worker-output");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Start a worker JVM.
+     *
+     * @param processBuilder     Builder of the JMeter process, with the working directory set
+     * @param bootstrapDirectory Directory the bootstrap class is copied to (see {@link #installBootstrap(File)})
+     * @param launcher           Class name of the JMeter launcher
+     * @param outputCharset      The charset the JVM writes its output with
+     * @param output             Where the output of the JVM goes until a test is run
+     * @return The worker
+     * @throws MojoExecutionException If the worker cannot be started
+     */
+    static JMeterWorker start(JMeterProcessBuilder processBuilder, File bootstrapDirectory, String launcher, Charset outputCharset, Consumer<String> output) throws MojoExecutionException {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(launcher);
+        try {
+            Process process = processBuilder
+                    .setWorkerBootstrapClasspath(installBootstrap(bootstrapDirectory))
+                    .addArguments(arguments)
+                    .build()
+                    .start();
+            return new JMeterWorker(process, outputCharset, output);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to start JMeter worker: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Copy the bootstrap class to a directory, so that it can be added to the classpath of the forked JVM without
+     * the classes (and dependencies) of the plugin.
+     *
+     * @param directory The directory
+     * @return The directory
+     * @throws IOException When the class cannot be copied
+     */
+    static File installBootstrap(File directory) throws IOException {
+        File classFile = new File(directory, BOOTSTRAP_CLASS_FILE);
+        try (InputStream bootstrap = JMeterWorker.class.getClassLoader().getResourceAsStream(BOOTSTRAP_CLASS_FILE)) {
+            if (null == bootstrap) {
+                throw new IOException("Unable to find " + BOOTSTRAP_CLASS_FILE);
+            }
+            Files.createDirectories(classFile.getParentFile().toPath());
+            Files.copy(bootstrap, classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return directory;
+    }
+
+    /**
+     * Run a test and wait for it to complete.
+     *
+     * @param arguments JMeter command line arguments of the test
+     * @param output    Where the output of the test goes
+     * @return The exit code of the test
+     * @throws IOException          When the test cannot be sent to the worker
+     * @throws InterruptedException When interrupted while waiting for the test to complete
+     */
+    int run(List<String> arguments, Consumer<String> output) throws IOException, InterruptedException {
+        if (exited) {
+            throw new IOException("JMeter worker has exited");
+        }
+        this.output = output;
+        List<String> workerArguments = new ArrayList<>(arguments);
+        workerArguments.add(DISABLE_EXIT_CHECK);
+        tests.write(String.join(JMeterWorkerBootstrap.ARGUMENT_SEPARATOR, workerArguments));
+        tests.write('\n');
+        tests.flush();
+
+        return exitCodes.take();
+    }
+
+    /**
+     * @return true if the worker can run another test
+     */
+    boolean isAlive() {
+        return !exited && process.isAlive();
+    }
+
+    /**
+     * Kill the worker, e.g. to stop the test that is running.
+     */
+    void destroy() {
+        process.destroy();
+    }
+
+    /**
+     * Ask the worker to exit once the current test has completed, and kill it if it does not exit in time.
+     */
+    @Override
+    public void close() {
+        try {
+            tests.close();
+            if (!process.waitFor(STOP_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("JMeter worker did not exit in time, destroying it...");
+                process.destroy();
+            }
+        } catch (IOException ex) {
+            process.destroy();
+        } catch (InterruptedException ex) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readOutput(InputStream inputStream, Charset charset) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (line.startsWith(JMeterWorkerBootstrap.TEST_COMPLETED)) {
+                    exitCodes.add(Integer.parseInt(line.substring(JMeterWorkerBootstrap.TEST_COMPLETED.length()).trim()));
+                } else {
+                    output.accept(line);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.debug("Stopped reading the output of JMeter worker: {}", ex.getMessage());
+        }
+        exited = true;
+        try {
+            // Completes the test that was running when the worker exited, if any
+            exitCodes.add(process.waitFor());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
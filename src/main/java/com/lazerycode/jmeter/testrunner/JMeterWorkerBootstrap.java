@@ -0,0 +1,117 @@
+package com.lazerycode.jmeter.testrunner;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Entry point of a JMeter JVM that is kept running to execute tests one after another (see {@link JMeterWorker}).
+ * <p>
+ * Tests are read from standard input, one per line, as JMeter command line arguments separated by
+ * {@link #ARGUMENT_SEPARATOR}. Every test is run in this JVM by calling the main method of the JMeter launcher, a test
+ * has completed once that method has returned and every (non daemon) thread it started has ended, which is when a
+ * JVM dedicated to the test would have exited. System properties are restored once a test has completed, JMeter
+ * reloads its own properties every time it starts. JMeter logging is configured again before every test (but the
+ * first, which configures it) so that each test logs to its own log file.
+ * Completion is written to standard output as {@link #TEST_COMPLETED} followed by the exit code of the test. A test
+ * that exits the JVM ends the worker, the exit code of the JVM is then the exit code of the test.
+ * <p>
+ * This class runs in the forked JVM with only the JMeter launcher on the classpath: it must only depend on the JDK,
+ * and must not use nested classes or lambdas because it is copied on its own to the classpath of the forked JVM.
+ */
+public final class JMeterWorkerBootstrap {
+
+    public static final String TEST_COMPLETED = "@@jmeter-worker-test-completed@@ ";
+    public static final String ARGUMENT_SEPARATOR = "\u0000";
+    static final String LOG_FILE_PROPERTY = "jmeter.logfile";
+    // System property with the class name of the log4j LogManager, only set by tests
+    static final String LOG_MANAGER_PROPERTY = "jmeter.worker.logManager";
+    private static final String LOG_MANAGER = "org.apache.logging.log4j.LogManager";
+
+    private JMeterWorkerBootstrap() {
+    }
+
+    /**
+     * @param args The class name of the JMeter launcher
+     * @throws Exception If the launcher cannot be loaded, or standard input cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        Method launcher = Class.forName(args[0]).getMethod("main", String[].class);
+        BufferedReader tests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String test;
+        while (null != (test = tests.readLine()) && !test.isEmpty()) {
+            int exitCode = runTest(launcher, test.split(ARGUMENT_SEPARATOR, -1));
+            System.out.println(TEST_COMPLETED + exitCode);
+            System.out.flush();
+        }
+        // Threads left behind by tests must not keep the worker alive
+        System.exit(0);
+    }
+
+    private static int runTest(Method launcher, String[] arguments) throws InterruptedException {
+        Properties systemProperties = (Properties) System.getProperties().clone();
+        configureLogFile(arguments);
+        Set<Thread> threadsBeforeTest = new HashSet<>(Thread.getAllStackTraces().keySet());
+        int exitCode = 0;
+        try {
+            launcher.invoke(null, (Object) arguments);
+        } catch (InvocationTargetException ex) {
+            ex.getCause().printStackTrace();
+            exitCode = 1;
+        } catch (IllegalAccessException ex) {
+            ex.printStackTrace();
+            exitCode = 1;
+        }
+        waitForThreadsStartedSince(threadsBeforeTest);
+        System.setProperties(systemProperties);
+
+        return exitCode;
+    }
+
+    /**
+     * JMeter logging (log4j) is configured once, when JMeter first logs, with the log file of the jmeter.logfile system
+     * property that the launcher sets from the -j argument. Setting the property for the next test is not enough, the
+     * logging context of JMeter (found through the class loader the launcher has loaded JMeter with, which is the
+     * context class loader of this thread once a test has been run) is reconfigured for it to be used.
+     */
+    private static void configureLogFile(String[] arguments) {
+        String logFile = null;
+        for (int i = 0; i + 1 < arguments.length; i++) {
+            if ("-j".equals(arguments[i]) || "--jmeterlogfile".equals(arguments[i])) {
+                logFile = arguments[i + 1];
+            }
+        }
+        if (null == logFile) {
+            return;
+        }
+        System.setProperty(LOG_FILE_PROPERTY, logFile);
+        ClassLoader jmeterClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Class<?> logManager = Class.forName(System.getProperty(LOG_MANAGER_PROPERTY, LOG_MANAGER), true, jmeterClassLoader);
+            Object loggerContext = logManager.getMethod("getContext", ClassLoader.class, boolean.class).invoke(null, jmeterClassLoader, false);
+            loggerContext.getClass().getMethod("reconfigure").invoke(loggerContext);
+        } catch (ClassNotFoundException ex) {
+            // JMeter has not been loaded yet, logging is configured by the first test
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            System.err.println("Unable to configure JMeter log file " + logFile + ": " + ex);
+        }
+    }
+
+    private static void waitForThreadsStartedSince(Set<Thread> threadsBeforeTest) throws InterruptedException {
+        boolean threadsRunning = true;
+        while (threadsRunning) {
+            threadsRunning = false;
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (!thread.isDaemon() && thread.isAlive() && !threadsBeforeTest.contains(thread)) {
+                    thread.join();
+                    threadsRunning = true;
+                }
+            }
+        }
+    }
+}
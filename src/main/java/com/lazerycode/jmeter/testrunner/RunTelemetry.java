@@ -0,0 +1,225 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lazerycode.jmeter.configuration.LiveAbortRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Live metrics of a running test, worked out from the lines written by the JMeter summariser (see
+ * {@link SummariserLine}) as they are read from the output of JMeter.
+ * <p>
+ * The metrics can be logged as a compact progress line at a fixed rate, written to a JSON lines file (one object per
+ * summariser line) and checked against a {@link LiveAbortRule} that stops the test as soon as it is broken.
+ * How often metrics are updated depends on the summariser.interval JMeter property (30 seconds by default).
+ */
+public class RunTelemetry implements Consumer<String>, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunTelemetry.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String testName;
+    private final String outputPrefix;
+    private final long startTime = System.currentTimeMillis();
+    private LiveAbortRule abortRule;
+    private BufferedWriter metricsFile;
+    private ScheduledExecutorService progressReporter;
+    private volatile Runnable stopAction;
+    private SummariserLine lastInterval;
+    private SummariserLine lastTotal;
+    private int brokenIntervals = 0;
+    private String abortReason;
+
+    /**
+     * @param testName     Name of the test
+     * @param outputPrefix Prefix of the lines logged
+     */
+    public RunTelemetry(String testName, String outputPrefix) {
+        this.testName = testName;
+        this.outputPrefix = outputPrefix;
+    }
+
+    /**
+     * @param rule Limits every summariser interval must respect
+     * @return RunTelemetry
+     */
+    public RunTelemetry setAbortRule(LiveAbortRule rule) {
+        this.abortRule = rule;
+
+        return this;
+    }
+
+    /**
+     * @param stopAction Stops the test once the limits of the abort rule have been broken, set once the test has started
+     * @return RunTelemetry
+     */
+    public RunTelemetry setStopAction(Runnable stopAction) {
+        this.stopAction = stopAction;
+
+        return this;
+    }
+
+    /**
+     * @param file JSON lines file the metrics are written to
+     * @return RunTelemetry
+     * @throws IOException If the file cannot be created
+     */
+    public RunTelemetry setMetricsFile(File file) throws IOException {
+        this.metricsFile = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+
+        return this;
+    }
+
+    /**
+     * @param intervalInSeconds Number of seconds between progress lines
+     * @return RunTelemetry
+     */
+    public RunTelemetry setProgressInterval(long intervalInSeconds) {
+        progressReporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jmeter-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progressReporter.scheduleAtFixedRate(this::logProgress, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+
+        return this;
+    }
+
+    @Override
+    public void accept(String line) {
+        SummariserLine summariserLine = SummariserLine.parse(line);
+        if (null == summariserLine) {
+            return;
+        }
+        Runnable stop = null;
+        synchronized (this) {
+            if (summariserLine.isTotal()) {
+                lastTotal = summariserLine;
+            } else {
+                lastInterval = summariserLine;
+                if (null == abortReason && isBroken(summariserLine) && ++brokenIntervals >= abortRule.getConsecutiveIntervals()) {
+                    abortReason = String.format("error rate %.2f%%, throughput %.1f/s in the last %d interval(s)",
+                            summariserLine.getErrorPercentage(), summariserLine.getThroughput(), brokenIntervals);
+                    stop = stopAction;
+                }
+            }
+            writeMetrics(summariserLine);
+        }
+        if (null != stop) {
+            LOGGER.error("{}Stopping JMeter process, {}", outputPrefix, abortReason);
+            stop.run();
+        }
+    }
+
+    private boolean isBroken(SummariserLine interval) {
+        if (null == abortRule || System.currentTimeMillis() - startTime < abortRule.getWarmUpInSeconds() * 1000) {
+            return false;
+        }
+        boolean broken = (null != abortRule.getMaximumErrorPercentage() && interval.getErrorPercentage() > abortRule.getMaximumErrorPercentage())
+                || (null != abortRule.getMinimumThroughput() && interval.getThroughput() < abortRule.getMinimumThroughput());
+        if (!broken) {
+            brokenIntervals = 0;
+        }
+        return broken;
+    }
+
+    private void writeMetrics(SummariserLine summariserLine) {
+        if (null == metricsFile) {
+            return;
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timeStamp", System.currentTimeMillis());
+        metrics.put("test", testName);
+        metrics.put("type", summariserLine.isTotal() ? "total" : "interval");
+        metrics.put("elapsedSeconds", summariserLine.getElapsedSeconds());
+        metrics.put("samples", summariserLine.getSamples());
+        metrics.put("throughput", summariserLine.getThroughput());
+        metrics.put("average", summariserLine.getAverage());
+        metrics.put("min", summariserLine.getMinimum());
+        metrics.put("max", summariserLine.getMaximum());
+        metrics.put("errors", summariserLine.getErrors());
+        metrics.put("errorPercentage", summariserLine.getErrorPercentage());
+        if (summariserLine.getActiveThreads() >= 0) {
+            metrics.put("activeThreads", summariserLine.getActiveThreads());
+        }
+        try {
+            metricsFile.write(MAPPER.writeValueAsString(metrics));
+            metricsFile.newLine();
+            metricsFile.flush();
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to write live metrics: {}", ex.getMessage());
+            metricsFile = null;
+        }
+    }
+
+    private void logProgress() {
+        String progress = getProgress();
+        if (null != progress) {
+            LOGGER.info("{}{}", outputPrefix, progress);
+        }
+    }
+
+    /**
+     * @return A compact description of the progress of the test, null until the summariser has written a line
+     */
+    synchronized String getProgress() {
+        if (null == lastInterval && null == lastTotal) {
+            return null;
+        }
+        SummariserLine total = null == lastTotal ? lastInterval : lastTotal;
+        StringBuilder progress = new StringBuilder(String.format("Progress: %d samples in %ds, %.2f%% errors", total.getSamples(),
+                total.getElapsedSeconds(), total.getErrorPercentage()));
+        if (null != lastInterval) {
+            progress.append(String.format(" | last interval: %.1f/s, avg %d ms, %.2f%% errors", lastInterval.getThroughput(),
+                    lastInterval.getAverage(), lastInterval.getErrorPercentage()));
+            if (lastInterval.getActiveThreads() >= 0) {
+                progress.append(String.format(", %d active threads", lastInterval.getActiveThreads()));
+            }
+        }
+        return progress.toString();
+    }
+
+    /**
+     * @return true if the test has been stopped because it broke the abort rule
+     */
+    public synchronized boolean isAborted() {
+        return null != abortReason;
+    }
+
+    /**
+     * @return Why the test has been stopped, null if it has not been stopped
+     */
+    public synchronized String getAbortReason() {
+        return abortReason;
+    }
+
+    @Override
+    public void close() {
+        if (null != progressReporter) {
+            progressReporter.shutdownNow();
+        }
+        synchronized (this) {
+            if (null != metricsFile) {
+                try {
+                    metricsFile.close();
+                } catch (IOException ex) {
+                    LOGGER.warn("Unable to write live metrics: {}", ex.getMessage());
+                }
+                metricsFile = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.lazerycode.jmeter.testrunner;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A line written by the JMeter summariser while a test runs, e.g.
+ * <pre>
+ * summary +     15 in 00:00:05 =    3.0/s Avg:   150 Min:   100 Max:   200 Err:     1 (6.67%) Active: 5 Started: 5 Finished: 0
+ * summary =    100 in 00:00:35 =    2.9/s Avg:   140 Min:    90 Max:   310 Err:     2 (2.00%)
+ * </pre>
+ * "+" lines cover the last interval, "=" lines the whole test so far.
+ */
+class SummariserLine {
+
+    private static final Pattern SUMMARISER_LINE = Pattern.compile(
+            "summary ([+=])\\s+(\\d+) in\\s+(\\d+):(\\d{2}):(\\d{2}) =\\s*([\\d.,]+)/s Avg:\\s*(-?\\d+) Min:\\s*(-?\\d+) Max:\\s*(-?\\d+)" +
+                    " Err:\\s*(\\d+) \\(([\\d.,]+)%\\)(?: Active: (\\d+) Started: (\\d+) Finished: (\\d+))?");
+
+    private final boolean total;
+    private final long samples;
+    private final long elapsedSeconds;
+    private final double throughput;
+    private final long average;
+    private final long minimum;
+    private final long maximum;
+    private final long errors;
+    private final double errorPercentage;
+    private final int activeThreads;
+
+    private SummariserLine(Matcher matcher) {
+        this.total = "=".equals(matcher.group(1));
+        this.samples = Long.parseLong(matcher.group(2));
+        this.elapsedSeconds = Long.parseLong(matcher.group(3)) * 3600 + Long.parseLong(matcher.group(4)) * 60 + Long.parseLong(matcher.group(5));
+        this.throughput = parseDecimal(matcher.group(6));
+        this.average = Long.parseLong(matcher.group(7));
+        this.minimum = Long.parseLong(matcher.group(8));
+        this.maximum = Long.parseLong(matcher.group(9));
+        this.errors = Long.parseLong(matcher.group(10));
+        this.errorPercentage = parseDecimal(matcher.group(11));
+        this.activeThreads = null == matcher.group(12) ? -1 : Integer.parseInt(matcher.group(12));
+    }
+
+    /**
+     * @param line A line of JMeter output
+     * @return The summariser line, or null if the line has not been written by the summariser
+     */
+    static SummariserLine parse(String line) {
+        if (!line.contains("summary ")) {
+            return null;
+        }
+        Matcher matcher = SUMMARISER_LINE.matcher(line);
+        return matcher.find() ? new SummariserLine(matcher) : null;
+    }
+
+    // Numbers are formatted with the locale of the JMeter JVM
+    private static double parseDecimal(String value) {
+        return Double.parseDouble(value.replace(',', '.'));
+    }
+
+    /**
+     * @return true for the whole test so far, false for the last interval
+     */
+    boolean isTotal() {
+        return total;
+    }
+
+    long getSamples() {
+        return samples;
+    }
+
+    long getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    double getThroughput() {
+        return throughput;
+    }
+
+    long getAverage() {
+        return average;
+    }
+
+    long getMinimum() {
+        return minimum;
+    }
+
+    long getMaximum() {
+        return maximum;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    double getErrorPercentage() {
+        return errorPercentage;
+    }
+
+    /**
+     * @return The number of active threads, -1 if it is not known (it is only written on "+" lines)
+     */
+    int getActiveThreads() {
+        return activeThreads;
+    }
+}
@@ -1,6 +1,15 @@
 package com.lazerycode.jmeter.testrunner;
 
+import com.lazerycode.jmeter.configuration.ResponseTimeThreshold;
+import com.lazerycode.jmeter.configuration.TimeWindowRule;
 import com.lazerycode.jmeter.results.ResultScanner;
+import com.lazerycode.jmeter.results.SampleStatistics;
+import com.lazerycode.jmeter.results.SampleTimeSeries;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Since 3.8.1
@@ -10,6 +19,12 @@ public class TestFailureDecider {
     private final ResultScanner resultScanner;
     private final boolean ignoreResultFailures;
     private final double errorPercentageThreshold;
+    private List<ResponseTimeThreshold> responseTimeThresholds = Collections.emptyList();
+    private final List<String> responseTimeThresholdViolations = new ArrayList<>();
+    private List<TimeWindowRule> timeWindowRules = Collections.emptyList();
+    private long warmUpInSeconds = 0;
+    private long coolDownInSeconds = 0;
+    private final List<String> timeWindowRuleViolations = new ArrayList<>();
     private double errorPercentage;
     private boolean checkRan;
 
@@ -19,18 +34,220 @@ public class TestFailureDecider {
         this.resultScanner = resultScanner;
     }
 
+    /**
+     * Response time percentiles that must not be exceeded, these are checked against the statistics of the result
+     * scanner (which need to be collected, see {@link ResultScanner#setCollectStatistics(boolean)}).
+     *
+     * @param responseTimeThresholds List of thresholds
+     * @return TestFailureDecider
+     */
+    public TestFailureDecider setResponseTimeThresholds(List<ResponseTimeThreshold> responseTimeThresholds) {
+        this.responseTimeThresholds = responseTimeThresholds;
+
+        return this;
+    }
+
+    /**
+     * Limits that every time window of the test must respect, these are checked against the time series of the
+     * result scanner statistics (which need to be collected, see {@link ResultScanner#setCollectStatistics(boolean)}).
+     *
+     * @param timeWindowRules List of rules
+     * @return TestFailureDecider
+     */
+    public TestFailureDecider setTimeWindowRules(List<TimeWindowRule> timeWindowRules) {
+        this.timeWindowRules = timeWindowRules;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of seconds at the start of the test (from the timeStamp of the first sample) that are not
+     * checked by time window rules.
+     *
+     * @param warmUpInSeconds Number of seconds
+     * @return TestFailureDecider
+     */
+    public TestFailureDecider setWarmUpInSeconds(long warmUpInSeconds) {
+        this.warmUpInSeconds = warmUpInSeconds;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of seconds at the end of the test (up to the timeStamp of the last sample) that are not
+     * checked by time window rules.
+     *
+     * @param coolDownInSeconds Number of seconds
+     * @return TestFailureDecider
+     */
+    public TestFailureDecider setCoolDownInSeconds(long coolDownInSeconds) {
+        this.coolDownInSeconds = coolDownInSeconds;
+
+        return this;
+    }
+
     public boolean failBuild() {
         if (!checkRan) {
             throw new IllegalStateException("You need to call runChecks");
         }
-        return !ignoreResultFailures && errorPercentage > errorPercentageThreshold;
+        return !ignoreResultFailures && (isErrorPercentageAboveThreshold() || !responseTimeThresholdViolations.isEmpty() || !timeWindowRuleViolations.isEmpty());
     }
 
     public void runChecks() {
-        this.errorPercentage = (double) Math.round(resultScanner.getFailureCount() * 10000.0 / resultScanner.getTotalCount()) / 100;
+        this.errorPercentage = errorPercentage(resultScanner.getFailureCount(), resultScanner.getTotalCount());
+        responseTimeThresholdViolations.clear();
+        timeWindowRuleViolations.clear();
+        SampleStatistics statistics = resultScanner.getStatistics();
+        if (null != statistics) {
+            for (ResponseTimeThreshold threshold : responseTimeThresholds) {
+                List<String> labels = null == threshold.getLabel() ? statistics.getLabels() : Collections.singletonList(threshold.getLabel());
+                for (String label : labels) {
+                    checkResponseTimeThreshold(threshold, label, statistics.getHistogram(threshold.getMetric(), label));
+                }
+            }
+            for (TimeWindowRule rule : timeWindowRules) {
+                checkTimeWindowRule(rule, statistics.getTimeSeries());
+            }
+        }
         this.checkRan = true;
     }
 
+    /**
+     * A threshold for a given label is reported when there is nothing to check it against (usually a label that does
+     * not match any sampler), so that a misspelt label does not silently remove the check.
+     */
+    private void checkResponseTimeThreshold(ResponseTimeThreshold threshold, String label, Histogram histogram) {
+        if (null == histogram || histogram.getTotalCount() == 0) {
+            if (null != threshold.getLabel()) {
+                responseTimeThresholdViolations.add(String.format(
+                        "No %s times found for '%s', p%s threshold of %sms cannot be checked",
+                        threshold.getMetric().name().toLowerCase(),
+                        label,
+                        threshold.getPercentile(),
+                        threshold.getMaximum()
+                ));
+            }
+            return;
+        }
+        long value = histogram.getValueAtPercentile(threshold.getPercentile());
+        if (value > threshold.getMaximum()) {
+            responseTimeThresholdViolations.add(String.format(
+                    "p%s %s of '%s' is %sms, above accepted threshold %sms",
+                    threshold.getPercentile(),
+                    threshold.getMetric().name().toLowerCase(),
+                    label,
+                    value,
+                    threshold.getMaximum()
+            ));
+        }
+    }
+
+    /**
+     * Check every window of a rule, sliding one second at a time, only the worst window is reported.
+     * Only whole seconds between the end of the warm-up and the start of the cool-down are checked, the range is
+     * checked as a single window when it is shorter than the window length.
+     */
+    private void checkTimeWindowRule(TimeWindowRule rule, SampleTimeSeries timeSeries) {
+        if (timeSeries.isEmpty()) {
+            return;
+        }
+        long seriesStart = timeSeries.getBucketStart(0);
+        long rangeStart = timeSeries.getFirstTimeStamp() + warmUpInSeconds * 1000;
+        long rangeEnd = timeSeries.getLastTimeStamp() + 1 - coolDownInSeconds * 1000;
+        int firstBucket = (int) Math.max(0, Math.floorDiv(rangeStart - seriesStart + SampleTimeSeries.BUCKET_MILLIS - 1, SampleTimeSeries.BUCKET_MILLIS));
+        int lastBucket = (int) Math.min(timeSeries.getBucketCount(), Math.floorDiv(rangeEnd - seriesStart, SampleTimeSeries.BUCKET_MILLIS));
+        int rangeLength = lastBucket - firstBucket;
+        if (rangeLength <= 0) {
+            return;
+        }
+        long[] samplesBefore = new long[rangeLength + 1];
+        long[] errorsBefore = new long[rangeLength + 1];
+        for (int i = 0; i < rangeLength; i++) {
+            samplesBefore[i + 1] = samplesBefore[i] + timeSeries.getSamples(firstBucket + i);
+            errorsBefore[i + 1] = errorsBefore[i] + timeSeries.getErrors(firstBucket + i);
+        }
+        int windowLength = (int) Math.max(1, Math.min(rangeLength, rule.getWindowInSeconds() * 1000L / SampleTimeSeries.BUCKET_MILLIS));
+        double maximumErrorPercentage = -1;
+        double minimumThroughput = Double.MAX_VALUE;
+        int maximumErrorPercentageWindow = 0;
+        int minimumThroughputWindow = 0;
+        for (int i = 0; i + windowLength <= rangeLength; i++) {
+            long samples = samplesBefore[i + windowLength] - samplesBefore[i];
+            long errors = errorsBefore[i + windowLength] - errorsBefore[i];
+            double errorPercentage = samples == 0 ? 0 : errors * 100.0 / samples;
+            double throughput = samples * 1000.0 / (windowLength * SampleTimeSeries.BUCKET_MILLIS);
+            if (errorPercentage > maximumErrorPercentage) {
+                maximumErrorPercentage = errorPercentage;
+                maximumErrorPercentageWindow = i;
+            }
+            if (throughput < minimumThroughput) {
+                minimumThroughput = throughput;
+                minimumThroughputWindow = i;
+            }
+        }
+        long windowInSeconds = windowLength * SampleTimeSeries.BUCKET_MILLIS / 1000;
+        if (null != rule.getMaximumErrorPercentage() && maximumErrorPercentage > rule.getMaximumErrorPercentage()) {
+            timeWindowRuleViolations.add(String.format(
+                    "Error rate reached %s%% in the %ss window starting %ss into the test, above accepted threshold %s%%",
+                    round(maximumErrorPercentage),
+                    windowInSeconds,
+                    secondsIntoTest(timeSeries, firstBucket + maximumErrorPercentageWindow),
+                    rule.getMaximumErrorPercentage()
+            ));
+        }
+        if (null != rule.getMinimumThroughput() && minimumThroughput < rule.getMinimumThroughput()) {
+            timeWindowRuleViolations.add(String.format(
+                    "Throughput dropped to %s/s in the %ss window starting %ss into the test, below accepted minimum %s/s",
+                    round(minimumThroughput),
+                    windowInSeconds,
+                    secondsIntoTest(timeSeries, firstBucket + minimumThroughputWindow),
+                    rule.getMinimumThroughput()
+            ));
+        }
+    }
+
+    private static long secondsIntoTest(SampleTimeSeries timeSeries, int bucket) {
+        return (timeSeries.getBucketStart(bucket) - timeSeries.getFirstTimeStamp()) / 1000;
+    }
+
+    /**
+     * @param failureCount Number of failed samples
+     * @param totalCount   Number of samples
+     * @return The percentage of failed samples rounded to two decimals, 0 if there are no samples (an empty result
+     * file is reported by failBuildIfResultFileIsEmpty, not by the error percentage)
+     */
+    static double errorPercentage(long failureCount, long totalCount) {
+        if (totalCount <= 0) {
+            return 0;
+        }
+        return (double) Math.round(failureCount * 10000.0 / totalCount) / 100;
+    }
+
+    private static double round(double value) {
+        return (double) Math.round(value * 100) / 100;
+    }
+
+    /**
+     * @return true if the error percentage is above the accepted threshold
+     */
+    public boolean isErrorPercentageAboveThreshold() {
+        return errorPercentage > errorPercentageThreshold;
+    }
+
+    /**
+     * @return A description of every response time threshold that has been exceeded
+     */
+    public List<String> getResponseTimeThresholdViolations() {
+        return responseTimeThresholdViolations;
+    }
+
+    /**
+     * @return A description of every time window rule that has been broken
+     */
+    public List<String> getTimeWindowRuleViolations() {
+        return timeWindowRuleViolations;
+    }
+
     /**
      * @return the ignoreResultFailures
      */
@@ -2,21 +2,39 @@ package com.lazerycode.jmeter.testrunner;
 
 import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import com.lazerycode.jmeter.configuration.LiveAbortRule;
 import com.lazerycode.jmeter.configuration.RemoteConfiguration;
-import com.lazerycode.jmeter.utility.StreamRedirector;
+import com.lazerycode.jmeter.results.CSVLayout;
+import com.lazerycode.jmeter.results.ResultFileCompression;
+import com.lazerycode.jmeter.results.ResultsFileMonitor;
+import com.lazerycode.jmeter.utility.OutputBuffer;
+import com.lazerycode.jmeter.utility.OutputOverflowPolicy;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.shared.utils.io.DirectoryScanner;
+import org.apache.maven.shared.utils.io.SelectorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.lazerycode.jmeter.configuration.RemoteArgumentsArrayBuilder.buildRemoteArgumentsArray;
 import static com.lazerycode.jmeter.utility.UtilityFunctions.isNotSet;
@@ -33,6 +51,12 @@ public class TestManager {
     private String[] testFilesIncluded = new String[]{"**/*.jmx"};
     private String[] testFilesExcluded = new String[0];
     private boolean suppressJMeterOutput;
+    private Charset jMeterOutputCharset = Charset.defaultCharset();
+    private OutputOverflowPolicy jMeterOutputOverflowPolicy = OutputOverflowPolicy.BLOCK;
+    private File jMeterOutputDirectory;
+    private long liveProgressIntervalInSeconds = 0;
+    private File liveMetricsDirectory;
+    private LiveAbortRule liveAbortRule;
     private boolean ignoreJVMKilledExitCode;
     private RemoteConfiguration remoteServerConfiguration;
     private JMeterProcessJVMSettings jMeterProcessJVMSettings;
@@ -40,8 +64,19 @@ public class TestManager {
     private String runtimeJarName;
     private File reportDirectory;
     private boolean generateReports = false;
+    private boolean abortTestWhenErrorRateExceeded = false;
+    private float errorRateThresholdInPercent = 0;
+    private long abortTestMinimumSamples = 100;
+    private CSVLayout resultsCsvLayout;
+    private ResultFileCompression resultsFileCompression = ResultFileCompression.NONE;
+    private int testExecutionThreads = 1;
+    private String[] serialTestGroups = new String[0];
+    private boolean reuseJMeterProcess = false;
+    private final BlockingQueue<JMeterWorker> idleWorkers = new LinkedBlockingQueue<>();
+    private final List<JMeterWorker> workers = Collections.synchronizedList(new ArrayList<>());
 
     private static final int EXIT_CODE_FOR_JVM_KILLED = 143;
+    private static final String WORKER_BOOTSTRAP_DIRECTORY = "worker";
 
     public TestManager setBinDir(File file) {
         this.binDir = file;
@@ -73,6 +108,72 @@ public class TestManager {
         return this;
     }
 
+    /**
+     * @param charset The charset JMeter writes its output with
+     * @return TestManager
+     */
+    public TestManager setJMeterOutputCharset(Charset charset) {
+        this.jMeterOutputCharset = charset;
+
+        return this;
+    }
+
+    /**
+     * @param policy What happens to JMeter output when it is written faster than it can be logged
+     * @return TestManager
+     */
+    public TestManager setJMeterOutputOverflowPolicy(OutputOverflowPolicy policy) {
+        this.jMeterOutputOverflowPolicy = policy;
+
+        return this;
+    }
+
+    /**
+     * Write the output of each JMeter process to a file (named after its test) in a directory instead of logging it.
+     *
+     * @param directory The directory, or null to log JMeter output
+     * @return TestManager
+     */
+    public TestManager setJMeterOutputDirectory(File directory) {
+        this.jMeterOutputDirectory = directory;
+
+        return this;
+    }
+
+    /**
+     * @param seconds Number of seconds between the progress lines logged while a test is running, 0 to not log them
+     * @return TestManager
+     */
+    public TestManager setLiveProgressIntervalInSeconds(long seconds) {
+        this.liveProgressIntervalInSeconds = seconds;
+
+        return this;
+    }
+
+    /**
+     * Write the live metrics of each test (parsed from the output of the JMeter summariser) to a JSON lines file
+     * named after the test in a directory.
+     *
+     * @param directory The directory, or null to not write live metrics
+     * @return TestManager
+     */
+    public TestManager setLiveMetricsDirectory(File directory) {
+        this.liveMetricsDirectory = directory;
+
+        return this;
+    }
+
+    /**
+     * @param rule Limits that each interval of the JMeter summariser must respect, tests are stopped as soon as they
+     *             are broken. May be null.
+     * @return TestManager
+     */
+    public TestManager setLiveAbortRule(LiveAbortRule rule) {
+        this.liveAbortRule = rule;
+
+        return this;
+    }
+
     public TestManager setJMeterProcessJVMSettings(JMeterProcessJVMSettings settings) {
         this.jMeterProcessJVMSettings = settings;
 
@@ -117,6 +218,98 @@ public class TestManager {
         return this;
     }
 
+    /**
+     * Follow CSV results files while tests are running and stop JMeter as soon as the error rate goes above
+     * errorRateThresholdInPercent.
+     *
+     * @param value true to stop tests early
+     * @return TestManager
+     */
+    public TestManager setAbortTestWhenErrorRateExceeded(Boolean value) {
+        this.abortTestWhenErrorRateExceeded = value;
+
+        return this;
+    }
+
+    public TestManager setErrorRateThresholdInPercent(float value) {
+        this.errorRateThresholdInPercent = value;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of samples that need to be written before the error rate of a running test is checked.
+     *
+     * @param value Number of samples
+     * @return TestManager
+     */
+    public TestManager setAbortTestMinimumSamples(long value) {
+        this.abortTestMinimumSamples = value;
+
+        return this;
+    }
+
+    /**
+     * Sets the layout JMeter writes CSV results files with, used to check the error rate of a running test.
+     *
+     * @param value The layout, null to work it out from the header of the results file
+     * @return TestManager
+     */
+    public TestManager setResultsCsvLayout(CSVLayout value) {
+        this.resultsCsvLayout = value;
+
+        return this;
+    }
+
+    /**
+     * Sets the compression applied to each results file once its test has completed.
+     *
+     * @param value Compression format, NONE leaves results files as written by JMeter
+     * @return TestManager
+     */
+    public TestManager setResultsFileCompression(ResultFileCompression value) {
+        this.resultsFileCompression = null == value ? ResultFileCompression.NONE : value;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of tests that are run at the same time, each one in its own JMeter process.
+     *
+     * @param value Number of tests, 0 will use one per available processor
+     * @return TestManager
+     */
+    public TestManager setTestExecutionThreads(int value) {
+        this.testExecutionThreads = value > 0 ? value : Runtime.getRuntime().availableProcessors();
+
+        return this;
+    }
+
+    /**
+     * Sets the patterns (relative to the test files directory) of tests that must not run at the same time, tests
+     * matching the same pattern are run one after another in the order they have been found.
+     *
+     * @param values Patterns of tests
+     * @return TestManager
+     */
+    public TestManager setSerialTestGroups(List<String> values) {
+        this.serialTestGroups = values.toArray(new String[0]);
+
+        return this;
+    }
+
+    /**
+     * Run tests in JMeter JVMs that are kept running (one per test run at the same time) instead of starting a new JVM
+     * for every test.
+     *
+     * @param value true to reuse JMeter JVMs
+     * @return TestManager
+     */
+    public TestManager setReuseJMeterProcess(Boolean value) {
+        this.reuseJMeterProcess = value;
+
+        return this;
+    }
 
     /**
      * Sets a pause after each test has been executed.
@@ -158,6 +351,30 @@ public class TestManager {
         return suppressJMeterOutput;
     }
 
+    Charset getJMeterOutputCharset() {
+        return jMeterOutputCharset;
+    }
+
+    OutputOverflowPolicy getJMeterOutputOverflowPolicy() {
+        return jMeterOutputOverflowPolicy;
+    }
+
+    File getJMeterOutputDirectory() {
+        return jMeterOutputDirectory;
+    }
+
+    long getLiveProgressIntervalInSeconds() {
+        return liveProgressIntervalInSeconds;
+    }
+
+    File getLiveMetricsDirectory() {
+        return liveMetricsDirectory;
+    }
+
+    LiveAbortRule getLiveAbortRule() {
+        return liveAbortRule;
+    }
+
     RemoteConfiguration getRemoteServerConfiguration() {
         return remoteServerConfiguration;
     }
@@ -182,6 +399,38 @@ public class TestManager {
         return generateReports;
     }
 
+    boolean isAbortTestWhenErrorRateExceeded() {
+        return abortTestWhenErrorRateExceeded;
+    }
+
+    float getErrorRateThresholdInPercent() {
+        return errorRateThresholdInPercent;
+    }
+
+    long getAbortTestMinimumSamples() {
+        return abortTestMinimumSamples;
+    }
+
+    CSVLayout getResultsCsvLayout() {
+        return resultsCsvLayout;
+    }
+
+    ResultFileCompression getResultsFileCompression() {
+        return resultsFileCompression;
+    }
+
+    int getTestExecutionThreads() {
+        return testExecutionThreads;
+    }
+
+    String[] getSerialTestGroups() {
+        return serialTestGroups;
+    }
+
+    boolean isReuseJMeterProcess() {
+        return reuseJMeterProcess;
+    }
+
     /**
      * Executes all tests and returns the resultFile names
      *
@@ -189,35 +438,190 @@ public class TestManager {
      * @throws MojoExecutionException MojoExecutionException
      */
     public List<String> executeTests() throws MojoExecutionException {
-        JMeterArgumentsArray thisTestArgs = baseTestArgs;
-        List<String> tests = generateTestList();
-        List<String> results = new ArrayList<>();
-        for (String file : tests) {
-            if (generateReports) {
-                File outputReportFolder = new File(reportDirectory + File.separator + FilenameUtils.removeExtension(file));
-                LOGGER.info("Will generate HTML report in {}", outputReportFolder.getAbsolutePath());
-                if (outputReportFolder.exists() || outputReportFolder.mkdirs()) {
-                    thisTestArgs.setReportsDirectory(outputReportFolder.getAbsolutePath());
-                } else {
-                    throw new MojoExecutionException("Unable to create report output folder:" + outputReportFolder.getAbsolutePath());
+        try {
+            List<String> tests = generateTestList();
+            if (reuseJMeterProcess && null != jMeterOutputDirectory) {
+                LOGGER.warn("JMeter output is logged when JMeter processes are reused, it is not written to {}", jMeterOutputDirectory);
+            } else if (null != jMeterOutputDirectory && isLiveTelemetryEnabled()) {
+                LOGGER.warn("JMeter output is written to {}, live progress, metrics and abort rule are not available", jMeterOutputDirectory);
+            }
+            if (testExecutionThreads > 1 && tests.size() > 1) {
+                if (!usesRemoteServers()) {
+                    return executeTestsConcurrently(tests);
+                }
+                LOGGER.warn("Remote servers are started or stopped by the tests, tests will be run one after another");
+            }
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < tests.size(); i++) {
+                String file = tests.get(i);
+                TestOutcome outcome = executeSingleTest(new File(testFilesDirectory, file), testArgumentsFor(tests, i), "");
+                results.add(compressResultsFile(outcome.resultsFileName));
+                if (outcome.aborted) {
+                    LOGGER.error("Test {} has been stopped early because of its error rate, remaining tests will not be run", file);
+                    LOGGER.info(" ");
+                    break;
+                }
+                pauseAfterTest();
+            }
+
+            return results;
+        } finally {
+            stopWorkers();
+        }
+    }
+
+    /**
+     * Run groups of tests concurrently (see {@link #groupTests(List)}), the tests of a group are run one after another.
+     * Once a test fails or is stopped early, tests that have not started yet are not run.
+     *
+     * @param tests The tests to run
+     * @return the list of resultFile names, in the same order as the tests
+     * @throws MojoExecutionException The first exception thrown by a test
+     */
+    private List<String> executeTestsConcurrently(List<String> tests) throws MojoExecutionException {
+        Collection<List<Integer>> groups = groupTests(tests);
+        int threads = Math.min(testExecutionThreads, groups.size());
+        LOGGER.info("Running {} tests in {} groups, up to {} at the same time", tests.size(), groups.size(), threads);
+        LOGGER.info(" ");
+        String[] results = new String[tests.size()];
+        AtomicBoolean stopRequested = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> runningGroups = new ArrayList<>();
+            for (List<Integer> group : groups) {
+                runningGroups.add(executor.submit(() -> {
+                    executeTestGroup(tests, group, results, stopRequested);
+                    return null;
+                }));
+            }
+            MojoExecutionException failure = null;
+            for (Future<?> runningGroup : runningGroups) {
+                try {
+                    runningGroup.get();
+                } catch (ExecutionException ex) {
+                    if (null == failure) {
+                        failure = ex.getCause() instanceof MojoExecutionException ? (MojoExecutionException) ex.getCause() : new MojoExecutionException(ex.getCause().getMessage(), ex.getCause());
+                    }
                 }
             }
-            if ((remoteServerConfiguration.isStartServersBeforeTests() && tests.get(0).equals(file)) || remoteServerConfiguration.isStartAndStopServersForEachTest()) {
-                thisTestArgs.setRemoteStart();
-                thisTestArgs.setRemoteStartServerList(remoteServerConfiguration.getServerList());
+            if (null != failure) {
+                throw failure;
             }
-            if ((remoteServerConfiguration.isStopServersAfterTests() && tests.get(tests.size() - 1).equals(file)) || remoteServerConfiguration.isStartAndStopServersForEachTest()) {
-                thisTestArgs.setRemoteStop();
+        } catch (InterruptedException ex) {
+            LOGGER.info(" ");
+            LOGGER.info("System Exit Detected!  Stopping Tests...");
+            LOGGER.info(" ");
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        List<String> resultFiles = new ArrayList<>();
+        for (String result : results) {
+            if (null != result) {
+                resultFiles.add(result);
             }
-            results.add(executeSingleTest(new File(testFilesDirectory, file), thisTestArgs));
-            try {
-                TimeUnit.SECONDS.sleep(postTestPauseInSeconds);
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
+        }
+
+        return resultFiles;
+    }
+
+    private void executeTestGroup(List<String> tests, List<Integer> group, String[] results, AtomicBoolean stopRequested) throws MojoExecutionException {
+        try {
+            for (int index : group) {
+                if (stopRequested.get()) {
+                    return;
+                }
+                String file = tests.get(index);
+                TestOutcome outcome = executeSingleTest(new File(testFilesDirectory, file), testArgumentsFor(tests, index), String.format("[%s] ", file));
+                results[index] = compressResultsFile(outcome.resultsFileName);
+                if (outcome.aborted) {
+                    LOGGER.error("Test {} has been stopped early because of its error rate, tests that have not started yet will not be run", file);
+                    LOGGER.info(" ");
+                    stopRequested.set(true);
+                    return;
+                }
+                pauseAfterTest();
+            }
+        } catch (MojoExecutionException | RuntimeException ex) {
+            stopRequested.set(true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Split tests into groups of tests that must be run one after another: tests that match the same serialTestGroups
+     * pattern, and tests that have the same file name (their JMeter log files would clash otherwise).
+     *
+     * @param tests The tests to run
+     * @return The indexes of the tests of every group, groups and tests are in the order the tests have been found
+     */
+    Collection<List<Integer>> groupTests(List<String> tests) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < tests.size(); i++) {
+            groups.computeIfAbsent(groupOf(tests.get(i)), group -> new ArrayList<>()).add(i);
+        }
+
+        return groups.values();
+    }
+
+    private String groupOf(String test) {
+        for (String serialTestGroup : serialTestGroups) {
+            String pattern = serialTestGroup.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+            if (pattern.endsWith(File.separator)) {
+                pattern += "**";
+            }
+            if (SelectorUtils.matchPath(pattern, test)) {
+                return "pattern:" + serialTestGroup;
+            }
+        }
+
+        return "file:" + new File(test).getName();
+    }
+
+    private boolean usesRemoteServers() {
+        return remoteServerConfiguration.isStartServersBeforeTests()
+                || remoteServerConfiguration.isStopServersAfterTests()
+                || remoteServerConfiguration.isStartAndStopServersForEachTest();
+    }
+
+    /**
+     * Build the arguments of a test from a copy of the base arguments, so that tests never share arguments.
+     *
+     * @param tests All the tests that are run
+     * @param index Index of the test
+     * @return The arguments of the test
+     * @throws MojoExecutionException If the report folder of the test cannot be created
+     */
+    JMeterArgumentsArray testArgumentsFor(List<String> tests, int index) throws MojoExecutionException {
+        JMeterArgumentsArray testArgs = new JMeterArgumentsArray(baseTestArgs);
+        String file = tests.get(index);
+        if (generateReports) {
+            File outputReportFolder = new File(reportDirectory + File.separator + FilenameUtils.removeExtension(file));
+            LOGGER.info("Will generate HTML report in {}", outputReportFolder.getAbsolutePath());
+            if (outputReportFolder.exists() || outputReportFolder.mkdirs()) {
+                testArgs.setReportsDirectory(outputReportFolder.getAbsolutePath());
+            } else {
+                throw new MojoExecutionException("Unable to create report output folder:" + outputReportFolder.getAbsolutePath());
             }
         }
+        // Servers started by the first test are used by all the following tests
+        if (remoteServerConfiguration.isStartServersBeforeTests() || remoteServerConfiguration.isStartAndStopServersForEachTest()) {
+            testArgs.setRemoteStart();
+            testArgs.setRemoteStartServerList(remoteServerConfiguration.getServerList());
+        }
+        if ((remoteServerConfiguration.isStopServersAfterTests() && index == tests.size() - 1) || remoteServerConfiguration.isStartAndStopServersForEachTest()) {
+            testArgs.setRemoteStop();
+        }
 
-        return results;
+        return testArgs;
+    }
+
+    private void pauseAfterTest() {
+        try {
+            TimeUnit.SECONDS.sleep(postTestPauseInSeconds);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     //=============================================================================================
@@ -226,11 +630,13 @@ public class TestManager {
      * Executes a single JMeter test by building up a list of command line
      * parameters to pass to JMeter.start().
      *
-     * @param test JMeter test XML
-     * @return the report file names.
+     * @param test         JMeter test XML
+     * @param testArgs     The arguments of the test
+     * @param outputPrefix Prefix added to every line of JMeter output, to tell tests that run at the same time apart
+     * @return the report file name, and whether the test has been stopped early
      * @throws org.apache.maven.plugin.MojoExecutionException Exception
      */
-    private String executeSingleTest(File test, JMeterArgumentsArray testArgs) throws MojoExecutionException {
+    private TestOutcome executeSingleTest(File test, JMeterArgumentsArray testArgs, String outputPrefix) throws MojoExecutionException {
         testArgs.setTestFile(test, testFilesDirectory);
         File currentResultsFile = new File(testArgs.getResultsLogFileName());
         if (currentResultsFile.exists()) {
@@ -242,19 +648,67 @@ public class TestManager {
         List<String> argumentsArray = testArgs.buildArgumentsArray();
         argumentsArray.addAll(buildRemoteArgumentsArray(remoteServerConfiguration.getPropertiesMap()));
         LOGGER.info("Executing test: {}", test.getName());
-        JMeterProcessBuilder jmeterProcessBuilder = new JMeterProcessBuilder(jMeterProcessJVMSettings, runtimeJarName);
-        jmeterProcessBuilder.setWorkingDirectory(binDir);
-        jmeterProcessBuilder.addArguments(argumentsArray);
+        Consumer<String> output = suppressJMeterOutput ? line -> LOGGER.debug("{}{}", outputPrefix, line) : line -> LOGGER.info("{}{}", outputPrefix, line);
+        ResultsFileMonitor resultsFileMonitor = null;
+        RunTelemetry telemetry = createRunTelemetry(test, outputPrefix);
         try {
-            final Process process = jmeterProcessBuilder.build().start();
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                LOGGER.info("Shutdown detected, destroying JMeter process...");
+            int jMeterExitCode;
+            if (reuseJMeterProcess) {
+                try (OutputBuffer bufferedOutput = new OutputBuffer(jMeterOutputOverflowPolicy, output)) {
+                    Consumer<String> testOutput = null == telemetry ? bufferedOutput : telemetry.andThen(bufferedOutput);
+                    JMeterWorker worker = borrowWorker(testOutput);
+                    try {
+                        if (abortTestWhenErrorRateExceeded) {
+                            resultsFileMonitor = startResultsFileMonitor(currentResultsFile, testArgs, worker::destroy);
+                        }
+                        if (null != telemetry) {
+                            telemetry.setStopAction(worker::destroy);
+                        }
+                        jMeterExitCode = worker.run(argumentsArray, testOutput);
+                    } finally {
+                        releaseWorker(worker);
+                    }
+                }
+            } else {
+                JMeterProcessBuilder jmeterProcessBuilder = new JMeterProcessBuilder(jMeterProcessJVMSettings, runtimeJarName);
+                jmeterProcessBuilder.setWorkingDirectory(binDir);
+                jmeterProcessBuilder.addArguments(argumentsArray);
+                if (null != jMeterOutputDirectory) {
+                    File outputFile = new File(jMeterOutputDirectory, test.getName() + "-output.log");
+                    LOGGER.info("{}JMeter output is written to {}", outputPrefix, outputFile.getAbsolutePath());
+                    jmeterProcessBuilder.setOutputFile(outputFile);
+                }
+                final Process process = jmeterProcessBuilder.build().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    LOGGER.info("Shutdown detected, destroying JMeter process...");
+                    LOGGER.info(" ");
+                    process.destroy();
+                }));
+                if (null != telemetry) {
+                    telemetry.setStopAction(process::destroy);
+                }
+                // Errors are redirected to the output of the process, one reader is enough
+                try (OutputBuffer ignored = new OutputBuffer(jMeterOutputOverflowPolicy, output).readFrom(process.getInputStream(), jMeterOutputCharset, telemetry)) {
+                    if (abortTestWhenErrorRateExceeded) {
+                        resultsFileMonitor = startResultsFileMonitor(currentResultsFile, testArgs, process::destroy);
+                    }
+                    jMeterExitCode = process.waitFor();
+                }
+            }
+            if (null != resultsFileMonitor) {
+                resultsFileMonitor.stop();
+                if (resultsFileMonitor.isThresholdExceeded()) {
+                    LOGGER.error("Stopped Test: {} (error rate {}%, {} samples)", test.getAbsolutePath(), resultsFileMonitor.getErrorPercentage(),
+                            resultsFileMonitor.getSuccessCount() + resultsFileMonitor.getFailureCount());
+                    LOGGER.info(" ");
+                    return new TestOutcome(testArgs.getResultsLogFileName(), true);
+                }
+            }
+            if (null != telemetry && telemetry.isAborted()) {
+                LOGGER.error("Stopped Test: {} ({})", test.getAbsolutePath(), telemetry.getAbortReason());
                 LOGGER.info(" ");
-                process.destroy();
-            }));
-            new Thread(new StreamRedirector(process.getInputStream(), (suppressJMeterOutput ? LOGGER::debug : LOGGER::info))).start();
-            new Thread(new StreamRedirector(process.getErrorStream(), LOGGER::error)).start();
-            int jMeterExitCode = process.waitFor();
+                return new TestOutcome(testArgs.getResultsLogFileName(), true);
+            }
             if (jMeterExitCode != 0) {
                 if (ignoreJVMKilledExitCode && jMeterExitCode == EXIT_CODE_FOR_JVM_KILLED) {
                     LOGGER.warn("JVM has been force killed!");
@@ -272,8 +726,122 @@ public class TestManager {
             Thread.currentThread().interrupt();
         } catch (IOException e) {
             LOGGER.error(e.getMessage());
+        } finally {
+            if (null != telemetry) {
+                telemetry.close();
+            }
+        }
+        return new TestOutcome(testArgs.getResultsLogFileName(), false);
+    }
+
+    private boolean isLiveTelemetryEnabled() {
+        return liveProgressIntervalInSeconds > 0 || null != liveMetricsDirectory || null != liveAbortRule;
+    }
+
+    /**
+     * @return The live telemetry of a test, null if it is not needed
+     */
+    private RunTelemetry createRunTelemetry(File test, String outputPrefix) {
+        if (!isLiveTelemetryEnabled() || (null != jMeterOutputDirectory && !reuseJMeterProcess)) {
+            return null;
+        }
+        RunTelemetry telemetry = new RunTelemetry(test.getName(), outputPrefix)
+                .setAbortRule(liveAbortRule);
+        if (liveProgressIntervalInSeconds > 0) {
+            telemetry.setProgressInterval(liveProgressIntervalInSeconds);
+        }
+        if (null != liveMetricsDirectory) {
+            File metricsFile = new File(liveMetricsDirectory, test.getName() + "-metrics.jsonl");
+            try {
+                telemetry.setMetricsFile(metricsFile);
+                LOGGER.info("{}Live metrics are written to {}", outputPrefix, metricsFile.getAbsolutePath());
+            } catch (IOException ex) {
+                LOGGER.warn("Unable to write live metrics to {}: {}", metricsFile.getAbsolutePath(), ex.getMessage());
+            }
+        }
+
+        return telemetry;
+    }
+
+    private ResultsFileMonitor startResultsFileMonitor(File resultsFile, JMeterArgumentsArray testArgs, Runnable stopJMeter) {
+        if (!testArgs.isResultFileOutputFormatCSV()) {
+            LOGGER.warn("Results can only be checked while the test is running when they are written in CSV format");
+            return null;
+        }
+        LOGGER.info("Test will be stopped if the error rate goes above {}% after {} samples", errorRateThresholdInPercent, abortTestMinimumSamples);
+        return new ResultsFileMonitor(resultsFile, errorRateThresholdInPercent, abortTestMinimumSamples, () -> {
+            LOGGER.error("Stopping JMeter process...");
+            stopJMeter.run();
+        }, resultsCsvLayout).start();
+    }
+
+    /**
+     * @param output Where the output of a new worker goes until it runs a test
+     * @return A worker that is not running a test, a new one is started if none is available
+     */
+    private JMeterWorker borrowWorker(Consumer<String> output) throws MojoExecutionException {
+        JMeterWorker worker = idleWorkers.poll();
+        if (null != worker) {
+            return worker;
+        }
+        LOGGER.info("Starting JMeter worker JVM...");
+        JMeterProcessBuilder jmeterProcessBuilder = new JMeterProcessBuilder(jMeterProcessJVMSettings, runtimeJarName)
+                .setWorkingDirectory(binDir);
+        worker = JMeterWorker.start(jmeterProcessBuilder, new File(binDir.getAbsoluteFile().getParentFile(), WORKER_BOOTSTRAP_DIRECTORY), JMeterWorker.JMETER_LAUNCHER, jMeterOutputCharset, output);
+        workers.add(worker);
+        final JMeterWorker startedWorker = worker;
+        Runtime.getRuntime().addShutdownHook(new Thread(startedWorker::destroy));
+
+        return worker;
+    }
+
+    private void releaseWorker(JMeterWorker worker) {
+        if (worker.isAlive()) {
+            idleWorkers.add(worker);
+        } else {
+            LOGGER.info("JMeter worker JVM has exited, a new one will be started for the next test");
+        }
+    }
+
+    private void stopWorkers() {
+        idleWorkers.clear();
+        synchronized (workers) {
+            for (JMeterWorker worker : workers) {
+                worker.close();
+            }
+            workers.clear();
+        }
+    }
+
+    /**
+     * Compress a results file once its test has completed, the original file is replaced by the compressed one.
+     *
+     * @param resultsFileName The results file written by JMeter
+     * @return The name of the results file to scan
+     * @throws MojoExecutionException When the file cannot be compressed
+     */
+    String compressResultsFile(String resultsFileName) throws MojoExecutionException {
+        File resultsFile = new File(resultsFileName);
+        if (resultsFileCompression == ResultFileCompression.NONE || !resultsFile.exists()) {
+            return resultsFileName;
+        }
+        try {
+            File compressedFile = resultsFileCompression.compress(resultsFile);
+            LOGGER.info("Compressed results file to {}", compressedFile.getAbsolutePath());
+            return compressedFile.getPath();
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to compress results file:" + resultsFile.getAbsolutePath(), ex);
+        }
+    }
+
+    private static class TestOutcome {
+        private final String resultsFileName;
+        private final boolean aborted;
+
+        TestOutcome(String resultsFileName, boolean aborted) {
+            this.resultsFileName = resultsFileName;
+            this.aborted = aborted;
         }
-        return testArgs.getResultsLogFileName();
     }
 
     /**
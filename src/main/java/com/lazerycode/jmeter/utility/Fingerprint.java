@@ -0,0 +1,88 @@
+package com.lazerycode.jmeter.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SHA-256 fingerprint of a set of named values and files, used to find out whether the inputs of a cached result are
+ * still the same.
+ * Maps are added sorted by key so that their iteration order does not change the fingerprint, files are added by
+ * content (and path relative to the file added) so that touching or moving a file does not change it either.
+ */
+public class Fingerprint {
+
+    private static final int LENGTH_IN_BYTES = 16;
+
+    private final MessageDigest digest;
+
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @param name  Name of the value
+     * @param value The value, maps are added sorted by key
+     * @return Fingerprint
+     */
+    public Fingerprint add(String name, Object value) {
+        Object stableValue = value instanceof Map ? new TreeMap<>((Map<?, ?>) value) : value;
+        digest.update(String.format("%s=%s%n", name, stableValue).getBytes(StandardCharsets.UTF_8));
+
+        return this;
+    }
+
+    /**
+     * @param name Name of the file
+     * @param file A file, or a directory whose files are all added, that may not exist
+     * @return Fingerprint
+     * @throws IOException If the file cannot be read
+     */
+    public Fingerprint addFile(String name, File file) throws IOException {
+        if (!file.exists()) {
+            return add(name, "<missing>");
+        }
+        Path root = file.toPath();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path path : files) {
+            add(name, root.relativize(path).toString().replace('\\', '/'));
+            digest.update(Files.readAllBytes(path));
+        }
+
+        return this;
+    }
+
+    /**
+     * @return The fingerprint of the values and files added so far, as hexadecimal characters
+     */
+    public String getValue() {
+        byte[] hash;
+        try {
+            hash = ((MessageDigest) digest.clone()).digest();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < LENGTH_IN_BYTES; i++) {
+            value.append(String.format("%02x", hash[i]));
+        }
+
+        return value.toString();
+    }
+}
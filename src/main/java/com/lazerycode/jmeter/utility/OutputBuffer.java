@@ -0,0 +1,175 @@
+package com.lazerycode.jmeter.utility;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A bounded buffer between the thread reading the output of a process and a (slower) consumer of that output,
+ * e.g. the Maven logger. Lines are delivered in batches on a pooled thread, so reading the output of the process
+ * never waits for the consumer unless the {@link OutputOverflowPolicy#BLOCK} policy is used.
+ * The consumer is told how many lines have been dropped once the lines that were buffered at the time have been
+ * delivered.
+ */
+public class OutputBuffer implements Consumer<String>, AutoCloseable {
+
+    /**
+     * Number of lines buffered by default, enough for bursts of JMeter output.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+    static final int SAMPLE_RATE = 10;
+
+    private final String[] lines;
+    private final OutputOverflowPolicy overflowPolicy;
+    private final Consumer<String> consumer;
+    private final Future<?> delivery;
+    private Future<?> reader;
+    private int head = 0;
+    private int size = 0;
+    private long droppedLines = 0;
+    private long sampledLines = 0;
+    private boolean closed = false;
+
+    /**
+     * @param capacity       Maximum number of lines waiting to be delivered
+     * @param overflowPolicy What happens to lines once the buffer is full
+     * @param consumer       Where the lines are delivered
+     */
+    public OutputBuffer(int capacity, OutputOverflowPolicy overflowPolicy, Consumer<String> consumer) {
+        this.lines = new String[capacity];
+        this.overflowPolicy = overflowPolicy;
+        this.consumer = consumer;
+        this.delivery = StreamRedirector.OUTPUT_THREADS.submit(this::deliverLines);
+    }
+
+    /**
+     * @param overflowPolicy What happens to lines once the buffer is full
+     * @param consumer       Where the lines are delivered
+     */
+    public OutputBuffer(OutputOverflowPolicy overflowPolicy, Consumer<String> consumer) {
+        this(DEFAULT_CAPACITY, overflowPolicy, consumer);
+    }
+
+    /**
+     * Buffer the lines of a stream, read on a pooled thread.
+     *
+     * @param inputStream The stream, e.g. the output of a process
+     * @param charset     The charset the stream is encoded with
+     * @return OutputBuffer
+     */
+    public OutputBuffer readFrom(InputStream inputStream, Charset charset) {
+        return readFrom(inputStream, charset, null);
+    }
+
+    /**
+     * Buffer the lines of a stream, read on a pooled thread.
+     *
+     * @param inputStream The stream, e.g. the output of a process
+     * @param charset     The charset the stream is encoded with
+     * @param observer    Gets every line as soon as it has been read, before it is buffered (and possibly dropped),
+     *                    may be null
+     * @return OutputBuffer
+     */
+    public OutputBuffer readFrom(InputStream inputStream, Charset charset, Consumer<String> observer) {
+        this.reader = StreamRedirector.start(inputStream, charset, null == observer ? this : observer.andThen(this));
+
+        return this;
+    }
+
+    @Override
+    public void accept(String line) {
+        synchronized (this) {
+            if (!closed) {
+                if (overflowPolicy == OutputOverflowPolicy.SAMPLE && size >= lines.length * 3 / 4 && sampledLines++ % SAMPLE_RATE != 0) {
+                    droppedLines++;
+                    return;
+                }
+                while (overflowPolicy == OutputOverflowPolicy.BLOCK && size == lines.length && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (size == lines.length) {
+                    droppedLines++;
+                    return;
+                }
+                if (!closed) {
+                    lines[(head + size) % lines.length] = line;
+                    size++;
+                    notifyAll();
+                    return;
+                }
+            }
+        }
+        // Output written after the buffer has been closed is delivered straight away
+        consumer.accept(line);
+    }
+
+    /**
+     * Wait until the stream the buffer reads from (if any) has been read, then deliver the lines that are still
+     * buffered and wait until they have been delivered.
+     */
+    @Override
+    public void close() {
+        if (null != reader) {
+            try {
+                reader.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                consumer.accept("Unable to read output: " + ex.getCause().getMessage());
+            }
+        }
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            delivery.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void deliverLines() {
+        List<String> batch = new ArrayList<>();
+        while (true) {
+            long dropped;
+            synchronized (this) {
+                while (size == 0 && droppedLines == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (size == 0 && droppedLines == 0) {
+                    return;
+                }
+                for (; size > 0; size--) {
+                    batch.add(lines[head]);
+                    lines[head] = null;
+                    head = (head + 1) % lines.length;
+                }
+                dropped = droppedLines;
+                droppedLines = 0;
+                notifyAll();
+            }
+            batch.forEach(consumer);
+            batch.clear();
+            if (dropped > 0) {
+                consumer.accept(String.format("[%d lines of output dropped, they were produced faster than they could be logged]", dropped));
+            }
+        }
+    }
+}
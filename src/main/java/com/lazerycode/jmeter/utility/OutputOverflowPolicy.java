@@ -0,0 +1,19 @@
+package com.lazerycode.jmeter.utility;
+
+/**
+ * What happens to process output when it is produced faster than it can be logged (see {@link OutputBuffer}).
+ */
+public enum OutputOverflowPolicy {
+    /**
+     * Wait until there is room for the output, the process is slowed down until its output has been logged.
+     */
+    BLOCK,
+    /**
+     * Drop output that does not fit in the buffer.
+     */
+    DROP,
+    /**
+     * Only keep one line in ten once the buffer is three quarters full, and drop output that does not fit.
+     */
+    SAMPLE
+}
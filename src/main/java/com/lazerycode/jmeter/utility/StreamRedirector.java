@@ -1,20 +1,63 @@
 package com.lazerycode.jmeter.utility;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-public class StreamRedirector implements Runnable{
+public class StreamRedirector implements Runnable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    /**
+     * Threads reading process output (and delivering buffered output) are pooled and do not keep the JVM alive.
+     */
+    static final ExecutorService OUTPUT_THREADS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jmeter-output-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final InputStream inputStream;
+    private final Charset charset;
     private final Consumer<String> logLine;
 
     public StreamRedirector(InputStream inputStream, Consumer<String> logLine) {
+        this(inputStream, Charset.defaultCharset(), logLine);
+    }
+
+    public StreamRedirector(InputStream inputStream, Charset charset, Consumer<String> logLine) {
         this.inputStream = inputStream;
+        this.charset = charset;
         this.logLine = logLine;
     }
 
+    /**
+     * Read a stream line by line on a pooled thread.
+     *
+     * @param inputStream The stream, e.g. the output of a process
+     * @param charset     The charset the stream is encoded with
+     * @param logLine     What is done with each line
+     * @return Completes once the whole stream has been read
+     */
+    public static Future<?> start(InputStream inputStream, Charset charset, Consumer<String> logLine) {
+        return OUTPUT_THREADS.submit(new StreamRedirector(inputStream, charset, logLine));
+    }
+
     public void run() {
-        new BufferedReader(new InputStreamReader(inputStream)).lines().forEach(logLine);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset), READ_BUFFER_SIZE)) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                logLine.accept(line);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 }
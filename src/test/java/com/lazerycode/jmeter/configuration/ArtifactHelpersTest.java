@@ -421,4 +421,18 @@ public class ArtifactHelpersTest {
         assertThat(resolvedArtifact.getVersion()).isEqualTo("1.2.0");
     }
 
+    @Test
+    public void releaseVersionIsFixed() {
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:1.0.0"))).isTrue();
+    }
+
+    @Test
+    public void snapshotsRangesAndMetaVersionsAreNotFixed() {
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:1.0.0-SNAPSHOT"))).isFalse();
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:[1.0.0,1.2.0)"))).isFalse();
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:(1.0.0,1.2.0]"))).isFalse();
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:LATEST"))).isFalse();
+        assertThat(isFixedVersion(new DefaultArtifact("com.example.test:testArtifact:RELEASE"))).isFalse();
+    }
+
 }
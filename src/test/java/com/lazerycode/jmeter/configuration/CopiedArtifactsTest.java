@@ -0,0 +1,44 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CopiedArtifactsTest {
+
+    @Test
+    public void copiedVersionOfAnArtifactIsFound() {
+        CopiedArtifacts copiedArtifacts = new CopiedArtifacts();
+        copiedArtifacts.add(new DefaultArtifact("com.example.test:testArtifact:1.0.0"));
+
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.test:testArtifact:2.0.0")).getVersion())
+                .isEqualTo("1.0.0");
+    }
+
+    @Test
+    public void artifactsOfAnotherTypeAreNotFound() {
+        CopiedArtifacts copiedArtifacts = new CopiedArtifacts();
+        copiedArtifacts.add(new DefaultArtifact("com.example.test:testArtifact:1.0.0"));
+
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.test:otherArtifact:1.0.0"))).isNull();
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.other:testArtifact:1.0.0"))).isNull();
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.test:testArtifact:jar:tests:1.0.0"))).isNull();
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.test:testArtifact:zip:1.0.0"))).isNull();
+    }
+
+    @Test
+    public void addedArtifactReplacesTheCopiedVersion() {
+        CopiedArtifacts copiedArtifacts = new CopiedArtifacts();
+        copiedArtifacts.add(new DefaultArtifact("com.example.test:testArtifact:1.0.0"));
+        copiedArtifacts.add(new DefaultArtifact("com.example.test:testArtifact:2.0.0"));
+
+        assertThat(copiedArtifacts.size()).isEqualTo(1);
+        assertThat(copiedArtifacts.getCopiedVersionOf(new DefaultArtifact("com.example.test:testArtifact:1.0.0")).getVersion())
+                .isEqualTo("2.0.0");
+
+        copiedArtifacts.clear();
+
+        assertThat(copiedArtifacts.size()).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JMeterDistributionTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path jmeterHome;
+
+    @Before
+    public void createJMeterHome() throws IOException {
+        jmeterHome = temporaryFolder.newFolder("configured").toPath();
+        write(jmeterHome.resolve("jmeter/bin/ApacheJMeter-5.6.2.jar"), "runtime");
+        write(jmeterHome.resolve("jmeter/bin/jmeter.properties"), "jmeter.save.saveservice.output_format=csv");
+        write(jmeterHome.resolve("jmeter/lib/ext/ApacheJMeter_http-5.6.2.jar"), "http");
+        write(jmeterHome.resolve("jmeter/lib/junit/test.jar"), "test");
+        write(jmeterHome.resolve("jmeter/worker/JMeterWorkerBootstrap.class"), "worker");
+        write(jmeterHome.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE), "{\"runtimeJarName\":\"ApacheJMeter-5.6.2.jar\"}");
+        JMeterDistribution.writeManifest(jmeterHome, "libraries", "configuration");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void archiveStartsWithTheManifestAndEndsWithTheTestConfiguration() throws IOException {
+        File archive = new File(temporaryFolder.getRoot(), "jmeter-distribution.zip");
+        JMeterDistribution.create(jmeterHome, archive);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            zipFile.stream().forEach(entry -> entries.add(entry.getName()));
+            assertThat(zipFile.getEntry("jmeter/bin/ApacheJMeter-5.6.2.jar").getMethod()).isEqualTo(ZipEntry.STORED);
+            assertThat(zipFile.getEntry("jmeter/bin/jmeter.properties").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+        }
+        assertThat(entries).containsExactly(
+                JMeterDistribution.MANIFEST_FILE,
+                "jmeter/bin/ApacheJMeter-5.6.2.jar",
+                "jmeter/bin/jmeter.properties",
+                "jmeter/lib/ext/ApacheJMeter_http-5.6.2.jar",
+                "jmeter/lib/junit/test.jar",
+                JMeterDistribution.CONFIGURED_JMETER_FILE);
+
+        Properties manifest = JMeterDistribution.readManifest(archive);
+        assertThat(manifest.getProperty(JMeterDistribution.LIBRARIES_FINGERPRINT)).isEqualTo("libraries");
+        assertThat(manifest.getProperty(JMeterDistribution.CONFIGURATION_FINGERPRINT)).isEqualTo("configuration");
+    }
+
+    @Test
+    public void extractedArchiveIsTheConfiguredJMeterDirectory() throws IOException {
+        File archive = new File(temporaryFolder.getRoot(), "jmeter-distribution.zip");
+        JMeterDistribution.create(jmeterHome, archive);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("unpacked");
+
+        JMeterDistribution.extract(archive, destination);
+
+        assertThat(destination.resolve("jmeter/bin/ApacheJMeter-5.6.2.jar")).hasSameContentAs(jmeterHome.resolve("jmeter/bin/ApacheJMeter-5.6.2.jar"));
+        assertThat(destination.resolve("jmeter/lib/junit/test.jar")).hasSameContentAs(jmeterHome.resolve("jmeter/lib/junit/test.jar"));
+        assertThat(destination.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE)).exists();
+        assertThat(destination.resolve("jmeter/worker")).doesNotExist();
+        assertThat(Files.getLastModifiedTime(destination.resolve("jmeter/lib/ext/ApacheJMeter_http-5.6.2.jar")).toMillis() / 2000)
+                .isEqualTo(Files.getLastModifiedTime(jmeterHome.resolve("jmeter/lib/ext/ApacheJMeter_http-5.6.2.jar")).toMillis() / 2000);
+    }
+
+    @Test(expected = IOException.class)
+    public void incompleteJMeterDirectoryIsNotPackaged() throws IOException {
+        Files.delete(jmeterHome.resolve(JMeterDistribution.CONFIGURED_JMETER_FILE));
+
+        JMeterDistribution.create(jmeterHome, new File(temporaryFolder.getRoot(), "jmeter-distribution.zip"));
+    }
+
+    @Test(expected = IOException.class)
+    public void archiveWithoutManifestIsRejected() throws IOException {
+        File archive = temporaryFolder.newFile("other.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            zip.putNextEntry(new ZipEntry("jmeter/bin/jmeter.properties"));
+            zip.closeEntry();
+        }
+
+        JMeterDistribution.readManifest(archive);
+    }
+
+    @Test(expected = IOException.class)
+    public void entriesOutsideOfTheDestinationAreRejected() throws IOException {
+        File archive = temporaryFolder.newFile("bad.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            zip.putNextEntry(new ZipEntry("../outside.txt"));
+            zip.closeEntry();
+        }
+
+        JMeterDistribution.extract(archive, temporaryFolder.getRoot().toPath().resolve("unpacked"));
+    }
+}
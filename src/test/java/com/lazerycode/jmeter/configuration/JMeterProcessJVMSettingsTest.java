@@ -96,4 +96,15 @@ public class JMeterProcessJVMSettingsTest {
         assertThat(jMeterProcessJVMSettings.getArguments().get(0)).isEqualTo("some argument");
         assertThat(jMeterProcessJVMSettings.getArguments().get(1)).isEqualTo("some other argument");
     }
+
+    @Test
+    public void argumentsAddedToACopyAreNotAddedToTheOriginal() {
+        JMeterProcessJVMSettings original = new JMeterProcessJVMSettings().addArgument("foo");
+        JMeterProcessJVMSettings copy = new JMeterProcessJVMSettings(original).addArgument("bar");
+
+        assertThat(copy.getJavaRuntime()).isEqualTo(original.getJavaRuntime());
+        assertThat(copy.getXmx()).isEqualTo(original.getXmx());
+        assertThat(copy.getArguments()).containsExactly("foo", "bar");
+        assertThat(original.getArguments()).containsExactly("foo");
+    }
 }
@@ -0,0 +1,71 @@
+package com.lazerycode.jmeter.configuration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LibraryPopulationStrategyTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path library;
+    private Path destination;
+
+    @Before
+    public void createLibrary() throws IOException {
+        library = temporaryFolder.newFile("library-1.0.jar").toPath();
+        Files.write(library, "library".getBytes(StandardCharsets.UTF_8));
+        destination = temporaryFolder.newFolder("lib").toPath().resolve("library-1.0.jar");
+    }
+
+    @Test
+    public void copyCopiesTheLibrary() throws IOException {
+        assertThat(LibraryPopulationStrategy.COPY.populate(library, destination)).isTrue();
+
+        assertThat(destination).hasSameContentAs(library);
+        assertThat(Files.isSameFile(library, destination)).isFalse();
+    }
+
+    @Test
+    public void hardlinkSharesTheFileOfTheLibrary() throws IOException {
+        boolean linked = LibraryPopulationStrategy.HARDLINK.populate(library, destination);
+
+        assertThat(destination).hasSameContentAs(library);
+        assertThat(Files.isSymbolicLink(destination)).isFalse();
+        assertThat(Files.isSameFile(library, destination)).isEqualTo(linked);
+    }
+
+    @Test
+    public void symlinkLinksToTheLibrary() throws IOException {
+        boolean linked = LibraryPopulationStrategy.SYMLINK.populate(library, destination);
+
+        assertThat(destination).hasSameContentAs(library);
+        assertThat(Files.isSymbolicLink(destination)).isEqualTo(linked);
+    }
+
+    @Test
+    public void reflinkFallsBackToACopy() throws IOException {
+        LibraryPopulationStrategy.REFLINK.populate(library, destination);
+
+        assertThat(destination).hasSameContentAs(library);
+        assertThat(Files.isSymbolicLink(destination)).isFalse();
+        assertThat(Files.isSameFile(library, destination)).isFalse();
+    }
+
+    @Test(expected = FileAlreadyExistsException.class)
+    public void existingDestinationIsNotReplaced() throws IOException {
+        Files.write(destination, "other".getBytes(StandardCharsets.UTF_8));
+
+        LibraryPopulationStrategy.HARDLINK.populate(library, destination);
+    }
+}
@@ -0,0 +1,39 @@
+package com.lazerycode.jmeter.json;
+
+import com.lazerycode.jmeter.results.ResultScanner;
+import com.lazerycode.jmeter.results.ResultScannerCSV;
+import com.lazerycode.jmeter.results.SampleStatistics;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultsBaselineTest {
+
+    private String tempdir = System.getProperty("java.io.tmpdir");
+
+    @Test
+    public void baselineIsWrittenAndReadBack() throws Exception {
+        ResultScanner resultScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        resultScanner.parseResultFile(new File(this.getClass().getResource("/csv4-quoted-fields.csv").toURI()));
+        SampleStatistics statistics = resultScanner.getStatistics();
+        File baselineFile = new File(tempdir, UUID.randomUUID() + "-results-baseline.json");
+        baselineFile.deleteOnExit();
+
+        new ResultsBaseline("test-execution", statistics).writeTo(baselineFile);
+        ResultsBaseline baseline = ResultsBaseline.readFrom(baselineFile);
+
+        assertThat(baseline.getExecutionID()).isEqualTo("test-execution");
+        assertThat(baseline.getTotal().getLabel()).isNull();
+        assertThat(baseline.getTotal().getSamples()).isEqualTo(3);
+        assertThat(baseline.getTotal().getErrors()).isEqualTo(2);
+        assertThat(baseline.getTotal().getThroughput()).isEqualTo(statistics.getTotalSummary().getThroughput());
+        assertThat(baseline.getLabels()).extracting(LabelBaseline::getLabel).containsExactly("test-request");
+        assertThat(baseline.getLabel("test-request").getElapsedPercentile(95)).isEqualTo(statistics.getSummary("test-request").getP95Elapsed());
+        assertThat(baseline.getLabel("test-request").getElapsedTimes().getTotalCount()).isEqualTo(3);
+        assertThat(baseline.getLabel("unknown")).isNull();
+    }
+}
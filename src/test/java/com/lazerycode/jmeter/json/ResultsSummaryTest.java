@@ -0,0 +1,37 @@
+package com.lazerycode.jmeter.json;
+
+import com.lazerycode.jmeter.results.ResultScanner;
+import com.lazerycode.jmeter.results.ResultScannerCSV;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+
+public class ResultsSummaryTest {
+
+    private String tempdir = System.getProperty("java.io.tmpdir");
+
+    @Test
+    public void summaryIsWrittenAsJSON() throws Exception {
+        ResultScanner resultScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        resultScanner.parseResultFile(new File(this.getClass().getResource("/csv4-quoted-fields.csv").toURI()));
+        File summaryFile = new File(tempdir, UUID.randomUUID() + "-results-summary.json");
+        summaryFile.deleteOnExit();
+
+        new ResultsSummary("test-execution", resultScanner.getStatistics()).writeTo(summaryFile);
+
+        String json = FileUtils.readFileToString(summaryFile, StandardCharsets.UTF_8);
+        assertThatJson(json).node("executionID").isEqualTo("test-execution");
+        assertThatJson(json).node("total.samples").isEqualTo(3);
+        assertThatJson(json).node("total.errors").isEqualTo(2);
+        assertThatJson(json).node("labels").isArray().hasSize(1);
+        assertThatJson(json).node("labels[0].label").isEqualTo("test-request");
+        assertThatJson(json).node("labels[0].minElapsed").isEqualTo(1330);
+        assertThatJson(json).node("labels[0].maxElapsed").isEqualTo(2550);
+    }
+}
@@ -40,6 +40,20 @@ public class TestConfigTest {
         new TestConfigurationWrapper(configFile, "configuration");
     }
 
+    @Test
+    public void readAllTestConfigurationsFromResourceFile() throws MojoExecutionException, URISyntaxException {
+        File configFile = new File(this.getClass().getResource(testConfigFile).toURI());
+        List<TestConfiguration> configurations = TestConfigurationWrapper.readAllTestConfigurations(configFile);
+
+        assertThat(configurations).extracting(TestConfiguration::getExecutionID).containsExactly("configuration", "test-execution");
+        assertThat(configurations).extracting(TestConfiguration::getResultsOutputIsCSVFormat).containsExactly(true, false);
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void readAllTestConfigurationsFromMissingFile() throws MojoExecutionException {
+        TestConfigurationWrapper.readAllTestConfigurations(new File("/does/not/exist"));
+    }
+
     @Test
     public void changeCSVFormat() throws MojoExecutionException, URISyntaxException {
         File configFile = new File(this.getClass().getResource(testConfigFile).toURI());
@@ -155,4 +169,21 @@ public class TestConfigTest {
         assertThat(testConfig.getCurrentTestConfiguration().getJmeterDirectoryPath()).isEqualTo("/foo/bar/jmeter");
         assertThat(testConfig.getCurrentTestConfiguration().getJmeterWorkingDirectoryPath().getAbsolutePath()).isEqualTo("/foo/bar/jmeter/bin");
     }
+
+    @Test
+    public void writeAndReadCurrentTestConfiguration() throws MojoExecutionException {
+        File snapshot = new File(tempdir, UUID.randomUUID() + ".json");
+        snapshot.deleteOnExit();
+        TestConfigurationWrapper testConfig = new TestConfigurationWrapper();
+        testConfig.getCurrentTestConfiguration().setExecutionID("snapshot");
+        testConfig.getCurrentTestConfiguration().setRuntimeJarName("ApacheJMeter-5.6.2.jar");
+        testConfig.getCurrentTestConfiguration().setResultsOutputIsCSVFormat(true);
+        testConfig.writeCurrentTestConfigurationTo(snapshot);
+
+        TestConfiguration readConfiguration = TestConfigurationWrapper.readTestConfiguration(snapshot);
+
+        assertThat(readConfiguration.getExecutionID()).isEqualTo("snapshot");
+        assertThat(readConfiguration.getRuntimeJarName()).isEqualTo("ApacheJMeter-5.6.2.jar");
+        assertThat(readConfiguration.getResultsOutputIsCSVFormat()).isTrue();
+    }
 }
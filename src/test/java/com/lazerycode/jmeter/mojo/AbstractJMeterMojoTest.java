@@ -2,6 +2,11 @@ package com.lazerycode.jmeter.mojo;
 
 import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.configuration.ProxyConfiguration;
+import com.lazerycode.jmeter.json.TestConfiguration;
+import com.lazerycode.jmeter.properties.ConfigurationFiles;
+import com.lazerycode.jmeter.properties.PropertiesFile;
+import com.lazerycode.jmeter.properties.PropertiesMapping;
+import com.lazerycode.jmeter.results.CSVLayout;
 import com.lazerycode.jmeter.utility.UtilityFunctions;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
@@ -20,6 +25,9 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -323,4 +331,40 @@ public class AbstractJMeterMojoTest {
 
         assertThat(UtilityFunctions.humanReadableCommandLineOutput(actual.buildArgumentsArray())).isEqualTo(UtilityFunctions.humanReadableCommandLineOutput(expected.buildArgumentsArray()));
     }
+
+    private static PropertiesMapping propertiesMapping(String name, String value) {
+        PropertiesMapping mapping = new PropertiesMapping(Collections.emptyMap());
+        mapping.setPropertiesFile(new PropertiesFile());
+        mapping.getPropertiesFile().getProperties().setProperty(name, value);
+
+        return mapping;
+    }
+
+    @Test
+    public void resultsCsvLayoutUsesUserPropertiesOverJMeterProperties() {
+        Map<ConfigurationFiles, PropertiesMapping> propertiesMap = new EnumMap<>(ConfigurationFiles.class);
+        propertiesMap.put(ConfigurationFiles.JMETER_PROPERTIES, propertiesMapping("jmeter.save.saveservice.default_delimiter", ";"));
+        propertiesMap.put(ConfigurationFiles.USER_PROPERTIES, propertiesMapping("jmeter.save.saveservice.default_delimiter", "|"));
+        TestConfiguration execution = new TestConfiguration();
+        execution.setPropertiesMap(propertiesMap);
+
+        CSVLayout layout = createtMojoInstanceWithTestLogging().resultsCsvLayout(execution);
+
+        assertThat(layout.getDelimiter()).isEqualTo('|');
+        assertThat(layout.isHeaderWritten()).isTrue();
+    }
+
+    @Test
+    public void resultsCsvLayoutIsUnknownWithoutProperties() {
+        AbstractJMeterMojo testSubject = createtMojoInstanceWithTestLogging();
+        Map<ConfigurationFiles, PropertiesMapping> propertiesMap = new EnumMap<>(ConfigurationFiles.class);
+        propertiesMap.put(ConfigurationFiles.JMETER_PROPERTIES, propertiesMapping("jmeter.save.saveservice.default_delimiter", ";;"));
+        TestConfiguration execution = new TestConfiguration();
+
+        assertThat(testSubject.resultsCsvLayout(execution)).isNull();
+
+        execution.setPropertiesMap(propertiesMap);
+
+        assertThat(testSubject.resultsCsvLayout(execution)).isNull();
+    }
 }
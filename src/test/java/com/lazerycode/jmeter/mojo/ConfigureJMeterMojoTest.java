@@ -0,0 +1,146 @@
+package com.lazerycode.jmeter.mojo;
+
+import com.lazerycode.jmeter.configuration.LibraryPopulationStrategy;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.graph.selector.AndDependencySelector;
+import org.eclipse.aether.util.graph.selector.ExclusionDependencySelector;
+import org.eclipse.aether.util.graph.selector.OptionalDependencySelector;
+import org.eclipse.aether.util.graph.selector.ScopeDependencySelector;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConfigureJMeterMojoTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final RepositorySystem repositorySystem = Mockito.mock(RepositorySystem.class);
+    private ConfigureJMeterMojo mojo;
+    private File libDirectory;
+
+    private static Dependency dependency(String coordinates, boolean optional, Exclusion... exclusions) {
+        return new Dependency(new DefaultArtifact(coordinates), "compile", optional, Arrays.asList(exclusions));
+    }
+
+    private static DefaultDependencyNode node(Dependency dependency, DefaultDependencyNode... children) {
+        DefaultDependencyNode node = new DefaultDependencyNode(dependency);
+        node.setChildren(new ArrayList<>(Arrays.asList(children)));
+        return node;
+    }
+
+    private static void setField(Object object, String name, Object value) throws ReflectiveOperationException {
+        Field field = ConfigureJMeterMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(object, value);
+    }
+
+    /**
+     * The collected graph of a library with an optional dependency, a dependency it excludes and a dependency
+     * excluded by excludedArtifacts.
+     */
+    @Before
+    public void createMojo() throws Exception {
+        libDirectory = temporaryFolder.newFolder("lib");
+        File repository = temporaryFolder.newFolder("repository");
+        Dependency library = dependency("com.example:library:1.0", false, new Exclusion("com.example", "excluded-by-library", "*", "*"));
+        DefaultDependencyNode root = node(null,
+                node(library,
+                        node(dependency("com.example:required:1.0", false)),
+                        node(dependency("com.example:optional:1.0", true),
+                                node(dependency("com.example:optional-dependency:1.0", false))),
+                        node(dependency("com.example:excluded-by-library:1.0", false)),
+                        node(dependency("com.example:excluded-by-configuration:1.0", false))));
+        when(repositorySystem.collectDependencies(any(), any())).thenReturn(new CollectResult(new CollectRequest()).setRoot(root));
+        when(repositorySystem.resolveArtifacts(any(), any())).thenAnswer(invocation -> {
+            List<ArtifactResult> artifactResults = new ArrayList<>();
+            for (ArtifactRequest artifactRequest : invocation.<List<ArtifactRequest>>getArgument(1)) {
+                Artifact artifact = artifactRequest.getArtifact();
+                File file = new File(repository, artifact.getArtifactId() + "-" + artifact.getVersion() + ".jar");
+                file.createNewFile();
+                artifactResults.add(new ArtifactResult(artifactRequest).setArtifact(artifact.setFile(file)));
+            }
+            return artifactResults;
+        });
+
+        mojo = new ConfigureJMeterMojo();
+        mojo.libDirectory = libDirectory.toPath();
+        mojo.libraryPopulationStrategy = LibraryPopulationStrategy.COPY;
+        mojo.artifactResolutionThreads = 1;
+        setField(mojo, "repositorySystem", repositorySystem);
+        // The dependency selector of Maven sessions
+        DefaultRepositorySystemSession repositorySystemSession = new DefaultRepositorySystemSession();
+        repositorySystemSession.setDependencySelector(new AndDependencySelector(
+                new ScopeDependencySelector("test", "provided"),
+                new OptionalDependencySelector(),
+                new ExclusionDependencySelector()));
+        setField(mojo, "repositorySystemSession", repositorySystemSession);
+        setField(mojo, "repositoryList", new ArrayList<>());
+        setField(mojo, "parsedExcludedArtifacts", new HashSet<>(Collections.singletonList(new Exclusion("com.example", "excluded-by-configuration", "", "jar"))));
+        setField(mojo, "ignoredArtifactFileNames", new HashSet<String>());
+    }
+
+    @Test
+    public void optionalDependenciesAreNotCopiedByDefault() throws Exception {
+        mojo.copyTransitiveRuntimeDependenciesToLibDirectory(Collections.singletonList(dependency("com.example:library:1.0", false)), true);
+
+        assertThat(libDirectory.list()).containsExactly("required-1.0.jar");
+    }
+
+    @Test
+    public void optionalDependenciesAreCopiedWhenRequested() throws Exception {
+        mojo.downloadOptionalDependencies = true;
+
+        mojo.copyTransitiveRuntimeDependenciesToLibDirectory(Collections.singletonList(dependency("com.example:library:1.0", false)), true);
+
+        assertThat(libDirectory.list()).containsExactlyInAnyOrder("required-1.0.jar", "optional-1.0.jar", "optional-dependency-1.0.jar");
+    }
+
+    @Test
+    public void optionalDependenciesOfRootDependenciesAreCollected() throws Exception {
+        mojo.copyTransitiveRuntimeDependenciesToLibDirectory(Collections.singletonList(dependency("com.example:library:1.0", false)), true);
+
+        ArgumentCaptor<RepositorySystemSession> session = ArgumentCaptor.forClass(RepositorySystemSession.class);
+        verify(repositorySystem).collectDependencies(session.capture(), any());
+        DependencyCollectionContext rootContext = Mockito.mock(DependencyCollectionContext.class);
+        DependencyCollectionContext libraryContext = Mockito.mock(DependencyCollectionContext.class);
+        when(libraryContext.getDependency()).thenReturn(dependency("com.example:library:1.0", false, new Exclusion("com.example", "excluded-by-library", "*", "*")));
+        // The root dependencies of the request are the first level of the graph, their dependencies the second one
+        DependencySelector selector = session.getValue().getDependencySelector()
+                .deriveChildSelector(rootContext)
+                .deriveChildSelector(libraryContext);
+
+        assertThat(selector.selectDependency(dependency("com.example:optional:1.0", true))).isTrue();
+        assertThat(selector.selectDependency(dependency("com.example:excluded-by-library:1.0", false))).isFalse();
+        assertThat(selector.selectDependency(new Dependency(new DefaultArtifact("com.example:test:1.0"), "test"))).isFalse();
+    }
+}
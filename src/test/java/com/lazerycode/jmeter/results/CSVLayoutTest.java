@@ -0,0 +1,130 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CSVLayoutTest {
+
+    private static final String DEFAULT_HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect";
+    private static final List<String> FAILURE_MESSAGES = Collections.singletonList("It went \"wrong\", again!");
+
+    private File createResultsFile(String header, String delimiter, int rows) throws Exception {
+        StringBuilder contents = new StringBuilder();
+        if (null != header) {
+            contents.append(header.replace(",", delimiter)).append("\n");
+        }
+        for (int i = 0; i < rows; i++) {
+            boolean success = i % 3 != 0;
+            contents.append(String.join(delimiter,
+                    Long.toString(1548568307205L + i), "1330", "test-request", "200", "OK", "my-test-plan 1-1", "", Boolean.toString(success),
+                    success ? "" : "\"It went \"\"wrong\"\", again!\"", "0", "0", "3", "3",
+                    // A quoted URL with separators and line breaks in a column that is skipped
+                    i % 2 == 0 ? "\"http://example.com/?a=1" + delimiter + "b=\"\"2\"\"\n&c=3\"" : "null",
+                    "12", "0", "7")).append("\n");
+        }
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        resultsFile.deleteOnExit();
+        Files.write(resultsFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        return resultsFile;
+    }
+
+    private static Properties saveServiceProperties(String... nameValuePairs) {
+        Properties properties = new Properties();
+        for (int i = 0; i < nameValuePairs.length; i += 2) {
+            properties.setProperty("jmeter.save.saveservice." + nameValuePairs[i], nameValuePairs[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    public void defaultLayoutMatchesTheDefaultJMeterHeader() {
+        CSVLayout layout = CSVLayout.fromProperties(new Properties());
+
+        assertThat(layout.getDelimiter()).isEqualTo(',');
+        assertThat(layout.isHeaderWritten()).isTrue();
+        assertThat(String.join(",", layout.getColumns())).isEqualTo(DEFAULT_HEADER);
+    }
+
+    @Test
+    public void layoutFollowsSaveServiceProperties() {
+        CSVLayout layout = CSVLayout.fromProperties(saveServiceProperties(
+                "default_delimiter", "\\t",
+                "print_field_names", "false",
+                "timestamp_format", "none",
+                "response_message", "false",
+                "url", "FALSE",
+                "thread_counts", "false",
+                "sample_count", "true",
+                "hostname", "true"
+        ));
+
+        assertThat(layout.getDelimiter()).isEqualTo('\t');
+        assertThat(layout.isHeaderWritten()).isFalse();
+        assertThat(layout.getColumns()).containsExactly("elapsed", "label", "responseCode", "threadName", "dataType", "success",
+                "failureMessage", "bytes", "sentBytes", "Latency", "SampleCount", "ErrorCount", "Hostname", "IdleTime", "Connect");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multipleCharacterDelimitersAreRejected() {
+        CSVLayout.fromProperties(saveServiceProperties("default_delimiter", ";;"));
+    }
+
+    @Test
+    public void filesWithoutAHeaderCanBeScanned() throws Exception {
+        File withHeader = createResultsFile(DEFAULT_HEADER, ",", 300);
+        File withoutHeader = createResultsFile(null, ",", 300);
+        CSVLayout layout = CSVLayout.fromProperties(saveServiceProperties("print_field_names", "false"));
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(FAILURE_MESSAGES, FailureMessageMatchMode.EXACT);
+
+        CSVScanResult expected = ResultScannerCSV.scanFile(withHeader, matcher, true);
+        CSVScanResult actual = ResultScannerCSV.scanFile(withoutHeader, matcher, true, layout);
+        CSVScanResult parallel = new ParallelCSVScanner(4, 1024).setCsvLayout(layout).scan(Collections.singletonList(withoutHeader), matcher, true).get(0);
+
+        for (CSVScanResult result : Arrays.asList(actual, parallel)) {
+            assertThat(result.getSuccessCount()).isEqualTo(200);
+            assertThat(result.getFailureCount()).isEqualTo(100);
+            assertThat(result.getSpecificFailureMessages()).isEqualTo(expected.getSpecificFailureMessages());
+            assertThat(result.getStatistics().getTotalSummary().getSamples()).isEqualTo(300);
+            assertThat(result.getStatistics().getTotalHistogram(ResponseTimeMetric.CONNECT).getMaxValue()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    public void configuredDelimiterIsUsedForFilesWithAHeader() throws Exception {
+        File resultsFile = createResultsFile(DEFAULT_HEADER, "\t", 30);
+        CSVLayout layout = CSVLayout.fromProperties(saveServiceProperties("default_delimiter", "\t"));
+
+        CSVScanResult result = ResultScannerCSV.scanFile(resultsFile, FailureMessageMatcher.compile(FAILURE_MESSAGES, FailureMessageMatchMode.EXACT), true, layout);
+
+        assertThat(result.getSuccessCount()).isEqualTo(20);
+        assertThat(result.getFailureCount()).isEqualTo(10);
+        assertThat(result.getStatistics().getTotalHistogram(ResponseTimeMetric.LATENCY).getMaxValue()).isEqualTo(12);
+    }
+
+    @Test
+    public void fieldsAfterTheLimitAreSkipped() throws Exception {
+        String records = "a,\"b,\"\"c\"\"\",\"d\ne\",f\r\ng,h\r\n\"i\",j,\"k\"\"\",\"l\nm\"";
+        try (CSVRecordReader reader = new CSVRecordReader(new ByteArrayInputStream(records.getBytes(StandardCharsets.UTF_8)), 4).setFieldLimit(1)) {
+            assertThat(reader.nextRecord()).isTrue();
+            assertThat(reader.getFieldCount()).isEqualTo(1);
+            assertThat(reader.getString(0)).isEqualTo("a");
+            assertThat(reader.getString(1)).isNull();
+            assertThat(reader.nextRecord()).isTrue();
+            assertThat(reader.getString(0)).isEqualTo("g");
+            assertThat(reader.nextRecord()).isTrue();
+            assertThat(reader.getString(0)).isEqualTo("i");
+            assertThat(reader.nextRecord()).isFalse();
+        }
+    }
+}
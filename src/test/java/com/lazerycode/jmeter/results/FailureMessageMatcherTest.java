@@ -0,0 +1,105 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class FailureMessageMatcherTest {
+
+    private static Map<String, Long> count(FailureMessageMatcher matcher, String... failureMessages) {
+        FailureMessageMatcher.Counter counter = matcher.newCounter();
+        for (String failureMessage : failureMessages) {
+            counter.count(failureMessage);
+        }
+        return counter.toMap();
+    }
+
+    @Test
+    public void exactMatchIgnoresCase() {
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("It went wrong!", "IT WENT WRONG!", "Too slow"), FailureMessageMatchMode.EXACT);
+
+        assertThat(count(matcher, "it went WRONG!", "It went wrong!!", null, "too slow"))
+                .containsOnly(entry("It went wrong!", 1L), entry("IT WENT WRONG!", 1L), entry("Too slow", 1L));
+    }
+
+    @Test
+    public void containsMatchCountsEachMessageOncePerFailure() {
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("he", "she", "his", "hers", "timeout"), FailureMessageMatchMode.CONTAINS);
+
+        assertThat(count(matcher, "USHERS", "this is his", "Read TimeOut", "", null))
+                .containsOnly(entry("he", 1L), entry("she", 1L), entry("his", 1L), entry("hers", 1L), entry("timeout", 1L));
+    }
+
+    @Test
+    public void containsMatchSupportsNonAsciiCharacters() {
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Collections.singletonList("ÉCHEC"), FailureMessageMatchMode.CONTAINS);
+
+        assertThat(count(matcher, "Assertion en échec", "Echec")).containsOnly(entry("ÉCHEC", 1L));
+    }
+
+    @Test
+    public void containsMatchIsTheSameAsSearchingForEveryMessage() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<String> messages = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                String message = randomString(random, 1 + random.nextInt(4));
+                if (!messages.contains(message)) {
+                    messages.add(message);
+                }
+            }
+            FailureMessageMatcher matcher = FailureMessageMatcher.compile(messages, FailureMessageMatchMode.CONTAINS);
+            String[] failureMessages = new String[50];
+            for (int i = 0; i < failureMessages.length; i++) {
+                failureMessages[i] = randomString(random, random.nextInt(30));
+            }
+            Map<String, Long> actual = count(matcher, failureMessages);
+
+            for (String message : messages) {
+                int expected = 0;
+                for (String failureMessage : failureMessages) {
+                    if (failureMessage.toLowerCase().contains(message.toLowerCase())) {
+                        expected++;
+                    }
+                }
+                assertThat(actual.get(message)).as("Matches of %s", message).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void regexMatchIsFoundAnywhereInTheMessage() {
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("response code.*5\\d\\d", "^timeout$"), FailureMessageMatchMode.REGEX);
+
+        assertThat(count(matcher, "Unexpected Response Code: 503", "Timeout", "Read timeout"))
+                .containsOnly(entry("response code.*5\\d\\d", 1L), entry("^timeout$", 1L));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void invalidRegexIsRejected() {
+        FailureMessageMatcher.compile(Collections.singletonList("(unclosed"), FailureMessageMatchMode.REGEX);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void duplicateFailureMessagesAreRejected() {
+        FailureMessageMatcher.compile(Arrays.asList("It went wrong!", "It went wrong!"), FailureMessageMatchMode.CONTAINS);
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] alphabet = {'a', 'b', 'A', 'B', 'c'};
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            value.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return value.toString();
+    }
+}
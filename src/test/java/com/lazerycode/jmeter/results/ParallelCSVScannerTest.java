@@ -0,0 +1,71 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelCSVScannerTest {
+
+    private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect";
+    private static final List<String> FAILURE_MESSAGES = Collections.singletonList("It went \"wrong\", again!");
+
+    private File createResultsFile(int rows, String lineSeparator) throws Exception {
+        Random random = new Random(rows);
+        StringBuilder contents = new StringBuilder(HEADER).append(lineSeparator);
+        String[] responseMessages = {"OK", "\"multi" + lineSeparator + "line, message\"", "\"<Foo Bar=\"\"true\"\"></Foo>\""};
+        for (int i = 0; i < rows; i++) {
+            boolean success = random.nextInt(10) > 2;
+            contents.append(1548568307205L + i).append(",1330,test-request,200,")
+                    .append(responseMessages[random.nextInt(responseMessages.length)])
+                    .append(",my-test-plan 1-1,,").append(success)
+                    .append(",").append(success ? "" : "\"It went \"\"wrong\"\", again!\"")
+                    .append(",0,0,3,3,null,0,0,0").append(lineSeparator);
+        }
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        resultsFile.deleteOnExit();
+        Files.write(resultsFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        return resultsFile;
+    }
+
+    @Test
+    public void chunkedScanMatchesSequentialScan() throws Exception {
+        for (String lineSeparator : Arrays.asList("\n", "\r\n")) {
+            File resultsFile = createResultsFile(2000, lineSeparator);
+            CSVScanResult expected = ResultScannerCSV.scanCsvForValues(resultsFile, FAILURE_MESSAGES);
+            for (long chunkSize : new long[]{512, 4096, 65536, ParallelCSVScanner.DEFAULT_CHUNK_SIZE}) {
+                CSVScanResult actual = new ParallelCSVScanner(4, chunkSize).scan(Collections.singletonList(resultsFile), FailureMessageMatcher.compile(FAILURE_MESSAGES, FailureMessageMatchMode.EXACT), false).get(0);
+
+                assertThat(actual.getSuccessCount()).isEqualTo(expected.getSuccessCount());
+                assertThat(actual.getFailureCount()).isEqualTo(expected.getFailureCount());
+                assertThat(actual.getSpecificFailureMessages()).isEqualTo(expected.getSpecificFailureMessages());
+            }
+        }
+    }
+
+    @Test
+    public void multipleFilesAreScannedInOrder() throws Exception {
+        List<File> resultFiles = new ArrayList<>();
+        resultFiles.add(createResultsFile(10, "\n"));
+        resultFiles.add(createResultsFile(1000, "\n"));
+        resultFiles.add(createResultsFile(0, "\n"));
+        List<CSVScanResult> results = new ParallelCSVScanner(3, 512).scan(resultFiles, FailureMessageMatcher.compile(FAILURE_MESSAGES, FailureMessageMatchMode.EXACT), false);
+
+        assertThat(results).hasSize(3);
+        for (int i = 0; i < resultFiles.size(); i++) {
+            CSVScanResult expected = ResultScannerCSV.scanCsvForValues(resultFiles.get(i), FAILURE_MESSAGES);
+            assertThat(results.get(i).getSuccessCount()).isEqualTo(expected.getSuccessCount());
+            assertThat(results.get(i).getFailureCount()).isEqualTo(expected.getFailureCount());
+        }
+        assertThat(results.get(2).getSuccessCount() + results.get(2).getFailureCount()).isZero();
+    }
+}
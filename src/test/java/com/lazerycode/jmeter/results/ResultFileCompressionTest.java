@@ -0,0 +1,154 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResultFileCompressionTest {
+
+    private final List<File> temporaryFiles = new ArrayList<>();
+
+    private File copyOfResource(String resource, String suffix) throws Exception {
+        File copy = Files.createTempFile("results_", suffix).toFile();
+        Files.copy(new File(this.getClass().getResource(resource).toURI()).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        temporaryFiles.add(copy);
+
+        return copy;
+    }
+
+    private File compress(File file, ResultFileCompression compression) throws IOException {
+        File compressedFile = compression.compress(file);
+        temporaryFiles.add(compressedFile);
+
+        return compressedFile;
+    }
+
+    @After
+    public void deleteTemporaryFiles() throws IOException {
+        for (File file : temporaryFiles) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void compressionIsIdentifiedByExtension() {
+        assertThat(ResultFileCompression.forFile(new File("results.csv"))).isEqualTo(ResultFileCompression.NONE);
+        assertThat(ResultFileCompression.forFile(new File("results.jtl.gz"))).isEqualTo(ResultFileCompression.GZIP);
+        assertThat(ResultFileCompression.forFile(new File("results.JTL.ZST"))).isEqualTo(ResultFileCompression.ZSTD);
+    }
+
+    @Test
+    public void compressedFileReplacesOriginal() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        byte[] contents = Files.readAllBytes(resultsFile.toPath());
+        for (ResultFileCompression compression : Arrays.asList(ResultFileCompression.GZIP, ResultFileCompression.ZSTD)) {
+            File compressedFile = compress(resultsFile, compression);
+
+            assertThat(resultsFile).doesNotExist();
+            assertThat(compressedFile.getName()).isEqualTo(resultsFile.getName() + compression.getExtension());
+            try (InputStream inputStream = ResultFileCompression.newInputStream(compressedFile)) {
+                assertThat(inputStream).hasBinaryContent(contents);
+            }
+            Files.write(resultsFile.toPath(), contents);
+        }
+    }
+
+    @Test
+    public void compressedCSVFilesAreScanned() throws Exception {
+        for (ResultFileCompression compression : ResultFileCompression.values()) {
+            File resultsFile = compress(copyOfResource("/csv2-1-fail.csv", ".csv"), compression);
+            CSVScanResult result = ResultScannerCSV.scanFile(resultsFile, FailureMessageMatcher.compile(Collections.emptyList(), FailureMessageMatchMode.EXACT), true);
+
+            assertThat(result.getFailureCount()).isEqualTo(2);
+            assertThat(result.getSuccessCount()).isEqualTo(0);
+            assertThat(result.getStatistics().getTotalSummary().getSamples()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void compressedCSVFilesAreScannedInParallel() throws Exception {
+        List<File> files = Arrays.asList(
+                compress(copyOfResource("/csv2-1-fail.csv", ".csv"), ResultFileCompression.GZIP),
+                copyOfResource("/csv2-1-pass.csv", ".csv"),
+                compress(copyOfResource("/csv2-1-fail.csv", ".csv"), ResultFileCompression.ZSTD));
+        List<CSVScanResult> results = new ParallelCSVScanner(2).scan(files, FailureMessageMatcher.compile(Collections.emptyList(), FailureMessageMatchMode.EXACT), false);
+
+        assertThat(results).extracting(CSVScanResult::getFailureCount).containsExactly(2L, 0L, 2L);
+        assertThat(results).extracting(CSVScanResult::getSuccessCount).containsExactly(0L, 2L, 0L);
+    }
+
+    @Test
+    public void compressedJTLFilesAreScanned() throws Exception {
+        for (ResultFileCompression compression : ResultFileCompression.values()) {
+            File resultsFile = compress(copyOfResource("/jtl2-1-fail.jtl", ".jtl"), compression);
+            ResultScanner fileScanner = new ResultScannerXML(true, true, false, Collections.emptyList());
+            fileScanner.parseResultFile(resultsFile);
+
+            assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+            assertThat(fileScanner.getSuccessCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void pipelinedStreamReturnsAllData() throws Exception {
+        byte[] contents = new byte[100_003];
+        new Random(42).nextBytes(contents);
+        try (InputStream inputStream = new PipelinedInputStream(new ByteArrayInputStream(contents), "test", 1024, 2)) {
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            copy.write(inputStream.read());
+            byte[] buffer = new byte[777];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) >= 0) {
+                copy.write(buffer, 0, bytesRead);
+            }
+
+            assertThat(copy.toByteArray()).isEqualTo(contents);
+            assertThat(inputStream.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void pipelinedStreamRethrowsReadErrors() throws Exception {
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Corrupt data");
+            }
+        };
+        try (InputStream inputStream = new PipelinedInputStream(failingStream, "test")) {
+            assertThatThrownBy(inputStream::read).isInstanceOf(IOException.class).hasMessage("Corrupt data");
+        }
+    }
+
+    @Test
+    public void pipelinedStreamCanBeClosedBeforeTheEnd() throws Exception {
+        byte[] contents = new byte[1024 * 1024];
+        InputStream inputStream = new PipelinedInputStream(new ByteArrayInputStream(contents), "test", 1024, 2);
+        assertThat(inputStream.read()).isEqualTo(0);
+        inputStream.close();
+
+        assertThat(inputStream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void corruptCompressedFileThrowsIOException() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv.gz");
+
+        assertThatThrownBy(() -> ResultFileCompression.newInputStream(resultsFile)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultFileSummaryTest {
+
+    private final List<File> temporaryFiles = new ArrayList<>();
+
+    private File copyOfResource(String resource, String suffix) throws Exception {
+        File copy = Files.createTempFile("results_", suffix).toFile();
+        Files.copy(new File(this.getClass().getResource(resource).toURI()).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        temporaryFiles.add(copy);
+        temporaryFiles.add(ResultFileSummary.fileFor(copy));
+
+        return copy;
+    }
+
+    @After
+    public void deleteTemporaryFiles() throws IOException {
+        for (File file : temporaryFiles) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private static void writeSummary(File resultsFile, FailureMessageMatcher matcher, CSVScanResult scanResult) throws IOException {
+        ResultFileSummary.write(resultsFile, resultsFile.length(), resultsFile.lastModified(), matcher, scanResult);
+    }
+
+    private static void assertSameResults(CSVScanResult actual, CSVScanResult expected) {
+        assertThat(actual.getSuccessCount()).isEqualTo(expected.getSuccessCount());
+        assertThat(actual.getFailureCount()).isEqualTo(expected.getFailureCount());
+        assertThat(actual.getSpecificFailureMessages()).isEqualTo(expected.getSpecificFailureMessages());
+        assertSameStatistics(actual.getStatistics(), expected.getStatistics());
+    }
+
+    private static void assertSameStatistics(SampleStatistics actual, SampleStatistics expected) {
+        assertThat(actual.getLabels()).isEqualTo(expected.getLabels());
+        List<LabelSummary> summaries = new ArrayList<>(actual.getSummaries());
+        summaries.add(actual.getTotalSummary());
+        List<LabelSummary> expectedSummaries = new ArrayList<>(expected.getSummaries());
+        expectedSummaries.add(expected.getTotalSummary());
+        assertThat(summaries).usingRecursiveFieldByFieldElementComparator().isEqualTo(expectedSummaries);
+        for (ResponseTimeMetric metric : ResponseTimeMetric.values()) {
+            assertThat(actual.getTotalHistogram(metric)).isEqualTo(expected.getTotalHistogram(metric));
+        }
+        SampleTimeSeries timeSeries = actual.getTimeSeries();
+        SampleTimeSeries expectedTimeSeries = expected.getTimeSeries();
+        assertThat(timeSeries.getFirstTimeStamp()).isEqualTo(expectedTimeSeries.getFirstTimeStamp());
+        assertThat(timeSeries.getLastTimeStamp()).isEqualTo(expectedTimeSeries.getLastTimeStamp());
+        assertThat(timeSeries.getBucketCount()).isEqualTo(expectedTimeSeries.getBucketCount());
+        for (int bucket = 0; bucket < timeSeries.getBucketCount(); bucket++) {
+            assertThat(timeSeries.getSamples(bucket)).isEqualTo(expectedTimeSeries.getSamples(bucket));
+            assertThat(timeSeries.getErrors(bucket)).isEqualTo(expectedTimeSeries.getErrors(bucket));
+        }
+    }
+
+    @Test
+    public void summaryGivesTheSameResultsAsTheFile() throws Exception {
+        File resultsFile = copyOfResource("/csv4-quoted-fields.csv", ".csv");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("it went \"WRONG\", again!", "NotFound"), FailureMessageMatchMode.EXACT);
+        CSVScanResult scanResult = ResultScannerCSV.scanCsvForValues(resultsFile, matcher, true);
+        writeSummary(resultsFile, matcher, scanResult);
+
+        assertSameResults(ResultFileSummary.read(resultsFile, matcher, true), scanResult);
+    }
+
+    @Test
+    public void summaryIsIgnoredOnceTheFileHasBeenModified() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Collections.emptyList(), FailureMessageMatchMode.EXACT);
+        writeSummary(resultsFile, matcher, ResultScannerCSV.scanCsvForValues(resultsFile, matcher, false));
+        assertThat(resultsFile.setLastModified(resultsFile.lastModified() - 60_000)).isTrue();
+
+        assertThat(ResultFileSummary.read(resultsFile, matcher, false)).isNull();
+    }
+
+    @Test
+    public void summaryIsIgnoredForOtherFailureMessages() throws Exception {
+        File resultsFile = copyOfResource("/jtl3-assertions.jtl", ".jtl");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Collections.singletonList("slow"), FailureMessageMatchMode.CONTAINS);
+        writeSummary(resultsFile, matcher, ResultScannerXML.scanXmlFile(resultsFile, matcher, false));
+
+        assertThat(ResultFileSummary.read(resultsFile, matcher, false)).isNotNull();
+        assertThat(ResultFileSummary.read(resultsFile, FailureMessageMatcher.compile(Collections.singletonList("slow"), FailureMessageMatchMode.EXACT), false)).isNull();
+        assertThat(ResultFileSummary.read(resultsFile, FailureMessageMatcher.compile(Arrays.asList("slow", "fast"), FailureMessageMatchMode.CONTAINS), false)).isNull();
+    }
+
+    @Test
+    public void summaryWithoutStatisticsIsIgnoredWhenStatisticsAreNeeded() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Collections.emptyList(), FailureMessageMatchMode.EXACT);
+        writeSummary(resultsFile, matcher, ResultScannerCSV.scanCsvForValues(resultsFile, matcher, false));
+
+        assertThat(ResultFileSummary.read(resultsFile, matcher, false)).isNotNull();
+        assertThat(ResultFileSummary.read(resultsFile, matcher, true)).isNull();
+    }
+
+    @Test
+    public void scannerMergesFreshSummaryInsteadOfScanningTheFile() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        new ResultScannerCSV(true, true, false, Collections.emptyList()).setUseResultFileSummaries(true).parseResultFile(resultsFile);
+        assertThat(ResultFileSummary.fileFor(resultsFile)).exists();
+        // Replace the contents without changing size and last modified time, only the summary can give the original counts
+        long lastModified = resultsFile.lastModified();
+        byte[] contents = Files.readAllBytes(resultsFile.toPath());
+        Files.write(resultsFile.toPath(), new String(contents, StandardCharsets.UTF_8).replace("false", "true ").getBytes(StandardCharsets.UTF_8));
+        assertThat(resultsFile.setLastModified(lastModified)).isTrue();
+        ResultScanner fileScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setUseResultFileSummaries(true);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void mergedSummariesGiveTheSameResultsAsScanningEveryFile() throws Exception {
+        List<File> resultsFiles = Arrays.asList(
+                copyOfResource("/csv2-1-fail.csv", ".csv"),
+                copyOfResource("/csv3-1-pass.csv", ".csv"),
+                copyOfResource("/csv4-quoted-fields.csv", ".csv")
+        );
+        ResultScanner fileScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        fileScanner.parseResultFiles(resultsFiles);
+        new ResultScannerCSV(true, true, false, Collections.emptyList()).setScanThreads(2).setCollectStatistics(true).setUseResultFileSummaries(true).parseResultFiles(resultsFiles);
+        for (File resultsFile : resultsFiles) {
+            assertThat(ResultFileSummary.fileFor(resultsFile)).exists();
+        }
+        ResultScanner summaryScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true).setUseResultFileSummaries(true);
+        summaryScanner.parseResultFiles(resultsFiles);
+
+        assertThat(summaryScanner.getSuccessCount()).isEqualTo(fileScanner.getSuccessCount());
+        assertThat(summaryScanner.getFailureCount()).isEqualTo(fileScanner.getFailureCount());
+        assertSameStatistics(summaryScanner.getStatistics(), fileScanner.getStatistics());
+    }
+}
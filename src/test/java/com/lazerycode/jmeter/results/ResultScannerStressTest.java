@@ -0,0 +1,101 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts must not overflow when billions of samples are scanned.
+ * <p>
+ * Rows are produced by a generator stream instead of being read from disk. The default number of rows keeps the test
+ * fast, run it with -DstressTestRows=3000000000 (or more) to push every counter past Integer.MAX_VALUE.
+ */
+public class ResultScannerStressTest {
+
+    private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect\n";
+    private static final String[] ROWS = {
+            "1548568307205,101,test-request,200,OK,my-test-plan 1-1,text,true,,1000,100,1,1,null,42,0,7\n",
+            "1548568307206,102,test-request,200,OK,my-test-plan 1-1,text,true,,1000,100,1,1,null,42,0,7\n",
+            "1548568307207,103,test-request,200,OK,my-test-plan 1-1,text,true,,1000,100,1,1,null,42,0,7\n",
+            "1548568307208,5004,test-request,500,Internal Server Error,my-test-plan 1-1,text,false,Server Error,10,100,1,1,null,4000,0,7\n"
+    };
+    private static final long DEFAULT_ROWS = 1_000_000;
+
+    /**
+     * Writes a header, then repeats the same rows until the requested number of rows has been written.
+     */
+    private static class GeneratedResultsStream extends InputStream {
+        private final byte[] header = HEADER.getBytes(StandardCharsets.UTF_8);
+        private final byte[] rows = String.join("", ROWS).getBytes(StandardCharsets.UTF_8);
+        private long remainingRowBlocks;
+        private byte[] current = header;
+        private int position = 0;
+
+        GeneratedResultsStream(long rowBlocks) {
+            this.remainingRowBlocks = rowBlocks;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (position == current.length) {
+                    if (remainingRowBlocks == 0) {
+                        break;
+                    }
+                    remainingRowBlocks--;
+                    current = rows;
+                    position = 0;
+                }
+                int copied = Math.min(length - read, current.length - position);
+                System.arraycopy(current, position, buffer, offset + read, copied);
+                position += copied;
+                read += copied;
+            }
+            return read == 0 && length > 0 ? -1 : read;
+        }
+    }
+
+    @Test
+    public void countsDoNotOverflowForGeneratedRows() throws Exception {
+        long rowBlocks = Long.getLong("stressTestRows", DEFAULT_ROWS) / ROWS.length;
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Collections.singletonList("Server Error"), FailureMessageMatchMode.EXACT);
+        CSVScanResult scanResult;
+        try (CSVRecordReader reader = new CSVRecordReader(new GeneratedResultsStream(rowBlocks))) {
+            scanResult = ResultScannerCSV.scanRecords(reader, CSVHeader.read(reader, new File("generated.csv")), matcher, false);
+        }
+
+        assertThat(scanResult.getSuccessCount()).isEqualTo(rowBlocks * 3);
+        assertThat(scanResult.getFailureCount()).isEqualTo(rowBlocks);
+        assertThat(scanResult.getSpecificFailureMessages()).containsEntry("Server Error", rowBlocks);
+    }
+
+    @Test
+    public void scannerTotalsDoNotOverflow() {
+        Map<String, Long> failureMessages = new HashMap<>();
+        failureMessages.put("Server Error", 1_500_000_000L);
+        ResultScanner scanner = new ResultScannerCSV(true, true, false, Collections.singletonList("Server Error"));
+        File shard = new File("shard.csv");
+        CSVScanResult shardResult = new CSVScanResult(failureMessages, 2_000_000_000L, 1_500_000_000L);
+        scanner.addScanResult(shard, shardResult);
+        scanner.addScanResult(shard, shardResult);
+
+        assertThat(scanner.getSuccessCount()).isEqualTo(4_000_000_000L);
+        assertThat(scanner.getFailureCount()).isEqualTo(3_000_000_000L);
+        assertThat(scanner.getTotalCount()).isEqualTo(7_000_000_000L);
+        assertThat(shardResult.merge(shardResult).getSpecificFailureMessages()).containsEntry("Server Error", 3_000_000_000L);
+    }
+}
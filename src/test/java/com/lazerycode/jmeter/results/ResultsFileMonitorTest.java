@@ -0,0 +1,106 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultsFileMonitorTest {
+
+    private static final String HEADER = "timeStamp,elapsed,label,responseCode,success,failureMessage\n";
+    private static final long POLL_INTERVAL = 10;
+
+    private File resultsFile;
+
+    @Before
+    public void createResultsFile() throws IOException {
+        resultsFile = Files.createTempFile("results-monitor", ".csv").toFile();
+        Files.delete(resultsFile.toPath());
+    }
+
+    @After
+    public void deleteResultsFile() throws IOException {
+        Files.deleteIfExists(resultsFile.toPath());
+    }
+
+    private static String row(long timeStamp, boolean success) {
+        return String.format("%s,100,request,%s,%s,%s%n", timeStamp, success ? 200 : 500, success, success ? "" : "\"It went \"\"wrong\"\"\"");
+    }
+
+    @Test
+    public void actionIsTriggeredOnceWhenErrorRateIsExceeded() throws Exception {
+        CountDownLatch triggered = new CountDownLatch(1);
+        ResultsFileMonitor monitor = new ResultsFileMonitor(resultsFile, 50, 10, triggered::countDown, null, POLL_INTERVAL).start();
+        try (OutputStream outputStream = Files.newOutputStream(resultsFile.toPath())) {
+            outputStream.write(HEADER.getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+            for (int i = 0; i < 20; i++) {
+                byte[] row = row(i, i % 4 == 0).getBytes(StandardCharsets.UTF_8);
+                // Rows are written in two parts to make sure that incomplete records are not read
+                outputStream.write(row, 0, 7);
+                outputStream.flush();
+                Thread.sleep(POLL_INTERVAL);
+                outputStream.write(row, 7, row.length - 7);
+                outputStream.flush();
+            }
+            assertThat(triggered.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        monitor.stop();
+
+        assertThat(monitor.isThresholdExceeded()).isTrue();
+        assertThat(monitor.getSuccessCount()).isEqualTo(5);
+        assertThat(monitor.getFailureCount()).isEqualTo(15);
+        assertThat(monitor.getErrorPercentage()).isEqualTo(75);
+        assertThat(monitor.getStatistics().getTotalSummary().getSamples()).isEqualTo(20);
+    }
+
+    @Test
+    public void actionIsNotTriggeredBeforeMinimumSamples() throws Exception {
+        ResultsFileMonitor monitor = new ResultsFileMonitor(resultsFile, 0, 100, () -> {
+        }, null, POLL_INTERVAL).start();
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 50; i++) {
+            content.append(row(i, false));
+        }
+        Files.write(resultsFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        monitor.stop();
+
+        assertThat(monitor.isThresholdExceeded()).isFalse();
+        assertThat(monitor.getFailureCount()).isEqualTo(50);
+    }
+
+    @Test
+    public void actionIsNotTriggeredWhenErrorRateIsBelowThreshold() throws Exception {
+        ResultsFileMonitor monitor = new ResultsFileMonitor(resultsFile, 10, 50, () -> {
+        }, null, POLL_INTERVAL).start();
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 100; i++) {
+            content.append(row(i, i % 20 != 5));
+        }
+        Files.write(resultsFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        monitor.stop();
+
+        assertThat(monitor.isThresholdExceeded()).isFalse();
+        assertThat(monitor.getSuccessCount()).isEqualTo(95);
+        assertThat(monitor.getFailureCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void stopWhenNothingHasBeenWritten() {
+        ResultsFileMonitor monitor = new ResultsFileMonitor(resultsFile, 0, 1, () -> {
+        }, null, POLL_INTERVAL).start();
+        monitor.stop();
+
+        assertThat(monitor.getSuccessCount()).isZero();
+        assertThat(monitor.getFailureCount()).isZero();
+    }
+}
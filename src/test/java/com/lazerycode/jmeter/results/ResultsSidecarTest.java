@@ -0,0 +1,140 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultsSidecarTest {
+
+    private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect";
+    private final List<File> temporaryFiles = new ArrayList<>();
+
+    private File copyOfResource(String resource, String suffix) throws Exception {
+        File copy = Files.createTempFile("results_", suffix).toFile();
+        Files.copy(new File(this.getClass().getResource(resource).toURI()).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        temporaryFiles.add(copy);
+        temporaryFiles.add(ResultsSidecar.fileFor(copy));
+
+        return copy;
+    }
+
+    @After
+    public void deleteTemporaryFiles() throws IOException {
+        for (File file : temporaryFiles) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private static void assertSameResults(CSVScanResult actual, CSVScanResult expected) {
+        assertThat(actual.getSuccessCount()).isEqualTo(expected.getSuccessCount());
+        assertThat(actual.getFailureCount()).isEqualTo(expected.getFailureCount());
+        assertThat(actual.getSpecificFailureMessages()).isEqualTo(expected.getSpecificFailureMessages());
+        assertThat(actual.getStatistics().getLabels()).isEqualTo(expected.getStatistics().getLabels());
+        List<LabelSummary> summaries = new ArrayList<>(actual.getStatistics().getSummaries());
+        summaries.add(actual.getStatistics().getTotalSummary());
+        List<LabelSummary> expectedSummaries = new ArrayList<>(expected.getStatistics().getSummaries());
+        expectedSummaries.add(expected.getStatistics().getTotalSummary());
+        assertThat(summaries).usingRecursiveFieldByFieldElementComparator().isEqualTo(expectedSummaries);
+    }
+
+    @Test
+    public void csvSidecarGivesTheSameResultsAsTheFile() throws Exception {
+        File resultsFile = copyOfResource("/csv4-quoted-fields.csv", ".csv");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("it went \"WRONG\", again!", "NotFound"), FailureMessageMatchMode.EXACT);
+        ResultScanner fileScanner = new ResultScannerCSV(true, true, false, Collections.emptyList());
+
+        assertThat(ResultsSidecar.isFresh(resultsFile)).isFalse();
+        assertThat(fileScanner.writeResultsSidecar(resultsFile)).isTrue();
+        assertThat(ResultsSidecar.isFresh(resultsFile)).isTrue();
+        assertSameResults(ResultsSidecar.scan(resultsFile, matcher, true), ResultScannerCSV.scanCsvForValues(resultsFile, matcher, true));
+    }
+
+    @Test
+    public void jtlSidecarGivesTheSameResultsAsTheFile() throws Exception {
+        File resultsFile = copyOfResource("/jtl3-assertions.jtl", ".jtl");
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("slow", "FailureMessageNotFound"), FailureMessageMatchMode.CONTAINS);
+        ResultScanner fileScanner = new ResultScannerXML(true, true, false, Collections.emptyList());
+
+        assertThat(fileScanner.writeResultsSidecar(resultsFile)).isTrue();
+        assertSameResults(ResultsSidecar.scan(resultsFile, matcher, true), ResultScannerXML.scanXmlFile(resultsFile, matcher, true));
+    }
+
+    @Test
+    public void sidecarSpanningSeveralBlocksGivesTheSameResultsAsTheFile() throws Exception {
+        Random random = new Random(1);
+        StringBuilder contents = new StringBuilder(HEADER).append("\n");
+        for (int i = 0; i < 150_000; i++) {
+            boolean success = random.nextInt(10) > 1;
+            contents.append(1548568307205L + i).append(",").append(random.nextInt(5000)).append(",label-").append(random.nextInt(20))
+                    .append(",200,OK,my-test-plan 1-1,,").append(success)
+                    .append(",").append(success ? "" : "Error " + random.nextInt(5))
+                    .append(",").append(random.nextInt(100_000)).append(",0,3,3,null,").append(random.nextInt(500)).append(",0,").append(random.nextInt(100)).append("\n");
+        }
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        temporaryFiles.add(resultsFile);
+        temporaryFiles.add(ResultsSidecar.fileFor(resultsFile));
+        Files.write(resultsFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+        FailureMessageMatcher matcher = FailureMessageMatcher.compile(Arrays.asList("Error 1", "Error"), FailureMessageMatchMode.CONTAINS);
+
+        assertThat(new ResultScannerCSV(true, true, false, Collections.emptyList()).writeResultsSidecar(resultsFile)).isTrue();
+        assertSameResults(ResultsSidecar.scan(resultsFile, matcher, true), ResultScannerCSV.scanCsvForValues(resultsFile, matcher, true));
+    }
+
+    @Test
+    public void sidecarIsNotFreshOnceTheFileHasBeenModified() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        new ResultScannerCSV(true, true, false, Collections.emptyList()).writeResultsSidecar(resultsFile);
+        assertThat(resultsFile.setLastModified(resultsFile.lastModified() - 60_000)).isTrue();
+
+        assertThat(ResultsSidecar.isFresh(resultsFile)).isFalse();
+    }
+
+    @Test
+    public void scannerReadsFreshSidecar() throws Exception {
+        File resultsFile = copyOfResource("/csv2-1-fail.csv", ".csv");
+        new ResultScannerCSV(true, true, false, Collections.emptyList()).writeResultsSidecar(resultsFile);
+        // Replace the contents without changing size and last modified time, only the sidecar can give the original counts
+        long lastModified = resultsFile.lastModified();
+        byte[] contents = Files.readAllBytes(resultsFile.toPath());
+        Files.write(resultsFile.toPath(), new String(contents, StandardCharsets.UTF_8).replace("false", "true ").getBytes(StandardCharsets.UTF_8));
+        assertThat(resultsFile.setLastModified(lastModified)).isTrue();
+        ResultScanner fileScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setUseResultsSidecar(true);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void scannerWritesMissingSidecar() throws Exception {
+        File resultsFile = copyOfResource("/jtl2-1-fail.jtl", ".jtl");
+        ResultScanner fileScanner = new ResultScannerXML(true, true, false, Collections.emptyList()).setUseResultsSidecar(true);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(ResultsSidecar.isFresh(resultsFile)).isTrue();
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void truncatedJtlFileIsNotConverted() throws Exception {
+        File resultsFile = copyOfResource("/jtl4-truncated.jtl", ".jtl");
+        ResultScanner fileScanner = new ResultScannerXML(true, true, false, Collections.emptyList()).setUseResultsSidecar(true);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(ResultsSidecar.fileFor(resultsFile)).doesNotExist();
+        assertThat(resultsFile.getParentFile().listFiles((dir, name) -> name.startsWith(ResultsSidecar.fileFor(resultsFile).getName()))).isEmpty();
+    }
+}
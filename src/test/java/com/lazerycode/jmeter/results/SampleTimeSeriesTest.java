@@ -0,0 +1,74 @@
+package com.lazerycode.jmeter.results;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SampleTimeSeriesTest {
+
+    private static final long START = 1548568300000L;
+
+    @Test
+    public void samplesAreCountedPerSecond() {
+        SampleTimeSeries timeSeries = new SampleTimeSeries();
+        timeSeries.record(START + 2500, true);
+        timeSeries.record(START + 2999, false);
+        timeSeries.record(START + 500, false);
+        timeSeries.record(START + 5000, true);
+
+        assertThat(timeSeries.getFirstTimeStamp()).isEqualTo(START + 500);
+        assertThat(timeSeries.getLastTimeStamp()).isEqualTo(START + 5000);
+        assertThat(timeSeries.getBucketCount()).isEqualTo(6);
+        assertThat(timeSeries.getBucketStart(0)).isEqualTo(START);
+        assertThat(timeSeries.getSamples(0)).isEqualTo(1);
+        assertThat(timeSeries.getErrors(0)).isEqualTo(1);
+        assertThat(timeSeries.getSamples(2)).isEqualTo(2);
+        assertThat(timeSeries.getErrors(2)).isEqualTo(1);
+        assertThat(timeSeries.getSamples(5)).isEqualTo(1);
+        assertThat(timeSeries.getErrors(5)).isEqualTo(0);
+    }
+
+    @Test
+    public void seriesGrowInBothDirections() {
+        SampleTimeSeries timeSeries = new SampleTimeSeries();
+        timeSeries.record(START + 3_000_000, true);
+        timeSeries.record(START, true);
+        timeSeries.record(START + 5_000_000, false);
+
+        assertThat(timeSeries.getBucketCount()).isEqualTo(5001);
+        assertThat(timeSeries.getSamples(0)).isEqualTo(1);
+        assertThat(timeSeries.getSamples(3000)).isEqualTo(1);
+        assertThat(timeSeries.getErrors(5000)).isEqualTo(1);
+    }
+
+    @Test
+    public void seriesAreMerged() {
+        SampleTimeSeries first = new SampleTimeSeries();
+        first.record(START + 10_000, false);
+        SampleTimeSeries second = new SampleTimeSeries();
+        second.record(START, true);
+        second.record(START + 10_500, true);
+        first.add(second);
+        first.add(new SampleTimeSeries());
+
+        assertThat(first.getFirstTimeStamp()).isEqualTo(START);
+        assertThat(first.getBucketStart(0)).isEqualTo(START);
+        assertThat(first.getSamples(10)).isEqualTo(2);
+        assertThat(first.getErrors(10)).isEqualTo(1);
+    }
+
+    @Test
+    public void samplesWithoutTimeStampOrTooFarApartAreIgnored() {
+        SampleTimeSeries timeSeries = new SampleTimeSeries();
+        timeSeries.record(-1, true);
+
+        assertThat(timeSeries.isEmpty()).isTrue();
+
+        timeSeries.record(START, true);
+        timeSeries.record(0, true);
+        timeSeries.record(START + SampleTimeSeries.MAXIMUM_BUCKETS * SampleTimeSeries.BUCKET_MILLIS, true);
+
+        assertThat(timeSeries.getBucketCount()).isEqualTo(1);
+        assertThat(timeSeries.getLastTimeStamp()).isEqualTo(START);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.lazerycode.jmeter.json.ResultsBaseline;
+import com.lazerycode.jmeter.results.ResultScanner;
+import com.lazerycode.jmeter.results.ResultScannerCSV;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BaselineComparisonTest {
+
+    /**
+     * Create a baseline of 1000 samples per label, started every intervalInMillis and taking elapsedInMillis.
+     */
+    private ResultsBaseline baseline(long elapsedInMillis, long intervalInMillis, String... labels) throws Exception {
+        StringBuilder contents = new StringBuilder("timeStamp,elapsed,label,success\n");
+        for (int i = 0; i < 1000; i++) {
+            for (String label : labels) {
+                contents.append(1548568300000L + i * intervalInMillis).append(",").append(elapsedInMillis).append(",").append(label).append(",true\n");
+            }
+        }
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        resultsFile.deleteOnExit();
+        Files.write(resultsFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+        ResultScanner resultScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        resultScanner.parseResultFile(resultsFile);
+        return new ResultsBaseline("test-execution", resultScanner.getStatistics());
+    }
+
+    @Test
+    public void noRegressionWithinThresholds() throws Exception {
+        BaselineComparison comparison = new BaselineComparison(baseline(100, 10, "login", "search"), baseline(105, 10, "login", "search"), 10, 10);
+        comparison.runChecks();
+
+        assertThat(comparison.hasRegressions()).isFalse();
+        assertThat(comparison.getComparisons()).hasSize(3);
+        assertThat(comparison.getComparisons().get(1)).startsWith("'login': p95 elapsed 100ms -> 105ms (+5.0%)");
+    }
+
+    @Test
+    public void p95RegressionIsDetected() throws Exception {
+        BaselineComparison comparison = new BaselineComparison(baseline(100, 10, "login"), baseline(150, 10, "login"), 10, 10);
+        comparison.runChecks();
+
+        assertThat(comparison.hasRegressions()).isTrue();
+        assertThat(comparison.getRegressions()).containsExactly(
+                "p95 elapsed time of all samples regressed by 50.0% (100ms -> 150ms), above accepted 10.0%",
+                "p95 elapsed time of 'login' regressed by 50.0% (100ms -> 150ms), above accepted 10.0%");
+    }
+
+    @Test
+    public void throughputRegressionIsDetected() throws Exception {
+        BaselineComparison comparison = new BaselineComparison(baseline(0, 10, "login"), baseline(0, 20, "login"), 10, 25);
+        comparison.runChecks();
+
+        assertThat(comparison.getRegressions()).hasSize(2);
+        assertThat(comparison.getRegressions().get(1)).startsWith("Throughput of 'login' regressed by 50.0% (100.1/s -> 50.05/s)");
+    }
+
+    @Test
+    public void labelsMissingFromCurrentResultsAreReported() throws Exception {
+        BaselineComparison comparison = new BaselineComparison(baseline(100, 10, "login", "search"), baseline(100, 10, "login"), 10, 60);
+        comparison.runChecks();
+
+        assertThat(comparison.getLabelsNotFound()).containsExactly("search");
+        assertThat(comparison.hasRegressions()).isFalse();
+    }
+
+    @Test
+    public void checksNeedToRunFirst() throws Exception {
+        BaselineComparison comparison = new BaselineComparison(baseline(100, 10, "login"), baseline(100, 10, "login"), 10, 10);
+
+        assertThatThrownBy(comparison::hasRegressions).isInstanceOf(IllegalStateException.class);
+    }
+}
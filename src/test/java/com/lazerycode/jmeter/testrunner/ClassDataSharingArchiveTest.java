@@ -0,0 +1,58 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassDataSharingArchiveTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File createJMeterDirectory() throws Exception {
+        File jmeterDirectory = temporaryFolder.newFolder("jmeter");
+        Files.createDirectories(jmeterDirectory.toPath().resolve("bin"));
+        Files.createDirectories(jmeterDirectory.toPath().resolve("lib/ext"));
+        Files.write(jmeterDirectory.toPath().resolve("bin/ApacheJMeter.jar"), new byte[]{1});
+        Files.write(jmeterDirectory.toPath().resolve("lib/ext/ApacheJMeter_core.jar"), new byte[]{2});
+        Files.write(jmeterDirectory.toPath().resolve("lib/readme.txt"), new byte[]{3});
+
+        return jmeterDirectory;
+    }
+
+    @Test
+    public void archiveIsReusedWhileTheJarsAndJavaRuntimeAreUnchanged() throws Exception {
+        File jmeterDirectory = createJMeterDirectory();
+        File cacheDirectory = temporaryFolder.newFolder("cache");
+
+        ClassDataSharingArchive archive = ClassDataSharingArchive.forJMeterDirectory(cacheDirectory, jmeterDirectory, "java");
+        Files.write(jmeterDirectory.toPath().resolve("lib/readme.txt"), new byte[]{3, 4});
+
+        assertThat(archive.getFile().getParentFile()).isEqualTo(cacheDirectory);
+        assertThat(archive.getFile().getName()).endsWith(ClassDataSharingArchive.ARCHIVE_EXTENSION);
+        assertThat(archive.getJVMArgument()).isEqualTo("-XX:SharedArchiveFile=" + archive.getFile().getAbsolutePath());
+        assertThat(ClassDataSharingArchive.forJMeterDirectory(cacheDirectory, jmeterDirectory, "java").getFile()).isEqualTo(archive.getFile());
+        assertThat(ClassDataSharingArchive.forJMeterDirectory(cacheDirectory, jmeterDirectory, "/opt/jdk/bin/java").getFile()).isNotEqualTo(archive.getFile());
+
+        Files.write(jmeterDirectory.toPath().resolve("lib/ext/ApacheJMeter_core.jar"), new byte[]{2, 2});
+
+        assertThat(ClassDataSharingArchive.forJMeterDirectory(cacheDirectory, jmeterDirectory, "java").getFile()).isNotEqualTo(archive.getFile());
+    }
+
+    @Test
+    public void failedTrainingRunDoesNotLeaveAnArchive() throws Exception {
+        File jmeterDirectory = createJMeterDirectory();
+        ClassDataSharingArchive archive = ClassDataSharingArchive.forJMeterDirectory(temporaryFolder.newFolder("cache"), jmeterDirectory, "java");
+
+        boolean created = archive.create(new JMeterProcessJVMSettings(), new File(jmeterDirectory, "bin"), "ApacheJMeter.jar");
+
+        assertThat(created).isFalse();
+        assertThat(archive.exists()).isFalse();
+    }
+}
@@ -0,0 +1,48 @@
+package com.lazerycode.jmeter.testrunner;
+
+import java.io.IOException;
+
+/**
+ * Stands in for the JMeter launcher in worker tests, every pair of arguments is a command and its value.
+ */
+public class FakeJMeterLauncher {
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "-j":
+                    System.setProperty("jmeter.logfile", value);
+                    break;
+                case "log":
+                    FakeLogManager.log(value);
+                    break;
+                case "print":
+                    System.out.println(value);
+                    break;
+                case "property":
+                    System.out.println(value + "=" + System.getProperty(value));
+                    System.setProperty(value, "set");
+                    break;
+                case "thread":
+                    Thread thread = new Thread(() -> {
+                        try {
+                            Thread.sleep(500);
+                        } catch (InterruptedException ignored) {
+                            Thread.currentThread().interrupt();
+                        }
+                        System.out.println(value);
+                    });
+                    thread.start();
+                    break;
+                case "fail":
+                    throw new IllegalStateException(value);
+                case "exit":
+                    System.exit(Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException(args[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.lazerycode.jmeter.testrunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stands in for the log4j LogManager in worker tests (see {@link FakeJMeterLauncher} and
+ * {@link JMeterWorkerBootstrap#LOG_MANAGER_PROPERTY}), with only the methods the worker bootstrap calls to configure
+ * logging again between tests. Like log4j, the log file is taken from the jmeter.logfile system property when logging
+ * is first used, and only changes when the logging context is reconfigured.
+ */
+public final class FakeLogManager {
+
+    private static String logFile;
+
+    private FakeLogManager() {
+    }
+
+    public static FakeLogManager getContext(ClassLoader loader, boolean currentContext) {
+        return new FakeLogManager();
+    }
+
+    public void reconfigure() {
+        logFile = System.getProperty("jmeter.logfile");
+    }
+
+    public static synchronized void log(String message) throws IOException {
+        if (null == logFile) {
+            logFile = System.getProperty("jmeter.logfile");
+        }
+        Files.write(Paths.get(logFile), (message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -102,6 +102,41 @@ public class JMeterProcessBuilderTest {
 
     }
 
+    @Test
+    public void workerBootstrapIsRunInsteadOfTheRuntimeJar() throws MojoExecutionException {
+        File workingDirectory = new File(this.getClass().getResource("/").getFile());
+        File bootstrapDirectory = new File(workingDirectory, "worker");
+        JMeterProcessJVMSettings jMeterProcessJVMSettings = new JMeterProcessJVMSettings().addArgument("foo");
+        String runtimeJarName = "jmeter";
+        JMeterProcessBuilder jMeterProcessBuilder = new JMeterProcessBuilder(jMeterProcessJVMSettings, runtimeJarName)
+                .setWorkingDirectory(workingDirectory)
+                .setWorkerBootstrapClasspath(bootstrapDirectory);
+
+        assertThat(jMeterProcessBuilder.constructArgumentsList()).containsExactly(
+                jMeterProcessJVMSettings.getJavaRuntime(),
+                String.format("-Xms%sM", jMeterProcessJVMSettings.getXms()),
+                String.format("-Xmx%sM", jMeterProcessJVMSettings.getXmx()),
+                "foo",
+                "-Djmeter.home=" + workingDirectory.getAbsoluteFile().getParent(),
+                "-cp",
+                bootstrapDirectory.getAbsolutePath() + File.pathSeparator + runtimeJarName,
+                JMeterWorkerBootstrap.class.getName()
+        );
+    }
+
+    @Test
+    public void outputIsRedirectedToTheOutputFile() throws MojoExecutionException {
+        File workingDirectory = new File(this.getClass().getResource("/").getFile());
+        File outputFile = new File(workingDirectory, "jmeter-output.log");
+        ProcessBuilder processBuilder = new JMeterProcessBuilder(new JMeterProcessJVMSettings(), "jmeter")
+                .setWorkingDirectory(workingDirectory)
+                .setOutputFile(outputFile)
+                .build();
+
+        assertThat(processBuilder.redirectErrorStream()).isTrue();
+        assertThat(processBuilder.redirectOutput().file()).isEqualTo(outputFile);
+    }
+
     @Test(expected = MojoExecutionException.class)
     public void invalidWorkingDirectoryThrowsMojoExecutionException() throws MojoExecutionException {
         JMeterProcessJVMSettings jMeterProcessJVMSettings = new JMeterProcessJVMSettings();
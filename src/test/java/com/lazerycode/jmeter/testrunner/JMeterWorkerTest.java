@@ -0,0 +1,93 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JMeterWorkerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> output = new CopyOnWriteArrayList<>();
+    private JMeterWorker worker;
+
+    @Before
+    public void startWorker() throws Exception {
+        File workingDirectory = temporaryFolder.newFolder("bin");
+        // The test classes stand in for the JMeter runtime jar
+        String testClasses = new File(FakeJMeterLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        JMeterProcessJVMSettings jvmSettings = new JMeterProcessJVMSettings()
+                .addArgument("-D" + JMeterWorkerBootstrap.LOG_MANAGER_PROPERTY + "=" + FakeLogManager.class.getName());
+        JMeterProcessBuilder processBuilder = new JMeterProcessBuilder(jvmSettings, testClasses)
+                .setWorkingDirectory(workingDirectory);
+        worker = JMeterWorker.start(processBuilder, temporaryFolder.newFolder("worker"), FakeJMeterLauncher.class.getName(), Charset.defaultCharset(), output::add);
+    }
+
+    @After
+    public void stopWorker() {
+        worker.close();
+    }
+
+    @Test
+    public void testsAreRunOneAfterAnotherInTheSameJVM() throws Exception {
+        assertThat(worker.run(Arrays.asList("print", "first"), output::add)).isEqualTo(0);
+        assertThat(worker.run(Arrays.asList("print", "second"), output::add)).isEqualTo(0);
+
+        assertThat(output).containsExactly("first", "second");
+        assertThat(worker.isAlive()).isTrue();
+    }
+
+    @Test
+    public void systemPropertiesAreRestoredAfterEachTest() throws Exception {
+        worker.run(Arrays.asList("property", "worker.test"), output::add);
+        worker.run(Arrays.asList("property", "worker.test"), output::add);
+
+        assertThat(output).containsExactly("worker.test=null", "worker.test=null");
+    }
+
+    @Test
+    public void everyTestLogsToItsOwnLogFile() throws Exception {
+        File firstLogFile = new File(temporaryFolder.getRoot(), "first.jmx.log");
+        File secondLogFile = new File(temporaryFolder.getRoot(), "second.jmx.log");
+        worker.run(Arrays.asList("-j", firstLogFile.getAbsolutePath(), "log", "first"), output::add);
+        worker.run(Arrays.asList("-j", secondLogFile.getAbsolutePath(), "log", "second"), output::add);
+
+        assertThat(firstLogFile).hasContent("first");
+        assertThat(secondLogFile).hasContent("second");
+    }
+
+    @Test
+    public void testCompletesOnceItsThreadsHaveEnded() throws Exception {
+        assertThat(worker.run(Arrays.asList("thread", "from thread", "print", "from main"), output::add)).isEqualTo(0);
+
+        assertThat(output).containsExactly("from main", "from thread");
+    }
+
+    @Test
+    public void failingTestDoesNotEndTheWorker() throws Exception {
+        assertThat(worker.run(Arrays.asList("fail", "broken"), line -> {
+        })).isEqualTo(1);
+
+        assertThat(worker.run(Arrays.asList("print", "still running"), output::add)).isEqualTo(0);
+        assertThat(output).containsExactly("still running");
+    }
+
+    @Test
+    public void testExitingTheJVMEndsTheWorker() throws Exception {
+        assertThat(worker.run(Arrays.asList("exit", "3"), output::add)).isEqualTo(3);
+
+        assertThat(worker.isAlive()).isFalse();
+    }
+}
@@ -1,17 +1,23 @@
 package com.lazerycode.jmeter.testrunner;
 
+import com.lazerycode.jmeter.results.FailureMessageMatchMode;
+import com.lazerycode.jmeter.results.LabelSummary;
+import com.lazerycode.jmeter.results.ResponseTimeMetric;
 import com.lazerycode.jmeter.results.ResultScannerCSV;
 import com.lazerycode.jmeter.results.ResultScanner;
 import com.lazerycode.jmeter.results.ResultScannerXML;
+import com.lazerycode.jmeter.results.SampleStatistics;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Test;
 
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 public class ResultScannerTest {
 
@@ -23,11 +29,15 @@ public class ResultScannerTest {
     private static final List<String> DEFAULT_FAILURE_LIST = new ArrayList<>();
     private final URL jtlFailingResultsFileURL = this.getClass().getResource("/jtl2-1-fail.jtl");
     private final URL jtlPassingResultsFileURL = this.getClass().getResource("/jtl2-1-pass.jtl");
+    private final URL jtlWithAssertionsResultsFileURL = this.getClass().getResource("/jtl3-assertions.jtl");
+    private final URL jtlTruncatedResultsFileURL = this.getClass().getResource("/jtl4-truncated.jtl");
+    private final URL emptyJTLFileURL = this.getClass().getResource("/empty.jtl");
     private final URL csvFailingResultsFileURL = this.getClass().getResource("/csv2-1-fail.csv");
     private final URL csvPassingResultsFileURL = this.getClass().getResource("/csv2-1-pass.csv");
     private final URL emptyCSVFileURL = this.getClass().getResource("/empty.csv");
     private final URL csvMissingDelimiterFileURL = this.getClass().getResource("/csv-missing-delimiter.csv");
     private final URL csvWithAlternateSeparatorPassingResultsFileURL = this.getClass().getResource("/csv3-1-pass.csv");
+    private final URL csvWithQuotedFieldsResultsFileURL = this.getClass().getResource("/csv4-quoted-fields.csv");
 
     @Test
     public void jtlFileWithFailuresCountSuccessAndFailures() throws Exception {
@@ -107,6 +117,51 @@ public class ResultScannerTest {
         assertThat(fileScanner.getTotalCount()).isEqualTo(0);
     }
 
+    @Test
+    public void jtlFileOnlyCountsTopLevelSamples() throws Exception {
+        File resultsFile = new File(jtlWithAssertionsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(2);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void jtlFileOnlyCountMatchingFailureMessages() throws Exception {
+        File resultsFile = new File(jtlWithAssertionsResultsFileURL.toURI());
+        List<String> failureMessages = new ArrayList<>();
+        failureMessages.add("too slow");
+        failureMessages.add("FailureMessageNotFound");
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, true, failureMessages);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(1);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(2);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void truncatedJtlFileCountsSamplesBeforeTheError() throws Exception {
+        File resultsFile = new File(jtlTruncatedResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(1);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(1);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void emptyJtlFileHasNoResults() throws Exception {
+        File resultsFile = new File(emptyJTLFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getTotalCount()).isEqualTo(0);
+    }
+
     @Test
     public void csvFileWithFailuresCountSuccessAndFailures() throws Exception {
         File resultsFile = new File(csvFailingResultsFileURL.toURI());
@@ -152,6 +207,121 @@ public class ResultScannerTest {
         assertThat(fileScanner.getTotalCount()).isEqualTo(2);
     }
 
+    @Test
+    public void csvFileWithQuotedFieldsCountSuccessAndFailures() throws Exception {
+        File resultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(1);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void csvFileWithQuotedFieldsOnlyCountMatchingFailureMessages() throws Exception {
+        File resultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        List<String> failureMessages = new ArrayList<>();
+        failureMessages.add("it went \"WRONG\", again!");
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, true, failureMessages);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(1);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void csvMultipleFilesScannedInParallel() throws Exception {
+        File failingResultsFile = new File(csvFailingResultsFileURL.toURI());
+        File passingResultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        List<String> failureMessages = new ArrayList<>();
+        failureMessages.add("It went wrong!");
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, failureMessages).setScanThreads(4);
+        fileScanner.parseResultFiles(Arrays.asList(failingResultsFile, passingResultsFile, failingResultsFile));
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(6);
+        assertThat(fileScanner.getSuccessCount()).isEqualTo(1);
+        assertThat(fileScanner.getTotalCount()).isEqualTo(7);
+    }
+
+    @Test
+    public void statisticsAreNotCollectedByDefault() throws Exception {
+        File resultsFile = new File(csvFailingResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getStatistics()).isNull();
+    }
+
+    @Test
+    public void csvFileCollectResponseTimeStatistics() throws Exception {
+        File resultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST).setCollectStatistics(true);
+        fileScanner.parseResultFile(resultsFile);
+        SampleStatistics statistics = fileScanner.getStatistics();
+
+        assertThat(statistics.getLabels()).containsExactly("test-request");
+        assertThat(statistics.getTotalHistogram(ResponseTimeMetric.ELAPSED).getTotalCount()).isEqualTo(3);
+        assertThat(statistics.getTotalHistogram(ResponseTimeMetric.ELAPSED).getMinValue()).isEqualTo(1330);
+        assertThat(statistics.getHistogram(ResponseTimeMetric.ELAPSED, "test-request").getValueAtPercentile(95)).isBetween(2550L, 2551L);
+        assertThat(statistics.getHistogram(ResponseTimeMetric.LATENCY, "test-request").getMaxValue()).isEqualTo(0);
+        assertThat(statistics.getHistogram(ResponseTimeMetric.ELAPSED, "unknown")).isNull();
+    }
+
+    @Test
+    public void csvFileCollectLabelSummaries() throws Exception {
+        File resultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST).setCollectStatistics(true);
+        fileScanner.parseResultFile(resultsFile);
+        LabelSummary summary = fileScanner.getStatistics().getSummary("test-request");
+
+        assertThat(summary.getSamples()).isEqualTo(3);
+        assertThat(summary.getErrors()).isEqualTo(2);
+        assertThat(summary.getErrorPercentage()).isEqualTo(66.67);
+        assertThat(summary.getMinElapsed()).isEqualTo(1330);
+        assertThat(summary.getMaxElapsed()).isEqualTo(2550);
+        assertThat(summary.getMeanElapsed()).isCloseTo(2143.33, within(0.01));
+        assertThat(summary.getThroughput()).isCloseTo(3000.0 / 2552, within(0.0001));
+        assertThat(fileScanner.getStatistics().getTotalSummary().getSamples()).isEqualTo(3);
+        assertThat(fileScanner.getStatistics().getSummary("unknown")).isNull();
+    }
+
+    @Test
+    public void csvMultipleFilesScannedInParallelCollectResponseTimeStatistics() throws Exception {
+        File failingResultsFile = new File(csvFailingResultsFileURL.toURI());
+        File quotedResultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST)
+                .setScanThreads(4)
+                .setCollectStatistics(true);
+        fileScanner.parseResultFiles(Arrays.asList(failingResultsFile, quotedResultsFile, failingResultsFile));
+
+        assertThat(fileScanner.getStatistics().getTotalHistogram(ResponseTimeMetric.ELAPSED).getTotalCount()).isEqualTo(fileScanner.getTotalCount());
+        assertThat(fileScanner.getStatistics().getHistogram(ResponseTimeMetric.CONNECT, "test-request").getTotalCount()).isEqualTo(fileScanner.getTotalCount());
+    }
+
+    @Test
+    public void jtlFileCollectResponseTimeStatisticsForTopLevelSamples() throws Exception {
+        File resultsFile = new File(jtlWithAssertionsResultsFileURL.toURI());
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST).setCollectStatistics(true);
+        fileScanner.parseResultFile(resultsFile);
+        SampleStatistics statistics = fileScanner.getStatistics();
+
+        assertThat(statistics.getLabels()).containsExactly("/my_webapp/root/auth", "/my_webapp/root/portal", "JSR223 Sampler");
+        assertThat(statistics.getTotalHistogram(ResponseTimeMetric.ELAPSED).getTotalCount()).isEqualTo(4);
+        assertThat(statistics.getHistogram(ResponseTimeMetric.ELAPSED, "JSR223 Sampler").getTotalCount()).isEqualTo(2);
+        assertThat(statistics.getHistogram(ResponseTimeMetric.CONNECT, "JSR223 Sampler")).isNull();
+        assertThat(statistics.getSummary("JSR223 Sampler").getErrors()).isEqualTo(1);
+        assertThat(statistics.getTotalSummary().getErrors()).isEqualTo(2);
+        assertThat(statistics.getTotalSummary().getThroughput()).isCloseTo(4000.0 / 1187, within(0.0001));
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void invalidCSVFileScannedInParallelThrowsIOException() throws Exception {
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST).setScanThreads(2);
+        fileScanner.parseResultFiles(Arrays.asList(new File(csvFailingResultsFileURL.toURI()), new File("/")));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void emptyCSVFileThrowsIllegalArgumentException() throws Exception {
         File resultsFile = new File(emptyCSVFileURL.toURI());
@@ -179,6 +349,31 @@ public class ResultScannerTest {
         assertThat(fileScanner.getTotalCount()).isEqualTo(1);
     }
 
+    @Test
+    public void csvFileOnlyCountFailureMessagesContainingSearchedMessages() throws Exception {
+        File resultsFile = new File(csvWithQuotedFieldsResultsFileURL.toURI());
+        List<String> failureMessages = new ArrayList<>();
+        failureMessages.add("\"WRONG\"");
+        failureMessages.add("FailureMessageNotFound");
+        ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, true, failureMessages)
+                .setFailureMessageMatchMode(FailureMessageMatchMode.CONTAINS);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void jtlFileOnlyCountFailureMessagesMatchingRegex() throws Exception {
+        File resultsFile = new File(jtlWithAssertionsResultsFileURL.toURI());
+        List<String> failureMessages = new ArrayList<>();
+        failureMessages.add("^(it went|too) ");
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, true, failureMessages)
+                .setFailureMessageMatchMode(FailureMessageMatchMode.REGEX);
+        fileScanner.parseResultFile(resultsFile);
+
+        assertThat(fileScanner.getFailureCount()).isEqualTo(2);
+    }
+
     @Test
     public void csvFileOnlyCountMatchingFailureMessagesThatAreNotFound() throws Exception {
         File resultsFile = new File(csvFailingResultsFileURL.toURI());
@@ -226,4 +421,11 @@ public class ResultScannerTest {
         ResultScanner fileScanner = new ResultScannerCSV(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
         fileScanner.parseResultFile(resultsFile);
     }
+
+    @Test(expected = MojoExecutionException.class)
+    public void invalidJTLileScannedAsXMLThrowsIOException() throws Exception {
+        File resultsFile = new File("/");
+        ResultScanner fileScanner = new ResultScannerXML(COUNT_SUCCESSES, COUNT_FAILURES, DEFAULT_ONLY_FAIL_WHEN_MATCHING_FAILURE_MESSAGES, DEFAULT_FAILURE_LIST);
+        fileScanner.parseResultFile(resultsFile);
+    }
 }
@@ -0,0 +1,88 @@
+package com.lazerycode.jmeter.testrunner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lazerycode.jmeter.configuration.LiveAbortRule;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RunTelemetryTest {
+
+    private static String intervalLine(int samples, double throughput, int errors, String errorPercentage) {
+        return String.format("summary + %6d in 00:00:05 = %6.1f/s Avg:   150 Min:   100 Max:   200 Err: %5d (%s%%) Active: 5 Started: 5 Finished: 0",
+                samples, throughput, errors, errorPercentage);
+    }
+
+    @Test
+    public void testIsStoppedOnceTheRuleIsBrokenInConsecutiveIntervals() {
+        LiveAbortRule rule = new LiveAbortRule();
+        rule.setMaximumErrorPercentage(50.0);
+        rule.setConsecutiveIntervals(2);
+        AtomicInteger stops = new AtomicInteger();
+        RunTelemetry telemetry = new RunTelemetry("test.jmx", "").setAbortRule(rule).setStopAction(stops::incrementAndGet);
+
+        telemetry.accept(intervalLine(100, 20, 60, "60.00"));
+        telemetry.accept(intervalLine(100, 20, 10, "10.00"));
+        telemetry.accept(intervalLine(100, 20, 60, "60.00"));
+
+        assertThat(telemetry.isAborted()).isFalse();
+
+        telemetry.accept("an unrelated line");
+        telemetry.accept(intervalLine(100, 20, 70, "70.00"));
+        telemetry.accept(intervalLine(100, 20, 80, "80.00"));
+
+        assertThat(telemetry.isAborted()).isTrue();
+        assertThat(telemetry.getAbortReason()).contains("70.00%");
+        assertThat(stops.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIsStoppedWhenThroughputCollapses() {
+        LiveAbortRule rule = new LiveAbortRule();
+        rule.setMinimumThroughput(10.0);
+        RunTelemetry telemetry = new RunTelemetry("test.jmx", "").setAbortRule(rule);
+
+        telemetry.accept(intervalLine(100, 20, 0, "0.00"));
+        telemetry.accept("summary =    100 in 00:00:05 =   20.0/s Avg:   150 Min:   100 Max:   200 Err:     0 (0.00%)");
+
+        assertThat(telemetry.isAborted()).isFalse();
+
+        telemetry.accept(intervalLine(5, 1, 0, "0.00"));
+
+        assertThat(telemetry.isAborted()).isTrue();
+    }
+
+    @Test
+    public void metricsAreWrittenAsJsonLines() throws Exception {
+        File metricsFile = Files.createTempFile("metrics_", ".jsonl").toFile();
+        metricsFile.deleteOnExit();
+        try (RunTelemetry telemetry = new RunTelemetry("test.jmx", "").setMetricsFile(metricsFile)) {
+            telemetry.accept(intervalLine(100, 20, 1, "1.00"));
+            telemetry.accept("summary =    250 in 00:00:12 =   20.8/s Avg:   140 Min:    90 Max:   310 Err:     2 (0.80%)");
+
+            assertThat(telemetry.getProgress())
+                    .isEqualTo(String.format("Progress: 250 samples in 12s, %.2f%% errors | last interval: %.1f/s, avg 150 ms, %.2f%% errors, 5 active threads", 0.8, 20.0, 1.0));
+        }
+
+        List<String> lines = Files.readAllLines(metricsFile.toPath());
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode interval = mapper.readTree(lines.get(0));
+        JsonNode total = mapper.readTree(lines.get(1));
+
+        assertThat(lines).hasSize(2);
+        assertThat(interval.get("test").asText()).isEqualTo("test.jmx");
+        assertThat(interval.get("type").asText()).isEqualTo("interval");
+        assertThat(interval.get("samples").asLong()).isEqualTo(100);
+        assertThat(interval.get("activeThreads").asInt()).isEqualTo(5);
+        assertThat(total.get("type").asText()).isEqualTo("total");
+        assertThat(total.get("elapsedSeconds").asLong()).isEqualTo(12);
+        assertThat(total.get("errorPercentage").asDouble()).isEqualTo(0.8);
+        assertThat(total.has("activeThreads")).isFalse();
+    }
+}
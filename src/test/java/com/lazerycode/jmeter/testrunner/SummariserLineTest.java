@@ -0,0 +1,46 @@
+package com.lazerycode.jmeter.testrunner;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class SummariserLineTest {
+
+    @Test
+    public void intervalLineIsParsed() {
+        SummariserLine line = SummariserLine.parse("summary +     15 in 00:00:05 =    3.0/s Avg:   150 Min:   100 Max:   200 Err:     1 (6.67%) Active: 5 Started: 6 Finished: 1");
+
+        assertThat(line).isNotNull();
+        assertThat(line.isTotal()).isFalse();
+        assertThat(line.getSamples()).isEqualTo(15);
+        assertThat(line.getElapsedSeconds()).isEqualTo(5);
+        assertThat(line.getThroughput()).isCloseTo(3.0, within(0.001));
+        assertThat(line.getAverage()).isEqualTo(150);
+        assertThat(line.getMinimum()).isEqualTo(100);
+        assertThat(line.getMaximum()).isEqualTo(200);
+        assertThat(line.getErrors()).isEqualTo(1);
+        assertThat(line.getErrorPercentage()).isCloseTo(6.67, within(0.001));
+        assertThat(line.getActiveThreads()).isEqualTo(5);
+    }
+
+    @Test
+    public void totalLineWithALogPrefixAndDecimalCommasIsParsed() {
+        SummariserLine line = SummariserLine.parse("2024-01-02 10:11:12,345 INFO o.a.j.r.Summariser: summary =  12345 in 01:02:03 = 3318,5/s Avg:    12 Min:     0 Max:  2001 Err:   120 (0,97%)");
+
+        assertThat(line).isNotNull();
+        assertThat(line.isTotal()).isTrue();
+        assertThat(line.getSamples()).isEqualTo(12345);
+        assertThat(line.getElapsedSeconds()).isEqualTo(3723);
+        assertThat(line.getThroughput()).isCloseTo(3318.5, within(0.001));
+        assertThat(line.getErrorPercentage()).isCloseTo(0.97, within(0.001));
+        assertThat(line.getActiveThreads()).isEqualTo(-1);
+    }
+
+    @Test
+    public void otherLinesAreIgnored() {
+        assertThat(SummariserLine.parse("Starting standalone test @ 2024 Jan 2 10:11:12 CET (1704186672000)")).isNull();
+        assertThat(SummariserLine.parse("summary of the test: nothing to see")).isNull();
+        assertThat(SummariserLine.parse("")).isNull();
+    }
+}
@@ -1,10 +1,17 @@
 package com.lazerycode.jmeter.testrunner;
 
+import com.lazerycode.jmeter.configuration.ResponseTimeThreshold;
+import com.lazerycode.jmeter.configuration.TimeWindowRule;
+import com.lazerycode.jmeter.results.ResponseTimeMetric;
 import com.lazerycode.jmeter.results.ResultScanner;
+import com.lazerycode.jmeter.results.ResultScannerCSV;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -12,14 +19,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class TestFailureDeciderTest {
     private static class MockResultScanner extends ResultScanner {
 
-        public MockResultScanner(int successCount, int failureCount) {
+        public MockResultScanner(long successCount, long failureCount) {
             super(true, true, true, Collections.emptyList());
             this.successCount = successCount;
             this.failureCount = failureCount;
         }
 
         @Override
-        public int getSuccessCount() {
+        public long getSuccessCount() {
             return successCount;
         }
 
@@ -29,12 +36,12 @@ public class TestFailureDeciderTest {
         }
 
         @Override
-        public int getFailureCount() {
+        public long getFailureCount() {
             return failureCount;
         }
 
         @Override
-        public int getTotalCount() {
+        public long getTotalCount() {
             return getSuccessCount() + getFailureCount();
         }
 
@@ -159,4 +166,165 @@ public class TestFailureDeciderTest {
         assertThat(decider.getErrorPercentageThreshold()).isEqualTo(2);
         assertThat(decider.isIgnoreResultFailures()).isFalse();
     }
+
+    @Test
+    public void errorRateBeyondIntegerRange() {
+        ResultScanner resultScanner = new MockResultScanner(3_000_000_000L, 1_000_000_000L);
+        TestFailureDecider decider = new TestFailureDecider(false, 20, resultScanner);
+        decider.runChecks();
+
+        assertThat(decider.getErrorPercentage()).isEqualTo(25);
+        assertThat(decider.failBuild()).isTrue();
+    }
+
+    private ResultScanner scannerWithStatistics() throws Exception {
+        ResultScanner resultScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        resultScanner.parseResultFile(new File(this.getClass().getResource("/csv2-1-pass.csv").toURI()));
+        return resultScanner;
+    }
+
+    private ResponseTimeThreshold threshold(String label, ResponseTimeMetric metric, double percentile, long maximum) {
+        ResponseTimeThreshold threshold = new ResponseTimeThreshold();
+        threshold.setLabel(label);
+        threshold.setMetric(metric);
+        threshold.setPercentile(percentile);
+        threshold.setMaximum(maximum);
+        return threshold;
+    }
+
+    @Test
+    public void testResponseTimeThresholdExceeded() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 0, scannerWithStatistics())
+                .setResponseTimeThresholds(Collections.singletonList(threshold(null, ResponseTimeMetric.ELAPSED, 95, 1000)));
+        decider.runChecks();
+
+        assertThat(decider.isErrorPercentageAboveThreshold()).isFalse();
+        assertThat(decider.getResponseTimeThresholdViolations()).hasSize(1);
+        assertThat(decider.failBuild()).isTrue();
+    }
+
+    @Test
+    public void testResponseTimeThresholdsNotExceeded() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 0, scannerWithStatistics())
+                .setResponseTimeThresholds(Arrays.asList(
+                        threshold("test-request", ResponseTimeMetric.ELAPSED, 99, 3000),
+                        threshold(null, ResponseTimeMetric.LATENCY, 95, 0)
+                ));
+        decider.runChecks();
+
+        assertThat(decider.getResponseTimeThresholdViolations()).isEmpty();
+        assertThat(decider.failBuild()).isFalse();
+    }
+
+    @Test
+    public void testResponseTimeThresholdWithUnknownLabel() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 0, scannerWithStatistics())
+                .setResponseTimeThresholds(Collections.singletonList(threshold("unknown-label", ResponseTimeMetric.ELAPSED, 95, 3000)));
+        decider.runChecks();
+
+        assertThat(decider.getResponseTimeThresholdViolations()).containsExactly(
+                "No elapsed times found for 'unknown-label', p95.0 threshold of 3000ms cannot be checked");
+        assertThat(decider.failBuild()).isTrue();
+    }
+
+    @Test
+    public void testIgnoreResponseTimeThresholdExceeded() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(true, 0, scannerWithStatistics())
+                .setResponseTimeThresholds(Collections.singletonList(threshold(null, ResponseTimeMetric.ELAPSED, 50, 0)));
+        decider.runChecks();
+
+        assertThat(decider.getResponseTimeThresholdViolations()).isNotEmpty();
+        assertThat(decider.failBuild()).isFalse();
+    }
+
+    /**
+     * Create a scanner that has scanned one sample every 100ms for the given number of seconds, the samples of the
+     * seconds in [failingFrom, failingTo) fail and only one sample per second is written in [slowFrom, slowTo).
+     */
+    private ResultScanner scannerWithTimeSeries(int seconds, int failingFrom, int failingTo, int slowFrom, int slowTo) throws Exception {
+        StringBuilder contents = new StringBuilder("timeStamp,elapsed,label,success\n");
+        for (int second = 0; second < seconds; second++) {
+            boolean slow = second >= slowFrom && second < slowTo;
+            boolean failing = second >= failingFrom && second < failingTo;
+            for (int sample = 0; sample < (slow ? 1 : 10); sample++) {
+                contents.append(1548568300000L + second * 1000L + sample * 100L).append(",50,test-request,").append(!failing).append("\n");
+            }
+        }
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        resultsFile.deleteOnExit();
+        Files.write(resultsFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+        ResultScanner resultScanner = new ResultScannerCSV(true, true, false, Collections.emptyList()).setCollectStatistics(true);
+        resultScanner.parseResultFile(resultsFile);
+        return resultScanner;
+    }
+
+    private TimeWindowRule timeWindowRule(int windowInSeconds, Double maximumErrorPercentage, Double minimumThroughput) {
+        TimeWindowRule rule = new TimeWindowRule();
+        rule.setWindowInSeconds(windowInSeconds);
+        rule.setMaximumErrorPercentage(maximumErrorPercentage);
+        rule.setMinimumThroughput(minimumThroughput);
+        return rule;
+    }
+
+    @Test
+    public void outageIsDetectedInTimeWindow() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 20, scannerWithTimeSeries(300, 120, 150, 0, 0))
+                .setTimeWindowRules(Collections.singletonList(timeWindowRule(60, 20.0, null)));
+        decider.runChecks();
+
+        assertThat(decider.isErrorPercentageAboveThreshold()).isFalse();
+        assertThat(decider.getTimeWindowRuleViolations()).containsExactly(
+                "Error rate reached 50.0% in the 60s window starting 90s into the test, above accepted threshold 20.0%");
+        assertThat(decider.failBuild()).isTrue();
+    }
+
+    @Test
+    public void errorRateBelowThresholdInEveryTimeWindow() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 20, scannerWithTimeSeries(300, 120, 125, 0, 0))
+                .setTimeWindowRules(Collections.singletonList(timeWindowRule(60, 10.0, 10.0)));
+        decider.runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).isEmpty();
+        assertThat(decider.failBuild()).isFalse();
+    }
+
+    @Test
+    public void warmUpIsNotCheckedByTimeWindowRules() throws Exception {
+        ResultScanner resultScanner = scannerWithTimeSeries(300, 0, 20, 0, 30);
+        TestFailureDecider decider = new TestFailureDecider(false, 20, resultScanner)
+                .setTimeWindowRules(Arrays.asList(timeWindowRule(10, 5.0, null), timeWindowRule(10, null, 5.0)));
+        decider.runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).hasSize(2);
+
+        decider.setWarmUpInSeconds(30).runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).isEmpty();
+        assertThat(decider.failBuild()).isFalse();
+    }
+
+    @Test
+    public void coolDownIsNotCheckedByTimeWindowRules() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 20, scannerWithTimeSeries(300, 0, 0, 280, 300))
+                .setTimeWindowRules(Collections.singletonList(timeWindowRule(10, null, 5.0)))
+                .setCoolDownInSeconds(20);
+        decider.runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).isEmpty();
+
+        decider.setCoolDownInSeconds(0).runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).containsExactly(
+                "Throughput dropped to 1.0/s in the 10s window starting 280s into the test, below accepted minimum 5.0/s");
+    }
+
+    @Test
+    public void rangeShorterThanWindowIsCheckedAsOneWindow() throws Exception {
+        TestFailureDecider decider = new TestFailureDecider(false, 100, scannerWithTimeSeries(20, 5, 10, 0, 0))
+                .setTimeWindowRules(Collections.singletonList(timeWindowRule(60, 20.0, null)));
+        decider.runChecks();
+
+        assertThat(decider.getTimeWindowRuleViolations()).containsExactly(
+                "Error rate reached 26.32% in the 19s window starting 0s into the test, above accepted threshold 20.0%");
+    }
 }
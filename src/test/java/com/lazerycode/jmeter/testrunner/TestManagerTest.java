@@ -5,7 +5,10 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.lazerycode.jmeter.configuration.JMeterArgumentsArray;
 import com.lazerycode.jmeter.configuration.JMeterProcessJVMSettings;
+import com.lazerycode.jmeter.configuration.LiveAbortRule;
 import com.lazerycode.jmeter.configuration.RemoteConfiguration;
+import com.lazerycode.jmeter.results.ResultFileCompression;
+import com.lazerycode.jmeter.utility.OutputOverflowPolicy;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.assertj.core.api.ListAssert;
 import org.junit.Before;
@@ -14,7 +17,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -54,6 +61,36 @@ public class TestManagerTest {
         assertThat(testManager.getTestFilesDirectory()).isEqualTo(testFilesDirectory);
     }
 
+    @Test
+    public void checkAbortTestWhenErrorRateExceeded() {
+        testManager.setAbortTestWhenErrorRateExceeded(true)
+                .setErrorRateThresholdInPercent(2.5f)
+                .setAbortTestMinimumSamples(500);
+
+        assertThat(testManager.isAbortTestWhenErrorRateExceeded()).isTrue();
+        assertThat(testManager.getErrorRateThresholdInPercent()).isEqualTo(2.5f);
+        assertThat(testManager.getAbortTestMinimumSamples()).isEqualTo(500);
+    }
+
+    @Test
+    public void resultsFilesAreNotCompressedByDefault() throws Exception {
+        assertThat(testManager.getResultsFileCompression()).isEqualTo(ResultFileCompression.NONE);
+        assertThat(testManager.compressResultsFile("results.csv")).isEqualTo("results.csv");
+    }
+
+    @Test
+    public void resultsFileIsReplacedByCompressedFile() throws Exception {
+        File resultsFile = Files.createTempFile("results_", ".csv").toFile();
+        Files.write(resultsFile.toPath(), "timeStamp,elapsed,label".getBytes(StandardCharsets.UTF_8));
+        testManager.setResultsFileCompression(ResultFileCompression.GZIP);
+
+        File compressedFile = new File(testManager.compressResultsFile(resultsFile.getPath()));
+        compressedFile.deleteOnExit();
+
+        assertThat(compressedFile).isEqualTo(new File(resultsFile.getPath() + ".gz")).exists();
+        assertThat(resultsFile).doesNotExist();
+    }
+
     @Test
     public void checkRemoteServerConfiguration() {
         RemoteConfiguration remoteConfiguration = new RemoteConfiguration();
@@ -218,4 +255,95 @@ public class TestManagerTest {
     public void checkEmptyListIsReturnedIfTestFilesDirectoryIsNotSet() {
         assertThat(testManager.generateTestList()).isEqualTo(Collections.emptyList());
     }
+
+    @Test
+    public void checkTestExecutionThreads() {
+        testManager.setTestExecutionThreads(4);
+
+        assertThat(testManager.getTestExecutionThreads()).isEqualTo(4);
+
+        testManager.setTestExecutionThreads(0);
+
+        assertThat(testManager.getTestExecutionThreads()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void checkTestExecutionThreadsDefault() {
+        assertThat(testManager.getTestExecutionThreads()).isEqualTo(1);
+    }
+
+    @Test
+    public void checkJMeterOutputSettings() {
+        assertThat(testManager.getJMeterOutputCharset()).isEqualTo(Charset.defaultCharset());
+        assertThat(testManager.getJMeterOutputOverflowPolicy()).isEqualTo(OutputOverflowPolicy.BLOCK);
+        assertThat(testManager.getJMeterOutputDirectory()).isNull();
+
+        File outputDirectory = new File("logs");
+        testManager.setJMeterOutputCharset(StandardCharsets.UTF_8)
+                .setJMeterOutputOverflowPolicy(OutputOverflowPolicy.DROP)
+                .setJMeterOutputDirectory(outputDirectory);
+
+        assertThat(testManager.getJMeterOutputCharset()).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(testManager.getJMeterOutputOverflowPolicy()).isEqualTo(OutputOverflowPolicy.DROP);
+        assertThat(testManager.getJMeterOutputDirectory()).isEqualTo(outputDirectory);
+    }
+
+    @Test
+    public void checkLiveTelemetrySettings() {
+        LiveAbortRule rule = new LiveAbortRule();
+        File metricsDirectory = new File("logs");
+        testManager.setLiveProgressIntervalInSeconds(10)
+                .setLiveMetricsDirectory(metricsDirectory)
+                .setLiveAbortRule(rule);
+
+        assertThat(testManager.getLiveProgressIntervalInSeconds()).isEqualTo(10);
+        assertThat(testManager.getLiveMetricsDirectory()).isEqualTo(metricsDirectory);
+        assertThat(testManager.getLiveAbortRule()).isSameAs(rule);
+    }
+
+    @Test
+    public void checkReuseJMeterProcess() {
+        assertThat(testManager.isReuseJMeterProcess()).isFalse();
+
+        testManager.setReuseJMeterProcess(true);
+
+        assertThat(testManager.isReuseJMeterProcess()).isTrue();
+    }
+
+    @Test
+    public void testsAreGroupedBySerialTestGroupAndFileName() {
+        testManager.setSerialTestGroups(Collections.singletonList("checkout/"));
+        List<String> tests = Arrays.asList(
+                "one" + File.separator + "fake.jmx",
+                "three" + File.separator + "fake.jmx",
+                "two" + File.separator + "fake2.jmx",
+                "checkout" + File.separator + "a.jmx",
+                "checkout" + File.separator + "b.jmx"
+        );
+
+        assertThat(testManager.groupTests(tests)).containsExactly(
+                Arrays.asList(0, 1),
+                Collections.singletonList(2),
+                Arrays.asList(3, 4)
+        );
+    }
+
+    @Test
+    public void testArgumentsAreNotSharedBetweenTests() throws Exception {
+        File testFilesDirectory = new File(tempDir);
+        JMeterArgumentsArray baseTestArgs = new JMeterArgumentsArray(true, "/some/directory")
+                .setResultsDirectory(tempDir);
+        testManager.setBaseTestArgs(baseTestArgs)
+                .setRemoteServerConfiguration(new RemoteConfiguration())
+                .setTestFilesDirectory(testFilesDirectory);
+        List<String> tests = Arrays.asList("first.jmx", "second.jmx");
+
+        JMeterArgumentsArray first = testManager.testArgumentsFor(tests, 0).setTestFile(new File(testFilesDirectory, "first.jmx"), testFilesDirectory);
+        JMeterArgumentsArray second = testManager.testArgumentsFor(tests, 1).setTestFile(new File(testFilesDirectory, "second.jmx"), testFilesDirectory);
+
+        assertThat(first).isNotSameAs(baseTestArgs).isNotSameAs(second);
+        assertThat(first.getResultsLogFileName()).endsWith("first.jtl");
+        assertThat(second.getResultsLogFileName()).endsWith("second.jtl");
+        assertThat(baseTestArgs.getResultsLogFileName()).isNull();
+    }
 }
@@ -0,0 +1,70 @@
+package com.lazerycode.jmeter.utility;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FingerprintTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void sameValuesGiveTheSameFingerprint() {
+        String first = new Fingerprint().add("artifacts", Arrays.asList("a:b:1.0", "c:d:2.0")).add("download", true).getValue();
+        String second = new Fingerprint().add("artifacts", Arrays.asList("a:b:1.0", "c:d:2.0")).add("download", true).getValue();
+
+        assertThat(first).isEqualTo(second).hasSize(32);
+        assertThat(new Fingerprint().add("artifacts", Arrays.asList("a:b:1.0", "c:d:2.1")).add("download", true).getValue())
+                .isNotEqualTo(first);
+        assertThat(new Fingerprint().add("artifacts", Arrays.asList("a:b:1.0", "c:d:2.0")).add("download", false).getValue())
+                .isNotEqualTo(first);
+    }
+
+    @Test
+    public void mapsAreAddedSortedByKey() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("b", "2");
+        properties.put("a", "1");
+        Map<String, String> sameProperties = new HashMap<>();
+        sameProperties.put("a", "1");
+        sameProperties.put("b", "2");
+
+        assertThat(new Fingerprint().add("properties", properties).getValue())
+                .isEqualTo(new Fingerprint().add("properties", sameProperties).getValue());
+    }
+
+    @Test
+    public void filesAreAddedByContent() throws IOException {
+        File directory = temporaryFolder.newFolder("conf");
+        File file = new File(directory, "jaas.conf");
+        Files.write(file.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+        String fingerprint = new Fingerprint().addFile("conf", directory).getValue();
+
+        assertThat(file.setLastModified(file.lastModified() - 60_000)).isTrue();
+        assertThat(new Fingerprint().addFile("conf", directory).getValue()).isEqualTo(fingerprint);
+
+        Files.write(file.toPath(), "second".getBytes(StandardCharsets.UTF_8));
+        assertThat(new Fingerprint().addFile("conf", directory).getValue()).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void missingFilesAreAdded() throws IOException {
+        File missingFile = new File(temporaryFolder.getRoot(), "user.properties");
+        String fingerprint = new Fingerprint().addFile("user.properties", missingFile).getValue();
+
+        Files.write(missingFile.toPath(), new byte[0]);
+        assertThat(new Fingerprint().addFile("user.properties", missingFile).getValue()).isNotEqualTo(fingerprint);
+    }
+}
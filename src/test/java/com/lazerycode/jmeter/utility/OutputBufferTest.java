@@ -0,0 +1,105 @@
+package com.lazerycode.jmeter.utility;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutputBufferTest {
+
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return A consumer that does not accept anything until released
+     */
+    private Consumer<String> blockedConsumer(CountDownLatch started, CountDownLatch release) {
+        return line -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(line);
+        };
+    }
+
+    @Test
+    public void linesAreDeliveredInOrder() {
+        List<String> lines = new ArrayList<>();
+        try (OutputBuffer buffer = new OutputBuffer(4, OutputOverflowPolicy.BLOCK, delivered::add)) {
+            for (int i = 0; i < 1000; i++) {
+                lines.add("line " + i);
+                buffer.accept("line " + i);
+            }
+        }
+
+        assertThat(delivered).isEqualTo(lines);
+    }
+
+    @Test
+    public void linesThatDoNotFitAreDroppedAndCounted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputBuffer buffer = new OutputBuffer(4, OutputOverflowPolicy.DROP, blockedConsumer(started, release));
+        buffer.accept("first");
+        // Wait until the first line is being delivered, so that the buffer is empty again
+        started.await();
+        for (int i = 0; i < 10; i++) {
+            buffer.accept("line " + i);
+        }
+        release.countDown();
+        buffer.close();
+
+        assertThat(delivered).startsWith("first", "line 0", "line 1", "line 2", "line 3");
+        assertThat(delivered).hasSize(6);
+        assertThat(delivered.get(5)).contains("6 lines of output dropped");
+    }
+
+    @Test
+    public void onlySomeLinesAreKeptOnceTheBufferIsFillingUpWhenSampling() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputBuffer buffer = new OutputBuffer(100, OutputOverflowPolicy.SAMPLE, blockedConsumer(started, release));
+        buffer.accept("line 0");
+        started.await();
+        for (int i = 1; i < 1000; i++) {
+            buffer.accept("line " + i);
+        }
+        release.countDown();
+        buffer.close();
+
+        // 75 lines fill the buffer to three quarters, then one line in ten until it is full
+        assertThat(delivered).hasSize(102);
+        assertThat(delivered).contains("line 75", "line 76", "line 86", "line 316");
+        assertThat(delivered).doesNotContain("line 77", "line 85", "line 326");
+        assertThat(delivered.get(101)).contains("899 lines of output dropped");
+    }
+
+    @Test
+    public void streamIsReadWithTheGivenCharset() {
+        String output = "résumé\nnaïve\r\nlast";
+        try (OutputBuffer ignored = new OutputBuffer(OutputOverflowPolicy.BLOCK, delivered::add)
+                .readFrom(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8)) {
+            // Closing waits for the whole stream to be read and delivered
+        }
+
+        assertThat(delivered).containsExactly("résumé", "naïve", "last");
+    }
+
+    @Test
+    public void linesWrittenAfterCloseAreDeliveredStraightAway() {
+        OutputBuffer buffer = new OutputBuffer(OutputOverflowPolicy.DROP, delivered::add);
+        buffer.close();
+        buffer.accept("late");
+
+        assertThat(delivered).containsExactly("late");
+    }
+}